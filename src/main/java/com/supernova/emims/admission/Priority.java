@@ -0,0 +1,33 @@
+package com.supernova.emims.admission;
+
+/**
+ * Admission priority of an endpoint
+ * Lower priorities may only use part of the shared database limit, so under overload they
+ * are shed first and the remaining headroom goes to payments
+ *
+ * Sonar-compliant: Type-safe constants
+ */
+public enum Priority {
+
+    /** Payment writes; may use the whole shared limit */
+    HIGH(1.0),
+
+    /** Single-account reads */
+    NORMAL(0.85),
+
+    /** History, allocation listings and batch reads */
+    LOW(0.6);
+
+    private final double shareOfLimit;
+
+    Priority(double shareOfLimit) {
+        this.shareOfLimit = shareOfLimit;
+    }
+
+    /**
+     * @return the fraction of the shared limit requests of this priority may fill
+     */
+    public double shareOfLimit() {
+        return shareOfLimit;
+    }
+}
@@ -0,0 +1,238 @@
+package com.supernova.emims.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One immutable file of archived rows, sorted by loan account
+ * Rows are stored in independently GZIP-compressed blocks of a fixed number of rows. The sparse
+ * index at the end of the file holds the first account, position and row count of each block,
+ * so a lookup decompresses only the blocks that can hold the account. Layout:
+ * blocks, index (block count, then account/offset/length/rows per block, then min and max
+ * account), index offset, magic
+ *
+ * @param <T> the archived entity type
+ *
+ * Sonar-compliant: Proper resource management and immutability
+ */
+final class ColdSegment<T> {
+
+    private static final int MAGIC = 0x454D4953;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path file;
+    private final SegmentCodec<T> codec;
+    private final String[] firstAccounts;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final int[] rowCounts;
+    private final String minAccount;
+    private final String maxAccount;
+
+    private ColdSegment(Path file, SegmentCodec<T> codec, String[] firstAccounts, long[] offsets, int[] lengths,
+                        int[] rowCounts, String minAccount, String maxAccount) {
+        this.file = file;
+        this.codec = codec;
+        this.firstAccounts = firstAccounts;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.rowCounts = rowCounts;
+        this.minAccount = minAccount;
+        this.maxAccount = maxAccount;
+    }
+
+    /**
+     * Write a segment; the file appears only once complete
+     * @param file the segment file
+     * @param codec encoding of the rows
+     * @param rows rows sorted by loan account, and within an account newest first
+     * @param blockRows rows per compressed block
+     * @return the written segment, open for reading
+     */
+    static <T> ColdSegment<T> write(Path file, SegmentCodec<T> codec, List<T> rows, int blockRows) throws IOException {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one row");
+        }
+        int blocks = (rows.size() + blockRows - 1) / blockRows;
+        String[] firstAccounts = new String[blocks];
+        long[] offsets = new long[blocks];
+        int[] lengths = new int[blocks];
+        int[] rowCounts = new int[blocks];
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            ByteArrayOutputStream block = new ByteArrayOutputStream();
+            for (int b = 0; b < blocks; b++) {
+                int from = b * blockRows;
+                int to = Math.min(rows.size(), from + blockRows);
+                block.reset();
+                try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(block))) {
+                    for (int i = from; i < to; i++) {
+                        codec.write(out, rows.get(i));
+                    }
+                }
+                firstAccounts[b] = codec.loanAccountNo(rows.get(from));
+                offsets[b] = position;
+                lengths[b] = block.size();
+                rowCounts[b] = to - from;
+                position += writeFully(channel, ByteBuffer.wrap(block.toByteArray()));
+            }
+
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(index))) {
+                out.writeInt(blocks);
+                for (int b = 0; b < blocks; b++) {
+                    out.writeUTF(firstAccounts[b]);
+                    out.writeLong(offsets[b]);
+                    out.writeInt(lengths[b]);
+                    out.writeInt(rowCounts[b]);
+                }
+                out.writeUTF(codec.loanAccountNo(rows.get(0)));
+                out.writeUTF(codec.loanAccountNo(rows.get(rows.size() - 1)));
+                out.writeLong(position);
+                out.writeInt(MAGIC);
+            }
+            writeFully(channel, ByteBuffer.wrap(index.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        return new ColdSegment<>(file, codec, firstAccounts, offsets, lengths, rowCounts,
+                codec.loanAccountNo(rows.get(0)), codec.loanAccountNo(rows.get(rows.size() - 1)));
+    }
+
+    /**
+     * Open a segment by reading its index
+     * @param file the segment file
+     * @param codec encoding of the rows
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a complete segment
+     */
+    static <T> ColdSegment<T> open(Path file, SegmentCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_BYTES) {
+                throw new IOException("Not a segment file: " + file);
+            }
+            ByteBuffer footer = read(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC || indexOffset < 0 || indexOffset > size - FOOTER_BYTES) {
+                throw new IOException("Not a segment file: " + file);
+            }
+
+            ByteBuffer index = read(channel, indexOffset, (int) (size - FOOTER_BYTES - indexOffset));
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(index.array()))) {
+                int blocks = in.readInt();
+                String[] firstAccounts = new String[blocks];
+                long[] offsets = new long[blocks];
+                int[] lengths = new int[blocks];
+                int[] rowCounts = new int[blocks];
+                for (int b = 0; b < blocks; b++) {
+                    firstAccounts[b] = in.readUTF();
+                    offsets[b] = in.readLong();
+                    lengths[b] = in.readInt();
+                    rowCounts[b] = in.readInt();
+                }
+                String minAccount = in.readUTF();
+                String maxAccount = in.readUTF();
+                return new ColdSegment<>(file, codec, firstAccounts, offsets, lengths, rowCounts, minAccount,
+                        maxAccount);
+            }
+        }
+    }
+
+    /**
+     * Read the rows of one account
+     * @param loanAccountNo the loan account number
+     * @return the account's rows in stored order, empty if it has none here
+     */
+    List<T> find(String loanAccountNo) throws IOException {
+        List<T> found = new ArrayList<>();
+        if (!covers(loanAccountNo)) {
+            return found;
+        }
+
+        // The account may start in the last block whose first account sorts before it
+        int block = firstBlockFor(loanAccountNo);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (; block < firstAccounts.length && firstAccounts[block].compareTo(loanAccountNo) <= 0; block++) {
+                ByteBuffer compressed = read(channel, offsets[block], lengths[block]);
+                try (DataInputStream in = new DataInputStream(
+                        new GZIPInputStream(new ByteArrayInputStream(compressed.array())))) {
+                    for (int i = 0; i < rowCounts[block]; i++) {
+                        T row = codec.read(in);
+                        int order = codec.loanAccountNo(row).compareTo(loanAccountNo);
+                        if (order == 0) {
+                            found.add(row);
+                        } else if (order > 0) {
+                            return found;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    boolean covers(String loanAccountNo) {
+        return minAccount.compareTo(loanAccountNo) <= 0 && maxAccount.compareTo(loanAccountNo) >= 0;
+    }
+
+    int blockCount() {
+        return firstAccounts.length;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    private int firstBlockFor(String loanAccountNo) {
+        int low = 0;
+        int high = firstAccounts.length - 1;
+        int result = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstAccounts[mid].compareTo(loanAccountNo) < 0) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Segment file truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,227 @@
+package com.supernova.emims.archive;
+
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cold tier of receipts and allocations moved out of the LMS tables by {@link ColdArchiver}
+ * Segments live in emi.archive.dir; each archive run writes newer rows than the runs before it,
+ * so an account's cold rows, newest first, are its rows in each segment from the newest segment
+ * to the oldest. With no directory configured the tier is empty. The base tenant's segments live
+ * in the directory itself and every other tenant's in a subdirectory named after its code
+ *
+ * Sonar-compliant: Proper state management and thread safety
+ */
+@Component
+public class ColdStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdStore.class);
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final TenantRegistry tenantRegistry;
+    private final int blockRows;
+    private final Counter receiptReads;
+    private final Counter allocationReads;
+
+    // Tenant -> its segments; each entry is replaced, never modified
+    private final Map<String, Segments> segments = new ConcurrentHashMap<>();
+
+    public ColdStore(MeterRegistry meterRegistry,
+                     TenantRegistry tenantRegistry,
+                     @Value("${emi.archive.dir:}") String directory,
+                     @Value("${emi.archive.block-rows:256}") int blockRows) {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("emi.archive.block-rows must be at least 1: " + blockRows);
+        }
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.tenantRegistry = tenantRegistry;
+        this.blockRows = blockRows;
+        this.receiptReads = Counter.builder("emi.archive.cold.reads")
+                .description("History pages that read archived rows")
+                .tag("kind", SegmentCodecs.RECEIPTS.kind())
+                .register(meterRegistry);
+        this.allocationReads = Counter.builder("emi.archive.cold.reads")
+                .description("History pages that read archived rows")
+                .tag("kind", SegmentCodecs.ALLOCATIONS.kind())
+                .register(meterRegistry);
+        refresh();
+    }
+
+    /**
+     * @return true if a cold storage directory is configured
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Find one page of an account's archived receipts, newest first
+     * @param loanAccountNo the loan account number
+     * @param offset archived receipts to skip
+     * @param limit maximum number of receipts
+     * @return receipts, detached
+     */
+    public List<LmsReceiptPaymentDtl17557> findReceipts(String loanAccountNo, int offset, int limit) {
+        return find(segmentsOfCurrentTenant().receipts(), SegmentCodecs.RECEIPTS, receiptReads, loanAccountNo, offset, limit);
+    }
+
+    /**
+     * Find one page of an account's archived allocations, newest first
+     * @param loanAccountNo the loan account number
+     * @param offset archived allocations to skip
+     * @param limit maximum number of allocations
+     * @return allocations, detached
+     */
+    public List<LmsAllocationDtl17557> findAllocations(String loanAccountNo, int offset, int limit) {
+        return find(segmentsOfCurrentTenant().allocations(), SegmentCodecs.ALLOCATIONS, allocationReads, loanAccountNo, offset, limit);
+    }
+
+    /**
+     * Write a receipt segment of the current tenant and make it visible to readers
+     * @param rows receipts sorted by account, newest first within an account
+     * @param name unique segment name, ordered by archive run
+     */
+    void addReceipts(List<LmsReceiptPaymentDtl17557> rows, String name) throws IOException {
+        String tenant = TenantContext.current();
+        ColdSegment<LmsReceiptPaymentDtl17557> segment = write(tenant, SegmentCodecs.RECEIPTS, rows, name);
+        synchronized (this) {
+            Segments current = segments.getOrDefault(tenant, Segments.EMPTY);
+            segments.put(tenant, new Segments(prepend(segment, current.receipts()), current.allocations()));
+        }
+    }
+
+    /**
+     * Write an allocation segment of the current tenant and make it visible to readers
+     * @param rows allocations sorted by account, newest first within an account
+     * @param name unique segment name, ordered by archive run
+     */
+    void addAllocations(List<LmsAllocationDtl17557> rows, String name) throws IOException {
+        String tenant = TenantContext.current();
+        ColdSegment<LmsAllocationDtl17557> segment = write(tenant, SegmentCodecs.ALLOCATIONS, rows, name);
+        synchronized (this) {
+            Segments current = segments.getOrDefault(tenant, Segments.EMPTY);
+            segments.put(tenant, new Segments(current.receipts(), prepend(segment, current.allocations())));
+        }
+    }
+
+    /**
+     * Reload every tenant's segment lists, picking up segments archived by another node
+     */
+    @Scheduled(fixedDelayString = "${emi.archive.refresh-ms:60000}")
+    public synchronized void refresh() {
+        if (directory == null) {
+            return;
+        }
+        for (String tenant : tenantRegistry.codes()) {
+            Path tenantDirectory = directoryOf(tenant);
+            try {
+                Files.createDirectories(tenantDirectory);
+                segments.put(tenant, new Segments(load(tenantDirectory, SegmentCodecs.RECEIPTS),
+                        load(tenantDirectory, SegmentCodecs.ALLOCATIONS)));
+            } catch (IOException e) {
+                logger.warn("Cannot load cold segments from {}: {}", tenantDirectory, e.getMessage());
+            }
+        }
+    }
+
+    private Segments segmentsOfCurrentTenant() {
+        return segments.getOrDefault(TenantContext.current(), Segments.EMPTY);
+    }
+
+    private Path directoryOf(String tenant) {
+        return TenantContext.BASE_TENANT.equals(tenant) ? directory : directory.resolve(tenant);
+    }
+
+    private <T> List<T> find(List<ColdSegment<T>> segments, SegmentCodec<T> codec, Counter reads,
+                             String loanAccountNo, int offset, int limit) {
+        List<T> page = new ArrayList<>();
+        if (limit <= 0 || segments.isEmpty()) {
+            return page;
+        }
+        reads.increment();
+
+        // A segment written before its rows were deleted may be written again by the next run
+        Set<Long> seen = new HashSet<>();
+        int skipped = 0;
+        try {
+            for (ColdSegment<T> segment : segments) {
+                for (T row : segment.find(loanAccountNo)) {
+                    if (!seen.add(codec.id(row))) {
+                        continue;
+                    }
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        page.add(row);
+                        if (page.size() == limit) {
+                            return page;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read cold " + codec.kind() + " of " + loanAccountNo, e);
+        }
+        return page;
+    }
+
+    private <T> ColdSegment<T> write(String tenant, SegmentCodec<T> codec, List<T> rows, String name)
+            throws IOException {
+        if (directory == null) {
+            throw new IllegalStateException("emi.archive.dir is not configured");
+        }
+        Path tenantDirectory = Files.createDirectories(directoryOf(tenant));
+        return ColdSegment.write(tenantDirectory.resolve(codec.kind() + "-" + name + SEGMENT_SUFFIX), codec, rows,
+                blockRows);
+    }
+
+    private static <T> List<ColdSegment<T>> load(Path tenantDirectory, SegmentCodec<T> codec) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tenantDirectory,
+                codec.kind() + "-*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+
+        List<ColdSegment<T>> segments = new ArrayList<>(files.size());
+        for (Path file : files) {
+            segments.add(ColdSegment.open(file, codec));
+        }
+        return List.copyOf(segments);
+    }
+
+    private static <T> List<ColdSegment<T>> prepend(ColdSegment<T> segment, List<ColdSegment<T>> segments) {
+        List<ColdSegment<T>> updated = new ArrayList<>(segments.size() + 1);
+        updated.add(segment);
+        updated.addAll(segments);
+        return List.copyOf(updated);
+    }
+
+    private record Segments(List<ColdSegment<LmsReceiptPaymentDtl17557>> receipts,
+                            List<ColdSegment<LmsAllocationDtl17557>> allocations) {
+        // Newest first in both lists
+        private static final Segments EMPTY = new Segments(List.of(), List.of());
+    }
+}
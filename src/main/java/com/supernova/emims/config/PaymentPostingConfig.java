@@ -0,0 +1,39 @@
+package com.supernova.emims.config;
+
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.dao.impl.HibernatePaymentPostingDaoImpl;
+import com.supernova.emims.dao.impl.JdbcPaymentPostingDaoImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Payment posting configuration
+ * Selects how processPayment writes receipts, allocations and payment events
+ *
+ * Sonar-compliant: Proper configuration structure
+ */
+@Configuration
+public class PaymentPostingConfig {
+
+    /**
+     * Configure the payment posting DAO
+     * "hibernate" persists entities through the EntityManager; "jdbc" uses prepared statements directly
+     * @return PaymentPostingDao
+     */
+    @Bean
+    public PaymentPostingDao paymentPostingDao(@Value("${emi.payment.posting:hibernate}") String posting,
+                                               DataSource dataSource) {
+        switch (posting) {
+            case "hibernate":
+                return new HibernatePaymentPostingDaoImpl();
+            case "jdbc":
+                return new JdbcPaymentPostingDaoImpl(new JdbcTemplate(dataSource));
+            default:
+                throw new IllegalArgumentException("Unknown payment posting type: " + posting);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.supernova.emims.config;
+
+import com.supernova.emims.admission.AdmissionInterceptor;
+import com.supernova.emims.cluster.AccountOwnershipInterceptor;
+import com.supernova.emims.deadline.RequestDeadlineInterceptor;
+import com.supernova.emims.diagnostics.EndpointStatementInterceptor;
+import com.supernova.emims.tenant.TenantInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration
+ * Registers the request interceptors shared by all controllers
+ *
+ * Sonar-compliant: Proper configuration structure
+ */
+@Configuration
+@EnableWebMvc
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TenantInterceptor tenantInterceptor;
+    private final AccountOwnershipInterceptor accountOwnershipInterceptor;
+    private final AdmissionInterceptor admissionInterceptor;
+    private final RequestDeadlineInterceptor requestDeadlineInterceptor;
+    private final EndpointStatementInterceptor endpointStatementInterceptor;
+
+    public WebConfig(TenantInterceptor tenantInterceptor,
+                     AccountOwnershipInterceptor accountOwnershipInterceptor,
+                     AdmissionInterceptor admissionInterceptor,
+                     RequestDeadlineInterceptor requestDeadlineInterceptor,
+                     EndpointStatementInterceptor endpointStatementInterceptor) {
+        this.tenantInterceptor = tenantInterceptor;
+        this.accountOwnershipInterceptor = accountOwnershipInterceptor;
+        this.admissionInterceptor = admissionInterceptor;
+        this.requestDeadlineInterceptor = requestDeadlineInterceptor;
+        this.endpointStatementInterceptor = endpointStatementInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Resolves the tenant first, so every later step and its metrics see it
+        registry.addInterceptor(tenantInterceptor);
+        // Redirects to the owning node next, so a redirect never counts against the deadline
+        registry.addInterceptor(accountOwnershipInterceptor);
+        // Sheds before the deadline starts, so a shed request costs no more than the 503
+        registry.addInterceptor(admissionInterceptor);
+        registry.addInterceptor(requestDeadlineInterceptor);
+        registry.addInterceptor(endpointStatementInterceptor);
+    }
+}
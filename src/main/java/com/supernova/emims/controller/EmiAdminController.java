@@ -0,0 +1,131 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.admission.AdmissionLimiters;
+import com.supernova.emims.diagnostics.HibernateStatisticsReport;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * REST Controller for operational endpoints
+ * Exposes the application metrics, admission limits and Hibernate statistics for dashboards and troubleshooting
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/admin")
+public class EmiAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiAdminController.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AdmissionLimiters admissionLimiters;
+    private final HibernateStatisticsReport hibernateStatistics;
+
+    public EmiAdminController(MeterRegistry meterRegistry, AdmissionLimiters admissionLimiters,
+                              HibernateStatisticsReport hibernateStatistics) {
+        this.meterRegistry = meterRegistry;
+        this.admissionLimiters = admissionLimiters;
+        this.hibernateStatistics = hibernateStatistics;
+    }
+
+    /**
+     * Get current metric values
+     * @param prefix optional metric name prefix, e.g. emi.payment
+     * @return ResponseEntity with one entry per meter and tag combination
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics(@RequestParam(required = false) String prefix) {
+        logger.debug("Getting metrics with prefix: {}", prefix);
+
+        Map<String, Object> metrics = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            String name = meter.getId().getName();
+            if (prefix != null && !name.startsWith(prefix)) {
+                continue;
+            }
+            Map<String, Double> values = new TreeMap<>();
+            for (Measurement measurement : meter.measure()) {
+                values.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+            }
+            metrics.put(meterKey(meter), values);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("metrics", metrics);
+        response.put("message", "Metrics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the current adaptive concurrency limits
+     * @return ResponseEntity with the limit and in-flight count of the total and of each endpoint
+     */
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmission() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("limits", admissionLimiters.snapshot());
+        response.put("message", "Admission limits retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get the Hibernate statistics gathered since start-up or the last reset
+     * @param top number of queries to list, slowest in total first
+     * @return ResponseEntity with query, plan cache, entity, cache region and per-endpoint statement figures
+     */
+    @GetMapping("/hibernate")
+    public ResponseEntity<Map<String, Object>> getHibernateStatistics(@RequestParam(defaultValue = "20") int top) {
+        logger.debug("Getting Hibernate statistics, top {} queries", top);
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("statistics", hibernateStatistics.snapshot(top));
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.put("success", true);
+        response.put("message", "Hibernate statistics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Clear the Hibernate statistics, e.g. before measuring a change
+     * @return ResponseEntity confirming the reset
+     */
+    @PostMapping("/hibernate/reset")
+    public ResponseEntity<Map<String, Object>> resetHibernateStatistics() {
+        logger.info("Resetting Hibernate statistics");
+        hibernateStatistics.reset();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Hibernate statistics reset");
+        return ResponseEntity.ok(response);
+    }
+
+    private static String meterKey(Meter meter) {
+        StringBuilder key = new StringBuilder(meter.getId().getName());
+        for (Tag tag : meter.getId().getTags()) {
+            key.append(',').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return key.toString();
+    }
+}
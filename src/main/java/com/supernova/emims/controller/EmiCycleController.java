@@ -0,0 +1,101 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.dto.CycleProgress;
+import com.supernova.emims.service.EmiCycleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST Controller for EMI cycle generation
+ * Cycles normally run on schedule; these endpoints start a cycle by hand and report progress
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/cycles")
+public class EmiCycleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiCycleController.class);
+
+    private final EmiCycleService cycleService;
+
+    public EmiCycleController(EmiCycleService cycleService) {
+        this.cycleService = cycleService;
+    }
+
+    /**
+     * Start generating the installments of a cycle
+     * @param cycle the cycle as yyyy-MM
+     * @return ResponseEntity with the initial progress, 202 Accepted
+     */
+    @PostMapping("/{cycle}")
+    public ResponseEntity<Map<String, Object>> startCycle(@PathVariable String cycle) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            CycleProgress progress = cycleService.startCycle(YearMonth.parse(cycle));
+            logger.info("Started cycle {} for {} installments", cycle, progress.expectedRows());
+
+            response.put("success", true);
+            response.put("progress", progress);
+            response.put("message", "Cycle generation started");
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/emi/cycles/" + cycle)
+                    .body(response);
+
+        } catch (DateTimeParseException e) {
+            response.put("success", false);
+            response.put("message", "Cycle must be given as yyyy-MM: " + cycle);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (IllegalStateException e) {
+            logger.warn("Cycle {} not started: {}", cycle, e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (Exception e) {
+            logger.error("Error starting cycle {}", cycle, e);
+            response.put("success", false);
+            response.put("message", "Error starting cycle generation: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get the progress of a cycle run on this node
+     * @param cycle the cycle as yyyy-MM
+     * @return ResponseEntity with counts, rate and ETA
+     */
+    @GetMapping("/{cycle}")
+    public ResponseEntity<Map<String, Object>> getCycle(@PathVariable String cycle) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<CycleProgress> progress;
+        try {
+            progress = cycleService.getCycle(YearMonth.parse(cycle));
+        } catch (DateTimeParseException e) {
+            response.put("success", false);
+            response.put("message", "Cycle must be given as yyyy-MM: " + cycle);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        if (progress.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Cycle " + cycle + " has not run on this node");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        response.put("success", true);
+        response.put("progress", progress.get());
+        response.put("message", "Cycle progress retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+}
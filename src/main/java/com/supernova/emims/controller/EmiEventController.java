@@ -0,0 +1,42 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.outbox.OutboxEventStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the payment and allocation change feed
+ * Lets downstream systems tail committed payment events instead of polling history
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/events")
+public class EmiEventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiEventController.class);
+
+    private final OutboxEventStream eventStream;
+
+    public EmiEventController(OutboxEventStream eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    /**
+     * Tail payment events as Server-Sent Events
+     * Each event's id is its offset; reconnecting clients resume via Last-Event-ID
+     * @param fromOffset the last offset already consumed; omit for live events only
+     * @param lastEventId the standard SSE reconnect header, used when fromOffset is absent
+     * @return SseEmitter streaming events after the offset
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Long fromOffset,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long offset = fromOffset != null ? fromOffset : (lastEventId != null ? lastEventId : -1L);
+        logger.info("Opening payment event stream from offset {}", offset);
+        return eventStream.subscribe(offset);
+    }
+}
@@ -1,22 +1,42 @@
 package com.supernova.emims.controller;
 
+import com.supernova.emims.admission.AdmissionControlled;
+import com.supernova.emims.admission.Priority;
+import com.supernova.emims.cluster.AccountOwnershipInterceptor;
+import com.supernova.emims.cluster.ClusterMembership;
+import com.supernova.emims.deadline.DefaultDeadline;
+import com.supernova.emims.deadline.RequestDeadline;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.PaymentTicket;
+import com.supernova.emims.dto.ReceiptView;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
-import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.resilience.DatabaseUnavailableException;
+import com.supernova.emims.resilience.StaleReadCache;
+import com.supernova.emims.service.AsyncPaymentService;
 import com.supernova.emims.service.EmiManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST Controller for EMI Management operations
  * Provides REST endpoints for EMI calculations, payments, and allocations
+ * Every endpoint runs under a request deadline; a request that runs out of time answers 504.
+ * While the database circuit breaker is open, EMI details and payment history are served
+ * from the last successful read, flagged as stale, and everything else answers 503 at once
  *
  * Sonar-compliant: Proper REST design and error handling
  */
@@ -26,10 +46,31 @@ public class EmiManagementController {
 
     private static final Logger logger = LoggerFactory.getLogger(EmiManagementController.class);
 
-    private final EmiManagementService emiManagementService;
+    private static final String MODE_SYNC = "sync";
+    private static final String MODE_ASYNC = "async";
 
-    public EmiManagementController(EmiManagementService emiManagementService) {
+    private final EmiManagementService emiManagementService;
+    private final AsyncPaymentService asyncPaymentService;
+    private final ClusterMembership clusterMembership;
+    private final StaleReadCache staleReadCache;
+    private final int maxBatchAccounts;
+    private final int maxPageSize;
+    private final int retryAfterSeconds;
+
+    public EmiManagementController(EmiManagementService emiManagementService,
+                                   AsyncPaymentService asyncPaymentService,
+                                   ClusterMembership clusterMembership,
+                                   StaleReadCache staleReadCache,
+                                   @Value("${emi.batch.max-accounts:1000}") int maxBatchAccounts,
+                                   @Value("${emi.history.max-page-size:500}") int maxPageSize,
+                                   @Value("${emi.payment.async.retry-after-seconds:1}") int retryAfterSeconds) {
         this.emiManagementService = emiManagementService;
+        this.asyncPaymentService = asyncPaymentService;
+        this.clusterMembership = clusterMembership;
+        this.staleReadCache = staleReadCache;
+        this.maxBatchAccounts = maxBatchAccounts;
+        this.maxPageSize = maxPageSize;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     /**
@@ -38,6 +79,8 @@ public class EmiManagementController {
      * @return ResponseEntity with validation result
      */
     @GetMapping("/validate/{loanAccountNo}")
+    @DefaultDeadline(millis = 2000)
+    @AdmissionControlled(priority = Priority.NORMAL)
     public ResponseEntity<Map<String, Object>> validateLoanAccount(@PathVariable String loanAccountNo) {
         logger.info("Validating loan account: {}", loanAccountNo);
 
@@ -53,7 +96,13 @@ public class EmiManagementController {
             HttpStatus status = isValid ? HttpStatus.OK : HttpStatus.NOT_FOUND;
             return ResponseEntity.status(status).body(response);
 
+        } catch (DatabaseUnavailableException e) {
+            return databaseUnavailable(response, e);
+
         } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
             logger.error("Error validating loan account: {}", loanAccountNo, e);
             response.put("success", false);
             response.put("message", "Error validating loan account: " + e.getMessage());
@@ -67,18 +116,17 @@ public class EmiManagementController {
      * @return ResponseEntity with EMI details
      */
     @GetMapping("/calculate/{loanAccountNo}")
+    @DefaultDeadline(millis = 3000)
+    @AdmissionControlled(priority = Priority.NORMAL)
     public ResponseEntity<Map<String, Object>> calculateEmiDetails(@PathVariable String loanAccountNo) {
         logger.info("Calculating EMI details for loan account: {}", loanAccountNo);
 
         Map<String, Object> response = new HashMap<>();
         try {
             EmiManagementService.EmiDetails emiDetails = emiManagementService.calculateEmiDetails(loanAccountNo);
+            staleReadCache.putEmiDetails(emiDetails);
 
-            response.put("success", true);
-            response.put("loanAccountNo", emiDetails.getLoanAccountNo());
-            response.put("pendingEmiAmount", emiDetails.getPendingEmiAmount());
-            response.put("penaltyCharges", emiDetails.getPenaltyCharges());
-            response.put("totalAmount", emiDetails.getTotalAmount());
+            putEmiDetails(response, emiDetails);
             response.put("message", "EMI details calculated successfully");
 
             return ResponseEntity.ok(response);
@@ -89,7 +137,21 @@ public class EmiManagementController {
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
 
+        } catch (DatabaseUnavailableException e) {
+            Optional<StaleReadCache.Snapshot<EmiManagementService.EmiDetails>> snapshot =
+                    staleReadCache.getEmiDetails(loanAccountNo);
+            if (snapshot.isEmpty()) {
+                return databaseUnavailable(response, e);
+            }
+            putEmiDetails(response, snapshot.get().value());
+            putStale(response, snapshot.get());
+            response.put("message", "Database unavailable, EMI details as last read");
+            return ResponseEntity.ok(response);
+
         } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
             logger.error("Error calculating EMI details for loan account: {}", loanAccountNo, e);
             response.put("success", false);
             response.put("message", "Error calculating EMI details: " + e.getMessage());
@@ -97,17 +159,136 @@ public class EmiManagementController {
         }
     }
 
+    /**
+     * Validate several loan account numbers in one request
+     * @param request the batch request containing loanAccountNos
+     * @return ResponseEntity with one validation result per requested account, repeats included, in request order
+     */
+    @PostMapping("/validate/batch")
+    @DefaultDeadline(millis = 10000)
+    @AdmissionControlled(priority = Priority.LOW)
+    public ResponseEntity<Map<String, Object>> validateLoanAccounts(@RequestBody BatchRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, Object>> invalid = validateBatchRequest(request, response);
+        if (invalid != null) {
+            return invalid;
+        }
+        logger.info("Validating {} loan accounts", request.getLoanAccountNos().size());
+
+        try {
+            List<String> loanAccountNos = request.getLoanAccountNos();
+            List<Boolean> validity = emiManagementService.validateLoanAccounts(loanAccountNos);
+
+            List<Map<String, Object>> results = new ArrayList<>(validity.size());
+            for (int i = 0; i < loanAccountNos.size(); i++) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("loanAccountNo", loanAccountNos.get(i));
+                result.put("valid", validity.get(i));
+                results.add(result);
+            }
+
+            response.put("success", true);
+            response.put("results", results);
+            response.put("count", results.size());
+            response.put("message", "Loan accounts validated successfully");
+            return ResponseEntity.ok(response);
+
+        } catch (DatabaseUnavailableException e) {
+            return databaseUnavailable(response, e);
+
+        } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
+            logger.error("Error validating {} loan accounts", request.getLoanAccountNos().size(), e);
+            response.put("success", false);
+            response.put("message", "Error validating loan accounts: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Calculate EMI details for several loan accounts in one request
+     * @param request the batch request containing loanAccountNos
+     * @return ResponseEntity with EMI details per requested account, repeats included, in request order
+     */
+    @PostMapping("/calculate/batch")
+    @DefaultDeadline(millis = 10000)
+    @AdmissionControlled(priority = Priority.LOW)
+    public ResponseEntity<Map<String, Object>> calculateEmiDetails(@RequestBody BatchRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, Object>> invalid = validateBatchRequest(request, response);
+        if (invalid != null) {
+            return invalid;
+        }
+        logger.info("Calculating EMI details for {} loan accounts", request.getLoanAccountNos().size());
+
+        try {
+            List<String> loanAccountNos = request.getLoanAccountNos();
+            List<EmiManagementService.EmiDetails> details = emiManagementService.calculateEmiDetails(loanAccountNos);
+
+            List<Map<String, Object>> results = new ArrayList<>(details.size());
+            for (int i = 0; i < loanAccountNos.size(); i++) {
+                EmiManagementService.EmiDetails emiDetails = details.get(i);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("loanAccountNo", loanAccountNos.get(i));
+                result.put("found", emiDetails != null);
+                if (emiDetails != null) {
+                    staleReadCache.putEmiDetails(emiDetails);
+                    result.put("pendingEmiAmount", emiDetails.getPendingEmiAmount());
+                    result.put("penaltyCharges", emiDetails.getPenaltyCharges());
+                    result.put("totalAmount", emiDetails.getTotalAmount());
+                }
+                results.add(result);
+            }
+
+            response.put("success", true);
+            response.put("results", results);
+            response.put("count", results.size());
+            response.put("message", "EMI details calculated successfully");
+            return ResponseEntity.ok(response);
+
+        } catch (DatabaseUnavailableException e) {
+            return databaseUnavailable(response, e);
+
+        } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
+            logger.error("Error calculating EMI details for {} loan accounts", request.getLoanAccountNos().size(), e);
+            response.put("success", false);
+            response.put("message", "Error calculating EMI details: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Process payment for a loan account
+     * Payments for accounts owned by another node are redirected there with a 307,
+     * so all payments of one account are applied by the same node.
+     * With mode=async the payment is queued and a ticket is returned with 202 Accepted;
+     * a full queue answers 429 Too Many Requests with Retry-After
      * @param request the payment request containing loanAccountNo, paymentAmount, and paymentMode
+     * @param mode sync (default) or async
+     * @param httpRequest the servlet request, used to build the redirect
      * @return ResponseEntity with payment result
      */
     @PostMapping("/payment")
-    public ResponseEntity<Map<String, Object>> processPayment(@RequestBody PaymentRequest request) {
+    @DefaultDeadline(millis = 5000)
+    @AdmissionControlled(priority = Priority.HIGH)
+    public ResponseEntity<Map<String, Object>> processPayment(@RequestBody PaymentRequest request,
+                                                              @RequestParam(required = false) String mode,
+                                                              HttpServletRequest httpRequest) {
         logger.info("Processing payment for loan account: {}", request.getLoanAccountNo());
 
         Map<String, Object> response = new HashMap<>();
         try {
+            if (mode != null && !MODE_SYNC.equals(mode) && !MODE_ASYNC.equals(mode)) {
+                response.put("success", false);
+                response.put("message", "Payment mode parameter must be sync or async");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+
             // Validate request
             if (request.getLoanAccountNo() == null || request.getLoanAccountNo().trim().isEmpty()) {
                 response.put("success", false);
@@ -127,6 +308,28 @@ public class EmiManagementController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
             }
 
+            if (!clusterMembership.isLocal(request.getLoanAccountNo())) {
+                if (AccountOwnershipInterceptor.wasForwarded(httpRequest)) {
+                    logger.warn("Not redirecting payment for loan account {} again: nodes disagree on its owner",
+                            request.getLoanAccountNo());
+                    response.put("success", false);
+                    response.put("message", AccountOwnershipInterceptor.MISROUTED_MESSAGE);
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, String.valueOf(AccountOwnershipInterceptor.RETRY_AFTER_SECONDS))
+                            .body(response);
+                }
+                String location = AccountOwnershipInterceptor.ownerLocation(
+                        clusterMembership.ownerOf(request.getLoanAccountNo()), httpRequest);
+                logger.debug("Redirecting payment for loan account {} to {}", request.getLoanAccountNo(), location);
+                return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                        .header(HttpHeaders.LOCATION, location)
+                        .build();
+            }
+
+            if (MODE_ASYNC.equals(mode)) {
+                return submitPayment(request, response);
+            }
+
             // Process payment
             LmsReceiptPaymentDtl17557 receipt = emiManagementService.processPayment(
                     request.getLoanAccountNo(),
@@ -150,7 +353,13 @@ public class EmiManagementController {
             response.put("message", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 
+        } catch (DatabaseUnavailableException e) {
+            return databaseUnavailable(response, e);
+
         } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
             logger.error("Error processing payment", e);
             response.put("success", false);
             response.put("message", "Error processing payment: " + e.getMessage());
@@ -158,28 +367,70 @@ public class EmiManagementController {
         }
     }
 
+    /**
+     * Get the status of an asynchronously submitted payment
+     * @param ticketId the ticket ID returned by POST /payment?mode=async
+     * @return ResponseEntity with the ticket, including the receipt ID once posted
+     */
+    @GetMapping("/payment/ticket/{ticketId}")
+    public ResponseEntity<Map<String, Object>> getPaymentTicket(@PathVariable String ticketId) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<PaymentTicket> ticket = asyncPaymentService.getTicket(ticketId);
+        if (ticket.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Unknown payment ticket: " + ticketId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        response.put("success", true);
+        response.put("ticket", ticket.get());
+        response.put("message", "Payment ticket retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Get allocation details for a loan account
+     * Without limit, returns the allocations still in the table; with limit, returns one page
+     * that continues into archived allocations when it runs past them
      * @param loanAccountNo the loan account number
+     * @param offset allocations to skip, newest first
+     * @param limit page size, at most emi.history.max-page-size
      * @return ResponseEntity with allocation details
      */
     @GetMapping("/allocations/{loanAccountNo}")
-    public ResponseEntity<Map<String, Object>> getAllocationDetails(@PathVariable String loanAccountNo) {
+    @DefaultDeadline(millis = 5000)
+    @AdmissionControlled(priority = Priority.LOW)
+    public ResponseEntity<Map<String, Object>> getAllocationDetails(@PathVariable String loanAccountNo,
+                                                                    @RequestParam(defaultValue = "0") int offset,
+                                                                    @RequestParam(required = false) Integer limit) {
         logger.info("Getting allocation details for loan account: {}", loanAccountNo);
 
         Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, Object>> invalid = validatePage(offset, limit, response);
+        if (invalid != null) {
+            return invalid;
+        }
         try {
-            List<LmsAllocationDtl17557> allocations = emiManagementService.getAllocationDetails(loanAccountNo);
+            List<AllocationView> allocations = limit == null
+                    ? emiManagementService.getAllocationDetails(loanAccountNo)
+                    : emiManagementService.getAllocationDetails(loanAccountNo, offset, limit);
 
             response.put("success", true);
             response.put("loanAccountNo", loanAccountNo);
             response.put("allocations", allocations);
             response.put("count", allocations.size());
+            putPage(response, offset, limit);
             response.put("message", "Allocation details retrieved successfully");
 
             return ResponseEntity.ok(response);
 
+        } catch (DatabaseUnavailableException e) {
+            return databaseUnavailable(response, e);
+
         } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
             logger.error("Error getting allocation details for loan account: {}", loanAccountNo, e);
             response.put("success", false);
             response.put("message", "Error retrieving allocation details: " + e.getMessage());
@@ -189,26 +440,65 @@ public class EmiManagementController {
 
     /**
      * Get payment history for a loan account
+     * Without limit, returns the receipts still in the table; with limit, returns one page
+     * that continues into archived receipts when it runs past them
      * @param loanAccountNo the loan account number
+     * @param offset receipts to skip, newest first
+     * @param limit page size, at most emi.history.max-page-size
      * @return ResponseEntity with payment history
      */
     @GetMapping("/history/{loanAccountNo}")
-    public ResponseEntity<Map<String, Object>> getPaymentHistory(@PathVariable String loanAccountNo) {
+    @DefaultDeadline(millis = 5000)
+    @AdmissionControlled(priority = Priority.LOW)
+    public ResponseEntity<Map<String, Object>> getPaymentHistory(@PathVariable String loanAccountNo,
+                                                                 @RequestParam(defaultValue = "0") int offset,
+                                                                 @RequestParam(required = false) Integer limit) {
         logger.info("Getting payment history for loan account: {}", loanAccountNo);
 
         Map<String, Object> response = new HashMap<>();
+        ResponseEntity<Map<String, Object>> invalid = validatePage(offset, limit, response);
+        if (invalid != null) {
+            return invalid;
+        }
         try {
-            List<LmsReceiptPaymentDtl17557> payments = emiManagementService.getPaymentHistory(loanAccountNo);
+            List<ReceiptView> payments;
+            if (limit == null) {
+                payments = emiManagementService.getPaymentHistory(loanAccountNo);
+                staleReadCache.putHistory(loanAccountNo, payments);
+            } else {
+                payments = emiManagementService.getPaymentHistory(loanAccountNo, offset, limit);
+                if (offset == 0) {
+                    staleReadCache.putHistory(loanAccountNo, payments);
+                }
+            }
 
             response.put("success", true);
             response.put("loanAccountNo", loanAccountNo);
             response.put("payments", payments);
             response.put("count", payments.size());
+            putPage(response, offset, limit);
             response.put("message", "Payment history retrieved successfully");
 
             return ResponseEntity.ok(response);
 
+        } catch (DatabaseUnavailableException e) {
+            Optional<StaleReadCache.Snapshot<List<ReceiptView>>> snapshot =
+                    staleReadCache.getHistory(loanAccountNo);
+            if (snapshot.isEmpty()) {
+                return databaseUnavailable(response, e);
+            }
+            response.put("success", true);
+            response.put("loanAccountNo", loanAccountNo);
+            response.put("payments", snapshot.get().value());
+            response.put("count", snapshot.get().value().size());
+            putStale(response, snapshot.get());
+            response.put("message", "Database unavailable, most recent payments as last read");
+            return ResponseEntity.ok(response);
+
         } catch (Exception e) {
+            if (RequestDeadline.isExceeded(e)) {
+                return deadlineExceeded(response);
+            }
             logger.error("Error getting payment history for loan account: {}", loanAccountNo, e);
             response.put("success", false);
             response.put("message", "Error retrieving payment history: " + e.getMessage());
@@ -216,6 +506,121 @@ public class EmiManagementController {
         }
     }
 
+    private ResponseEntity<Map<String, Object>> submitPayment(PaymentRequest request, Map<String, Object> response) {
+        try {
+            PaymentTicket ticket = asyncPaymentService.submit(
+                    request.getLoanAccountNo(),
+                    request.getPaymentAmount(),
+                    request.getPaymentMode()
+            );
+
+            response.put("success", true);
+            response.put("ticket", ticket);
+            response.put("message", "Payment queued");
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/emi/payment/ticket/" + ticket.ticketId())
+                    .body(response);
+
+        } catch (IllegalStateException e) {
+            logger.warn("Payment for loan account {} not queued: {}", request.getLoanAccountNo(), e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(response);
+        }
+    }
+
+    private static void putEmiDetails(Map<String, Object> response, EmiManagementService.EmiDetails emiDetails) {
+        response.put("success", true);
+        response.put("loanAccountNo", emiDetails.getLoanAccountNo());
+        response.put("pendingEmiAmount", emiDetails.getPendingEmiAmount());
+        response.put("penaltyCharges", emiDetails.getPenaltyCharges());
+        response.put("totalAmount", emiDetails.getTotalAmount());
+    }
+
+    private static void putStale(Map<String, Object> response, StaleReadCache.Snapshot<?> snapshot) {
+        response.put("stale", true);
+        response.put("staleAsOf", snapshot.capturedAt());
+    }
+
+    private static ResponseEntity<Map<String, Object>> databaseUnavailable(Map<String, Object> response,
+                                                                           DatabaseUnavailableException e) {
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> deadlineExceeded(Map<String, Object> response) {
+        logger.warn("Request deadline exceeded");
+        response.put("success", false);
+        response.put("message", "Request deadline exceeded");
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> validateBatchRequest(BatchRequest request, Map<String, Object> response) {
+        if (request.getLoanAccountNos() == null || request.getLoanAccountNos().isEmpty()) {
+            response.put("success", false);
+            response.put("message", "At least one loan account number is required");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        if (request.getLoanAccountNos().size() > maxBatchAccounts) {
+            response.put("success", false);
+            response.put("message", "At most " + maxBatchAccounts + " loan account numbers are allowed per request");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        for (String loanAccountNo : request.getLoanAccountNos()) {
+            if (loanAccountNo == null || loanAccountNo.trim().isEmpty()) {
+                response.put("success", false);
+                response.put("message", "Loan account numbers must not be blank");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+        }
+        return null;
+    }
+
+    private ResponseEntity<Map<String, Object>> validatePage(int offset, Integer limit, Map<String, Object> response) {
+        if (offset < 0 || (offset > 0 && limit == null)) {
+            response.put("success", false);
+            response.put("message", "offset must not be negative and needs a limit");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        if (limit != null && (limit < 1 || limit > maxPageSize)) {
+            response.put("success", false);
+            response.put("message", "limit must be between 1 and " + maxPageSize);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        return null;
+    }
+
+    private static void putPage(Map<String, Object> response, int offset, Integer limit) {
+        if (limit != null) {
+            response.put("offset", offset);
+            response.put("limit", limit);
+        }
+    }
+
+    /**
+     * Inner class for batch account requests
+     */
+    public static class BatchRequest {
+        private List<String> loanAccountNos;
+
+        public BatchRequest() {}
+
+        public BatchRequest(List<String> loanAccountNos) {
+            this.loanAccountNos = loanAccountNos;
+        }
+
+        // Getters and Setters
+        public List<String> getLoanAccountNos() { return loanAccountNos; }
+        public void setLoanAccountNos(List<String> loanAccountNos) { this.loanAccountNos = loanAccountNos; }
+    }
+
     /**
      * Inner class for payment request
      */
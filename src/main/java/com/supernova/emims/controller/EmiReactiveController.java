@@ -0,0 +1,188 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiReactiveQueryService;
+import com.supernova.emims.stream.EmitterWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking REST Controller for the read-only EMI operations
+ * Mirrors the read endpoints of EmiManagementController, but releases the request
+ * thread while the lookup runs and streams payment history as newline-delimited JSON
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/rx")
+public class EmiReactiveController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiReactiveController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int STREAM_WINDOW = 32;
+
+    private final EmiReactiveQueryService reactiveQueryService;
+    private final Executor streamWriterExecutor;
+
+    public EmiReactiveController(EmiReactiveQueryService reactiveQueryService,
+                                 @Qualifier("emiStreamWriterExecutor") Executor streamWriterExecutor) {
+        this.reactiveQueryService = reactiveQueryService;
+        this.streamWriterExecutor = streamWriterExecutor;
+    }
+
+    /**
+     * Validate loan account number without blocking the request thread
+     * @param loanAccountNo the loan account number
+     * @return future ResponseEntity with validation result
+     */
+    @GetMapping("/validate/{loanAccountNo}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> validateLoanAccount(@PathVariable String loanAccountNo) {
+        logger.info("Validating loan account (async): {}", loanAccountNo);
+
+        return reactiveQueryService.validateLoanAccount(loanAccountNo)
+                .thenApply(isValid -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("valid", isValid);
+                    response.put("loanAccountNo", loanAccountNo);
+                    response.put("message", isValid ? "Loan account exists" : "Loan account does not exist");
+                    return ResponseEntity.status(isValid ? HttpStatus.OK : HttpStatus.NOT_FOUND).body(response);
+                })
+                .exceptionally(e -> errorResponse("Error validating loan account", loanAccountNo, e));
+    }
+
+    /**
+     * Calculate EMI details without blocking the request thread
+     * @param loanAccountNo the loan account number
+     * @return future ResponseEntity with EMI details
+     */
+    @GetMapping("/calculate/{loanAccountNo}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> calculateEmiDetails(@PathVariable String loanAccountNo) {
+        logger.info("Calculating EMI details (async) for loan account: {}", loanAccountNo);
+
+        return reactiveQueryService.calculateEmiDetails(loanAccountNo)
+                .thenApply(emiDetails -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("loanAccountNo", emiDetails.getLoanAccountNo());
+                    response.put("pendingEmiAmount", emiDetails.getPendingEmiAmount());
+                    response.put("penaltyCharges", emiDetails.getPenaltyCharges());
+                    response.put("totalAmount", emiDetails.getTotalAmount());
+                    response.put("message", "EMI details calculated successfully");
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> errorResponse("Error calculating EMI details", loanAccountNo, e));
+    }
+
+    /**
+     * Get allocation details without blocking the request thread
+     * @param loanAccountNo the loan account number
+     * @return future ResponseEntity with allocation details
+     */
+    @GetMapping("/allocations/{loanAccountNo}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getAllocationDetails(@PathVariable String loanAccountNo) {
+        logger.info("Getting allocation details (async) for loan account: {}", loanAccountNo);
+
+        return reactiveQueryService.getAllocationDetails(loanAccountNo)
+                .thenApply(allocations -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("loanAccountNo", loanAccountNo);
+                    response.put("allocations", allocations);
+                    response.put("count", allocations.size());
+                    response.put("message", "Allocation details retrieved successfully");
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> errorResponse("Error retrieving allocation details", loanAccountNo, e));
+    }
+
+    /**
+     * Stream payment history as newline-delimited JSON
+     * The next receipt is only requested once the previous one has been written,
+     * so a slow client slows the database reads instead of growing a buffer.
+     * Receipts are written by the stream writer executor; the read workers only queue them
+     * @param loanAccountNo the loan account number
+     * @return emitter streaming one receipt per line
+     */
+    @GetMapping(value = "/history/{loanAccountNo}", produces = "application/x-ndjson")
+    public ResponseBodyEmitter streamPaymentHistory(@PathVariable String loanAccountNo) {
+        logger.info("Streaming payment history for loan account: {}", loanAccountNo);
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        reactiveQueryService.streamPaymentHistory(loanAccountNo).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private EmitterWriter<ReceiptView> writer;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                // At most STREAM_WINDOW receipts are requested and not yet written
+                this.writer = new EmitterWriter<>(emitter, (target, receipt) -> {
+                    target.send(receipt, MediaType.APPLICATION_JSON);
+                    target.send("\n", NDJSON);
+                }, streamWriterExecutor, STREAM_WINDOW, written -> subscription.request(1));
+                emitter.onTimeout(this::stop);
+                emitter.onError(e -> {
+                    logger.warn("Client disconnected while streaming history for loan account: {}", loanAccountNo);
+                    stop();
+                });
+                subscription.request(STREAM_WINDOW);
+            }
+
+            @Override
+            public void onNext(ReceiptView receipt) {
+                if (!writer.offer(receipt)) {
+                    subscription.cancel();
+                    writer.fail(new IllegalStateException("History stream closed"));
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                logger.error("Error streaming payment history for loan account: {}", loanAccountNo, throwable);
+                writer.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                writer.complete();
+            }
+
+            private void stop() {
+                subscription.cancel();
+                writer.cancel();
+            }
+        });
+        return emitter;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message, String loanAccountNo, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        if (cause instanceof IllegalArgumentException) {
+            logger.warn("Invalid loan account: {}", loanAccountNo);
+            response.put("message", cause.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        logger.error("{} for loan account: {}", message, loanAccountNo, cause);
+        response.put("message", message + ": " + cause.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+}
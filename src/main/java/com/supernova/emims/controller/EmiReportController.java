@@ -0,0 +1,123 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.dto.RollupTotal;
+import com.supernova.emims.service.EmiReportingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * REST Controller for finance reporting
+ * Serves date-range totals by payment mode and allocation type from the daily rollups
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/reports")
+public class EmiReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiReportController.class);
+
+    private final EmiReportingService reportingService;
+
+    public EmiReportController(EmiReportingService reportingService) {
+        this.reportingService = reportingService;
+    }
+
+    /**
+     * Get receipt totals per payment mode
+     * @param from the first day (inclusive), yyyy-MM-dd
+     * @param to the last day (inclusive), yyyy-MM-dd
+     * @return ResponseEntity with totals per payment mode
+     */
+    @GetMapping("/payment-modes")
+    public ResponseEntity<Map<String, Object>> getPaymentModeTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Getting payment mode totals from {} to {}", from, to);
+        return totals(from, to, reportingService::getPaymentModeTotals, "payment mode");
+    }
+
+    /**
+     * Get allocation totals per allocation type
+     * @param from the first day (inclusive), yyyy-MM-dd
+     * @param to the last day (inclusive), yyyy-MM-dd
+     * @return ResponseEntity with totals per allocation type
+     */
+    @GetMapping("/allocations")
+    public ResponseEntity<Map<String, Object>> getAllocationTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Getting allocation totals from {} to {}", from, to);
+        return totals(from, to, reportingService::getAllocationTotals, "allocation");
+    }
+
+    /**
+     * Rebuild the rollups of a closed day from the underlying tables
+     * @param day the day to rebuild, yyyy-MM-dd
+     * @return ResponseEntity with the recompute result
+     */
+    @PostMapping("/recompute")
+    public ResponseEntity<Map<String, Object>> recomputeDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        logger.info("Recomputing daily rollups for {}", day);
+
+        Map<String, Object> response = new HashMap<>();
+        if (!day.isBefore(LocalDate.now())) {
+            response.put("success", false);
+            response.put("message", "Only closed days can be recomputed");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        try {
+            boolean recomputed = reportingService.recomputeDay(day);
+            response.put("success", recomputed);
+            response.put("day", day.toString());
+            response.put("message", recomputed ? "Daily rollups recomputed successfully"
+                    : "Payment events of this day are not applied yet, retry later");
+            return ResponseEntity.status(recomputed ? HttpStatus.OK : HttpStatus.CONFLICT).body(response);
+
+        } catch (Exception e) {
+            logger.error("Error recomputing daily rollups for {}", day, e);
+            response.put("success", false);
+            response.put("message", "Error recomputing daily rollups: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> totals(LocalDate from, LocalDate to,
+                                                       BiFunction<LocalDate, LocalDate, List<RollupTotal>> query,
+                                                       String reportName) {
+        Map<String, Object> response = new HashMap<>();
+        if (to.isBefore(from)) {
+            response.put("success", false);
+            response.put("message", "'to' must not be before 'from'");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        try {
+            List<RollupTotal> totals = query.apply(from, to);
+            response.put("success", true);
+            response.put("from", from.toString());
+            response.put("to", to.toString());
+            response.put("totals", totals);
+            response.put("message", "Report generated successfully");
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error generating {} report from {} to {}", reportName, from, to, e);
+            response.put("success", false);
+            response.put("message", "Error generating report: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.supernova.emims.controller;
+
+import com.supernova.emims.dto.ReversalProgress;
+import com.supernova.emims.service.EmiReversalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST Controller for bulk payment reversal
+ * Reversals run as background jobs; the submit call returns a job ID to poll for progress
+ *
+ * Sonar-compliant: Proper REST design and error handling
+ */
+@RestController
+@RequestMapping("/api/emi/reversals")
+public class EmiReversalController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiReversalController.class);
+
+    private final EmiReversalService reversalService;
+
+    public EmiReversalController(EmiReversalService reversalService) {
+        this.reversalService = reversalService;
+    }
+
+    /**
+     * Start reversing a set of receipts
+     * @param request the reversal request containing receiptIds
+     * @return ResponseEntity with the job ID and initial progress, 202 Accepted
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startReversal(@RequestBody ReversalRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            ReversalProgress progress = reversalService.startReversal(request.getReceiptIds());
+            logger.info("Started reversal job {} for {} receipts", progress.jobId(), progress.requested());
+
+            response.put("success", true);
+            response.put("progress", progress);
+            response.put("message", "Reversal started");
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.LOCATION, "/api/emi/reversals/" + progress.jobId())
+                    .body(response);
+
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid reversal request: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (IllegalStateException e) {
+            logger.warn("Reversal rejected: {}", e.getMessage());
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+
+        } catch (Exception e) {
+            logger.error("Error starting reversal", e);
+            response.put("success", false);
+            response.put("message", "Error starting reversal: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get the progress of a reversal job
+     * @param jobId the job ID returned when the reversal was started
+     * @return ResponseEntity with counts, rate and ETA
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getReversal(@PathVariable String jobId) {
+        Map<String, Object> response = new HashMap<>();
+        Optional<ReversalProgress> progress = reversalService.getReversal(jobId);
+        if (progress.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Unknown reversal job: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+
+        response.put("success", true);
+        response.put("progress", progress.get());
+        response.put("message", "Reversal progress retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Inner class for reversal request
+     */
+    public static class ReversalRequest {
+        private List<Long> receiptIds;
+
+        public ReversalRequest() {}
+
+        public ReversalRequest(List<Long> receiptIds) {
+            this.receiptIds = receiptIds;
+        }
+
+        // Getters and Setters
+        public List<Long> getReceiptIds() { return receiptIds; }
+        public void setReceiptIds(List<Long> receiptIds) { this.receiptIds = receiptIds; }
+    }
+}
@@ -1,5 +1,7 @@
 package com.supernova.emims.dao;
 
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.entity.AllocationType;
 import com.supernova.emims.entity.LmsAllocationDtl17557;
 import java.util.List;
 
@@ -19,18 +21,34 @@ public interface LmsAllocationDao {
     LmsAllocationDtl17557 save(LmsAllocationDtl17557 allocation);
 
     /**
-     * Find all allocations for a loan account
+     * Find all allocations for a loan account, newest first, as read-only views
      * @param loanAccountNo the loan account number
      * @return list of allocations for the account
      */
-    List<LmsAllocationDtl17557> findByLoanAccountNo(String loanAccountNo);
+    List<AllocationView> findByLoanAccountNo(String loanAccountNo);
+
+    /**
+     * Find one page of allocations for a loan account, newest first, as read-only views
+     * @param loanAccountNo the loan account number
+     * @param offset the number of allocations to skip
+     * @param limit the maximum number of allocations to return
+     * @return list of allocations in the requested page
+     */
+    List<AllocationView> findByLoanAccountNo(String loanAccountNo, int offset, int limit);
+
+    /**
+     * Count the allocations of a loan account
+     * @param loanAccountNo the loan account number
+     * @return number of allocations in the table
+     */
+    long countByLoanAccountNo(String loanAccountNo);
 
     /**
      * Find allocations by allocation type
-     * @param allocatedTo the allocation type (Penalty or EMI)
+     * @param allocatedTo the allocation type
      * @return list of allocations for the specified type
      */
-    List<LmsAllocationDtl17557> findByAllocatedTo(String allocatedTo);
+    List<LmsAllocationDtl17557> findByAllocatedTo(AllocationType allocatedTo);
 
     /**
      * Get total allocated amount for a loan account
@@ -45,7 +63,7 @@ public interface LmsAllocationDao {
      * @param allocatedTo the allocation type
      * @return total allocated amount for the specified type
      */
-    java.math.BigDecimal getTotalAllocatedAmountByType(String loanAccountNo, String allocatedTo);
+    java.math.BigDecimal getTotalAllocatedAmountByType(String loanAccountNo, AllocationType allocatedTo);
 
     /**
      * Delete all allocations for a loan account
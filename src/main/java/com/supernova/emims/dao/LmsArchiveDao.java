@@ -0,0 +1,55 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DAO interface for moving aged receipts and allocations out of the LMS tables
+ * Aged rows are read one range of loan accounts at a time, sorted the way cold segments store
+ * them, and deleted by ID once their segment is on disk
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsArchiveDao {
+
+    /**
+     * Find the next loan accounts that have receipts or allocations older than the cutoff
+     * @param cutoff rows dated before this are aged
+     * @param afterLoanAccountNo only accounts after this one, null for the first
+     * @param limit maximum number of accounts
+     * @return accounts in ascending order
+     */
+    List<String> findAccountsWithAgedRows(LocalDate cutoff, String afterLoanAccountNo, int limit);
+
+    /**
+     * Find the aged receipts of a range of accounts
+     * @param firstLoanAccountNo first account of the range
+     * @param lastLoanAccountNo last account of the range
+     * @param cutoff receipts dated before this are aged
+     * @return receipts by account, newest first within an account
+     */
+    List<LmsReceiptPaymentDtl17557> findAgedReceipts(String firstLoanAccountNo, String lastLoanAccountNo, LocalDate cutoff);
+
+    /**
+     * Find the aged allocations of a range of accounts
+     * @param firstLoanAccountNo first account of the range
+     * @param lastLoanAccountNo last account of the range
+     * @param cutoff allocations dated before this are aged
+     * @return allocations by account, newest first within an account
+     */
+    List<LmsAllocationDtl17557> findAgedAllocations(String firstLoanAccountNo, String lastLoanAccountNo, LocalDate cutoff);
+
+    /**
+     * Delete receipts by ID in one JDBC batch
+     * @param receiptIds the receipt IDs
+     */
+    void deleteReceipts(List<Long> receiptIds);
+
+    /**
+     * Delete allocations by ID in one JDBC batch
+     * @param allocationIds the allocation IDs
+     */
+    void deleteAllocations(List<Long> allocationIds);
+}
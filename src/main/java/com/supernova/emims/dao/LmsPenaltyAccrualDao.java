@@ -0,0 +1,35 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.dto.AccruingInstallment;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO interface for the daily penalty accrual
+ * Overdue installments are walked in ID order, one chunk per transaction. Writes must run
+ * inside the caller's transaction
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface LmsPenaltyAccrualDao {
+
+    /**
+     * Find open installments with EMI pending past their due date and not yet accrued up to a day
+     * @param asOf the day penalties are accrued up to
+     * @param afterReceivableId only installments after this ID, null for the first chunk
+     * @param limit maximum number of installments
+     * @return installments in ID order
+     */
+    List<AccruingInstallment> findAccruing(LocalDate asOf, Long afterReceivableId, int limit);
+
+    /**
+     * Add accrued penalties in one JDBC batch, each unless its installment changed since it was read
+     * An installment changed by a concurrent payment keeps its accrued date and catches up on the next run
+     * @param penalties penalty accrued since the last accrual, per installment as read
+     * @param asOf the day the penalties are now accrued up to
+     * @return number of installments updated
+     */
+    int addPenalties(Map<AccruingInstallment, BigDecimal> penalties, LocalDate asOf);
+}
@@ -1,6 +1,8 @@
 package com.supernova.emims.dao;
 
+import com.supernova.emims.dto.ReceiptView;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,18 +29,45 @@ public interface LmsReceiptPaymentDao {
     Optional<LmsReceiptPaymentDtl17557> findById(Long id);
 
     /**
-     * Find all receipts for a loan account
+     * Find all receipts for a loan account, newest first, as read-only views
      * @param loanAccountNo the loan account number
      * @return list of receipts for the account
      */
-    List<LmsReceiptPaymentDtl17557> findByLoanAccountNo(String loanAccountNo);
+    List<ReceiptView> findByLoanAccountNo(String loanAccountNo);
+
+    /**
+     * Find one page of receipts for a loan account, newest first, as read-only views
+     * @param loanAccountNo the loan account number
+     * @param offset the number of receipts to skip
+     * @param limit the maximum number of receipts to return
+     * @return list of receipts in the requested page
+     */
+    List<ReceiptView> findByLoanAccountNo(String loanAccountNo, int offset, int limit);
+
+    /**
+     * Find the receipts of a loan account that follow a given receipt, newest first
+     * The page starts from the position of the last receipt read rather than a row count, so
+     * receipts posted while a history is read do not shift it, and deep pages cost the same as the first
+     * @param loanAccountNo the loan account number
+     * @param after the last receipt of the previous page, null for the first page
+     * @param limit the maximum number of receipts to return
+     * @return list of receipts following the given one
+     */
+    List<ReceiptView> findByLoanAccountNoAfter(String loanAccountNo, ReceiptView after, int limit);
+
+    /**
+     * Count the receipts of a loan account
+     * @param loanAccountNo the loan account number
+     * @return number of receipts in the table
+     */
+    long countByLoanAccountNo(String loanAccountNo);
 
     /**
      * Find receipts by payment mode
      * @param paymentMode the payment mode
      * @return list of receipts with the specified payment mode
      */
-    List<LmsReceiptPaymentDtl17557> findByPaymentMode(String paymentMode);
+    List<LmsReceiptPaymentDtl17557> findByPaymentMode(PaymentMode paymentMode);
 
     /**
      * Get total payment amount for a loan account
@@ -1,8 +1,12 @@
 package com.supernova.emims.dao;
 
+import com.supernova.emims.dto.ReceivableBalance;
 import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * DAO interface for LMS_RECEIVABLEPAYBLE_DTL_17557 operations
@@ -34,11 +38,29 @@ public interface LmsReceivablePayableDao {
     List<LmsReceivablePayableDtl17557> findByLoanAccountNo(String loanAccountNo);
 
     /**
-     * Find the latest receivable for a loan account
+     * Find the outstanding balance of a loan account, summed over its installments
      * @param loanAccountNo the loan account number
-     * @return Optional containing the latest receivable if found
+     * @return Optional containing the balance if the account has receivables; zero when all are settled
      */
-    Optional<LmsReceivablePayableDtl17557> findLatestByLoanAccountNo(String loanAccountNo);
+    Optional<ReceivableBalance> findOutstandingByLoanAccountNo(String loanAccountNo);
+
+    /**
+     * Find the outstanding balance of each of several loan accounts, summed over their installments
+     * Accounts without receivables are simply absent from the result
+     * @param loanAccountNos the loan account numbers
+     * @return balance per account, in no particular order
+     */
+    List<ReceivableBalance> findOutstandingByLoanAccountNos(Collection<String> loanAccountNos);
+
+    /**
+     * Stream the open installments of a loan account, oldest first
+     * An installment is open while it has pending EMI or penalty. Rows are fetched lazily,
+     * so stopping early only reads the installments actually consumed.
+     * The stream must be closed and consumed inside the calling transaction
+     * @param loanAccountNo the loan account number
+     * @return open installments ordered by created date, then ID
+     */
+    Stream<LmsReceivablePayableDtl17557> streamOpenInstallments(String loanAccountNo);
 
     /**
      * Check if a loan account exists
@@ -47,6 +69,26 @@ public interface LmsReceivablePayableDao {
      */
     boolean existsByLoanAccountNo(String loanAccountNo);
 
+    /**
+     * Find which of several loan accounts exist
+     * @param loanAccountNos the loan account numbers
+     * @return the subset of account numbers that have at least one receivable
+     */
+    Set<String> findExistingLoanAccountNos(Collection<String> loanAccountNos);
+
+    /**
+     * Replace the balances of a receivable if it is still at the version that was read
+     * Runs as a single conditional UPDATE that also bumps the version, so concurrent
+     * payments never overwrite each other and no row lock is held across the read
+     * @param receivable the receivable as read, carrying the expected version
+     * @param pendingEmiAmount the new pending EMI amount
+     * @param penaltyCharges the new penalty charges
+     * @return true if the row was updated, false if another transaction changed it first
+     */
+    boolean updateBalanceIfUnchanged(LmsReceivablePayableDtl17557 receivable,
+                                     java.math.BigDecimal pendingEmiAmount,
+                                     java.math.BigDecimal penaltyCharges);
+
     /**
      * Delete all receivables for a loan account
      * @param loanAccountNo the loan account number
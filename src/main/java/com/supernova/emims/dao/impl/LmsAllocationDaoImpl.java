@@ -1,10 +1,15 @@
 package com.supernova.emims.dao.impl;
 
 import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.UsePool;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.entity.AllocationType;
 import com.supernova.emims.entity.LmsAllocationDtl17557;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +26,15 @@ import java.util.List;
 @Transactional
 public class LmsAllocationDaoImpl implements LmsAllocationDao {
 
+    private static final String ACCOUNT_ALLOCATIONS_JPQL =
+            "SELECT new com.supernova.emims.dto.AllocationView(a.allocationId, a.loanAccountNo, a.allocatedTo, "
+            + "a.allocatedAmount, a.allocationDate, a.receivableId, a.receiptId, a.reversedAllocationId) "
+            + "FROM LmsAllocationDtl17557 a WHERE a.loanAccountNo = :loanAccountNo "
+            + "ORDER BY a.allocationDate DESC, a.allocationId DESC";
+
+    // Two allocations per payment on average, so twice the receipt history fetch size
+    private static final int ALLOCATION_FETCH_SIZE = 200;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -36,17 +50,36 @@ public class LmsAllocationDaoImpl implements LmsAllocationDao {
 
     @Override
     @Transactional(readOnly = true)
-    public List<LmsAllocationDtl17557> findByLoanAccountNo(String loanAccountNo) {
-        TypedQuery<LmsAllocationDtl17557> query = entityManager.createQuery(
-                "SELECT a FROM LmsAllocationDtl17557 a WHERE a.loanAccountNo = :loanAccountNo ORDER BY a.allocationDate DESC",
-                LmsAllocationDtl17557.class);
+    public List<AllocationView> findByLoanAccountNo(String loanAccountNo) {
+        TypedQuery<AllocationView> query = entityManager.createQuery(ACCOUNT_ALLOCATIONS_JPQL, AllocationView.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, ALLOCATION_FETCH_SIZE);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AllocationView> findByLoanAccountNo(String loanAccountNo, int offset, int limit) {
+        TypedQuery<AllocationView> query = entityManager.createQuery(ACCOUNT_ALLOCATIONS_JPQL, AllocationView.class);
         query.setParameter("loanAccountNo", loanAccountNo);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, Math.max(1, Math.min(limit, ALLOCATION_FETCH_SIZE)));
         return query.getResultList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<LmsAllocationDtl17557> findByAllocatedTo(String allocatedTo) {
+    public long countByLoanAccountNo(String loanAccountNo) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(a) FROM LmsAllocationDtl17557 a WHERE a.loanAccountNo = :loanAccountNo", Long.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        return query.getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LmsAllocationDtl17557> findByAllocatedTo(AllocationType allocatedTo) {
         TypedQuery<LmsAllocationDtl17557> query = entityManager.createQuery(
                 "SELECT a FROM LmsAllocationDtl17557 a WHERE a.allocatedTo = :allocatedTo ORDER BY a.allocationDate DESC",
                 LmsAllocationDtl17557.class);
@@ -66,7 +99,7 @@ public class LmsAllocationDaoImpl implements LmsAllocationDao {
 
     @Override
     @Transactional(readOnly = true)
-    public BigDecimal getTotalAllocatedAmountByType(String loanAccountNo, String allocatedTo) {
+    public BigDecimal getTotalAllocatedAmountByType(String loanAccountNo, AllocationType allocatedTo) {
         TypedQuery<BigDecimal> query = entityManager.createQuery(
                 "SELECT COALESCE(SUM(a.allocatedAmount), 0) FROM LmsAllocationDtl17557 a WHERE a.loanAccountNo = :loanAccountNo AND a.allocatedTo = :allocatedTo",
                 BigDecimal.class);
@@ -76,6 +109,7 @@ public class LmsAllocationDaoImpl implements LmsAllocationDao {
     }
 
     @Override
+    @UsePool(DatabasePool.BATCH)
     public void deleteByLoanAccountNo(String loanAccountNo) {
         TypedQuery<LmsAllocationDtl17557> query = entityManager.createQuery(
                 "SELECT a FROM LmsAllocationDtl17557 a WHERE a.loanAccountNo = :loanAccountNo",
@@ -0,0 +1,135 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsArchiveDao;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+import com.supernova.emims.entity.PaymentMode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC DAO implementation for archiving aged receipts and allocations
+ * Rows are read as detached entities without a persistence context; deletes run on the
+ * connection of the surrounding transaction
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional(propagation = Propagation.MANDATORY)
+public class LmsArchiveDaoImpl implements LmsArchiveDao {
+
+    // Rows per round trip when reading a range; Oracle's default is 10
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String FIND_ACCOUNTS_SQL =
+            "SELECT LOAN_ACCOUNT_NO FROM ("
+            + "SELECT LOAN_ACCOUNT_NO FROM LMS_RECEIPT_PAYMENT_DTL_17557 WHERE PAYMENT_DATE < :cutoff %1$s"
+            + "UNION SELECT LOAN_ACCOUNT_NO FROM LMS_ALLOCATION_DTL_17557_ WHERE ALLOCATION_DATE < :cutoff %1$s"
+            + ") ORDER BY LOAN_ACCOUNT_NO FETCH FIRST :limit ROWS ONLY";
+
+    private static final String AFTER_ACCOUNT_CLAUSE = "AND LOAN_ACCOUNT_NO > :afterLoanAccountNo ";
+
+    private static final String FIND_RECEIPTS_SQL =
+            "SELECT RECEIPT_ID, LOAN_ACCOUNT_NO, PAYMENT_AMOUNT, PAYMENT_MODE, PAYMENT_DATE, REVERSED_DATE "
+            + "FROM LMS_RECEIPT_PAYMENT_DTL_17557 "
+            + "WHERE LOAN_ACCOUNT_NO BETWEEN :first AND :last AND PAYMENT_DATE < :cutoff "
+            + "ORDER BY LOAN_ACCOUNT_NO, PAYMENT_DATE DESC, RECEIPT_ID DESC";
+
+    private static final String FIND_ALLOCATIONS_SQL =
+            "SELECT ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, ALLOCATION_DATE, RECEIVABLE_ID, "
+            + "RECEIPT_ID, REVERSED_ALLOCATION_ID FROM LMS_ALLOCATION_DTL_17557_ "
+            + "WHERE LOAN_ACCOUNT_NO BETWEEN :first AND :last AND ALLOCATION_DATE < :cutoff "
+            + "ORDER BY LOAN_ACCOUNT_NO, ALLOCATION_DATE DESC, ALLOCATION_ID DESC";
+
+    private static final String DELETE_RECEIPT_SQL = "DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557 WHERE RECEIPT_ID = ?";
+
+    private static final String DELETE_ALLOCATION_SQL = "DELETE FROM LMS_ALLOCATION_DTL_17557_ WHERE ALLOCATION_ID = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LmsArchiveDaoImpl(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<String> findAccountsWithAgedRows(LocalDate cutoff, String afterLoanAccountNo, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("limit", limit);
+        String sql;
+        if (afterLoanAccountNo == null) {
+            sql = String.format(FIND_ACCOUNTS_SQL, "");
+        } else {
+            sql = String.format(FIND_ACCOUNTS_SQL, AFTER_ACCOUNT_CLAUSE);
+            params.addValue("afterLoanAccountNo", afterLoanAccountNo);
+        }
+        return jdbcTemplate.queryForList(sql, params, String.class);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<LmsReceiptPaymentDtl17557> findAgedReceipts(String firstLoanAccountNo, String lastLoanAccountNo,
+                                                            LocalDate cutoff) {
+        return jdbcTemplate.query(FIND_RECEIPTS_SQL, range(firstLoanAccountNo, lastLoanAccountNo, cutoff),
+                (rs, rowNum) -> {
+                    LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557(
+                            LoanAccountNumbers.canonical(rs.getString("LOAN_ACCOUNT_NO")),
+                            rs.getBigDecimal("PAYMENT_AMOUNT"), PaymentMode.fromCode(rs.getString("PAYMENT_MODE")),
+                            rs.getObject("PAYMENT_DATE", LocalDate.class));
+                    receipt.setReceiptId(rs.getLong("RECEIPT_ID"));
+                    receipt.setReversedDate(rs.getObject("REVERSED_DATE", LocalDateTime.class));
+                    return receipt;
+                });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<LmsAllocationDtl17557> findAgedAllocations(String firstLoanAccountNo, String lastLoanAccountNo,
+                                                           LocalDate cutoff) {
+        return jdbcTemplate.query(FIND_ALLOCATIONS_SQL, range(firstLoanAccountNo, lastLoanAccountNo, cutoff),
+                (rs, rowNum) -> {
+                    LmsAllocationDtl17557 allocation = new LmsAllocationDtl17557(
+                            LoanAccountNumbers.canonical(rs.getString("LOAN_ACCOUNT_NO")),
+                            AllocationType.fromCode(rs.getString("ALLOCATED_TO")), rs.getBigDecimal("ALLOCATED_AMOUNT"),
+                            rs.getObject("ALLOCATION_DATE", LocalDate.class));
+                    allocation.setAllocationId(rs.getLong("ALLOCATION_ID"));
+                    allocation.setReceivableId(rs.getObject("RECEIVABLE_ID", Long.class));
+                    allocation.setReceiptId(rs.getObject("RECEIPT_ID", Long.class));
+                    allocation.setReversedAllocationId(rs.getObject("REVERSED_ALLOCATION_ID", Long.class));
+                    return allocation;
+                });
+    }
+
+    @Override
+    public void deleteReceipts(List<Long> receiptIds) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(DELETE_RECEIPT_SQL, receiptIds, receiptIds.size(),
+                (ps, receiptId) -> ps.setLong(1, receiptId));
+    }
+
+    @Override
+    public void deleteAllocations(List<Long> allocationIds) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(DELETE_ALLOCATION_SQL, allocationIds, allocationIds.size(),
+                (ps, allocationId) -> ps.setLong(1, allocationId));
+    }
+
+    private static MapSqlParameterSource range(String first, String last, LocalDate cutoff) {
+        return new MapSqlParameterSource()
+                .addValue("first", first)
+                .addValue("last", last)
+                .addValue("cutoff", cutoff);
+    }
+}
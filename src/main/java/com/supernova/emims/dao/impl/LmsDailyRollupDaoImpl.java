@@ -0,0 +1,145 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsDailyRollupDao;
+import com.supernova.emims.dto.RollupTotal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate DAO implementation for the daily rollup tables
+ * Uses native SQL, since the rollups are maintained with set-based MERGE and INSERT ... SELECT
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional
+public class LmsDailyRollupDaoImpl implements LmsDailyRollupDao {
+
+    private static final String MERGE_PAYMENT_MODE_SQL =
+            "MERGE INTO LMS_PAYMODE_DAILY_ROLLUP_17557 t "
+            + "USING (SELECT :day AS ROLLUP_DATE, :rollupKey AS PAYMENT_MODE FROM DUAL) s "
+            + "ON (t.ROLLUP_DATE = s.ROLLUP_DATE AND t.PAYMENT_MODE = s.PAYMENT_MODE) "
+            + "WHEN MATCHED THEN UPDATE SET t.TXN_COUNT = t.TXN_COUNT + :txnCount, t.TOTAL_AMOUNT = t.TOTAL_AMOUNT + :amount "
+            + "WHEN NOT MATCHED THEN INSERT (ROLLUP_DATE, PAYMENT_MODE, TXN_COUNT, TOTAL_AMOUNT) "
+            + "VALUES (s.ROLLUP_DATE, s.PAYMENT_MODE, :txnCount, :amount)";
+
+    private static final String MERGE_ALLOCATION_SQL =
+            "MERGE INTO LMS_ALLOC_DAILY_ROLLUP_17557 t "
+            + "USING (SELECT :day AS ROLLUP_DATE, :rollupKey AS ALLOCATED_TO FROM DUAL) s "
+            + "ON (t.ROLLUP_DATE = s.ROLLUP_DATE AND t.ALLOCATED_TO = s.ALLOCATED_TO) "
+            + "WHEN MATCHED THEN UPDATE SET t.TXN_COUNT = t.TXN_COUNT + :txnCount, t.TOTAL_AMOUNT = t.TOTAL_AMOUNT + :amount "
+            + "WHEN NOT MATCHED THEN INSERT (ROLLUP_DATE, ALLOCATED_TO, TXN_COUNT, TOTAL_AMOUNT) "
+            + "VALUES (s.ROLLUP_DATE, s.ALLOCATED_TO, :txnCount, :amount)";
+
+    private static final String RECOMPUTE_PAYMENT_MODE_SQL =
+            "INSERT INTO LMS_PAYMODE_DAILY_ROLLUP_17557 (ROLLUP_DATE, PAYMENT_MODE, TXN_COUNT, TOTAL_AMOUNT) "
+            + "SELECT :day, PAYMENT_MODE, COUNT(*), SUM(PAYMENT_AMOUNT) FROM LMS_RECEIPT_PAYMENT_DTL_17557 "
+            + "WHERE PAYMENT_DATE >= :day AND PAYMENT_DATE < :nextDay GROUP BY PAYMENT_MODE";
+
+    private static final String RECOMPUTE_ALLOCATION_SQL =
+            "INSERT INTO LMS_ALLOC_DAILY_ROLLUP_17557 (ROLLUP_DATE, ALLOCATED_TO, TXN_COUNT, TOTAL_AMOUNT) "
+            + "SELECT :day, ALLOCATED_TO, COUNT(*), SUM(ALLOCATED_AMOUNT) FROM LMS_ALLOCATION_DTL_17557_ "
+            + "WHERE ALLOCATION_DATE >= :day AND ALLOCATION_DATE < :nextDay GROUP BY ALLOCATED_TO";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long lockWatermark(String consumerName) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT LAST_OFFSET FROM LMS_ROLLUP_WATERMARK_17557 WHERE CONSUMER_NAME = :consumerName FOR UPDATE");
+        query.setParameter("consumerName", consumerName);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    @Override
+    public void updateWatermark(String consumerName, long lastOffset) {
+        Query query = entityManager.createNativeQuery(
+                "UPDATE LMS_ROLLUP_WATERMARK_17557 SET LAST_OFFSET = :lastOffset WHERE CONSUMER_NAME = :consumerName");
+        query.setParameter("lastOffset", lastOffset);
+        query.setParameter("consumerName", consumerName);
+        query.executeUpdate();
+    }
+
+    @Override
+    public void addPaymentModeTotals(LocalDate day, String paymentMode, long count, BigDecimal amount) {
+        merge(MERGE_PAYMENT_MODE_SQL, day, paymentMode, count, amount);
+    }
+
+    @Override
+    public void addAllocationTotals(LocalDate day, String allocatedTo, long count, BigDecimal amount) {
+        merge(MERGE_ALLOCATION_SQL, day, allocatedTo, count, amount);
+    }
+
+    @Override
+    public void recomputeDay(LocalDate day) {
+        Date sqlDay = Date.valueOf(day);
+        Date sqlNextDay = Date.valueOf(day.plusDays(1));
+
+        entityManager.createNativeQuery("DELETE FROM LMS_PAYMODE_DAILY_ROLLUP_17557 WHERE ROLLUP_DATE = :day")
+                .setParameter("day", sqlDay)
+                .executeUpdate();
+        entityManager.createNativeQuery(RECOMPUTE_PAYMENT_MODE_SQL)
+                .setParameter("day", sqlDay)
+                .setParameter("nextDay", sqlNextDay)
+                .executeUpdate();
+
+        entityManager.createNativeQuery("DELETE FROM LMS_ALLOC_DAILY_ROLLUP_17557 WHERE ROLLUP_DATE = :day")
+                .setParameter("day", sqlDay)
+                .executeUpdate();
+        entityManager.createNativeQuery(RECOMPUTE_ALLOCATION_SQL)
+                .setParameter("day", sqlDay)
+                .setParameter("nextDay", sqlNextDay)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupTotal> findPaymentModeTotals(LocalDate from, LocalDate to) {
+        return sum("SELECT PAYMENT_MODE, SUM(TXN_COUNT), SUM(TOTAL_AMOUNT) FROM LMS_PAYMODE_DAILY_ROLLUP_17557 "
+                + "WHERE ROLLUP_DATE BETWEEN :fromDay AND :toDay GROUP BY PAYMENT_MODE ORDER BY PAYMENT_MODE", from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RollupTotal> findAllocationTotals(LocalDate from, LocalDate to) {
+        return sum("SELECT ALLOCATED_TO, SUM(TXN_COUNT), SUM(TOTAL_AMOUNT) FROM LMS_ALLOC_DAILY_ROLLUP_17557 "
+                + "WHERE ROLLUP_DATE BETWEEN :fromDay AND :toDay GROUP BY ALLOCATED_TO ORDER BY ALLOCATED_TO", from, to);
+    }
+
+    private void merge(String sql, LocalDate day, String rollupKey, long count, BigDecimal amount) {
+        entityManager.createNativeQuery(sql)
+                .setParameter("day", Date.valueOf(day))
+                .setParameter("rollupKey", rollupKey)
+                .setParameter("txnCount", count)
+                .setParameter("amount", amount)
+                .executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RollupTotal> sum(String sql, LocalDate from, LocalDate to) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("fromDay", Date.valueOf(from));
+        query.setParameter("toDay", Date.valueOf(to));
+
+        List<Object[]> rows = query.getResultList();
+        List<RollupTotal> totals = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            totals.add(new RollupTotal((String) row[0], ((Number) row[1]).longValue(), toBigDecimal(row[2])));
+        }
+        return totals;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,225 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.dto.CycleCheckpoint;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JDBC DAO implementation for EMI cycle generation
+ * Works without a persistence context: installments are read as detached rows and written
+ * with one JDBC batch per chunk, so memory stays flat however many loans there are.
+ * Statements run on the connection of the surrounding JPA transaction
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional(propagation = Propagation.MANDATORY)
+public class LmsEmiCycleDaoImpl implements LmsEmiCycleDao {
+
+    // Rows per round trip when reading a chunk; Oracle's default is 10
+    private static final int FETCH_SIZE = 500;
+
+    private static final String FIND_PARTITION_COUNTS_SQL =
+            "SELECT DISTINCT PARTITION_COUNT FROM LMS_EMI_CYCLE_CHECKPOINT_17557 WHERE EMI_CYCLE = :emiCycle";
+
+    private static final String INIT_CHECKPOINT_SQL =
+            "MERGE INTO LMS_EMI_CYCLE_CHECKPOINT_17557 t "
+            + "USING (SELECT CAST(? AS NUMBER(6)) AS EMI_CYCLE, CAST(? AS NUMBER(4)) AS PARTITION_NO, "
+            + "CAST(? AS NUMBER(4)) AS PARTITION_COUNT FROM DUAL) s "
+            + "ON (t.EMI_CYCLE = s.EMI_CYCLE AND t.PARTITION_NO = s.PARTITION_NO) "
+            + "WHEN NOT MATCHED THEN INSERT (EMI_CYCLE, PARTITION_NO, PARTITION_COUNT, ROWS_INSERTED, UPDATED_DATE) "
+            + "VALUES (s.EMI_CYCLE, s.PARTITION_NO, s.PARTITION_COUNT, 0, ?)";
+
+    private static final String LOCK_CHECKPOINT_SQL =
+            "SELECT LAST_LOAN_ACCOUNT_NO, ROWS_INSERTED, COMPLETED_DATE FROM LMS_EMI_CYCLE_CHECKPOINT_17557 "
+            + "WHERE EMI_CYCLE = :emiCycle AND PARTITION_NO = :partitionNo FOR UPDATE";
+
+    // The previous cycle has at most one row per account (UX_RECEIVABLE_ACC_CYCLE); NOT EXISTS
+    // leaves out accounts already generated by an earlier run or by another writer
+    private static final String FIND_TO_CONTINUE_SQL =
+            "SELECT r.RECEIVABLE_ID, r.LOAN_ACCOUNT_NO, r.INSTALLMENT_AMOUNT, r.REMAINING_INSTALLMENTS, r.CREATED_DATE "
+            + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 r "
+            + "WHERE r.EMI_CYCLE = :previousCycle AND r.REMAINING_INSTALLMENTS > 0 AND r.INSTALLMENT_AMOUNT > 0 "
+            + "AND ORA_HASH(r.LOAN_ACCOUNT_NO, :maxPartition) = :partitionNo "
+            + "%s"
+            + "AND NOT EXISTS (SELECT 1 FROM LMS_RECEIVABLEPAYBLE_DTL_17557 n "
+            + "WHERE n.LOAN_ACCOUNT_NO = r.LOAN_ACCOUNT_NO AND n.EMI_CYCLE = :emiCycle) "
+            + "ORDER BY r.LOAN_ACCOUNT_NO FETCH FIRST :limit ROWS ONLY";
+
+    private static final String AFTER_ACCOUNT_CLAUSE = "AND r.LOAN_ACCOUNT_NO > :afterLoanAccountNo ";
+
+    private static final String COUNT_TO_CONTINUE_SQL =
+            "SELECT COUNT(*) FROM LMS_RECEIVABLEPAYBLE_DTL_17557 r "
+            + "WHERE r.EMI_CYCLE = :previousCycle AND r.REMAINING_INSTALLMENTS > 0 AND r.INSTALLMENT_AMOUNT > 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM LMS_RECEIVABLEPAYBLE_DTL_17557 n "
+            + "WHERE n.LOAN_ACCOUNT_NO = r.LOAN_ACCOUNT_NO AND n.EMI_CYCLE = :emiCycle)";
+
+    private static final String INSERT_INSTALLMENT_SQL =
+            "INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, PENDING_EMI_AMOUNT, "
+            + "PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, VERSION, INSTALLMENT_AMOUNT, EMI_CYCLE, REMAINING_INSTALLMENTS) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?)";
+
+    private static final String ADVANCE_CHECKPOINT_SQL =
+            "UPDATE LMS_EMI_CYCLE_CHECKPOINT_17557 SET LAST_LOAN_ACCOUNT_NO = :lastLoanAccountNo, "
+            + "ROWS_INSERTED = ROWS_INSERTED + :rowsInserted, UPDATED_DATE = :now "
+            + "WHERE EMI_CYCLE = :emiCycle AND PARTITION_NO = :partitionNo";
+
+    private static final String COMPLETE_CHECKPOINT_SQL =
+            "UPDATE LMS_EMI_CYCLE_CHECKPOINT_17557 SET COMPLETED_DATE = :now, UPDATED_DATE = :now "
+            + "WHERE EMI_CYCLE = :emiCycle AND PARTITION_NO = :partitionNo";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Oracle returns no generated keys from a batch, so installment IDs are reserved up front
+    private final PooledSequence receivableIds;
+
+    public LmsEmiCycleDaoImpl(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.receivableIds = new PooledSequence(template, "SEQ_RECEIVABLE_ID",
+                LmsReceivablePayableDtl17557.ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public void initCheckpoints(int emiCycle, int partitionCount) {
+        List<Integer> counts = jdbcTemplate.queryForList(FIND_PARTITION_COUNTS_SQL,
+                new MapSqlParameterSource("emiCycle", emiCycle), Integer.class);
+        if (!counts.isEmpty() && !counts.equals(List.of(partitionCount))) {
+            // Accounts would hash to other partitions than the checkpoints describe
+            throw new IllegalStateException("Cycle " + emiCycle + " was started with " + counts
+                    + " partitions; rerun it with the same emi.cycle.partitions");
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INIT_CHECKPOINT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, emiCycle);
+                ps.setInt(2, i);
+                ps.setInt(3, partitionCount);
+                ps.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return partitionCount;
+            }
+        });
+    }
+
+    @Override
+    public CycleCheckpoint lockCheckpoint(int emiCycle, int partitionNo) {
+        List<CycleCheckpoint> checkpoints = jdbcTemplate.query(LOCK_CHECKPOINT_SQL, partition(emiCycle, partitionNo),
+                (rs, rowNum) -> new CycleCheckpoint(emiCycle, partitionNo, rs.getString("LAST_LOAN_ACCOUNT_NO"),
+                        rs.getLong("ROWS_INSERTED"), rs.getTimestamp("COMPLETED_DATE") != null));
+        if (checkpoints.isEmpty()) {
+            throw new IllegalStateException("No checkpoint for cycle " + emiCycle + " partition " + partitionNo);
+        }
+        return checkpoints.get(0);
+    }
+
+    @Override
+    public List<LmsReceivablePayableDtl17557> findInstallmentsToContinue(int emiCycle, int previousCycle, int partitionNo,
+                                                                        int partitionCount, String afterLoanAccountNo,
+                                                                        int limit) {
+        MapSqlParameterSource params = partition(emiCycle, partitionNo)
+                .addValue("previousCycle", previousCycle)
+                .addValue("maxPartition", partitionCount - 1)
+                .addValue("limit", limit);
+        String sql;
+        if (afterLoanAccountNo == null) {
+            sql = String.format(FIND_TO_CONTINUE_SQL, "");
+        } else {
+            sql = String.format(FIND_TO_CONTINUE_SQL, AFTER_ACCOUNT_CLAUSE);
+            params.addValue("afterLoanAccountNo", afterLoanAccountNo);
+        }
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            LmsReceivablePayableDtl17557 installment = new LmsReceivablePayableDtl17557();
+            installment.setReceivableId(rs.getLong("RECEIVABLE_ID"));
+            installment.setLoanAccountNo(LoanAccountNumbers.canonical(rs.getString("LOAN_ACCOUNT_NO")));
+            installment.setInstallmentAmount(rs.getBigDecimal("INSTALLMENT_AMOUNT"));
+            installment.setRemainingInstallments(rs.getInt("REMAINING_INSTALLMENTS"));
+            installment.setCreatedDate(rs.getObject("CREATED_DATE", LocalDate.class));
+            installment.setEmiCycle(previousCycle);
+            return installment;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long countInstallmentsToContinue(int emiCycle, int previousCycle) {
+        Long count = jdbcTemplate.queryForObject(COUNT_TO_CONTINUE_SQL, new MapSqlParameterSource()
+                .addValue("emiCycle", emiCycle)
+                .addValue("previousCycle", previousCycle), Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int insertInstallments(List<LmsReceivablePayableDtl17557> installments) {
+        if (installments.isEmpty()) {
+            return 0;
+        }
+        for (LmsReceivablePayableDtl17557 installment : installments) {
+            installment.setReceivableId(receivableIds.nextId());
+        }
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_INSTALLMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LmsReceivablePayableDtl17557 installment = installments.get(i);
+                ps.setLong(1, installment.getReceivableId());
+                ps.setString(2, installment.getLoanAccountNo());
+                ps.setBigDecimal(3, installment.getPendingEmiAmount());
+                ps.setBigDecimal(4, installment.getPenaltyCharges());
+                ps.setBigDecimal(5, installment.getTotalAmount());
+                ps.setObject(6, installment.getCreatedDate());
+                ps.setBigDecimal(7, installment.getInstallmentAmount());
+                ps.setInt(8, installment.getEmiCycle());
+                ps.setInt(9, installment.getRemainingInstallments());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return installments.size();
+            }
+        });
+        // Oracle reports SUCCESS_NO_INFO per batched row; a failed row fails the whole batch
+        return installments.size();
+    }
+
+    @Override
+    public void advanceCheckpoint(int emiCycle, int partitionNo, String lastLoanAccountNo, int rowsInserted) {
+        jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, partition(emiCycle, partitionNo)
+                .addValue("lastLoanAccountNo", lastLoanAccountNo)
+                .addValue("rowsInserted", rowsInserted)
+                .addValue("now", new Timestamp(System.currentTimeMillis())));
+    }
+
+    @Override
+    public void completeCheckpoint(int emiCycle, int partitionNo) {
+        jdbcTemplate.update(COMPLETE_CHECKPOINT_SQL, partition(emiCycle, partitionNo)
+                .addValue("now", new Timestamp(System.currentTimeMillis())));
+    }
+
+    private static MapSqlParameterSource partition(int emiCycle, int partitionNo) {
+        return new MapSqlParameterSource()
+                .addValue("emiCycle", emiCycle)
+                .addValue("partitionNo", partitionNo);
+    }
+}
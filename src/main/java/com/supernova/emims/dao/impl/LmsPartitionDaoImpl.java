@@ -0,0 +1,55 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsPartitionDao;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantTableDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * JDBC DAO implementation for the yearly date subpartitions of the LMS tables
+ * Reads the data dictionary for the schema the connection works in, so a tenant with a schema of
+ * its own sees its own tables. DDL commits implicitly, so nothing here runs in a transaction
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LmsPartitionDaoImpl implements LmsPartitionDao {
+
+    private static final String FIND_PARTITIONS_WITHOUT_YEAR_SQL =
+            "SELECT p.PARTITION_NAME FROM ALL_TAB_PARTITIONS p "
+            + "WHERE p.TABLE_OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA') AND p.TABLE_NAME = ? "
+            + "AND NOT EXISTS (SELECT 1 FROM ALL_TAB_SUBPARTITIONS s WHERE s.TABLE_OWNER = p.TABLE_OWNER "
+            + "AND s.TABLE_NAME = p.TABLE_NAME AND s.PARTITION_NAME = p.PARTITION_NAME "
+            + "AND s.SUBPARTITION_NAME = p.PARTITION_NAME || ?) "
+            + "ORDER BY p.PARTITION_POSITION";
+
+    // Online, so payments keep posting to the partition while it splits
+    private static final String SPLIT_MAX_SUBPARTITION_SQL =
+            "ALTER TABLE %1$s SPLIT SUBPARTITION %2$s_SP_MAX AT (DATE '%3$d-01-01') "
+            + "INTO (SUBPARTITION %2$s_SP_%4$d, SUBPARTITION %2$s_SP_MAX) UPDATE INDEXES ONLINE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LmsPartitionDaoImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<String> findPartitionsWithoutYear(String table, int year) {
+        // The table name is a bind value here, which the connection does not rewrite
+        return jdbcTemplate.queryForList(FIND_PARTITIONS_WITHOUT_YEAR_SQL, String.class,
+                TenantTableDataSource.rewrite(table, TenantContext.current()), "_SP_" + year);
+    }
+
+    @Override
+    public void addYearSubpartition(String table, String partition, int year) {
+        jdbcTemplate.execute(String.format(SPLIT_MAX_SUBPARTITION_SQL, table, partition, year + 1, year));
+    }
+}
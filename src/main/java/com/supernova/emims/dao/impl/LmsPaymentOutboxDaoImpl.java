@@ -0,0 +1,67 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Hibernate DAO implementation for LMS_PAYMENT_OUTBOX_17557 operations
+ * Uses Hibernate ORM for database operations
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional
+public class LmsPaymentOutboxDaoImpl implements LmsPaymentOutboxDao {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public LmsPaymentOutbox17557 save(LmsPaymentOutbox17557 event) {
+        entityManager.persist(event);
+        return event;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LmsPaymentOutbox17557> findAfter(long afterOffset, int limit) {
+        TypedQuery<LmsPaymentOutbox17557> query = entityManager.createQuery(
+                "SELECT o FROM LmsPaymentOutbox17557 o WHERE o.outboxId > :afterOffset ORDER BY o.outboxId",
+                LmsPaymentOutbox17557.class);
+        query.setParameter("afterOffset", afterOffset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LmsPaymentOutbox17557> findSettledAfter(long afterOffset, Date createdBefore, int limit) {
+        TypedQuery<LmsPaymentOutbox17557> query = entityManager.createQuery(
+                "SELECT o FROM LmsPaymentOutbox17557 o WHERE o.outboxId > :afterOffset AND o.createdDate < :createdBefore ORDER BY o.outboxId",
+                LmsPaymentOutbox17557.class);
+        query.setParameter("afterOffset", afterOffset);
+        query.setParameter("createdBefore", createdBefore);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LmsPaymentOutbox17557> findRange(long afterOffset, long upToOffset, int limit) {
+        TypedQuery<LmsPaymentOutbox17557> query = entityManager.createQuery(
+                "SELECT o FROM LmsPaymentOutbox17557 o WHERE o.outboxId > :afterOffset AND o.outboxId <= :upToOffset ORDER BY o.outboxId",
+                LmsPaymentOutbox17557.class);
+        query.setParameter("afterOffset", afterOffset);
+        query.setParameter("upToOffset", upToOffset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+}
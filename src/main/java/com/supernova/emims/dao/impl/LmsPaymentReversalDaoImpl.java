@@ -0,0 +1,151 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsPaymentReversalDao;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JDBC DAO implementation for bulk payment reversal
+ * Each call is one statement over the whole chunk (INSERT ... SELECT, MERGE, UPDATE), so the
+ * cost per chunk is a handful of round trips regardless of how many rows it touches.
+ * Statements run on the connection of the surrounding JPA transaction
+ *
+ * Sonar-compliant: Proper exception handling and resource management
+ */
+@Repository
+@Transactional(propagation = Propagation.MANDATORY)
+public class LmsPaymentReversalDaoImpl implements LmsPaymentReversalDao {
+
+    private static final String LOCK_REVERSIBLE_SQL =
+            "SELECT r.RECEIPT_ID FROM LMS_RECEIPT_PAYMENT_DTL_17557 r "
+            + "WHERE r.RECEIPT_ID IN (:receiptIds) AND r.REVERSED_DATE IS NULL "
+            + "AND EXISTS (SELECT 1 FROM LMS_ALLOCATION_DTL_17557_ a WHERE a.RECEIPT_ID = r.RECEIPT_ID) "
+            + "ORDER BY r.RECEIPT_ID FOR UPDATE";
+
+    private static final String RESTORE_RECEIVABLES_SQL =
+            "MERGE INTO LMS_RECEIVABLEPAYBLE_DTL_17557 t "
+            + "USING (SELECT a.RECEIVABLE_ID, "
+            + "SUM(CASE WHEN a.ALLOCATED_TO = 'EMI' THEN a.ALLOCATED_AMOUNT ELSE 0 END) AS EMI_AMOUNT, "
+            + "SUM(CASE WHEN a.ALLOCATED_TO = 'Penalty' THEN a.ALLOCATED_AMOUNT ELSE 0 END) AS PENALTY_AMOUNT "
+            + "FROM LMS_ALLOCATION_DTL_17557_ a "
+            + "WHERE a.RECEIPT_ID IN (:receiptIds) AND a.REVERSED_ALLOCATION_ID IS NULL "
+            + "GROUP BY a.RECEIVABLE_ID) s "
+            + "ON (t.RECEIVABLE_ID = s.RECEIVABLE_ID) "
+            + "WHEN MATCHED THEN UPDATE SET t.PENDING_EMI_AMOUNT = t.PENDING_EMI_AMOUNT + s.EMI_AMOUNT, "
+            + "t.PENALTY_CHARGES = t.PENALTY_CHARGES + s.PENALTY_AMOUNT, "
+            + "t.TOTAL_AMOUNT = t.PENDING_EMI_AMOUNT + t.PENALTY_CHARGES + s.EMI_AMOUNT + s.PENALTY_AMOUNT, "
+            + "t.VERSION = t.VERSION + 1";
+
+    // Each NEXTVAL is the top of a 50-ID block for the pooled generators; the row keeps the top
+    // itself, which no other writer hands out, the same as TRG_ALLOCATION_ID does
+    private static final String INSERT_COMPENSATING_SQL =
+            "INSERT INTO LMS_ALLOCATION_DTL_17557_ (ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, "
+            + "ALLOCATION_DATE, RECEIVABLE_ID, RECEIPT_ID, REVERSED_ALLOCATION_ID) "
+            + "SELECT SEQ_ALLOCATION_ID.NEXTVAL, a.LOAN_ACCOUNT_NO, a.ALLOCATED_TO, -a.ALLOCATED_AMOUNT, "
+            + ":reversalDate, a.RECEIVABLE_ID, a.RECEIPT_ID, a.ALLOCATION_ID "
+            + "FROM LMS_ALLOCATION_DTL_17557_ a "
+            + "WHERE a.RECEIPT_ID IN (:receiptIds) AND a.REVERSED_ALLOCATION_ID IS NULL";
+
+    private static final String MARK_REVERSED_SQL =
+            "UPDATE LMS_RECEIPT_PAYMENT_DTL_17557 SET REVERSED_DATE = :reversalDate "
+            + "WHERE RECEIPT_ID IN (:receiptIds) AND REVERSED_DATE IS NULL";
+
+    private static final String FIND_COMPENSATING_SQL =
+            "SELECT ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, ALLOCATION_DATE, "
+            + "RECEIVABLE_ID, RECEIPT_ID, REVERSED_ALLOCATION_ID FROM LMS_ALLOCATION_DTL_17557_ "
+            + "WHERE RECEIPT_ID IN (:receiptIds) AND REVERSED_ALLOCATION_ID IS NOT NULL "
+            + "ORDER BY RECEIPT_ID, ALLOCATION_ID";
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO LMS_PAYMENT_OUTBOX_17557 (OUTBOX_ID, LOAN_ACCOUNT_NO, EVENT_TYPE, PAYLOAD, CREATED_DATE) "
+            + "VALUES (SEQ_OUTBOX_ID_17557.NEXTVAL, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LmsPaymentReversalDaoImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<Long> lockReversibleReceipts(List<Long> receiptIds) {
+        return jdbcTemplate.queryForList(LOCK_REVERSIBLE_SQL, chunk(receiptIds), Long.class);
+    }
+
+    @Override
+    public int restoreReceivables(List<Long> receiptIds) {
+        return jdbcTemplate.update(RESTORE_RECEIVABLES_SQL, chunk(receiptIds));
+    }
+
+    @Override
+    public int insertCompensatingAllocations(List<Long> receiptIds, Date reversalDate) {
+        return jdbcTemplate.update(INSERT_COMPENSATING_SQL, chunk(receiptIds)
+                .addValue("reversalDate", new java.sql.Date(reversalDate.getTime())));
+    }
+
+    @Override
+    public int markReversed(List<Long> receiptIds, Date reversalDate) {
+        return jdbcTemplate.update(MARK_REVERSED_SQL, chunk(receiptIds)
+                .addValue("reversalDate", new Timestamp(reversalDate.getTime())));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<LmsAllocationDtl17557> findCompensatingAllocations(List<Long> receiptIds) {
+        return jdbcTemplate.query(FIND_COMPENSATING_SQL, chunk(receiptIds), (rs, rowNum) -> {
+            LmsAllocationDtl17557 allocation = new LmsAllocationDtl17557(
+                    LoanAccountNumbers.canonical(rs.getString("LOAN_ACCOUNT_NO")),
+                    AllocationType.fromCode(rs.getString("ALLOCATED_TO")), rs.getBigDecimal("ALLOCATED_AMOUNT"),
+                    rs.getObject("ALLOCATION_DATE", LocalDate.class));
+            allocation.setAllocationId(rs.getLong("ALLOCATION_ID"));
+            allocation.setReceivableId(rs.getObject("RECEIVABLE_ID", Long.class));
+            allocation.setReceiptId(rs.getObject("RECEIPT_ID", Long.class));
+            allocation.setReversedAllocationId(rs.getObject("REVERSED_ALLOCATION_ID", Long.class));
+            return allocation;
+        });
+    }
+
+    @Override
+    public void insertEvents(List<LmsPaymentOutbox17557> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_EVENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                LmsPaymentOutbox17557 event = events.get(i);
+                ps.setString(1, event.getLoanAccountNo());
+                ps.setString(2, event.getEventType());
+                ps.setString(3, event.getPayload());
+                ps.setTimestamp(4, new Timestamp(event.getCreatedDate().getTime()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    private static MapSqlParameterSource chunk(List<Long> receiptIds) {
+        if (receiptIds.isEmpty() || receiptIds.size() > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_CHUNK_SIZE + " receipt IDs, got " + receiptIds.size());
+        }
+        return new MapSqlParameterSource("receiptIds", receiptIds);
+    }
+}
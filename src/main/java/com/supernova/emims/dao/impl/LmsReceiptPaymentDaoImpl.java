@@ -1,11 +1,16 @@
 package com.supernova.emims.dao.impl;
 
 import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.UsePool;
+import com.supernova.emims.dto.ReceiptView;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +28,21 @@ import java.util.Optional;
 @Transactional
 public class LmsReceiptPaymentDaoImpl implements LmsReceiptPaymentDao {
 
+    // History is only serialised, so it is read as views: no managed entities, no dirty-checking snapshots
+    private static final String HISTORY_SELECT =
+            "SELECT new com.supernova.emims.dto.ReceiptView(r.receiptId, r.loanAccountNo, r.paymentAmount, "
+            + "r.paymentMode, r.paymentDate, r.reversedDate) "
+            + "FROM LmsReceiptPaymentDtl17557 r WHERE r.loanAccountNo = :loanAccountNo ";
+    private static final String HISTORY_ORDER = "ORDER BY r.paymentDate DESC, r.receiptId DESC";
+    private static final String HISTORY_JPQL = HISTORY_SELECT + HISTORY_ORDER;
+    // Seeks into the (LOAN_ACCOUNT_NO, PAYMENT_DATE DESC, RECEIPT_ID DESC) index past the previous page
+    private static final String HISTORY_AFTER_JPQL = HISTORY_SELECT
+            + "AND (r.paymentDate < :paymentDate OR (r.paymentDate = :paymentDate AND r.receiptId < :receiptId)) "
+            + HISTORY_ORDER;
+
+    // Oracle fetches 10 rows per round trip by default; a full history usually fits in one
+    private static final int HISTORY_FETCH_SIZE = 100;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -49,17 +69,53 @@ public class LmsReceiptPaymentDaoImpl implements LmsReceiptPaymentDao {
 
     @Override
     @Transactional(readOnly = true)
-    public List<LmsReceiptPaymentDtl17557> findByLoanAccountNo(String loanAccountNo) {
-        TypedQuery<LmsReceiptPaymentDtl17557> query = entityManager.createQuery(
-                "SELECT r FROM LmsReceiptPaymentDtl17557 r WHERE r.loanAccountNo = :loanAccountNo ORDER BY r.paymentDate DESC",
-                LmsReceiptPaymentDtl17557.class);
+    public List<ReceiptView> findByLoanAccountNo(String loanAccountNo) {
+        TypedQuery<ReceiptView> query = entityManager.createQuery(HISTORY_JPQL, ReceiptView.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, HISTORY_FETCH_SIZE);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReceiptView> findByLoanAccountNo(String loanAccountNo, int offset, int limit) {
+        TypedQuery<ReceiptView> query = entityManager.createQuery(HISTORY_JPQL, ReceiptView.class);
         query.setParameter("loanAccountNo", loanAccountNo);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        // The whole page in one round trip
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, Math.max(1, Math.min(limit, HISTORY_FETCH_SIZE)));
         return query.getResultList();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<LmsReceiptPaymentDtl17557> findByPaymentMode(String paymentMode) {
+    public List<ReceiptView> findByLoanAccountNoAfter(String loanAccountNo, ReceiptView after, int limit) {
+        if (after == null) {
+            return findByLoanAccountNo(loanAccountNo, 0, limit);
+        }
+        TypedQuery<ReceiptView> query = entityManager.createQuery(HISTORY_AFTER_JPQL, ReceiptView.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        query.setParameter("paymentDate", after.paymentDate());
+        query.setParameter("receiptId", after.receiptId());
+        query.setMaxResults(limit);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, Math.max(1, Math.min(limit, HISTORY_FETCH_SIZE)));
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByLoanAccountNo(String loanAccountNo) {
+        TypedQuery<Long> query = entityManager.createQuery(
+                "SELECT COUNT(r) FROM LmsReceiptPaymentDtl17557 r WHERE r.loanAccountNo = :loanAccountNo", Long.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        return query.getSingleResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @UsePool(DatabasePool.REPORTING)
+    public List<LmsReceiptPaymentDtl17557> findByPaymentMode(PaymentMode paymentMode) {
         TypedQuery<LmsReceiptPaymentDtl17557> query = entityManager.createQuery(
                 "SELECT r FROM LmsReceiptPaymentDtl17557 r WHERE r.paymentMode = :paymentMode ORDER BY r.paymentDate DESC",
                 LmsReceiptPaymentDtl17557.class);
@@ -1,17 +1,28 @@
 package com.supernova.emims.dao.impl;
 
 import com.supernova.emims.dao.LmsReceivablePayableDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.UsePool;
+import com.supernova.emims.dto.ReceivableBalance;
 import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Hibernate DAO implementation for LMS_RECEIVABLEPAYBLE_DTL_17557 operations
@@ -23,6 +34,27 @@ import java.util.Optional;
 @Transactional
 public class LmsReceivablePayableDaoImpl implements LmsReceivablePayableDao {
 
+    // Oracle caps IN lists at 1000 expressions; smaller chunks keep plans and bind sets reusable
+    private static final int IN_LIST_CHUNK_SIZE = 500;
+
+    // IDX_RECEIVABLE_ACC_DATE covers the amount columns, so the sums are read from the index alone;
+    // settled installments hold zero balances and add nothing
+    private static final String OUTSTANDING_PER_ACCOUNT_SQL =
+            "SELECT LOAN_ACCOUNT_NO, SUM(PENDING_EMI_AMOUNT) AS PENDING_EMI_AMOUNT, SUM(PENALTY_CHARGES) AS PENALTY_CHARGES, "
+            + "SUM(CASE WHEN PENDING_EMI_AMOUNT > 0 OR PENALTY_CHARGES > 0 THEN 1 ELSE 0 END) AS OPEN_INSTALLMENTS "
+            + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE LOAN_ACCOUNT_NO IN (:loanAccountNos) GROUP BY LOAN_ACCOUNT_NO";
+
+    // OPEN_LOAN_ACCOUNT_NO is a virtual column that is only set while the installment has a balance;
+    // IDX_RECEIVABLE_OPEN returns an account's open installments in due order without touching settled ones
+    private static final String OPEN_INSTALLMENTS_SQL =
+            "SELECT RECEIVABLE_ID, LOAN_ACCOUNT_NO, PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, VERSION, "
+            + "INSTALLMENT_AMOUNT, EMI_CYCLE, REMAINING_INSTALLMENTS "
+            + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE OPEN_LOAN_ACCOUNT_NO = :loanAccountNo "
+            + "ORDER BY CREATED_DATE, RECEIVABLE_ID";
+
+    // Most payments settle one or two installments; fetch a few rows at a time and stop early
+    private static final int OPEN_INSTALLMENT_FETCH_SIZE = 8;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -51,7 +83,7 @@ public class LmsReceivablePayableDaoImpl implements LmsReceivablePayableDao {
     @Transactional(readOnly = true)
     public List<LmsReceivablePayableDtl17557> findByLoanAccountNo(String loanAccountNo) {
         TypedQuery<LmsReceivablePayableDtl17557> query = entityManager.createQuery(
-                "SELECT r FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo ORDER BY r.createdDate DESC",
+                "SELECT r FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo ORDER BY r.createdDate DESC, r.receivableId DESC",
                 LmsReceivablePayableDtl17557.class);
         query.setParameter("loanAccountNo", loanAccountNo);
         return query.getResultList();
@@ -59,30 +91,90 @@ public class LmsReceivablePayableDaoImpl implements LmsReceivablePayableDao {
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<LmsReceivablePayableDtl17557> findLatestByLoanAccountNo(String loanAccountNo) {
-        try {
-            TypedQuery<LmsReceivablePayableDtl17557> query = entityManager.createQuery(
-                    "SELECT r FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo ORDER BY r.createdDate DESC",
-                    LmsReceivablePayableDtl17557.class);
-            query.setParameter("loanAccountNo", loanAccountNo);
-            query.setMaxResults(1);
-            return Optional.of(query.getSingleResult());
-        } catch (NoResultException e) {
-            return Optional.empty();
+    public Optional<ReceivableBalance> findOutstandingByLoanAccountNo(String loanAccountNo) {
+        return findOutstandingByLoanAccountNos(List.of(loanAccountNo)).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReceivableBalance> findOutstandingByLoanAccountNos(Collection<String> loanAccountNos) {
+        List<ReceivableBalance> result = new ArrayList<>(loanAccountNos.size());
+        Session session = entityManager.unwrap(Session.class);
+        for (List<String> chunk : chunk(loanAccountNos)) {
+            NativeQuery<Object[]> query = session.createNativeQuery(OUTSTANDING_PER_ACCOUNT_SQL, Object[].class)
+                    .addScalar("LOAN_ACCOUNT_NO", String.class)
+                    .addScalar("PENDING_EMI_AMOUNT", BigDecimal.class)
+                    .addScalar("PENALTY_CHARGES", BigDecimal.class)
+                    .addScalar("OPEN_INSTALLMENTS", Integer.class);
+            query.setParameterList("loanAccountNos", chunk);
+            query.setFetchSize(chunk.size());
+            for (Object[] row : query.getResultList()) {
+                result.add(new ReceivableBalance((String) row[0], (BigDecimal) row[1], (BigDecimal) row[2],
+                        (Integer) row[3]));
+            }
         }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<LmsReceivablePayableDtl17557> streamOpenInstallments(String loanAccountNo) {
+        Query query = entityManager.createNativeQuery(OPEN_INSTALLMENTS_SQL, LmsReceivablePayableDtl17557.class);
+        query.setParameter("loanAccountNo", loanAccountNo);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, OPEN_INSTALLMENT_FETCH_SIZE);
+        return query.getResultStream();
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean existsByLoanAccountNo(String loanAccountNo) {
+        // Probe for a single index entry instead of counting the whole account
         TypedQuery<Long> query = entityManager.createQuery(
-                "SELECT COUNT(r) FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo",
+                "SELECT r.receivableId FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo",
                 Long.class);
         query.setParameter("loanAccountNo", loanAccountNo);
-        return query.getSingleResult() > 0;
+        query.setMaxResults(1);
+        return !query.getResultList().isEmpty();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Set<String> findExistingLoanAccountNos(Collection<String> loanAccountNos) {
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunk(loanAccountNos)) {
+            TypedQuery<String> query = entityManager.createQuery(
+                    "SELECT DISTINCT r.loanAccountNo FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo IN :loanAccountNos",
+                    String.class);
+            query.setParameter("loanAccountNos", chunk);
+            existing.addAll(query.getResultList());
+        }
+        return existing;
+    }
+
+    @Override
+    public boolean updateBalanceIfUnchanged(LmsReceivablePayableDtl17557 receivable,
+                                            BigDecimal pendingEmiAmount, BigDecimal penaltyCharges) {
+        int updated = entityManager.createQuery(
+                "UPDATE LmsReceivablePayableDtl17557 r SET r.pendingEmiAmount = :pendingEmiAmount, "
+                + "r.penaltyCharges = :penaltyCharges, r.totalAmount = :totalAmount, r.version = r.version + 1 "
+                + "WHERE r.receivableId = :receivableId AND r.version = :version")
+                .setParameter("pendingEmiAmount", pendingEmiAmount)
+                .setParameter("penaltyCharges", penaltyCharges)
+                .setParameter("totalAmount", pendingEmiAmount.add(penaltyCharges))
+                .setParameter("receivableId", receivable.getReceivableId())
+                .setParameter("version", receivable.getVersion())
+                .executeUpdate();
+
+        // The bulk update bypasses the persistence context; drop the stale copy so the
+        // next read in this transaction sees the row as it is now
+        if (entityManager.contains(receivable)) {
+            entityManager.detach(receivable);
+        }
+        return updated == 1;
+    }
+
+    @Override
+    @UsePool(DatabasePool.BATCH)
     public void deleteByLoanAccountNo(String loanAccountNo) {
         TypedQuery<LmsReceivablePayableDtl17557> query = entityManager.createQuery(
                 "SELECT r FROM LmsReceivablePayableDtl17557 r WHERE r.loanAccountNo = :loanAccountNo",
@@ -104,4 +196,13 @@ public class LmsReceivablePayableDaoImpl implements LmsReceivablePayableDao {
         query.setParameter("loanAccountNo", loanAccountNo);
         return query.getSingleResult();
     }
+
+    private static List<List<String>> chunk(Collection<String> loanAccountNos) {
+        List<String> distinct = new ArrayList<>(new HashSet<>(loanAccountNos));
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
 }
@@ -0,0 +1,27 @@
+package com.supernova.emims.datasource;
+
+/**
+ * Connection pools, one per workload
+ * Each pool is sized and timed for its workload, so long-running batch and reporting
+ * queries cannot take the connections interactive payments need
+ *
+ * Sonar-compliant: Type-safe constants
+ */
+public enum DatabasePool {
+
+    /** Interactive reads and payments; the default */
+    OLTP,
+
+    /** Aggregate and listing queries behind the reporting endpoints */
+    REPORTING,
+
+    /** Bulk jobs and maintenance operations */
+    BATCH;
+
+    /**
+     * @return the property and pool name, e.g. oltp
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
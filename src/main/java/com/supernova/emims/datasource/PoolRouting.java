@@ -0,0 +1,74 @@
+package com.supernova.emims.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Connection pool selected for the current thread
+ * Set by {@link UsePool} methods, or directly by jobs that run their own transactions
+ *
+ * Sonar-compliant: Thread confinement instead of shared mutable state
+ */
+public final class PoolRouting {
+
+    private static final ThreadLocal<DatabasePool> CURRENT = new ThreadLocal<>();
+
+    private PoolRouting() {
+    }
+
+    /**
+     * @return the pool new connections on this thread are taken from
+     */
+    public static DatabasePool current() {
+        DatabasePool pool = CURRENT.get();
+        return pool != null ? pool : DatabasePool.OLTP;
+    }
+
+    /**
+     * Run an action with connections from the given pool, then restore the previous pool
+     * @param pool the pool to use
+     * @param action the action
+     * @return the result of the action
+     */
+    public static <T> T callWith(DatabasePool pool, Supplier<T> action) {
+        DatabasePool previous = enter(pool);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Run an action with connections from the given pool, then restore the previous pool
+     * @param pool the pool to use
+     * @param action the action
+     */
+    public static void runWith(DatabasePool pool, Runnable action) {
+        callWith(pool, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Select a pool for this thread
+     * @param pool the pool to use
+     * @return the previously selected pool, null if none, to pass to {@link #restore}
+     */
+    static DatabasePool enter(DatabasePool pool) {
+        DatabasePool previous = CURRENT.get();
+        CURRENT.set(pool);
+        return previous;
+    }
+
+    /**
+     * @param previous the value returned by the matching {@link #enter}
+     */
+    static void restore(DatabasePool previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
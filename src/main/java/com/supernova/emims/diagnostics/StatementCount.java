@@ -0,0 +1,43 @@
+package com.supernova.emims.diagnostics;
+
+/**
+ * Number of SQL statements Hibernate has prepared for the HTTP request on the current thread
+ * Started and read by {@link EndpointStatementInterceptor}; incremented by
+ * {@link CountingStatementInspector}. Threads without a request are not counted
+ *
+ * Sonar-compliant: Thread confinement instead of shared mutable state
+ */
+public final class StatementCount {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    private StatementCount() {
+    }
+
+    /**
+     * Start counting for the current request
+     */
+    static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Count one statement, if the current thread handles a request
+     */
+    static void increment() {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    /**
+     * Stop counting once the request is complete
+     * @return statements counted since {@link #start()}, 0 if counting never started
+     */
+    static int finish() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : 0;
+    }
+}
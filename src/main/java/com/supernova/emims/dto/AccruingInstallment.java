@@ -0,0 +1,17 @@
+package com.supernova.emims.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Overdue installment whose penalty may have grown since it was last accrued
+ * @param receivableId the installment ID
+ * @param loanAccountNo the loan account number, which selects the penalty rule
+ * @param pendingEmiAmount EMI still to be paid
+ * @param dueDate the installment's due date
+ * @param accruedDate the day the penalty was last accrued up to, null for none since the due date
+ * @param version the row version, checked when the accrued penalty is written
+ */
+public record AccruingInstallment(long receivableId, String loanAccountNo, BigDecimal pendingEmiAmount,
+                                  LocalDate dueDate, LocalDate accruedDate, long version) {
+}
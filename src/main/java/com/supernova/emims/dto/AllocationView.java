@@ -0,0 +1,34 @@
+package com.supernova.emims.dto;
+
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only allocation as returned by allocation reads
+ * Built straight from the query result, so it never enters the persistence context
+ * @param allocationId the allocation ID
+ * @param loanAccountNo the loan account number
+ * @param allocatedTo Penalty or EMI
+ * @param allocatedAmount the amount allocated, negative for a reversal
+ * @param allocationDate the day of the allocation
+ * @param receivableId the installment it settles
+ * @param receiptId the receipt it came from
+ * @param reversedAllocationId the allocation this one compensates, else null
+ */
+public record AllocationView(Long allocationId, String loanAccountNo, AllocationType allocatedTo,
+                             BigDecimal allocatedAmount, LocalDate allocationDate, Long receivableId, Long receiptId,
+                             Long reversedAllocationId) {
+
+    /**
+     * @param allocation an allocation read some other way, e.g. from cold storage
+     * @return the allocation as a view
+     */
+    public static AllocationView of(LmsAllocationDtl17557 allocation) {
+        return new AllocationView(allocation.getAllocationId(), allocation.getLoanAccountNo(),
+                allocation.getAllocatedTo(), allocation.getAllocatedAmount(), allocation.getAllocationDate(),
+                allocation.getReceivableId(), allocation.getReceiptId(), allocation.getReversedAllocationId());
+    }
+}
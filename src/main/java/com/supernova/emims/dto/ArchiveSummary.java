@@ -0,0 +1,16 @@
+package com.supernova.emims.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of an archive run
+ * @param cutoff rows dated before this were archived
+ * @param accounts loan accounts that had aged rows
+ * @param segments segment files written, receipts and allocations together
+ * @param receipts receipts moved to cold storage
+ * @param allocations allocations moved to cold storage
+ * @param elapsedMillis time taken
+ */
+public record ArchiveSummary(LocalDate cutoff, long accounts, int segments, long receipts, long allocations,
+                             long elapsedMillis) {
+}
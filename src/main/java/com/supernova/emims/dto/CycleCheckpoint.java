@@ -0,0 +1,13 @@
+package com.supernova.emims.dto;
+
+/**
+ * Restart checkpoint of one account partition of an EMI cycle run
+ * @param emiCycle the cycle as yyyymm
+ * @param partitionNo the account partition
+ * @param lastLoanAccountNo last account of the last committed chunk, null before the first
+ * @param rowsInserted installments generated in this partition so far
+ * @param completed whether the partition has no accounts left to generate
+ */
+public record CycleCheckpoint(int emiCycle, int partitionNo, String lastLoanAccountNo, long rowsInserted,
+                              boolean completed) {
+}
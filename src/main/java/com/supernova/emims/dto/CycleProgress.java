@@ -0,0 +1,22 @@
+package com.supernova.emims.dto;
+
+import java.util.Date;
+
+/**
+ * Progress of an EMI cycle generation run
+ * @param emiCycle the cycle being generated as yyyymm
+ * @param status RUNNING, COMPLETED or FAILED
+ * @param partitions the number of account partitions
+ * @param partitionsFinished partitions that finished, including failed ones
+ * @param expectedRows installments left to generate when the run started
+ * @param rowsInserted installments generated by this run
+ * @param rowsPerSecond generation rate so far
+ * @param etaSeconds estimated seconds until completion, null when not running or not yet known
+ * @param startedAt when the run started
+ * @param finishedAt when the run finished, null while running
+ * @param error the first partition failure of a FAILED run
+ */
+public record CycleProgress(int emiCycle, String status, int partitions, int partitionsFinished, long expectedRows,
+                           long rowsInserted, double rowsPerSecond, Long etaSeconds, Date startedAt, Date finishedAt,
+                           String error) {
+}
@@ -0,0 +1,16 @@
+package com.supernova.emims.dto;
+
+/**
+ * Outcome of a receivable CSV import
+ * @param file the imported file
+ * @param rowsRead data lines read, excluding the header and blank lines
+ * @param rowsImported receivables inserted
+ * @param rowsRejected lines written to the reject file
+ * @param rejectFile the reject file, one line per rejected row with its byte offset and reason
+ * @param chunks number of chunks the file was parsed in
+ * @param elapsedMillis time taken
+ * @param rowsPerSecond lines read per second
+ */
+public record ImportSummary(String file, long rowsRead, long rowsImported, long rowsRejected, String rejectFile,
+                            int chunks, long elapsedMillis, double rowsPerSecond) {
+}
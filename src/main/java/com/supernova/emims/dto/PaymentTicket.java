@@ -0,0 +1,20 @@
+package com.supernova.emims.dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Status of a payment submitted for asynchronous processing
+ * @param ticketId the ticket ID returned on submission
+ * @param status QUEUED, POSTED, REJECTED (payment not acceptable) or FAILED (processing error)
+ * @param loanAccountNo the loan account number
+ * @param paymentAmount the payment amount
+ * @param paymentMode the payment mode
+ * @param receiptId the receipt ID once POSTED, else null
+ * @param message the rejection or failure reason, else null
+ * @param submittedAt when the payment was queued
+ * @param completedAt when processing finished, null while QUEUED
+ */
+public record PaymentTicket(String ticketId, String status, String loanAccountNo, BigDecimal paymentAmount,
+                            String paymentMode, Long receiptId, String message, Date submittedAt, Date completedAt) {
+}
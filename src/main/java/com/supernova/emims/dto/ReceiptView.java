@@ -0,0 +1,31 @@
+package com.supernova.emims.dto;
+
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only receipt as returned by history reads
+ * Built straight from the query result, so it never enters the persistence context
+ * @param receiptId the receipt ID
+ * @param loanAccountNo the loan account number
+ * @param paymentAmount the amount paid
+ * @param paymentMode the payment mode
+ * @param paymentDate the day the payment was made
+ * @param reversedDate when the receipt was reversed, null if it stands
+ */
+public record ReceiptView(Long receiptId, String loanAccountNo, BigDecimal paymentAmount, PaymentMode paymentMode,
+                          LocalDate paymentDate, LocalDateTime reversedDate) {
+
+    /**
+     * @param receipt a receipt read some other way, e.g. from cold storage
+     * @return the receipt as a view
+     */
+    public static ReceiptView of(LmsReceiptPaymentDtl17557 receipt) {
+        return new ReceiptView(receipt.getReceiptId(), receipt.getLoanAccountNo(), receipt.getPaymentAmount(),
+                receipt.getPaymentMode(), receipt.getPaymentDate(), receipt.getReversedDate());
+    }
+}
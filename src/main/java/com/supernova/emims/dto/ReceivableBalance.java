@@ -0,0 +1,15 @@
+package com.supernova.emims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Outstanding balance of an account's installments, as read for EMI details
+ * Settled installments hold zero balances, so the sums are what a payment can still settle
+ * @param loanAccountNo the loan account number
+ * @param pendingEmiAmount EMI still to be paid over all installments
+ * @param penaltyCharges penalty still to be paid over all installments
+ * @param openInstallments installments with EMI or penalty still to be paid
+ */
+public record ReceivableBalance(String loanAccountNo, BigDecimal pendingEmiAmount, BigDecimal penaltyCharges,
+                                int openInstallments) {
+}
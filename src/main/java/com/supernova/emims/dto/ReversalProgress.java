@@ -0,0 +1,24 @@
+package com.supernova.emims.dto;
+
+import java.util.Date;
+
+/**
+ * Progress of a bulk payment reversal job
+ * @param jobId the job ID
+ * @param status RUNNING, COMPLETED or FAILED
+ * @param requested the number of distinct receipt IDs submitted
+ * @param processed the number of receipt IDs in committed chunks
+ * @param reversed the number of receipts reversed
+ * @param skipped processed receipts not reversed: unknown, already reversed, or without linked allocations
+ * @param allocationsReversed the number of compensating allocation rows written
+ * @param installmentsRestored the number of installment balance restorations
+ * @param receiptsPerSecond processing rate so far
+ * @param etaSeconds estimated seconds until completion, null when not running or not yet known
+ * @param startedAt when the job started
+ * @param finishedAt when the job finished, null while running
+ * @param error the failure reason of a FAILED job
+ */
+public record ReversalProgress(String jobId, String status, int requested, int processed, int reversed, int skipped,
+                               long allocationsReversed, long installmentsRestored, double receiptsPerSecond,
+                               Long etaSeconds, Date startedAt, Date finishedAt, String error) {
+}
@@ -0,0 +1,12 @@
+package com.supernova.emims.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated count and amount for one reporting key over a date range
+ * @param key the grouping key (payment mode or allocation type)
+ * @param count the number of transactions
+ * @param totalAmount the summed amount
+ */
+public record RollupTotal(String key, long count, BigDecimal totalAmount) {
+}
@@ -0,0 +1,45 @@
+package com.supernova.emims.entity;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * What an allocation settled: the penalty or the EMI of a receivable
+ * Stored in ALLOCATED_TO by its code, which the column's check constraint lists
+ *
+ * Sonar-compliant: Type-safe constants
+ */
+public enum AllocationType {
+
+    PENALTY("Penalty"),
+
+    EMI("EMI");
+
+    private final String code;
+
+    AllocationType(String code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the stored and serialised value, e.g. Penalty
+     */
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @param code the stored value
+     * @return the allocation type
+     * @throws IllegalArgumentException if the code is not Penalty or EMI
+     */
+    public static AllocationType fromCode(String code) {
+        if (PENALTY.code.equals(code)) {
+            return PENALTY;
+        }
+        if (EMI.code.equals(code)) {
+            return EMI;
+        }
+        throw new IllegalArgumentException("Unknown allocation type: " + code);
+    }
+}
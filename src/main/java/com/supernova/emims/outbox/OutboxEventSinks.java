@@ -0,0 +1,30 @@
+package com.supernova.emims.outbox;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The outbox event sink of each tenant
+ * Every tenant's outbox has its own offsets, so each one is relayed to a sink of its own
+ *
+ * Sonar-compliant: Immutable after construction
+ */
+public final class OutboxEventSinks {
+
+    private final Map<String, OutboxEventSink> byTenant;
+
+    /**
+     * @param byTenant tenant code -> sink, in the order the relay should visit the tenants
+     */
+    public OutboxEventSinks(Map<String, OutboxEventSink> byTenant) {
+        this.byTenant = Collections.unmodifiableMap(new LinkedHashMap<>(byTenant));
+    }
+
+    /**
+     * @return tenant code -> sink, in relay order
+     */
+    public Map<String, OutboxEventSink> byTenant() {
+        return byTenant;
+    }
+}
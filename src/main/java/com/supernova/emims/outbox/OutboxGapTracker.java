@@ -0,0 +1,95 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which outbox rows a consumer can take in offset order
+ * Outbox IDs are drawn when a payment is written but become visible only when its transaction
+ * commits, so a missing ID below a visible row is either a transaction still running or one that
+ * rolled back. The leading rows are handed out up to the first such gap; a gap is re-checked on
+ * every read and only given up once it has stayed open for the gap timeout, measured from when a
+ * higher ID was first seen. The timeout must exceed the longest payment transaction
+ *
+ * Sonar-compliant: Proper synchronization and bounded memory use
+ */
+public final class OutboxGapTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxGapTracker.class);
+
+    private final long gapTimeoutMillis;
+    private final LongSupplier clock;
+
+    // First ID of each open gap -> {last ID of the gap, time it was first seen}
+    private final TreeMap<Long, long[]> openGaps = new TreeMap<>();
+
+    public OutboxGapTracker(long gapTimeoutMillis, LongSupplier clock) {
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Take the rows that can be consumed now
+     * @param offset the last offset already consumed
+     * @param rows the rows after offset, in offset order
+     * @return the leading rows whose lower IDs have all committed or timed out, in offset order
+     */
+    public synchronized List<LmsPaymentOutbox17557> consumable(long offset, List<LmsPaymentOutbox17557> rows) {
+        long now = clock.getAsLong();
+        TreeMap<Long, long[]> gaps = new TreeMap<>();
+        long expected = offset + 1;
+        for (LmsPaymentOutbox17557 row : rows) {
+            long id = row.getOutboxId();
+            if (id > expected) {
+                gaps.put(expected, new long[] {id - 1, firstSeen(expected, id - 1, now)});
+            }
+            expected = Math.max(expected, id + 1);
+        }
+        openGaps.clear();
+        openGaps.putAll(gaps);
+
+        List<LmsPaymentOutbox17557> consumable = new ArrayList<>(rows.size());
+        expected = offset + 1;
+        for (LmsPaymentOutbox17557 row : rows) {
+            long id = row.getOutboxId();
+            if (id > expected) {
+                long[] gap = openGaps.get(expected);
+                if (now - gap[1] < gapTimeoutMillis) {
+                    break;
+                }
+                logger.warn("Giving up on outbox IDs {} to {}: not committed within {} ms", expected, gap[0],
+                        gapTimeoutMillis);
+                openGaps.remove(expected);
+            }
+            consumable.add(row);
+            expected = id + 1;
+        }
+        return consumable;
+    }
+
+    /**
+     * Get the number of gaps still waited for
+     * @return open gap count as of the last read
+     */
+    public synchronized int getOpenGapCount() {
+        return openGaps.size();
+    }
+
+    // A gap that shrank as IDs committed keeps the time its oldest part was first seen
+    private long firstSeen(long first, long last, long now) {
+        long seen = now;
+        Map.Entry<Long, long[]> entry = openGaps.floorEntry(last);
+        while (entry != null && entry.getValue()[0] >= first) {
+            seen = Math.min(seen, entry.getValue()[1]);
+            entry = openGaps.lowerEntry(entry.getKey());
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,124 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Relays committed outbox rows to the configured sink and to live stream subscribers
+ * Rows are read in offset order and published up to the first ID that is not visible yet;
+ * OutboxGapTracker waits for such a gap to commit, up to the gap timeout, so a transaction
+ * that commits late is still published in order rather than skipped. Each tenant's outbox is
+ * relayed in turn to its own sink, with its own offset and gaps
+ *
+ * Sonar-compliant: Proper scheduling and error handling
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final LmsPaymentOutboxDao outboxDao;
+    private final OutboxEventStream eventStream;
+    private final int batchSize;
+
+    // Tenant -> relay state, in relay order; each state is guarded by this
+    private final Map<String, TenantOutbox> outboxes = new LinkedHashMap<>();
+
+    @Autowired
+    public OutboxRelay(LmsPaymentOutboxDao outboxDao,
+                       OutboxEventSinks sinks,
+                       OutboxEventStream eventStream,
+                       @Value("${emi.outbox.relay.gap-timeout-ms:60000}") long gapTimeoutMillis,
+                       @Value("${emi.outbox.relay.batch-size:500}") int batchSize) {
+        this(outboxDao, sinks.byTenant(), eventStream, gapTimeoutMillis, System::currentTimeMillis, batchSize);
+    }
+
+    OutboxRelay(LmsPaymentOutboxDao outboxDao, Map<String, OutboxEventSink> sinks, OutboxEventStream eventStream,
+                long gapTimeoutMillis, LongSupplier clock, int batchSize) {
+        this.outboxDao = outboxDao;
+        this.eventStream = eventStream;
+        this.batchSize = batchSize;
+        sinks.forEach((tenant, sink) ->
+                outboxes.put(tenant, new TenantOutbox(sink, new OutboxGapTracker(gapTimeoutMillis, clock))));
+    }
+
+    /**
+     * Publish all committed outbox rows of every tenant after its last published offset, in offset order
+     * A tenant whose relay fails is retried on the next run; the other tenants are still relayed
+     */
+    @Scheduled(fixedDelayString = "${emi.outbox.relay.interval-ms:500}")
+    public synchronized void relay() {
+        outboxes.forEach((tenant, outbox) -> {
+            try {
+                TenantContext.runWith(tenant, () -> relay(outbox));
+            } catch (RuntimeException e) {
+                logger.error("Outbox relay failed for tenant {} after offset {}", tenant, outbox.publishedOffset, e);
+            }
+        });
+    }
+
+    private void relay(TenantOutbox outbox) {
+        if (outbox.publishedOffset < 0) {
+            outbox.publishedOffset = outbox.sink.lastPublishedOffset();
+            eventStream.advanceTo(outbox.publishedOffset);
+            logger.info("Outbox relay of tenant {} starting after offset {}", TenantContext.current(),
+                    outbox.publishedOffset);
+        }
+
+        List<LmsPaymentOutbox17557> read;
+        List<LmsPaymentOutbox17557> rows;
+        do {
+            read = outboxDao.findAfter(outbox.publishedOffset, batchSize);
+            rows = outbox.gaps.consumable(outbox.publishedOffset, read);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<OutboxEvent> events = new ArrayList<>(rows.size());
+            for (LmsPaymentOutbox17557 row : rows) {
+                events.add(OutboxEvent.from(row));
+            }
+
+            outbox.sink.publish(events);
+            outbox.publishedOffset = events.get(events.size() - 1).getOffset();
+            eventStream.publish(events);
+            logger.debug("Relayed {} outbox events up to offset {}", events.size(), outbox.publishedOffset);
+        } while (read.size() == batchSize && rows.size() == read.size());
+    }
+
+    /**
+     * Get the offset of the current tenant's last relayed event
+     * @return last published offset, or -1 before the first relay run
+     */
+    public synchronized long getPublishedOffset() {
+        TenantOutbox outbox = outboxes.get(TenantContext.current());
+        return outbox != null ? outbox.publishedOffset : -1;
+    }
+
+    /**
+     * One tenant's sink and how far it got
+     */
+    private static final class TenantOutbox {
+        private final OutboxEventSink sink;
+        private final OutboxGapTracker gaps;
+        private long publishedOffset = -1;
+
+        private TenantOutbox(OutboxEventSink sink, OutboxGapTracker gaps) {
+            this.sink = sink;
+            this.gaps = gaps;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.supernova.emims.penalty;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Set;
+
+/**
+ * Business days of a range of calendar years, precomputed for constant-time day counts
+ * Each year holds, per day of the year, the number of business days from 1 January of the first
+ * year through that day. Counting the business days between two dates is then two array reads,
+ * however far apart the dates are. Dates before the first year count as its start, dates after
+ * the last year as its end
+ *
+ * Sonar-compliant: Immutable after construction
+ */
+final class BusinessCalendar {
+
+    private final int firstYear;
+    private final int[][] businessDaysThrough;
+    private final int totalBusinessDays;
+
+    /**
+     * @param firstYear first calendar year covered
+     * @param lastYear last calendar year covered
+     * @param weekend days of the week that are never business days
+     * @param holidays bank holidays; dates outside the years are ignored
+     */
+    BusinessCalendar(int firstYear, int lastYear, Set<DayOfWeek> weekend, Set<LocalDate> holidays) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Calendar ends before it starts: " + firstYear + "-" + lastYear);
+        }
+        this.firstYear = firstYear;
+        this.businessDaysThrough = new int[lastYear - firstYear + 1][];
+
+        int count = 0;
+        for (int year = firstYear; year <= lastYear; year++) {
+            int[] days = new int[Year.of(year).length()];
+            LocalDate date = LocalDate.of(year, 1, 1);
+            for (int day = 0; day < days.length; day++, date = date.plusDays(1)) {
+                if (!weekend.contains(date.getDayOfWeek()) && !holidays.contains(date)) {
+                    count++;
+                }
+                days[day] = count;
+            }
+            businessDaysThrough[year - firstYear] = days;
+        }
+        this.totalBusinessDays = count;
+    }
+
+    /**
+     * @param from exclusive start, e.g. a due date
+     * @param to inclusive end
+     * @return business days after from up to and including to, 0 if to is not after from
+     */
+    int businessDaysAfter(LocalDate from, LocalDate to) {
+        return Math.max(0, through(to) - through(from));
+    }
+
+    int firstYear() {
+        return firstYear;
+    }
+
+    int lastYear() {
+        return firstYear + businessDaysThrough.length - 1;
+    }
+
+    private int through(LocalDate date) {
+        int index = date.getYear() - firstYear;
+        if (index < 0) {
+            return 0;
+        }
+        if (index >= businessDaysThrough.length) {
+            return totalBusinessDays;
+        }
+        return businessDaysThrough[index][date.getDayOfYear() - 1];
+    }
+}
@@ -0,0 +1,25 @@
+package com.supernova.emims.penalty;
+
+/**
+ * Penalty terms of one loan product
+ * @param product product name from the rules file
+ * @param accountPrefix loan account numbers of the product start with it; empty for the default product
+ * @param dailyRatePaise penalty per business day late, in paise
+ * @param graceDays business days after the due date before the penalty starts
+ * @param capPaise most penalty per installment, in paise, or -1 for no cap
+ */
+record PenaltyRule(String product, String accountPrefix, long dailyRatePaise, int graceDays, long capPaise) {
+
+    /**
+     * @param businessDaysLate business days since the due date
+     * @return the penalty in paise
+     */
+    long penaltyPaise(int businessDaysLate) {
+        int chargedDays = businessDaysLate - graceDays;
+        if (chargedDays <= 0) {
+            return 0;
+        }
+        long penalty = chargedDays * dailyRatePaise;
+        return capPaise >= 0 ? Math.min(penalty, capPaise) : penalty;
+    }
+}
@@ -0,0 +1,244 @@
+package com.supernova.emims.penalty;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Penalty rules compiled from a rules file
+ * Parsing validates every value and builds the business calendar, so evaluating a penalty does no
+ * parsing, no date iteration and no decimal arithmetic. Keys:
+ * <pre>
+ * calendar.first-year / calendar.last-year   years covered by the calendar
+ * calendar.weekend                           comma-separated days of the week, default SATURDAY,SUNDAY
+ * calendar.holidays.&lt;year&gt;                 comma-separated yyyy-MM-dd bank holidays of that year
+ * product.default.daily-rate                 penalty per business day late, at most two decimals
+ * product.default.grace-days                 business days after the due date without penalty
+ * product.default.cap                        most penalty per installment, empty for none
+ * product.&lt;name&gt;.account-prefix            account numbers of another product, with its own
+ *                                            daily-rate, grace-days and cap
+ * </pre>
+ *
+ * Sonar-compliant: Immutable after construction, proper validation
+ */
+public final class PenaltyRuleSet {
+
+    static final String DEFAULT_PRODUCT = "default";
+
+    private static final String PRODUCT_PREFIX = "product.";
+    private static final String HOLIDAYS_PREFIX = "calendar.holidays.";
+
+    private final BusinessCalendar calendar;
+    private final int productCount;
+    // Account-prefix trie: the lookup walks at most the longest prefix, whatever the product count
+    private final PrefixNode products;
+
+    private PenaltyRuleSet(BusinessCalendar calendar, List<PenaltyRule> rules) {
+        this.calendar = calendar;
+        this.productCount = rules.size();
+        this.products = new PrefixNode();
+        for (PenaltyRule rule : rules) {
+            PrefixNode node = products;
+            for (int i = 0; i < rule.accountPrefix().length(); i++) {
+                char c = rule.accountPrefix().charAt(i);
+                if (node.next[c] == null) {
+                    node.next[c] = new PrefixNode();
+                }
+                node = node.next[c];
+            }
+            if (node.rule != null) {
+                throw new IllegalArgumentException("Products " + node.rule.product() + " and " + rule.product()
+                        + " have the same account-prefix");
+            }
+            node.rule = rule;
+        }
+    }
+
+    /**
+     * Compile a rule set
+     * @param properties the rules file
+     * @return the compiled rules
+     * @throws IllegalArgumentException if a value is missing or invalid
+     */
+    public static PenaltyRuleSet parse(Properties properties) {
+        int firstYear = intValue(properties, "calendar.first-year", null);
+        int lastYear = intValue(properties, "calendar.last-year", null);
+        if (lastYear < firstYear || lastYear - firstYear > 200) {
+            throw new IllegalArgumentException("calendar.first-year and calendar.last-year must span 1 to 200 years");
+        }
+
+        Set<DayOfWeek> weekend = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : list(properties.getProperty("calendar.weekend", "SATURDAY,SUNDAY"))) {
+            try {
+                weekend.add(DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("calendar.weekend: not a day of the week: " + day, e);
+            }
+        }
+
+        Set<LocalDate> holidays = new HashSet<>();
+        Set<String> products = new TreeSet<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(HOLIDAYS_PREFIX)) {
+                holidays.addAll(holidays(properties, key));
+            } else if (key.startsWith(PRODUCT_PREFIX) && key.indexOf('.', PRODUCT_PREFIX.length()) > 0) {
+                products.add(key.substring(PRODUCT_PREFIX.length(), key.indexOf('.', PRODUCT_PREFIX.length())));
+            }
+        }
+        if (!products.contains(DEFAULT_PRODUCT)) {
+            throw new IllegalArgumentException("Missing product." + DEFAULT_PRODUCT + ".daily-rate");
+        }
+
+        List<PenaltyRule> rules = new ArrayList<>();
+        for (String product : products) {
+            rules.add(rule(properties, product));
+        }
+        return new PenaltyRuleSet(new BusinessCalendar(firstYear, lastYear, weekend, holidays), rules);
+    }
+
+    /**
+     * Penalty of one installment
+     * @param loanAccountNo the loan account number, which selects the product
+     * @param dueDate the installment due date
+     * @param asOf the day the penalty is calculated for
+     * @return the penalty in paise
+     */
+    public long penaltyPaise(String loanAccountNo, LocalDate dueDate, LocalDate asOf) {
+        return ruleFor(loanAccountNo).penaltyPaise(calendar.businessDaysAfter(dueDate, asOf));
+    }
+
+    /**
+     * @return number of products, the default included
+     */
+    public int productCount() {
+        return productCount;
+    }
+
+    /**
+     * @return first and last calendar years covered, e.g. 2020-2035
+     */
+    public String calendarYears() {
+        return calendar.firstYear() + "-" + calendar.lastYear();
+    }
+
+    /**
+     * @return the product with the longest account prefix the account number starts with
+     */
+    PenaltyRule ruleFor(String loanAccountNo) {
+        // The default product has the empty prefix, at the root
+        PenaltyRule match = products.rule;
+        PrefixNode node = products;
+        for (int i = 0; i < loanAccountNo.length(); i++) {
+            char c = loanAccountNo.charAt(i);
+            node = c < PrefixNode.WIDTH ? node.next[c] : null;
+            if (node == null) {
+                break;
+            }
+            if (node.rule != null) {
+                match = node.rule;
+            }
+        }
+        return match;
+    }
+
+    private static PenaltyRule rule(Properties properties, String product) {
+        String prefix = PRODUCT_PREFIX + product + ".";
+        String accountPrefix = properties.getProperty(prefix + "account-prefix", "").trim();
+        if (DEFAULT_PRODUCT.equals(product) != accountPrefix.isEmpty()) {
+            throw new IllegalArgumentException(DEFAULT_PRODUCT.equals(product)
+                    ? "The default product takes no account-prefix"
+                    : "Missing " + prefix + "account-prefix");
+        }
+        if (!accountPrefix.chars().allMatch(c -> c < PrefixNode.WIDTH && Character.isLetterOrDigit(c))) {
+            throw new IllegalArgumentException(prefix + "account-prefix must be letters and digits: " + accountPrefix);
+        }
+        long dailyRate = paise(properties, prefix + "daily-rate", null);
+        int graceDays = intValue(properties, prefix + "grace-days", "0");
+        long cap = paise(properties, prefix + "cap", "");
+        if (dailyRate < 0 || graceDays < 0) {
+            throw new IllegalArgumentException(prefix + "daily-rate and grace-days must not be negative");
+        }
+        return new PenaltyRule(product, accountPrefix, dailyRate, graceDays, cap);
+    }
+
+    private static List<LocalDate> holidays(Properties properties, String key) {
+        int year = parseInt(key, key.substring(HOLIDAYS_PREFIX.length()));
+        List<LocalDate> dates = new ArrayList<>();
+        for (String value : list(properties.getProperty(key))) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(value);
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException(key + ": not a yyyy-MM-dd date: " + value, e);
+            }
+            if (date.getYear() != year) {
+                throw new IllegalArgumentException(key + ": " + value + " is not in " + year);
+            }
+            dates.add(date);
+        }
+        return dates;
+    }
+
+    /**
+     * @return the amount in paise, or -1 when the key is blank and blank is allowed
+     */
+    private static long paise(Properties properties, String key, String defaultValue) {
+        String value = value(properties, key, defaultValue);
+        if (value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return new BigDecimal(value).movePointRight(2).longValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not an amount with at most two decimals: " + value, e);
+        }
+    }
+
+    private static int intValue(Properties properties, String key, String defaultValue) {
+        return parseInt(key, value(properties, key, defaultValue));
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + ": not a whole number: " + value, e);
+        }
+    }
+
+    private static String value(Properties properties, String key, String defaultValue) {
+        String value = properties.getProperty(key, defaultValue);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + key);
+        }
+        return value.trim();
+    }
+
+    private static List<String> list(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.isBlank()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    private static final class PrefixNode {
+
+        // Account numbers are ASCII letters and digits
+        static final int WIDTH = 128;
+
+        final PrefixNode[] next = new PrefixNode[WIDTH];
+        PenaltyRule rule;
+    }
+}
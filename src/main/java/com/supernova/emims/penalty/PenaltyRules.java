@@ -0,0 +1,133 @@
+package com.supernova.emims.penalty;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.Properties;
+
+/**
+ * Late-payment penalties of EMI installments
+ * Rules are read from the properties file in emi.penalty.rules-file (see
+ * penalty-rules.example.properties), compiled once and re-read when the file changes. Without a
+ * rules file every account pays ₹10 per business day late, weekends excluded, with no grace and no cap.
+ * Penalties are accrued into the installments daily by PenaltyAccrualServiceImpl
+ *
+ * Sonar-compliant: Proper configuration handling and thread-safety
+ */
+@Component
+public class PenaltyRules {
+
+    private static final Logger logger = LoggerFactory.getLogger(PenaltyRules.class);
+    private static final BigDecimal NO_PENALTY = BigDecimal.valueOf(0, 2);
+
+    private final String rulesFile;
+
+    private volatile PenaltyRuleSet ruleSet;
+    private volatile FileTime loadedVersion;
+
+    public PenaltyRules(@Value("${emi.penalty.rules-file:}") String rulesFile) {
+        this.rulesFile = rulesFile;
+        if (hasRulesFile()) {
+            reload();
+        } else {
+            ruleSet = PenaltyRuleSet.parse(builtInRules());
+        }
+    }
+
+    /**
+     * Penalty of one installment
+     * @param loanAccountNo the loan account number, which selects the product
+     * @param pendingAmount the EMI amount still pending; nothing pending means no penalty
+     * @param dueDate the installment due date
+     * @param asOf the day the penalty is calculated for
+     * @return the penalty, with two decimals
+     */
+    public BigDecimal penalty(String loanAccountNo, BigDecimal pendingAmount, LocalDate dueDate, LocalDate asOf) {
+        if (pendingAmount.signum() <= 0) {
+            return NO_PENALTY;
+        }
+        return BigDecimal.valueOf(ruleSet.penaltyPaise(loanAccountNo, dueDate, asOf), 2);
+    }
+
+    /**
+     * Penalty an installment incurred between two days, for accruing it day by day
+     * Both days are priced with the same rules, so grace days and caps hold over the whole delay.
+     * A rules change that lowers the penalty accrues nothing; what was charged is kept
+     * @param loanAccountNo the loan account number, which selects the product
+     * @param pendingAmount the EMI amount still pending; nothing pending means no penalty
+     * @param dueDate the installment due date
+     * @param accruedDate the day the penalty was last accrued up to, null for none since the due date
+     * @param asOf the day the penalty is accrued up to now
+     * @return the penalty to add, with two decimals
+     */
+    public BigDecimal penaltySince(String loanAccountNo, BigDecimal pendingAmount, LocalDate dueDate,
+                                   LocalDate accruedDate, LocalDate asOf) {
+        if (pendingAmount.signum() <= 0) {
+            return NO_PENALTY;
+        }
+        PenaltyRuleSet rules = ruleSet;
+        long accrued = accruedDate != null ? rules.penaltyPaise(loanAccountNo, dueDate, accruedDate) : 0;
+        return BigDecimal.valueOf(Math.max(0, rules.penaltyPaise(loanAccountNo, dueDate, asOf) - accrued), 2);
+    }
+
+    /**
+     * Re-read the rules file if it changed since the last load
+     * A file that cannot be read or is invalid keeps the previous rules
+     */
+    @Scheduled(fixedDelayString = "${emi.penalty.reload-interval-ms:30000}")
+    public void refresh() {
+        if (!hasRulesFile()) {
+            return;
+        }
+        try {
+            if (!Files.getLastModifiedTime(Path.of(rulesFile)).equals(loadedVersion)) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Keeping current penalty rules, could not reload {}", rulesFile, e);
+        }
+    }
+
+    private boolean hasRulesFile() {
+        return !rulesFile.isBlank();
+    }
+
+    private synchronized void reload() {
+        Path path = Path.of(rulesFile);
+        Properties properties = new Properties();
+        FileTime version;
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            version = Files.getLastModifiedTime(path);
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read penalty rules file " + rulesFile, e);
+        }
+
+        PenaltyRuleSet compiled = PenaltyRuleSet.parse(properties);
+        ruleSet = compiled;
+        loadedVersion = version;
+        logger.info("Loaded penalty rules for {} products, calendar {}", compiled.productCount(),
+                compiled.calendarYears());
+    }
+
+    private static Properties builtInRules() {
+        int year = LocalDate.now().getYear();
+        Properties properties = new Properties();
+        properties.setProperty("calendar.first-year", String.valueOf(year - 20));
+        properties.setProperty("calendar.last-year", String.valueOf(year + 10));
+        properties.setProperty("product.default.daily-rate", "10.00");
+        return properties;
+    }
+}
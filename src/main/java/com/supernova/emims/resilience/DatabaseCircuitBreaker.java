@@ -0,0 +1,273 @@
+package com.supernova.emims.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.JDBCConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for the Oracle database
+ * Closed: calls pass and their outcomes fill a sliding window; when enough of the last calls
+ * failed or were slow, the breaker opens. Open: transactions are refused before a connection
+ * is requested. After the open period a few probe transactions are let through (half-open);
+ * a probe counts once, when its transaction ends, however many calls it made. When every probe
+ * has ended without a database failure the breaker closes; if one call fails it opens again.
+ * Only connection failures and slow or timed out calls count; business errors do not, and
+ * neither do queries cancelled early because the client allowed them little time
+ *
+ * Sonar-compliant: Proper state management and thread safety
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    /**
+     * Breaker states; the ordinal is the value of the emi.db.breaker.state gauge
+     */
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /**
+     * Permission for one transaction; a probe reports back through onProbeCompleted when it ends
+     * @param probe true when let through half-open
+     * @param round the half-open round the probe belongs to
+     */
+    public record Permission(boolean probe, long round) {
+        static final Permission UNRESTRICTED = new Permission(false, -1);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+    private final Counter rejected;
+    private final Counter opened;
+
+    // Guarded by this; outcomes of the last calls while closed, true = failed or slow
+    private final boolean[] window;
+    private int windowCount;
+    private int windowNext;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long stateSinceNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+    private long round;
+
+    @Autowired
+    public DatabaseCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${emi.db.breaker.window-size:20}") int windowSize,
+                                  @Value("${emi.db.breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${emi.db.breaker.failure-rate-percent:50}") int failureRateThreshold,
+                                  @Value("${emi.db.breaker.slow-call-ms:3000}") long slowCallMillis,
+                                  @Value("${emi.db.breaker.open-ms:10000}") long openMillis,
+                                  @Value("${emi.db.breaker.half-open-probes:3}") int halfOpenProbes) {
+        this(meterRegistry, windowSize, minimumCalls, failureRateThreshold, slowCallMillis, openMillis, halfOpenProbes,
+                System::nanoTime);
+    }
+
+    DatabaseCircuitBreaker(MeterRegistry meterRegistry, int windowSize, int minimumCalls, int failureRateThreshold,
+                           long slowCallMillis, long openMillis, int halfOpenProbes, LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("emi.db.breaker.minimum-calls must be between 1 and window-size ["
+                    + windowSize + "]: " + minimumCalls);
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100) {
+            throw new IllegalArgumentException("emi.db.breaker.failure-rate-percent must be between 1 and 100: "
+                    + failureRateThreshold);
+        }
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("emi.db.breaker.half-open-probes must be at least 1: " + halfOpenProbes);
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallMillis * 1_000_000L;
+        this.openNanos = openMillis * 1_000_000L;
+        this.halfOpenProbes = halfOpenProbes;
+        this.nanoClock = nanoClock;
+        this.rejected = Counter.builder("emi.db.breaker.rejected")
+                .description("Transactions refused while the database circuit breaker was open")
+                .register(meterRegistry);
+        this.opened = Counter.builder("emi.db.breaker.opened")
+                .description("Times the database circuit breaker opened")
+                .register(meterRegistry);
+        Gauge.builder("emi.db.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("Database circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Let a transaction through or refuse it
+     * Called before the transaction requests a connection
+     * @return the permission, to be passed to onProbeCompleted when a probe's transaction ends
+     * @throws DatabaseUnavailableException while open, or half-open with all probes in flight
+     */
+    public synchronized Permission acquirePermission() {
+        long now = nanoClock.getAsLong();
+        if (state == State.OPEN && now - stateSinceNanos >= openNanos) {
+            transitionTo(State.HALF_OPEN, now);
+        }
+        if (state == State.HALF_OPEN && probesStarted >= halfOpenProbes && now - stateSinceNanos >= openNanos) {
+            // Probes still running after a full open period are not waited for; start a new round
+            transitionTo(State.HALF_OPEN, now);
+        }
+
+        if (state == State.CLOSED) {
+            return Permission.UNRESTRICTED;
+        }
+        if (state == State.HALF_OPEN && probesStarted < halfOpenProbes) {
+            probesStarted++;
+            return new Permission(true, round);
+        }
+        rejected.increment();
+        long retryAfterSeconds = Math.max(1, (openNanos - (now - stateSinceNanos) + 999_999_999L) / 1_000_000_000L);
+        throw new DatabaseUnavailableException("Database unavailable, retry later", retryAfterSeconds);
+    }
+
+    /**
+     * Record a database call that returned normally
+     * @param durationNanos how long the call took
+     */
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos);
+    }
+
+    /**
+     * Record a database call that threw
+     * Failures that are not the database's fault are ignored
+     * @param failure the exception thrown by the call
+     * @param durationNanos how long the call took
+     */
+    public void onError(Throwable failure, long durationNanos) {
+        if (isConnectionFailure(failure)) {
+            record(true);
+        } else if (isTimeout(failure) && durationNanos >= slowCallNanos) {
+            record(true);
+        }
+    }
+
+    /**
+     * Record the end of a transaction let through by acquirePermission
+     * A probe succeeds when its transaction committed or rolled back normally; a connection
+     * failure opens the breaker again, and any other failure frees the probe for another transaction
+     * @param permission the permission the transaction began with
+     * @param failure the exception that ended the transaction, or null
+     */
+    public synchronized void onProbeCompleted(Permission permission, Throwable failure) {
+        if (!permission.probe() || state != State.HALF_OPEN || permission.round() != round) {
+            // Not a probe, or one of a round that has already been decided
+            return;
+        }
+        if (failure == null) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                logger.info("Database circuit breaker closing after {} successful probes", probesSucceeded);
+                transitionTo(State.CLOSED, nanoClock.getAsLong());
+            }
+        } else if (isConnectionFailure(failure)) {
+            logger.warn("Database circuit breaker probe failed, opening again");
+            transitionTo(State.OPEN, nanoClock.getAsLong());
+        } else {
+            probesStarted--;
+        }
+    }
+
+    /**
+     * @return the current state, without moving an expired open breaker to half-open
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @param failure an exception thrown by a database call or transaction begin
+     * @return true when the cause chain shows the database or the pool could not be reached
+     */
+    static boolean isConnectionFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DatabaseUnavailableException) {
+                return false;
+            }
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof JDBCConnectionException
+                    || cause instanceof DataAccessResourceFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof jakarta.persistence.QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void record(boolean failed) {
+        long now = nanoClock.getAsLong();
+        switch (state) {
+            case CLOSED -> {
+                if (windowCount == window.length && window[windowNext]) {
+                    windowFailures--;
+                }
+                window[windowNext] = failed;
+                windowNext = (windowNext + 1) % window.length;
+                windowCount = Math.min(windowCount + 1, window.length);
+                if (failed) {
+                    windowFailures++;
+                }
+                if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+                    logger.warn("Database circuit breaker opening: {} of the last {} calls failed or were slow",
+                            windowFailures, windowCount);
+                    transitionTo(State.OPEN, now);
+                }
+            }
+            case HALF_OPEN -> {
+                // Successful calls are not counted here: a probe counts once, in onProbeCompleted
+                if (failed) {
+                    logger.warn("Database circuit breaker probe failed, opening again");
+                    transitionTo(State.OPEN, now);
+                }
+            }
+            case OPEN -> {
+                // Late outcome of a call started before the breaker opened
+            }
+        }
+    }
+
+    private void transitionTo(State next, long now) {
+        if (next == State.OPEN) {
+            opened.increment();
+        }
+        state = next;
+        stateSinceNanos = now;
+        round++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        windowCount = 0;
+        windowNext = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.supernova.emims.resilience;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * Thrown instead of touching the database while the circuit breaker is open
+ * Raised before a connection is requested, so callers fail within microseconds
+ *
+ * Sonar-compliant: Dedicated exception type for a distinct failure
+ */
+public class DatabaseUnavailableException extends TransientDataAccessResourceException {
+
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return seconds until the breaker lets probe requests through again, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
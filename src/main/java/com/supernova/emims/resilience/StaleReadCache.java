@@ -0,0 +1,128 @@
+package com.supernova.emims.resilience;
+
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Last-known-good EMI details and recent payment history, per tenant and loan account
+ * Filled from successful reads and served, flagged as stale, while the database is
+ * unavailable. Each tenant has its own namespace holding its most recently used accounts
+ * only, so a busy tenant cannot push another tenant's accounts out
+ *
+ * Sonar-compliant: Bounded memory and thread safety
+ */
+@Component
+public class StaleReadCache {
+
+    /**
+     * A value as read from the database
+     * @param value the value
+     * @param capturedAt when it was read
+     */
+    public record Snapshot<T>(T value, Date capturedAt) {
+    }
+
+    private final int maxAccounts;
+    private final int historySize;
+    private final ConcurrentMap<String, Namespace> namespaces = new ConcurrentHashMap<>();
+
+    public StaleReadCache(@Value("${emi.db.stale.max-accounts:10000}") int maxAccounts,
+                          @Value("${emi.db.stale.history-size:20}") int historySize) {
+        if (maxAccounts < 1) {
+            throw new IllegalArgumentException("emi.db.stale.max-accounts must be at least 1: " + maxAccounts);
+        }
+        if (historySize < 1) {
+            throw new IllegalArgumentException("emi.db.stale.history-size must be at least 1: " + historySize);
+        }
+        this.maxAccounts = maxAccounts;
+        this.historySize = historySize;
+    }
+
+    /**
+     * Remember EMI details that were just read
+     * @param details the EMI details of one loan account
+     */
+    public void putEmiDetails(EmiManagementService.EmiDetails details) {
+        Map<String, Snapshot<EmiManagementService.EmiDetails>> emiDetails = namespace().emiDetails;
+        synchronized (emiDetails) {
+            emiDetails.put(details.getLoanAccountNo(), new Snapshot<>(details, new Date()));
+        }
+    }
+
+    /**
+     * @param loanAccountNo the loan account number
+     * @return the last EMI details read for the account, if any
+     */
+    public Optional<Snapshot<EmiManagementService.EmiDetails>> getEmiDetails(String loanAccountNo) {
+        Map<String, Snapshot<EmiManagementService.EmiDetails>> emiDetails = namespace().emiDetails;
+        synchronized (emiDetails) {
+            return Optional.ofNullable(emiDetails.get(loanAccountNo));
+        }
+    }
+
+    /**
+     * Remember the most recent payments of a history that was just read
+     * @param loanAccountNo the loan account number
+     * @param payments the payment history, newest first
+     */
+    public void putHistory(String loanAccountNo, List<ReceiptView> payments) {
+        List<ReceiptView> recent = List.copyOf(payments.subList(0, Math.min(historySize, payments.size())));
+        Map<String, Snapshot<List<ReceiptView>>> history = namespace().history;
+        synchronized (history) {
+            history.put(loanAccountNo, new Snapshot<>(recent, new Date()));
+        }
+    }
+
+    /**
+     * @param loanAccountNo the loan account number
+     * @return the most recent payments last read for the account, newest first, if any
+     */
+    public Optional<Snapshot<List<ReceiptView>>> getHistory(String loanAccountNo) {
+        Map<String, Snapshot<List<ReceiptView>>> history = namespace().history;
+        synchronized (history) {
+            return Optional.ofNullable(history.get(loanAccountNo));
+        }
+    }
+
+    /**
+     * @return the current tenant's namespace; tenants are the configured few, so these stay bounded
+     */
+    private Namespace namespace() {
+        return namespaces.computeIfAbsent(TenantContext.current(), tenant -> new Namespace(maxAccounts));
+    }
+
+    /**
+     * One tenant's snapshots
+     */
+    private static final class Namespace {
+
+        // Guarded by themselves; access order, least recently used accounts are dropped
+        private final Map<String, Snapshot<EmiManagementService.EmiDetails>> emiDetails;
+        private final Map<String, Snapshot<List<ReceiptView>>> history;
+
+        private Namespace(int maxAccounts) {
+            this.emiDetails = boundedMap(maxAccounts);
+            this.history = boundedMap(maxAccounts);
+        }
+    }
+
+    private static <T> Map<String, Snapshot<T>> boundedMap(int maxAccounts) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot<T>> eldest) {
+                return size() > maxAccounts;
+            }
+        };
+    }
+}
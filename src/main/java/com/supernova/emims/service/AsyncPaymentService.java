@@ -0,0 +1,33 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dto.PaymentTicket;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Service interface for asynchronous payment submission
+ * Payments are queued and later posted through EmiManagementService.processPayment;
+ * callers get a ticket to look up the outcome
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface AsyncPaymentService {
+
+    /**
+     * Queue a payment for processing
+     * @param loanAccountNo the loan account number
+     * @param paymentAmount the payment amount
+     * @param paymentMode the payment mode
+     * @return the QUEUED ticket
+     * @throws IllegalArgumentException if the payment is invalid
+     * @throws IllegalStateException if the queue is full or shutting down
+     */
+    PaymentTicket submit(String loanAccountNo, BigDecimal paymentAmount, String paymentMode);
+
+    /**
+     * Get the status of a submitted payment
+     * @param ticketId the ticket ID
+     * @return Optional containing the ticket if it is known
+     */
+    Optional<PaymentTicket> getTicket(String ticketId);
+}
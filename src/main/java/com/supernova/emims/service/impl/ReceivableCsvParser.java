@@ -0,0 +1,319 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses receivable CSV lines straight from a mapped file
+ * Fields are validated and converted from the bytes in place; the only objects made for a valid
+ * row are the account number, the amounts and the row itself. Lines are
+ * LOAN_ACCOUNT_NO,EMI_CYCLE,DUE_DATE,INSTALLMENT_AMOUNT,PENDING_EMI_AMOUNT,PENALTY_CHARGES,REMAINING_INSTALLMENTS
+ * with EMI_CYCLE as yyyymm, DUE_DATE as yyyy-MM-dd and amounts with at most two decimals.
+ * An optional header line is skipped
+ *
+ * Sonar-compliant: Proper validation and resource management
+ */
+final class ReceivableCsvParser {
+
+    static final String HEADER = "LOAN_ACCOUNT_NO,EMI_CYCLE,DUE_DATE,INSTALLMENT_AMOUNT,PENDING_EMI_AMOUNT,"
+            + "PENALTY_CHARGES,REMAINING_INSTALLMENTS";
+
+    private static final int FIELDS = 7;
+    private static final int MAX_ACCOUNT_LENGTH = 20;
+    // NUMBER(10,2): eight integer digits
+    private static final long MAX_UNSCALED_AMOUNT = 9_999_999_999L;
+    private static final int BOUNDARY_SCAN_BYTES = 64 * 1024;
+    private static final byte[] HEADER_BYTES = HEADER.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Receives the outcome of each line
+     */
+    interface RowHandler {
+
+        /**
+         * @param offset byte offset of the line in the file
+         * @param receivable the parsed row, without an ID
+         */
+        void row(long offset, LmsReceivablePayableDtl17557 receivable);
+
+        /**
+         * @param offset byte offset of the line in the file
+         * @param reason why the line was rejected
+         * @param line the line as read
+         */
+        void reject(long offset, String reason, String line);
+    }
+
+    private ReceivableCsvParser() {
+    }
+
+    /**
+     * Split a file into chunks of about chunkBytes that start and end at line boundaries
+     * @param channel the file
+     * @param chunkBytes target chunk size; chunks are mapped one at a time, so at most 2GB
+     * @return chunk start offsets followed by the file size
+     */
+    static long[] chunkBoundaries(FileChannel channel, long chunkBytes) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long start = 0;
+        while (size - start > chunkBytes) {
+            long end = nextLineStart(channel, start + chunkBytes, size);
+            if (end >= size) {
+                break;
+            }
+            boundaries.add(end);
+            start = end;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Map a chunk read-only
+     * @param channel the file
+     * @param start first byte of the chunk
+     * @param end byte after the chunk
+     * @return the mapped chunk
+     */
+    static MappedByteBuffer map(FileChannel channel, long start, long end) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    /**
+     * Parse every line of a chunk
+     * @param buffer the chunk, positioned at a line start
+     * @param baseOffset file offset of the buffer's first byte, used to report rejects
+     * @param handler receives rows and rejects in file order
+     * @return number of data lines read, excluding the header and blank lines
+     */
+    static long parse(ByteBuffer buffer, long baseOffset, RowHandler handler) {
+        long lines = 0;
+        int limit = buffer.limit();
+        int lineStart = buffer.position();
+        int[] fieldEnds = new int[FIELDS];
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+            if (contentEnd > lineStart && !(baseOffset + lineStart == 0 && isHeader(buffer, lineStart, contentEnd))) {
+                lines++;
+                parseLine(buffer, lineStart, contentEnd, baseOffset, fieldEnds, handler);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return lines;
+    }
+
+    private static void parseLine(ByteBuffer buffer, int start, int end, long baseOffset, int[] fieldEnds,
+                                  RowHandler handler) {
+        int fields = 0;
+        for (int i = start; i < end && fields < FIELDS; i++) {
+            if (buffer.get(i) == ',') {
+                fieldEnds[fields++] = i;
+            }
+        }
+        if (fields != FIELDS - 1) {
+            reject(buffer, start, end, baseOffset, "Expected " + FIELDS + " fields", handler);
+            return;
+        }
+        fieldEnds[FIELDS - 1] = end;
+
+        int accountEnd = fieldEnds[0];
+        if (!isAccountNo(buffer, start, accountEnd)) {
+            reject(buffer, start, end, baseOffset, "Invalid LOAN_ACCOUNT_NO", handler);
+            return;
+        }
+        long emiCycle = parseDigits(buffer, fieldEnds[0] + 1, fieldEnds[1]);
+        long month = emiCycle % 100;
+        if (emiCycle < 190001 || emiCycle > 999912 || month < 1 || month > 12) {
+            reject(buffer, start, end, baseOffset, "Invalid EMI_CYCLE, expected yyyymm", handler);
+            return;
+        }
+        LocalDate dueDate = parseDate(buffer, fieldEnds[1] + 1, fieldEnds[2]);
+        if (dueDate == null) {
+            reject(buffer, start, end, baseOffset, "Invalid DUE_DATE, expected yyyy-MM-dd", handler);
+            return;
+        }
+        long installment = parseAmount(buffer, fieldEnds[2] + 1, fieldEnds[3]);
+        long pending = parseAmount(buffer, fieldEnds[3] + 1, fieldEnds[4]);
+        long penalty = parseAmount(buffer, fieldEnds[4] + 1, fieldEnds[5]);
+        if (installment <= 0 || pending < 0 || penalty < 0) {
+            reject(buffer, start, end, baseOffset, "Invalid amount, expected a positive installment "
+                    + "and non-negative pending and penalty amounts with at most two decimals", handler);
+            return;
+        }
+        if (pending + penalty > MAX_UNSCALED_AMOUNT) {
+            reject(buffer, start, end, baseOffset, "TOTAL_AMOUNT too large", handler);
+            return;
+        }
+        long remaining = parseDigits(buffer, fieldEnds[5] + 1, fieldEnds[6]);
+        if (remaining < 0 || remaining > 9999) {
+            reject(buffer, start, end, baseOffset, "Invalid REMAINING_INSTALLMENTS", handler);
+            return;
+        }
+
+        LmsReceivablePayableDtl17557 receivable = new LmsReceivablePayableDtl17557(
+                LoanAccountNumbers.canonical(ascii(buffer, start, accountEnd)), BigDecimal.valueOf(pending, 2),
+                BigDecimal.valueOf(penalty, 2), BigDecimal.valueOf(pending + penalty, 2), dueDate);
+        receivable.setInstallmentAmount(BigDecimal.valueOf(installment, 2));
+        receivable.setEmiCycle((int) emiCycle);
+        receivable.setRemainingInstallments((int) remaining);
+        handler.row(baseOffset + start, receivable);
+    }
+
+    private static boolean isHeader(ByteBuffer buffer, int start, int end) {
+        if (end - start != HEADER_BYTES.length) {
+            return false;
+        }
+        for (int i = 0; i < HEADER_BYTES.length; i++) {
+            if (buffer.get(start + i) != HEADER_BYTES[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccountNo(ByteBuffer buffer, int start, int end) {
+        if (end <= start || end - start > MAX_ACCOUNT_LENGTH) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (!(b >= '0' && b <= '9' || b >= 'A' && b <= 'Z' || b >= 'a' && b <= 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the unsigned integer in [start, end), or -1 if it is empty, not all digits or too long
+     */
+    private static long parseDigits(ByteBuffer buffer, int start, int end) {
+        if (end <= start || end - start > 9) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return the amount in [start, end) in paise, or -1 if it is not a non-negative amount with
+     *         at most two decimals that fits NUMBER(10,2)
+     */
+    private static long parseAmount(ByteBuffer buffer, int start, int end) {
+        int point = end;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == '.') {
+                point = i;
+                break;
+            }
+        }
+        long whole = parseDigits(buffer, start, point);
+        if (whole < 0 || point - start > 8) {
+            return -1;
+        }
+        long fraction = 0;
+        int decimals = end - point - 1;
+        if (point < end) {
+            if (decimals < 1 || decimals > 2) {
+                return -1;
+            }
+            fraction = parseDigits(buffer, point + 1, end);
+            if (fraction < 0) {
+                return -1;
+            }
+            if (decimals == 1) {
+                fraction *= 10;
+            }
+        }
+        return whole * 100 + fraction;
+    }
+
+    private static LocalDate parseDate(ByteBuffer buffer, int start, int end) {
+        if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+            return null;
+        }
+        long year = parseDigits(buffer, start, start + 4);
+        long month = parseDigits(buffer, start + 5, start + 7);
+        long day = parseDigits(buffer, start + 8, end);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of((int) year, (int) month, (int) day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read back one line of a chunk, e.g. to report a row the database refused
+     * @param buffer the chunk
+     * @param start buffer index of the line start
+     * @return the line without its terminator
+     */
+    static String lineAt(ByteBuffer buffer, int start) {
+        int end = start;
+        while (end < buffer.limit() && buffer.get(end) != '\n') {
+            end++;
+        }
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] line = new byte[end - start];
+        buffer.get(start, line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    private static void reject(ByteBuffer buffer, int start, int end, long baseOffset, String reason,
+                               RowHandler handler) {
+        byte[] line = new byte[end - start];
+        buffer.get(start, line);
+        handler.reject(baseOffset + start, reason, new String(line, StandardCharsets.UTF_8));
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        long position = from;
+        while (position < size) {
+            int length = (int) Math.min(BOUNDARY_SCAN_BYTES, size - position);
+            MappedByteBuffer window = map(channel, position, position + length);
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+}
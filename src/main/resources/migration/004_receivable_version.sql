@@ -0,0 +1,7 @@
+-- EMI Management System - Migration 004
+-- Adds the optimistic lock version used by the conditional balance update in processPayment.
+-- Existing rows start at version 0.
+
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 ADD (VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.VERSION IS 'Optimistic lock version, bumped by every balance update';
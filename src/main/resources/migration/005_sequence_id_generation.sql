@@ -0,0 +1,46 @@
+-- EMI Management System - Migration 005
+-- Aligns ID generation with the entity mappings and the JDBC payment posting path.
+-- Receivable, receipt and allocation sequences hand out blocks of 50 IDs per call;
+-- the outbox sequence stays at 1 because its IDs are relay offsets.
+-- The triggers only fill in an ID when the insert does not supply one; previously they
+-- overwrote the ID Hibernate had assigned, so entities carried a different ID than their row.
+
+ALTER SEQUENCE SEQ_RECEIVABLE_ID INCREMENT BY 50 CACHE 20;
+ALTER SEQUENCE SEQ_RECEIPT_ID INCREMENT BY 50 CACHE 20;
+ALTER SEQUENCE SEQ_ALLOCATION_ID INCREMENT BY 50 CACHE 20;
+
+CREATE OR REPLACE TRIGGER TRG_RECEIVABLE_ID
+    BEFORE INSERT ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    FOR EACH ROW
+    WHEN (NEW.RECEIVABLE_ID IS NULL)
+BEGIN
+    :NEW.RECEIVABLE_ID := SEQ_RECEIVABLE_ID.NEXTVAL;
+END;
+/
+
+CREATE OR REPLACE TRIGGER TRG_RECEIPT_ID
+    BEFORE INSERT ON LMS_RECEIPT_PAYMENT_DTL_17557
+    FOR EACH ROW
+    WHEN (NEW.RECEIPT_ID IS NULL)
+BEGIN
+    :NEW.RECEIPT_ID := SEQ_RECEIPT_ID.NEXTVAL;
+END;
+/
+
+CREATE OR REPLACE TRIGGER TRG_ALLOCATION_ID
+    BEFORE INSERT ON LMS_ALLOCATION_DTL_17557_
+    FOR EACH ROW
+    WHEN (NEW.ALLOCATION_ID IS NULL)
+BEGIN
+    :NEW.ALLOCATION_ID := SEQ_ALLOCATION_ID.NEXTVAL;
+END;
+/
+
+CREATE OR REPLACE TRIGGER TRG_OUTBOX_ID
+    BEFORE INSERT ON LMS_PAYMENT_OUTBOX_17557
+    FOR EACH ROW
+    WHEN (NEW.OUTBOX_ID IS NULL)
+BEGIN
+    :NEW.OUTBOX_ID := SEQ_OUTBOX_ID.NEXTVAL;
+END;
+/
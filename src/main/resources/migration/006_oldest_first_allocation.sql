@@ -0,0 +1,22 @@
+-- EMI Management System - Migration 006
+-- Supports oldest-first allocation across all open installments of an account.
+-- Allocations now record the installment and receipt they belong to; rows written
+-- before this migration keep NULL in both columns.
+
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 ADD (
+    OPEN_LOAN_ACCOUNT_NO VARCHAR2(20) GENERATED ALWAYS AS (
+        CASE WHEN PENDING_EMI_AMOUNT > 0 OR PENALTY_CHARGES > 0 THEN LOAN_ACCOUNT_NO END) VIRTUAL
+);
+
+CREATE INDEX IDX_RECEIVABLE_OPEN ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (OPEN_LOAN_ACCOUNT_NO, CREATED_DATE, RECEIVABLE_ID)
+    GLOBAL PARTITION BY HASH (OPEN_LOAN_ACCOUNT_NO) PARTITIONS 16 ONLINE;
+
+ALTER TABLE LMS_ALLOCATION_DTL_17557_ ADD (
+    RECEIVABLE_ID NUMBER,
+    RECEIPT_ID NUMBER
+);
+
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.OPEN_LOAN_ACCOUNT_NO IS 'Loan account number while the installment has a balance, else NULL';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.RECEIVABLE_ID IS 'Installment the amount was applied to';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.RECEIPT_ID IS 'Receipt the amount came from';
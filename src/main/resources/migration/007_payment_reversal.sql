@@ -0,0 +1,26 @@
+-- EMI Management System - Migration 007
+-- Supports bulk payment reversal. A reversed receipt keeps its row and gets
+-- REVERSED_DATE; each of its allocations gets a negative compensating row that
+-- points back at it through REVERSED_ALLOCATION_ID.
+
+ALTER TABLE LMS_RECEIPT_PAYMENT_DTL_17557 ADD (
+    REVERSED_DATE TIMESTAMP
+);
+
+ALTER TABLE LMS_ALLOCATION_DTL_17557_ ADD (
+    REVERSED_ALLOCATION_ID NUMBER
+);
+
+ALTER TABLE LMS_ALLOCATION_DTL_17557_ DROP CONSTRAINT CHK_ALLOCATED_POSITIVE;
+
+ALTER TABLE LMS_ALLOCATION_DTL_17557_
+ADD CONSTRAINT CHK_ALLOCATED_SIGN CHECK (
+    (REVERSED_ALLOCATION_ID IS NULL AND ALLOCATED_AMOUNT > 0)
+    OR (REVERSED_ALLOCATION_ID IS NOT NULL AND ALLOCATED_AMOUNT < 0));
+
+CREATE INDEX IDX_ALLOCATION_RECEIPT ON LMS_ALLOCATION_DTL_17557_ (RECEIPT_ID) ONLINE;
+CREATE UNIQUE INDEX UX_ALLOCATION_REVERSED ON LMS_ALLOCATION_DTL_17557_ (REVERSED_ALLOCATION_ID) ONLINE;
+
+COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.REVERSED_DATE IS 'When the payment was reversed, NULL while it stands';
+COMMENT ON COLUMN LMS_ALLOCATION_DTL_17557_.REVERSED_ALLOCATION_ID IS 'Allocation this negative row compensates, NULL for ordinary allocations';
+COMMENT ON COLUMN LMS_PAYMENT_OUTBOX_17557.EVENT_TYPE IS 'Event type: PAYMENT_POSTED or PAYMENT_REVERSED';
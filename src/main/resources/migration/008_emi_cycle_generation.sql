@@ -0,0 +1,48 @@
+-- EMI Management System - Migration 008
+-- Supports generating each month's installments inside the application.
+-- Every installment records its cycle (yyyymm), its scheduled EMI and how many
+-- installments of the loan are still to come. The generator continues a loan
+-- from its previous-cycle installment, so a loan is picked up once that row has
+-- INSTALLMENT_AMOUNT and REMAINING_INSTALLMENTS set by the loan setup feed.
+
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 ADD (
+    INSTALLMENT_AMOUNT NUMBER(10,2),
+    EMI_CYCLE NUMBER(6),
+    REMAINING_INSTALLMENTS NUMBER(4)
+);
+
+UPDATE LMS_RECEIVABLEPAYBLE_DTL_17557
+   SET EMI_CYCLE = TO_NUMBER(TO_CHAR(CREATED_DATE, 'YYYYMM'));
+COMMIT;
+
+-- The unique index fails if an account already has two installments in one month;
+-- list them with:
+--   SELECT LOAN_ACCOUNT_NO, EMI_CYCLE, COUNT(*) FROM LMS_RECEIVABLEPAYBLE_DTL_17557
+--    GROUP BY LOAN_ACCOUNT_NO, EMI_CYCLE HAVING COUNT(*) > 1;
+CREATE UNIQUE INDEX UX_RECEIVABLE_ACC_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (LOAN_ACCOUNT_NO, EMI_CYCLE)
+    GLOBAL PARTITION BY HASH (LOAN_ACCOUNT_NO) PARTITIONS 16 ONLINE;
+CREATE INDEX IDX_RECEIVABLE_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557
+    (EMI_CYCLE, LOAN_ACCOUNT_NO) ONLINE;
+
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557
+ADD CONSTRAINT CHK_REMAINING_INSTALLMENTS CHECK (REMAINING_INSTALLMENTS >= 0);
+
+-- Restart checkpoint of the cycle generator, one row per cycle and account partition
+CREATE TABLE LMS_EMI_CYCLE_CHECKPOINT_17557 (
+    EMI_CYCLE NUMBER(6) NOT NULL,
+    PARTITION_NO NUMBER(4) NOT NULL,
+    PARTITION_COUNT NUMBER(4) NOT NULL,
+    LAST_LOAN_ACCOUNT_NO VARCHAR2(20),
+    ROWS_INSERTED NUMBER(12) DEFAULT 0 NOT NULL,
+    COMPLETED_DATE TIMESTAMP,
+    UPDATED_DATE TIMESTAMP NOT NULL,
+    CONSTRAINT PK_EMI_CYCLE_CHECKPOINT PRIMARY KEY (EMI_CYCLE, PARTITION_NO)
+);
+
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.INSTALLMENT_AMOUNT IS 'Scheduled EMI of the cycle';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.EMI_CYCLE IS 'Billing cycle as yyyymm';
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.REMAINING_INSTALLMENTS IS 'Installments still to be generated after this one';
+COMMENT ON TABLE LMS_EMI_CYCLE_CHECKPOINT_17557 IS 'Progress of the EMI cycle generator per cycle and account partition';
+COMMENT ON COLUMN LMS_EMI_CYCLE_CHECKPOINT_17557.PARTITION_NO IS 'ORA_HASH(LOAN_ACCOUNT_NO, PARTITION_COUNT - 1) bucket';
+COMMENT ON COLUMN LMS_EMI_CYCLE_CHECKPOINT_17557.LAST_LOAN_ACCOUNT_NO IS 'Last account of the last committed chunk, NULL before the first';
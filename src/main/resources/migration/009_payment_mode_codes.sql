@@ -0,0 +1,28 @@
+-- EMI Management System - Migration 009
+-- Payment mode and allocation type are enums in the application and are read back
+-- through PaymentMode.fromCode and AllocationType.fromCode, which fail on an unknown
+-- code. Older receipts were written with the mode exactly as the caller sent it, so
+-- normalise them to the stored codes and keep new rows to those codes.
+
+-- List modes that cannot be mapped before running; they block the constraint:
+--   SELECT PAYMENT_MODE, COUNT(*) FROM LMS_RECEIPT_PAYMENT_DTL_17557
+--    WHERE UPPER(TRIM(PAYMENT_MODE)) NOT IN ('CASH', 'CHEQUE', 'ONLINE', 'CARD', 'UPI', 'NEFT', 'RTGS')
+--    GROUP BY PAYMENT_MODE;
+UPDATE LMS_RECEIPT_PAYMENT_DTL_17557
+   SET PAYMENT_MODE = CASE UPPER(TRIM(PAYMENT_MODE))
+                          WHEN 'CASH' THEN 'Cash'
+                          WHEN 'CHEQUE' THEN 'Cheque'
+                          WHEN 'ONLINE' THEN 'Online'
+                          WHEN 'CARD' THEN 'Card'
+                          ELSE UPPER(TRIM(PAYMENT_MODE))
+                      END
+ WHERE PAYMENT_MODE NOT IN ('Cash', 'Cheque', 'Online', 'Card', 'UPI', 'NEFT', 'RTGS');
+COMMIT;
+
+ALTER TABLE LMS_RECEIPT_PAYMENT_DTL_17557
+ADD CONSTRAINT CHK_PAYMENT_MODE CHECK (
+    PAYMENT_MODE IN ('Cash', 'Cheque', 'Online', 'Card', 'UPI', 'NEFT', 'RTGS'));
+
+-- Daily rollups already written keep the mode as it was; only rollups of
+-- receipts posted or rebuilt after this migration use the codes above.
+COMMENT ON COLUMN LMS_RECEIPT_PAYMENT_DTL_17557.PAYMENT_MODE IS 'Payment mode code: Cash, Cheque, Online, Card, UPI, NEFT or RTGS';
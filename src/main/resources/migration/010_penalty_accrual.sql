@@ -0,0 +1,18 @@
+-- EMI Management System - Migration 010
+-- Late-payment penalties are accrued into PENALTY_CHARGES once a day from the penalty
+-- rules, so EMI details and payment allocation read the same stored penalty.
+-- PENALTY_ACCRUED_DATE is the day an installment's penalty was last accrued up to;
+-- NULL means nothing has been accrued since its due date.
+
+ALTER TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 ADD (
+    PENALTY_ACCRUED_DATE DATE
+);
+
+-- Penalties already stored on open installments were charged by the earlier process;
+-- accrual continues from today instead of charging the days since the due date again
+UPDATE LMS_RECEIVABLEPAYBLE_DTL_17557
+   SET PENALTY_ACCRUED_DATE = TRUNC(SYSDATE)
+ WHERE OPEN_LOAN_ACCOUNT_NO IS NOT NULL;
+COMMIT;
+
+COMMENT ON COLUMN LMS_RECEIVABLEPAYBLE_DTL_17557.PENALTY_ACCRUED_DATE IS 'Day the penalty was last accrued up to, NULL for none since the due date';
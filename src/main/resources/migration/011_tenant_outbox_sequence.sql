@@ -0,0 +1,32 @@
+-- EMI Management System - Migration 011
+-- Every tenant's outbox is now relayed and rolled up, each in OUTBOX_ID order on its own.
+-- With one sequence shared by all tenants, each ID drawn by another tenant would look like
+-- an uncommitted gap and hold the consumers back for emi.outbox.relay.gap-timeout-ms.
+-- The sequence now carries the tenant suffix like the tables, so the connection rewrites
+-- it to the tenant's own sequence.
+
+RENAME SEQ_OUTBOX_ID TO SEQ_OUTBOX_ID_17557;
+
+CREATE OR REPLACE TRIGGER TRG_OUTBOX_ID
+    BEFORE INSERT ON LMS_PAYMENT_OUTBOX_17557
+    FOR EACH ROW
+    WHEN (NEW.OUTBOX_ID IS NULL)
+BEGIN
+    :NEW.OUTBOX_ID := SEQ_OUTBOX_ID_17557.NEXTVAL;
+END;
+/
+
+-- For every other tenant in emi.tenant.codes that shares this schema, run the block below
+-- with its code in place of 90001 while the application is stopped. The sequence starts above
+-- the IDs the tenant already holds; the relay publishes those from the start to
+-- outbox-events-90001.jsonl and the rollups apply them from the tenant's watermark, as neither
+-- ran for the tenant before. In a tenant's own schema, rename its SEQ_OUTBOX_ID to
+-- SEQ_OUTBOX_ID_<code> instead.
+-- DECLARE
+--     next_id NUMBER;
+-- BEGIN
+--     SELECT NVL(MAX(OUTBOX_ID), 0) + 1 INTO next_id FROM LMS_PAYMENT_OUTBOX_90001;
+--     EXECUTE IMMEDIATE 'CREATE SEQUENCE SEQ_OUTBOX_ID_90001 START WITH ' || next_id
+--         || ' INCREMENT BY 1 NOCACHE';
+-- END;
+-- /
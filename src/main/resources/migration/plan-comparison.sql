@@ -0,0 +1,54 @@
+-- EMI Management System - Plan comparison for migration 001
+-- Run once before and once after 001_partition_lms_tables.sql and diff the output.
+-- The statements mirror the SQL Hibernate generates for the hot DAO queries.
+
+VARIABLE loanAccountNo VARCHAR2(20)
+EXEC :loanAccountNo := 'TEST123'
+
+-- LmsReceivablePayableDao.findLatestByLoanAccountNo
+-- Before: INDEX RANGE SCAN IDX_RECEIVABLE_LOAN_ACC -> TABLE ACCESS BY INDEX ROWID
+--         -> SORT ORDER BY STOPKEY (every receivable of the account is read and sorted)
+-- After:  PARTITION HASH SINGLE -> INDEX RANGE SCAN IDX_RECEIVABLE_ACC_DATE
+--         -> COUNT STOPKEY (one index entry read, no table access, no sort)
+EXPLAIN PLAN SET STATEMENT_ID = 'LATEST_RECEIVABLE' FOR
+SELECT RECEIVABLE_ID, LOAN_ACCOUNT_NO, PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE
+FROM LMS_RECEIVABLEPAYBLE_DTL_17557
+WHERE LOAN_ACCOUNT_NO = :loanAccountNo
+ORDER BY CREATED_DATE DESC, RECEIVABLE_ID DESC
+FETCH FIRST 1 ROWS ONLY;
+SELECT * FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', 'LATEST_RECEIVABLE', 'TYPICAL +PARTITION'));
+
+-- LmsReceivablePayableDao.existsByLoanAccountNo
+-- Before: SORT AGGREGATE over INDEX RANGE SCAN IDX_RECEIVABLE_LOAN_ACC (counts every row)
+-- After:  PARTITION HASH SINGLE -> INDEX RANGE SCAN IDX_RECEIVABLE_ACC_DATE -> COUNT STOPKEY
+EXPLAIN PLAN SET STATEMENT_ID = 'ACCOUNT_EXISTS' FOR
+SELECT RECEIVABLE_ID
+FROM LMS_RECEIVABLEPAYBLE_DTL_17557
+WHERE LOAN_ACCOUNT_NO = :loanAccountNo
+FETCH FIRST 1 ROWS ONLY;
+SELECT * FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', 'ACCOUNT_EXISTS', 'TYPICAL +PARTITION'));
+
+-- LmsReceiptPaymentDao.findByLoanAccountNo
+-- Before: INDEX RANGE SCAN IDX_RECEIPT_LOAN_ACC -> TABLE ACCESS BY INDEX ROWID -> SORT ORDER BY
+-- After:  PARTITION HASH SINGLE -> INDEX RANGE SCAN IDX_RECEIPT_ACC_DATE
+--         -> TABLE ACCESS BY GLOBAL INDEX ROWID (rows arrive pre-sorted, no SORT ORDER BY)
+EXPLAIN PLAN SET STATEMENT_ID = 'PAYMENT_HISTORY' FOR
+SELECT RECEIPT_ID, LOAN_ACCOUNT_NO, PAYMENT_AMOUNT, PAYMENT_MODE, PAYMENT_DATE
+FROM LMS_RECEIPT_PAYMENT_DTL_17557
+WHERE LOAN_ACCOUNT_NO = :loanAccountNo
+ORDER BY PAYMENT_DATE DESC, RECEIPT_ID DESC;
+SELECT * FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', 'PAYMENT_HISTORY', 'TYPICAL +PARTITION'));
+
+-- LmsAllocationDao.findByLoanAccountNo
+-- Before: INDEX RANGE SCAN IDX_ALLOCATION_LOAN_ACC -> TABLE ACCESS BY INDEX ROWID -> SORT ORDER BY
+-- After:  PARTITION HASH SINGLE -> INDEX RANGE SCAN IDX_ALLOCATION_ACC_DATE
+--         -> TABLE ACCESS BY GLOBAL INDEX ROWID (no SORT ORDER BY)
+EXPLAIN PLAN SET STATEMENT_ID = 'ALLOCATIONS' FOR
+SELECT ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, ALLOCATION_DATE
+FROM LMS_ALLOCATION_DTL_17557_
+WHERE LOAN_ACCOUNT_NO = :loanAccountNo
+ORDER BY ALLOCATION_DATE DESC, ALLOCATION_ID DESC;
+SELECT * FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', 'ALLOCATIONS', 'TYPICAL +PARTITION'));
+
+DELETE FROM PLAN_TABLE WHERE STATEMENT_ID IN ('LATEST_RECEIVABLE', 'ACCOUNT_EXISTS', 'PAYMENT_HISTORY', 'ALLOCATIONS');
+COMMIT;
@@ -0,0 +1,146 @@
+package com.supernova.emims.admission;
+
+import com.supernova.emims.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveLimiter and AdmissionLimiters
+ * Latencies are passed to the limiter directly instead of being measured
+ */
+class AdmissionLimitersTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void testLimitGrowsWhileLatencyHoldsAndShrinksWhenRequestsQueue() {
+        // Given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 100);
+
+        // When - every slot is in use and requests take their usual 10ms
+        runSaturated(limiter, 50, 10 * MILLIS);
+
+        // Then
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit should grow, was " + grown);
+
+        // When - requests start queueing and take ten times as long
+        runSaturated(limiter, 50, 100 * MILLIS);
+
+        // Then
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown / 4, "limit should shrink well below " + grown + ", was " + shrunk);
+        assertTrue(shrunk >= 2);
+    }
+
+    @Test
+    void testLimitHeldWhenNotUsedAndCutOnDroppedRequests() {
+        // Given
+        AdaptiveLimiter limiter = new AdaptiveLimiter(20, 2, 100);
+
+        // When - one request at a time; the limit is not what holds requests back
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire(1.0));
+            limiter.release(10 * MILLIS, false);
+        }
+
+        // Then
+        assertEquals(20, limiter.getLimit());
+
+        // When - a request times out
+        assertTrue(limiter.tryAcquire(1.0));
+        limiter.release(10 * MILLIS, true);
+
+        // Then
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testTryAcquire_LowPriorityShedBeforePayments() {
+        // Given - a total of 10 shared by a history endpoint and the payment endpoint
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionLimiters limiters = new AdmissionLimiters(meterRegistry, 10, 2, 100, 10, 200);
+        List<AdmissionLimiters.Permit> permits = new ArrayList<>();
+
+        // When - history reads may take 60% of the total
+        Optional<AdmissionLimiters.Permit> permit;
+        while ((permit = limiters.tryAcquire("GET /history", Priority.LOW)).isPresent()) {
+            permits.add(permit.get());
+        }
+
+        // Then - payments still get the rest
+        assertEquals(6, permits.size());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiters.tryAcquire("POST /payment", Priority.HIGH).isPresent());
+        }
+        assertFalse(limiters.tryAcquire("POST /payment", Priority.HIGH).isPresent());
+        assertEquals(1.0, meterRegistry.counter("emi.admission.rejected", "tenant", TenantContext.BASE_TENANT,
+                "endpoint", "GET /history", "priority", "LOW").count());
+        assertEquals(10, limiters.snapshot().get(AdmissionLimiters.TOTAL).get("inFlight"));
+        assertEquals(6.0, meterRegistry.get("emi.admission.inflight").tag("endpoint", "GET /history")
+                .gauge().value());
+
+        // When - a history read completes
+        permits.get(0).release(false);
+
+        // Then
+        assertEquals(5, limiters.snapshot().get("GET /history").get("inFlight"));
+    }
+
+    @Test
+    void testTryAcquire_TenantsHaveTheirOwnLimits() {
+        // Given - the base tenant has used its whole total
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionLimiters limiters = new AdmissionLimiters(meterRegistry, 10, 2, 100, 10, 200);
+        while (limiters.tryAcquire("POST /payment", Priority.HIGH).isPresent()) {
+            // Fill every free slot
+        }
+
+        // When - another tenant sends requests
+        List<AdmissionLimiters.Permit> permits = TenantContext.callWith("T2", () -> {
+            List<AdmissionLimiters.Permit> admitted = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                limiters.tryAcquire("POST /payment", Priority.HIGH).ifPresent(admitted::add);
+            }
+            return admitted;
+        });
+
+        // Then - they are admitted against its own total
+        assertEquals(10, permits.size());
+        assertEquals(10, limiters.snapshot().get(AdmissionLimiters.TOTAL).get("inFlight"));
+        assertEquals(10.0, meterRegistry.get("emi.admission.inflight").tag("tenant", "T2")
+                .tag("endpoint", AdmissionLimiters.TOTAL).gauge().value());
+
+        // When - released from a thread without the tenant
+        permits.get(0).release(false);
+
+        // Then - the tenant's own slot is freed
+        assertEquals(9, TenantContext.callWith("T2",
+                () -> limiters.snapshot().get(AdmissionLimiters.TOTAL).get("inFlight")));
+        assertEquals(10, limiters.snapshot().get(AdmissionLimiters.TOTAL).get("inFlight"));
+    }
+
+    @Test
+    void testConstructor_InvalidLimits() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveLimiter(1, 2, 100));
+        assertTrue(exception.getMessage().contains("initial [1]"));
+    }
+
+    private static void runSaturated(AdaptiveLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(1.0)) {
+                // Fill every free slot
+            }
+            limiter.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.supernova.emims.archive;
+
+import com.supernova.emims.dao.LmsArchiveDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.ArchiveSummary;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archives receipts and allocations from H2 into a temporary cold storage directory
+ * One account per segment makes every run write several segments
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class ColdArchiverTest {
+
+    @Autowired
+    private LmsArchiveDao archiveDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ColdStore coldStore;
+    private ColdArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        meterRegistry = new SimpleMeterRegistry();
+        coldStore = new ColdStore(meterRegistry, new TenantRegistry("T2"), tempDir.toString(), 2);
+        archiver = new ColdArchiver(archiveDao, coldStore, transactionManager, meterRegistry, new TenantRegistry(""),
+                1095, 1);
+    }
+
+    @Test
+    void testArchive_MovesAgedRowsAndKeepsRecentOnes() {
+        // Given - LOAN001 paid in 2020, 2021 and 2026; LOAN002 only in 2020
+        insertReceipt(1, "LOAN001", "2020-01-10", 100);
+        insertReceipt(2, "LOAN001", "2021-01-10", 200);
+        insertReceipt(3, "LOAN001", "2026-01-10", 300);
+        insertReceipt(4, "LOAN002", "2020-02-10", 400);
+        insertAllocation(11, "LOAN001", "2020-01-10", 100, 1);
+        insertAllocation(13, "LOAN001", "2026-01-10", 300, 3);
+
+        // When
+        ArchiveSummary summary = archiver.archive(LocalDate.of(2025, 1, 1));
+
+        // Then
+        assertEquals(2, summary.accounts());
+        assertEquals(3, summary.receipts());
+        assertEquals(1, summary.allocations());
+        assertEquals(3, summary.segments());
+        assertEquals(List.of(3L), jdbcTemplate.queryForList(
+                "SELECT RECEIPT_ID FROM LMS_RECEIPT_PAYMENT_DTL_17557", Long.class));
+        assertEquals(List.of(13L), jdbcTemplate.queryForList(
+                "SELECT ALLOCATION_ID FROM LMS_ALLOCATION_DTL_17557_", Long.class));
+
+        List<LmsReceiptPaymentDtl17557> cold = coldStore.findReceipts("LOAN001", 0, 10);
+        assertEquals(List.of(2L, 1L), cold.stream().map(LmsReceiptPaymentDtl17557::getReceiptId).toList());
+        assertEquals(0, new BigDecimal("200.00").compareTo(cold.get(0).getPaymentAmount()));
+        List<LmsAllocationDtl17557> coldAllocations = coldStore.findAllocations("LOAN001", 0, 10);
+        assertEquals(1, coldAllocations.size());
+        assertEquals(Long.valueOf(1L), coldAllocations.get(0).getReceiptId());
+        assertEquals(3.0, meterRegistry.counter("emi.archive.rows", "kind", "receipts").count());
+    }
+
+    @Test
+    void testFindReceipts_PagesAcrossRunsNewestFirst() {
+        // Given - two runs archive 2019 and then 2020 receipts
+        insertReceipt(1, "LOAN001", "2019-03-10", 100);
+        insertReceipt(2, "LOAN001", "2019-06-10", 200);
+        archiver.archive(LocalDate.of(2020, 1, 1));
+        insertReceipt(3, "LOAN001", "2020-03-10", 300);
+        insertReceipt(4, "LOAN001", "2020-06-10", 400);
+        insertReceipt(5, "LOAN001", "2020-09-10", 500);
+        archiver.archive(LocalDate.of(2021, 1, 1));
+
+        // When - a node started after both runs loads the segments from the directory
+        ColdStore reloaded = new ColdStore(new SimpleMeterRegistry(), new TenantRegistry(""), tempDir.toString(),
+                2);
+        List<LmsReceiptPaymentDtl17557> firstPage = reloaded.findReceipts("LOAN001", 0, 2);
+        List<LmsReceiptPaymentDtl17557> secondPage = reloaded.findReceipts("LOAN001", 2, 2);
+        List<LmsReceiptPaymentDtl17557> lastPage = reloaded.findReceipts("LOAN001", 4, 2);
+
+        // Then
+        assertEquals(List.of(5L, 4L), firstPage.stream().map(LmsReceiptPaymentDtl17557::getReceiptId).toList());
+        assertEquals(List.of(3L, 2L), secondPage.stream().map(LmsReceiptPaymentDtl17557::getReceiptId).toList());
+        assertEquals(List.of(1L), lastPage.stream().map(LmsReceiptPaymentDtl17557::getReceiptId).toList());
+        assertTrue(reloaded.findReceipts("LOAN999", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testFindReceipts_OnlyReadsTheCurrentTenantsSegments() throws IOException {
+        // Given - tenant T2 archived a receipt of an account number the base tenant also uses
+        LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557("LOAN001", new BigDecimal("100.00"),
+                PaymentMode.CASH, LocalDate.of(2020, 1, 10));
+        receipt.setReceiptId(7L);
+        TenantContext.callWith("T2", () -> {
+            try {
+                coldStore.addReceipts(List.of(receipt), "20250101000000000-000000");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+
+        // When - read back by this node and by a node that loads the directory
+        ColdStore reloaded = new ColdStore(new SimpleMeterRegistry(), new TenantRegistry("T2"), tempDir.toString(),
+                2);
+
+        // Then
+        assertTrue(coldStore.findReceipts("LOAN001", 0, 10).isEmpty());
+        assertTrue(reloaded.findReceipts("LOAN001", 0, 10).isEmpty());
+        assertEquals(List.of(7L), TenantContext.callWith("T2", () -> reloaded.findReceipts("LOAN001", 0, 10)).stream()
+                .map(LmsReceiptPaymentDtl17557::getReceiptId).toList());
+        assertTrue(Files.exists(tempDir.resolve("T2")));
+    }
+
+    @Test
+    void testArchive_WithoutDirectoryIsRefused() {
+        // Given
+        ColdStore disabled = new ColdStore(meterRegistry, new TenantRegistry(""), "", 256);
+        ColdArchiver disabledArchiver = new ColdArchiver(archiveDao, disabled, transactionManager, meterRegistry,
+                new TenantRegistry(""), 1095, 1000);
+
+        // When & Then
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.findReceipts("LOAN001", 0, 10).isEmpty());
+        assertThrows(IllegalStateException.class,
+                () -> disabledArchiver.archive(LocalDate.of(2025, 1, 1)));
+    }
+
+    private void insertReceipt(long id, String account, String date, int amount) {
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 "
+                + "(RECEIPT_ID, LOAN_ACCOUNT_NO, PAYMENT_AMOUNT, PAYMENT_MODE, PAYMENT_DATE) VALUES (?, ?, ?, 'Cash', ?)",
+                id, account, amount, Date.valueOf(date));
+    }
+
+    private void insertAllocation(long id, String account, String date, int amount, long receiptId) {
+        jdbcTemplate.update("INSERT INTO LMS_ALLOCATION_DTL_17557_ "
+                + "(ALLOCATION_ID, LOAN_ACCOUNT_NO, ALLOCATED_TO, ALLOCATED_AMOUNT, ALLOCATION_DATE, RECEIPT_ID) "
+                + "VALUES (?, ?, 'EMI', ?, ?, ?)", id, account, amount, Date.valueOf(date), receiptId);
+    }
+}
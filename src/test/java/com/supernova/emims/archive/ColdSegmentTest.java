@@ -0,0 +1,106 @@
+package com.supernova.emims.archive;
+
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip tests for cold segment files
+ * Small blocks make accounts span block boundaries
+ */
+class ColdSegmentTest {
+
+    private static final LocalDateTime REVERSED = LocalDateTime.of(2020, 3, 1, 14, 5, 30, 250_000_000);
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testWriteAndFind_AccountsAcrossBlocks() throws IOException {
+        // Given - 20 accounts with 7 receipts each, newest first, in blocks of 5 rows
+        List<LmsReceiptPaymentDtl17557> rows = new ArrayList<>();
+        for (int account = 0; account < 20; account++) {
+            for (int i = 0; i < 7; i++) {
+                LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557(String.format("LOAN%03d", account),
+                        new BigDecimal(100 + i + ".50"), PaymentMode.CASH, LocalDate.of(2020, 1, 10).minusDays(i));
+                receipt.setReceiptId(account * 100L + i);
+                receipt.setReversedDate(i == 3 ? REVERSED : null);
+                rows.add(receipt);
+            }
+        }
+        Path file = tempDir.resolve("receipts-1.seg");
+
+        // When
+        ColdSegment.write(file, SegmentCodecs.RECEIPTS, rows, 5);
+        ColdSegment<LmsReceiptPaymentDtl17557> segment = ColdSegment.open(file, SegmentCodecs.RECEIPTS);
+
+        // Then
+        assertEquals(28, segment.blockCount());
+        assertFalse(Files.exists(tempDir.resolve("receipts-1.seg.tmp")));
+        List<LmsReceiptPaymentDtl17557> found = segment.find("LOAN007");
+        assertEquals(7, found.size());
+        assertEquals(rows.subList(49, 56), found);
+        LmsReceiptPaymentDtl17557 reversed = found.get(3);
+        assertEquals(new BigDecimal("103.50"), reversed.getPaymentAmount());
+        assertEquals(REVERSED, reversed.getReversedDate());
+        assertEquals(LocalDate.of(2020, 1, 7), reversed.getPaymentDate());
+        assertSame(found.get(0).getLoanAccountNo(), found.get(6).getLoanAccountNo());
+        assertNull(found.get(0).getReversedDate());
+        assertEquals(7, segment.find("LOAN000").size());
+        assertEquals(7, segment.find("LOAN019").size());
+        assertTrue(segment.find("LOAN0075").isEmpty());
+        assertTrue(segment.find("LOAN999").isEmpty());
+    }
+
+    @Test
+    void testWriteAndFind_AllocationNullableColumns() throws IOException {
+        // Given
+        LmsAllocationDtl17557 original = new LmsAllocationDtl17557("LOAN001", AllocationType.EMI,
+                new BigDecimal("900.00"), LocalDate.of(2020, 1, 10));
+        original.setAllocationId(1L);
+        original.setReceiptId(10L);
+        LmsAllocationDtl17557 reversal = new LmsAllocationDtl17557("LOAN001", AllocationType.EMI,
+                new BigDecimal("-900.00"), LocalDate.of(2020, 1, 10));
+        reversal.setAllocationId(2L);
+        reversal.setReceivableId(5L);
+        reversal.setReversedAllocationId(1L);
+        Path file = tempDir.resolve("allocations-1.seg");
+
+        // When
+        ColdSegment.write(file, SegmentCodecs.ALLOCATIONS, List.of(reversal, original), 256);
+        List<LmsAllocationDtl17557> found = ColdSegment.open(file, SegmentCodecs.ALLOCATIONS).find("LOAN001");
+
+        // Then
+        assertEquals(2, found.size());
+        assertEquals(Long.valueOf(1L), found.get(0).getReversedAllocationId());
+        assertEquals(Long.valueOf(5L), found.get(0).getReceivableId());
+        assertNull(found.get(0).getReceiptId());
+        assertEquals(new BigDecimal("-900.00"), found.get(0).getAllocatedAmount());
+        assertEquals(Long.valueOf(10L), found.get(1).getReceiptId());
+        assertNull(found.get(1).getReversedAllocationId());
+    }
+
+    @Test
+    void testOpen_RejectsIncompleteFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("receipts-2.seg");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+
+        // When & Then
+        assertThrows(IOException.class, () -> ColdSegment.open(file, SegmentCodecs.RECEIPTS));
+    }
+}
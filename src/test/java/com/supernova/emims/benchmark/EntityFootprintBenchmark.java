@@ -0,0 +1,78 @@
+package com.supernova.emims.benchmark;
+
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.LoanAccountNumbers;
+import com.supernova.emims.entity.PaymentMode;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Measures the heap retained by a million receipts and a million allocations
+ * Rows are built the way the row mappers build them from a result set: every string arrives as a
+ * new instance, as it does from the driver, and goes through the same conversions. Ten thousand
+ * accounts with a hundred rows each match a bulk history or archive load
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+ *   java -Xmx2g -XX:+UseParallelGC -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) com.supernova.emims.benchmark.EntityFootprintBenchmark
+ */
+public class EntityFootprintBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int ACCOUNTS = 10_000;
+    private static final String[] MODES = {"Cash", "Online", "Cheque"};
+    private static final String[] TYPES = {"EMI", "Penalty"};
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    public static void main(String[] args) {
+        report("receipts", i -> {
+            LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557(account(i),
+                    BigDecimal.valueOf(10_000 + i % 90_000, 2), PaymentMode.fromCode(fresh(MODES[i % 3])),
+                    START.plusDays(i % 1500));
+            receipt.setReceiptId((long) i);
+            return receipt;
+        });
+        report("allocations", i -> {
+            LmsAllocationDtl17557 allocation = new LmsAllocationDtl17557(account(i),
+                    AllocationType.fromCode(fresh(TYPES[i % 2])), BigDecimal.valueOf(10_000 + i % 90_000, 2),
+                    START.plusDays(i % 1500));
+            allocation.setAllocationId((long) i);
+            allocation.setReceiptId((long) i);
+            return allocation;
+        });
+    }
+
+    private static String account(int i) {
+        return LoanAccountNumbers.canonical(fresh(String.format("LOAN%06d", i % ACCOUNTS)));
+    }
+
+    private static String fresh(String value) {
+        return new String(value.getBytes(StandardCharsets.US_ASCII), StandardCharsets.US_ASCII);
+    }
+
+    private static void report(String kind, IntFunction<Object> row) {
+        long before = usedHeap();
+        List<Object> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(row.apply(i));
+        }
+        long after = usedHeap();
+        System.out.printf("%s: %d rows, %.1f MB retained, %.1f bytes per row%n", kind, rows.size(),
+                (after - before) / 1048576.0, (after - before) / (double) rows.size());
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,105 @@
+package com.supernova.emims.benchmark;
+
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a payment history as managed entities and as ReceiptView projections
+ * Each operation reads one account's whole history in a read-only transaction, the way
+ * GET /history does. Run with -prof gc to see the allocation per read; the entity path also
+ * pays for the persistence context entries and the snapshots kept for dirty checking
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) com.supernova.emims.benchmark.HistoryReadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryReadBenchmark {
+
+    private static final String ACCOUNT = "BENCH001";
+
+    @Param({"20", "200"})
+    private int receipts;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate readTransaction;
+    private EntityManager entityManager;
+    private LmsReceiptPaymentDao receiptDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without a logback configuration every statement is logged at DEBUG, which would dominate both paths
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+        context = new AnnotationConfigApplicationContext(PaymentPostingTestConfig.class);
+        readTransaction = new TransactionTemplate(context.getBean(TransactionTemplate.class).getTransactionManager());
+        readTransaction.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        receiptDao = context.getBean(LmsReceiptPaymentDao.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        for (int i = 0; i < receipts; i++) {
+            jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES (?, ?, ?, 'Cash', ?, NULL)",
+                    i + 1, ACCOUNT, 100 + i, LocalDate.of(2026, 1, 1).plusDays(i % 300));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<LmsReceiptPaymentDtl17557> entities() {
+        return readTransaction.execute(status -> entityManager.createQuery(
+                        "SELECT r FROM LmsReceiptPaymentDtl17557 r WHERE r.loanAccountNo = :loanAccountNo "
+                        + "ORDER BY r.paymentDate DESC, r.receiptId DESC", LmsReceiptPaymentDtl17557.class)
+                .setParameter("loanAccountNo", ACCOUNT)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<ReceiptView> projections() {
+        return readTransaction.execute(status -> receiptDao.findByLoanAccountNo(ACCOUNT));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HistoryReadBenchmark.class.getSimpleName())
+                .addProfiler("gc").build()).run();
+    }
+}
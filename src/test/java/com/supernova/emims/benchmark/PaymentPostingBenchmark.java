@@ -0,0 +1,96 @@
+package com.supernova.emims.benchmark;
+
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Hibernate and JDBC payment posting paths
+ * Each operation posts one receipt, two allocations and one outbox event in a transaction,
+ * the writes processPayment makes. Runs against in-memory H2, so it measures the client-side
+ * cost of each path; round-trip savings against Oracle come on top of this
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) com.supernova.emims.benchmark.PaymentPostingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentPostingBenchmark {
+
+    @Param({"hibernate", "jdbc"})
+    private String posting;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private PaymentPostingDao postingDao;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(PaymentPostingTestConfig.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        postingDao = context.getBean(posting + "PaymentPostingDao", PaymentPostingDao.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearTables() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        jdbcTemplate.update("DELETE FROM LMS_PAYMENT_OUTBOX_17557");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public LmsPaymentOutbox17557 postPayment() {
+        return transactionTemplate.execute(status -> {
+            LocalDate today = LocalDate.now();
+            postingDao.saveReceipt(new LmsReceiptPaymentDtl17557("BENCH001", new BigDecimal("500.00"), PaymentMode.CASH, today));
+            postingDao.saveAllocations(List.of(
+                    new LmsAllocationDtl17557("BENCH001", AllocationType.PENALTY, new BigDecimal("50.00"), today),
+                    new LmsAllocationDtl17557("BENCH001", AllocationType.EMI, new BigDecimal("450.00"), today)));
+            return postingDao.saveEvent(new LmsPaymentOutbox17557("BENCH001", "PAYMENT_POSTED", "{\"receiptId\":1}", new Date()));
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PaymentPostingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.supernova.emims.benchmark;
+
+import com.supernova.emims.penalty.PenaltyRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one penalty calculation as the EMI details endpoints make it
+ * The rules have a holiday calendar over 2010-2040 and a number of products; the account matches
+ * the product added last. The per-call cost should not change with the days late or the
+ * products. dayByDay counts the same business days by walking the dates, for comparison
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) com.supernova.emims.benchmark.PenaltyRulesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PenaltyRulesBenchmark {
+
+    private static final BigDecimal PENDING = new BigDecimal("1000.00");
+    private static final LocalDate AS_OF = LocalDate.of(2026, 10, 19);
+
+    @Param({"1", "30", "3650"})
+    private int daysLate;
+
+    @Param({"1", "20"})
+    private int products;
+
+    private PenaltyRules rules;
+    private Set<LocalDate> holidays;
+    private LocalDate dueDate;
+    private String account;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.INFO);
+        Properties properties = new Properties();
+        properties.setProperty("calendar.first-year", "2010");
+        properties.setProperty("calendar.last-year", "2040");
+        holidays = new HashSet<>();
+        for (int year = 2010; year <= 2040; year++) {
+            StringJoiner dates = new StringJoiner(",");
+            for (int month = 1; month <= 12; month++) {
+                LocalDate holiday = LocalDate.of(year, month, 15);
+                holidays.add(holiday);
+                dates.add(holiday.toString());
+            }
+            properties.setProperty("calendar.holidays." + year, dates.toString());
+        }
+        properties.setProperty("product.default.daily-rate", "10.00");
+        for (int i = 1; i < products; i++) {
+            properties.setProperty("product.p" + i + ".account-prefix", "P" + i + "X");
+            properties.setProperty("product.p" + i + ".daily-rate", "5.00");
+            properties.setProperty("product.p" + i + ".grace-days", "3");
+            properties.setProperty("product.p" + i + ".cap", "5000.00");
+        }
+
+        Path file = Files.createTempFile("penalty-rules", ".properties");
+        file.toFile().deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        rules = new PenaltyRules(file.toString());
+        dueDate = AS_OF.minusDays(daysLate);
+        account = products > 1 ? "P" + (products - 1) + "X0000001" : "LOAN0000001";
+    }
+
+    @Benchmark
+    public BigDecimal penalty() {
+        return rules.penalty(account, PENDING, dueDate, AS_OF);
+    }
+
+    @Benchmark
+    public int dayByDay() {
+        int businessDays = 0;
+        for (LocalDate date = dueDate.plusDays(1); !date.isAfter(AS_OF); date = date.plusDays(1)) {
+            DayOfWeek day = date.getDayOfWeek();
+            if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY && !holidays.contains(date)) {
+                businessDays++;
+            }
+        }
+        return businessDays;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PenaltyRulesBenchmark.class.getSimpleName()).build()).run();
+    }
+}
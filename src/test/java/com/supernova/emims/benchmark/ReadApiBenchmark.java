@@ -0,0 +1,114 @@
+package com.supernova.emims.benchmark;
+
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiManagementService.EmiDetails;
+import com.supernova.emims.service.EmiReactiveQueryService;
+import com.supernova.emims.service.impl.EmiReactiveQueryServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the blocking and the non-blocking EMI detail read under 64 concurrent callers
+ * The blocking read runs on the caller's thread, as GET /calculate does on a servlet thread, so
+ * every caller holds a thread and a connection for the whole read. The non-blocking read is
+ * handed to a read executor of 8 threads, as GET /rx/calculate does, and the caller waits for
+ * the future only to count the operation. Callers read random accounts out of 1000, so reads of
+ * the same account are rarely coalesced
+ *
+ * Run with:
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt -Dmdep.includeScope=test
+ *   java -cp target/test-classes:target/classes:$(cat target/test-classpath.txt) com.supernova.emims.benchmark.ReadApiBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ReadApiBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int READ_POOL_SIZE = 8;
+
+    private AnnotationConfigApplicationContext context;
+    private ThreadPoolTaskExecutor readExecutor;
+    private EmiManagementService emiManagementService;
+    private EmiReactiveQueryService reactiveQueryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without a logback configuration every statement is logged at DEBUG, which would dominate both paths
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        context = new AnnotationConfigApplicationContext(PaymentPostingTestConfig.class);
+        emiManagementService = context.getBean(EmiManagementService.class);
+
+        readExecutor = new ThreadPoolTaskExecutor();
+        readExecutor.setCorePoolSize(READ_POOL_SIZE);
+        readExecutor.setMaxPoolSize(READ_POOL_SIZE);
+        readExecutor.setQueueCapacity(10000);
+        readExecutor.initialize();
+        reactiveQueryService = new EmiReactiveQueryServiceImpl(emiManagementService,
+                context.getBean(LmsReceiptPaymentDao.class), readExecutor, 50);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                    + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                    + "(?, ?, 1000.00, 0.00, 1000.00, DATE '2026-10-05', 202610)", i + 1, account(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        readExecutor.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public EmiDetails blocking() {
+        return emiManagementService.calculateEmiDetails(randomAccount());
+    }
+
+    @Benchmark
+    public EmiDetails nonBlocking() {
+        return reactiveQueryService.calculateEmiDetails(randomAccount()).join();
+    }
+
+    private static String randomAccount() {
+        return account(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    private static String account(int i) {
+        return String.format("BENCH%04d", i);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReadApiBenchmark.class.getSimpleName()).build()).run();
+    }
+}
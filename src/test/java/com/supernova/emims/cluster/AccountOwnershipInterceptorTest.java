@@ -0,0 +1,97 @@
+package com.supernova.emims.cluster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for redirects to the owning node
+ */
+class AccountOwnershipInterceptorTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private ClusterMembership membership;
+    private AccountOwnershipInterceptor interceptor;
+    private String remoteAccount;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path members = tempDir.resolve("members.properties");
+        Files.writeString(members, "node-a=http://a:8080\nnode-b=http://b:8080\n");
+        membership = new ClusterMembership(members.toString(), "node-a", 128);
+        interceptor = new AccountOwnershipInterceptor(membership);
+        remoteAccount = IntStream.range(0, 1000).mapToObj(i -> "LOAN" + i)
+                .filter(account -> !membership.isLocal(account)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void testPreHandle_RedirectsToOwnerWithForwardedMarker() throws IOException {
+        // Given
+        MockHttpServletRequest request = request(remoteAccount);
+        request.setQueryString("offset=0&limit=5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(307, response.getStatus());
+        assertEquals("http://b:8080/api/emi/history/" + remoteAccount + "?offset=0&limit=5&emiForwarded=1",
+                response.getHeader("Location"));
+    }
+
+    @Test
+    void testPreHandle_ForwardedRequestNotRedirectedAgain() throws IOException {
+        // Given - the owner still thinks node-a owns the account
+        MockHttpServletRequest request = request(remoteAccount);
+        request.setParameter(AccountOwnershipInterceptor.FORWARDED_PARAMETER, "1");
+        MockHttpServletRequest viaHeader = request(remoteAccount);
+        viaHeader.addHeader(AccountOwnershipInterceptor.FORWARDED_HEADER, "node-b");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletResponse headerResponse = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+        interceptor.preHandle(viaHeader, headerResponse, new Object());
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(503, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+        assertNull(response.getHeader("Location"));
+        assertTrue(response.getContentAsString().contains("ownership is changing"));
+        assertEquals(503, headerResponse.getStatus());
+    }
+
+    @Test
+    void testPreHandle_LocalAccountServedEvenWhenForwarded() throws IOException {
+        // Given
+        String localAccount = IntStream.range(0, 1000).mapToObj(i -> "LOAN" + i)
+                .filter(membership::isLocal).findFirst().orElseThrow();
+        MockHttpServletRequest request = request(localAccount);
+        request.setParameter(AccountOwnershipInterceptor.FORWARDED_PARAMETER, "1");
+
+        // When / Then
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+    }
+
+    private static MockHttpServletRequest request(String loanAccountNo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/emi/history/" + loanAccountNo);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("loanAccountNo", loanAccountNo));
+        return request;
+    }
+}
@@ -0,0 +1,97 @@
+package com.supernova.emims.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ConsistentHashRing
+ * Tests ownership spread and key movement on membership changes
+ */
+public class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int KEYS = 20_000;
+
+    private static final ClusterNode NODE_A = new ClusterNode("node-a", "http://localhost:8081");
+    private static final ClusterNode NODE_B = new ClusterNode("node-b", "http://localhost:8082");
+    private static final ClusterNode NODE_C = new ClusterNode("node-c", "http://localhost:8083");
+    private static final ClusterNode NODE_D = new ClusterNode("node-d", "http://localhost:8084");
+
+    @Test
+    void testOwnerOf_IsStableAcrossInstances() {
+        // Given
+        ConsistentHashRing first = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), VIRTUAL_NODES);
+        ConsistentHashRing second = new ConsistentHashRing(List.of(NODE_C, NODE_A, NODE_B), VIRTUAL_NODES);
+
+        // When / Then
+        for (int i = 0; i < 1000; i++) {
+            String key = "LN" + i;
+            assertEquals(first.ownerOf(key), second.ownerOf(key));
+        }
+    }
+
+    @Test
+    void testOwnerOf_SpreadsKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), VIRTUAL_NODES);
+
+        // When
+        Map<ClusterNode, Integer> owned = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            owned.merge(ring.ownerOf("LN" + i), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > KEYS / 3 * 0.75 && count < KEYS / 3 * 1.25,
+                "Unbalanced ownership: " + owned));
+    }
+
+    @Test
+    void testAddNode_OnlyMovesKeysToNewNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C, NODE_D), VIRTUAL_NODES);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "LN" + i;
+            ClusterNode newOwner = after.ownerOf(key);
+            if (!newOwner.equals(before.ownerOf(key))) {
+                assertEquals(NODE_D, newOwner);
+                moved++;
+            }
+        }
+
+        // Then - roughly a quarter of the keys move, all of them to the new node
+        assertTrue(moved > KEYS / 4 * 0.75 && moved < KEYS / 4 * 1.25, "Moved keys: " + moved);
+    }
+
+    @Test
+    void testRemoveNode_OnlyMovesKeysOfRemovedNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of(NODE_A, NODE_B, NODE_C), VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODE_A, NODE_B), VIRTUAL_NODES);
+
+        // When / Then
+        for (int i = 0; i < KEYS; i++) {
+            String key = "LN" + i;
+            ClusterNode oldOwner = before.ownerOf(key);
+            if (!oldOwner.equals(NODE_C)) {
+                assertEquals(oldOwner, after.ownerOf(key));
+            }
+        }
+    }
+
+    @Test
+    void testConstructor_NoNodes() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), VIRTUAL_NODES));
+    }
+}
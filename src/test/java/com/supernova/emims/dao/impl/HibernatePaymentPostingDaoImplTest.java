@@ -0,0 +1,20 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.PaymentPostingDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+/**
+ * Runs the payment posting contract against the Hibernate implementation
+ */
+class HibernatePaymentPostingDaoImplTest extends PaymentPostingDaoContractTest {
+
+    @Autowired
+    @Qualifier("hibernatePaymentPostingDao")
+    private PaymentPostingDao postingDao;
+
+    @Override
+    protected PaymentPostingDao postingDao() {
+        return postingDao;
+    }
+}
@@ -0,0 +1,61 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the payment posting contract against the JDBC implementation
+ * Also checks that it shares the allocation sequence with Hibernate without ID clashes
+ */
+class JdbcPaymentPostingDaoImplTest extends PaymentPostingDaoContractTest {
+
+    @Autowired
+    @Qualifier("jdbcPaymentPostingDao")
+    private PaymentPostingDao postingDao;
+
+    @Autowired
+    @Qualifier("hibernatePaymentPostingDao")
+    private PaymentPostingDao hibernatePostingDao;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    protected PaymentPostingDao postingDao() {
+        return postingDao;
+    }
+
+    @Test
+    void testSaveAllocations_IdsDoNotClashWithHibernate() {
+        // Given
+        List<LmsAllocationDtl17557> saved = new ArrayList<>();
+
+        // When - alternate between both paths for more than one ID block each
+        for (int i = 0; i < 60; i++) {
+            PaymentPostingDao dao = i % 2 == 0 ? postingDao : hibernatePostingDao;
+            List<LmsAllocationDtl17557> allocations = List.of(
+                    new LmsAllocationDtl17557("TEST123", AllocationType.EMI, new BigDecimal("10.00"), LocalDate.now()),
+                    new LmsAllocationDtl17557("TEST123", AllocationType.PENALTY, new BigDecimal("1.00"), LocalDate.now()));
+            saved.addAll(transactionTemplate.execute(status -> dao.saveAllocations(allocations)));
+        }
+
+        // Then
+        Set<Long> ids = new HashSet<>();
+        saved.forEach(allocation -> ids.add(allocation.getAllocationId()));
+        assertEquals(120, ids.size());
+    }
+}
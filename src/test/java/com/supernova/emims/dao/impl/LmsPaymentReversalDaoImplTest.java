@@ -0,0 +1,123 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsPaymentReversalDao;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the set-based reversal statements against H2
+ * Two receipts settle the same installment; reversing one must restore only its share
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class LmsPaymentReversalDaoImplTest {
+
+    private static final List<Long> RECEIPT_IDS = List.of(101L, 103L);
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LmsPaymentReversalDao reversalDao;
+
+    @BeforeEach
+    void setUpPayments() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        jdbcTemplate.update("DELETE FROM LMS_PAYMENT_OUTBOX_17557");
+
+        // Installment 7 was 1000.00 EMI + 50.00 penalty before receipts 101 and 102
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, VERSION) VALUES (7, 'TEST123', 450.00, 0.00, 450.00, SYSDATE, 2)");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES (101, 'TEST123', 500.00, 'Cheque', SYSDATE, NULL)");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES (102, 'TEST123', 100.00, 'Cash', SYSDATE, NULL)");
+        jdbcTemplate.update("INSERT INTO LMS_ALLOCATION_DTL_17557_ VALUES (1, 'TEST123', 'Penalty', 50.00, SYSDATE, 7, 101, NULL)");
+        jdbcTemplate.update("INSERT INTO LMS_ALLOCATION_DTL_17557_ VALUES (2, 'TEST123', 'EMI', 450.00, SYSDATE, 7, 101, NULL)");
+        jdbcTemplate.update("INSERT INTO LMS_ALLOCATION_DTL_17557_ VALUES (3, 'TEST123', 'EMI', 100.00, SYSDATE, 7, 102, NULL)");
+    }
+
+    @Test
+    void testReverseChunk_RestoresBalanceAndWritesCompensations() {
+        // Given
+        Date reversalDate = new Date();
+
+        // When
+        List<Long> reversible = transactionTemplate.execute(status -> {
+            List<Long> locked = reversalDao.lockReversibleReceipts(RECEIPT_IDS);
+            assertEquals(1, reversalDao.restoreReceivables(locked));
+            assertEquals(2, reversalDao.insertCompensatingAllocations(locked, reversalDate));
+            assertEquals(1, reversalDao.markReversed(locked, reversalDate));
+            return locked;
+        });
+
+        // Then - receipt 103 does not exist, 102 is not part of the request
+        assertEquals(List.of(101L), reversible);
+        Map<String, Object> installment = jdbcTemplate.queryForMap(
+                "SELECT PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, VERSION FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = 7");
+        assertEquals(0, new BigDecimal("900.00").compareTo((BigDecimal) installment.get("PENDING_EMI_AMOUNT")));
+        assertEquals(0, new BigDecimal("50.00").compareTo((BigDecimal) installment.get("PENALTY_CHARGES")));
+        assertEquals(0, new BigDecimal("950.00").compareTo((BigDecimal) installment.get("TOTAL_AMOUNT")));
+        assertEquals(3L, ((Number) installment.get("VERSION")).longValue());
+
+        List<LmsAllocationDtl17557> compensations = reversalDao.findCompensatingAllocations(List.of(101L));
+        assertEquals(2, compensations.size());
+        assertEquals(Long.valueOf(1L), compensations.get(0).getReversedAllocationId());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(compensations.get(0).getAllocatedAmount()));
+        assertEquals(AllocationType.PENALTY, compensations.get(0).getAllocatedTo());
+        assertEquals(Long.valueOf(2L), compensations.get(1).getReversedAllocationId());
+        assertEquals(0, new BigDecimal("-450.00").compareTo(compensations.get(1).getAllocatedAmount()));
+        assertEquals(Long.valueOf(7L), compensations.get(1).getReceivableId());
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT REVERSED_DATE FROM LMS_RECEIPT_PAYMENT_DTL_17557 WHERE RECEIPT_ID = 101", Date.class));
+    }
+
+    @Test
+    void testLockReversibleReceipts_SkipsReversedReceipts() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            reversalDao.insertCompensatingAllocations(List.of(101L), new Date());
+            reversalDao.markReversed(List.of(101L), new Date());
+        });
+
+        // When
+        List<Long> reversible = transactionTemplate.execute(status -> reversalDao.lockReversibleReceipts(List.of(101L, 102L)));
+
+        // Then
+        assertEquals(List.of(102L), reversible);
+    }
+
+    @Test
+    void testInsertEvents_AssignsOffsets() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> reversalDao.insertEvents(List.of(
+                new LmsPaymentOutbox17557("TEST123", "PAYMENT_REVERSED", "{\"receiptId\":101}", new Date()),
+                new LmsPaymentOutbox17557("TEST123", "PAYMENT_REVERSED", "{\"receiptId\":102}", new Date()))));
+
+        // Then
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_PAYMENT_OUTBOX_17557 WHERE EVENT_TYPE = 'PAYMENT_REVERSED'", Integer.class));
+    }
+
+    @Test
+    void testWrites_RequireTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> reversalDao.restoreReceivables(RECEIPT_IDS));
+    }
+}
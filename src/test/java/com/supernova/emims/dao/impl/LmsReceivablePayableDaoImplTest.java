@@ -0,0 +1,106 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsReceivablePayableDao;
+import com.supernova.emims.dto.ReceivableBalance;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the receivable queries that map native SQL onto entities and balances against H2
+ * A column missing from a native query only fails when the query runs, so each one is run here
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class LmsReceivablePayableDaoImplTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LmsReceivablePayableDao receivableDao;
+
+    @BeforeEach
+    void setUpInstallments() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, VERSION, "
+                + "INSTALLMENT_AMOUNT, EMI_CYCLE, REMAINING_INSTALLMENTS) VALUES "
+                + "(1, 'TEST123', 0.00, 0.00, 0.00, DATE '2026-08-05', 4, 1000.00, 202608, 3), "
+                + "(2, 'TEST123', 1000.00, 50.00, 1050.00, DATE '2026-09-05', 2, 1000.00, 202609, 2), "
+                + "(3, 'TEST123', 1000.00, 0.00, 1000.00, DATE '2026-10-05', 0, 1000.00, 202610, 1), "
+                + "(4, 'TEST456', 700.00, 0.00, 700.00, DATE '2026-10-05', 7, 700.00, 202610, 9)");
+    }
+
+    @Test
+    void testUpdateBalanceIfUnchanged_BumpsVersionOnce() {
+        // Given
+        LmsReceivablePayableDtl17557 installment = receivableDao.findById(2L).orElseThrow();
+
+        // When - the second update carries the version the first one replaced
+        Boolean first = transactionTemplate.execute(status ->
+                receivableDao.updateBalanceIfUnchanged(installment, new BigDecimal("600.00"), BigDecimal.ZERO));
+        Boolean second = transactionTemplate.execute(status ->
+                receivableDao.updateBalanceIfUnchanged(installment, new BigDecimal("100.00"), BigDecimal.ZERO));
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT PENDING_EMI_AMOUNT, TOTAL_AMOUNT, VERSION FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = 2");
+        assertEquals(0, new BigDecimal("600.00").compareTo((BigDecimal) row.get("PENDING_EMI_AMOUNT")));
+        assertEquals(0, new BigDecimal("600.00").compareTo((BigDecimal) row.get("TOTAL_AMOUNT")));
+        assertEquals(3L, ((Number) row.get("VERSION")).longValue());
+    }
+
+    @Test
+    void testStreamOpenInstallments_MapsEveryColumn() {
+        // When
+        List<LmsReceivablePayableDtl17557> open = transactionTemplate.execute(status -> {
+            try (Stream<LmsReceivablePayableDtl17557> stream = receivableDao.streamOpenInstallments("TEST123")) {
+                return stream.toList();
+            }
+        });
+
+        // Then - the settled August installment is skipped, the rest come oldest first
+        assertEquals(List.of(2L, 3L), open.stream().map(LmsReceivablePayableDtl17557::getReceivableId).toList());
+        LmsReceivablePayableDtl17557 september = open.get(0);
+        assertEquals(0, new BigDecimal("1050.00").compareTo(september.getTotalAmount()));
+        assertEquals(2L, september.getVersion());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(september.getInstallmentAmount()));
+        assertEquals(202609, september.getEmiCycle());
+        assertEquals(2, september.getRemainingInstallments());
+    }
+
+    @Test
+    void testFindOutstandingByLoanAccountNos_SumsOpenInstallments() {
+        // Given - part of the latest TEST123 installment has been paid since it was generated
+        jdbcTemplate.update("UPDATE LMS_RECEIVABLEPAYBLE_DTL_17557 SET PENDING_EMI_AMOUNT = 400.00, "
+                + "TOTAL_AMOUNT = 400.00, VERSION = VERSION + 1 WHERE RECEIVABLE_ID = 3");
+
+        // When
+        List<ReceivableBalance> outstanding = transactionTemplate.execute(status ->
+                receivableDao.findOutstandingByLoanAccountNos(List.of("TEST123", "TEST456", "TEST123", "MISSING")));
+
+        // Then - one balance per account that has installments, summed over the open ones
+        assertEquals(2, outstanding.size());
+        ReceivableBalance test123 = outstanding.stream().filter(b -> b.loanAccountNo().equals("TEST123")).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("1400.00").compareTo(test123.pendingEmiAmount()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(test123.penaltyCharges()));
+        assertEquals(2, test123.openInstallments());
+        assertTrue(outstanding.stream().anyMatch(b -> b.loanAccountNo().equals("TEST456")));
+    }
+}
@@ -0,0 +1,167 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contract tests shared by every PaymentPostingDao implementation
+ * Each implementation must leave the same rows behind as seen through the Hibernate read DAOs
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+abstract class PaymentPostingDaoContractTest {
+
+    private static final String LOAN_ACCOUNT_NO = "TEST123";
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LmsReceiptPaymentDao receiptDao;
+
+    @Autowired
+    private LmsAllocationDao allocationDao;
+
+    @Autowired
+    private LmsPaymentOutboxDao outboxDao;
+
+    /**
+     * @return the implementation under test
+     */
+    protected abstract PaymentPostingDao postingDao();
+
+    @BeforeEach
+    void cleanTables() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        jdbcTemplate.update("DELETE FROM LMS_PAYMENT_OUTBOX_17557");
+    }
+
+    @Test
+    void testSaveReceipt_AssignsIdAndPersistsRow() {
+        // Given
+        LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557(
+                LOAN_ACCOUNT_NO, new BigDecimal("500.00"), PaymentMode.CASH, LocalDate.now());
+
+        // When
+        LmsReceiptPaymentDtl17557 saved = transactionTemplate.execute(status -> postingDao().saveReceipt(receipt));
+
+        // Then
+        assertNotNull(saved.getReceiptId());
+        LmsReceiptPaymentDtl17557 stored = receiptDao.findById(saved.getReceiptId()).orElseThrow();
+        assertEquals(LOAN_ACCOUNT_NO, stored.getLoanAccountNo());
+        assertEquals(0, new BigDecimal("500.00").compareTo(stored.getPaymentAmount()));
+        assertEquals(PaymentMode.CASH, stored.getPaymentMode());
+        assertEquals(receipt.getPaymentDate(), stored.getPaymentDate());
+    }
+
+    @Test
+    void testSaveAllocations_AssignsDistinctIdsInOrder() {
+        // Given
+        List<LmsAllocationDtl17557> allocations = List.of(
+                new LmsAllocationDtl17557(LOAN_ACCOUNT_NO, AllocationType.PENALTY, new BigDecimal("50.00"), LocalDate.now()),
+                new LmsAllocationDtl17557(LOAN_ACCOUNT_NO, AllocationType.EMI, new BigDecimal("450.00"), LocalDate.now()),
+                new LmsAllocationDtl17557(LOAN_ACCOUNT_NO, AllocationType.EMI, new BigDecimal("25.50"), LocalDate.now()));
+        allocations.get(0).setReceivableId(7L);
+        allocations.get(0).setReceiptId(3L);
+
+        // When
+        List<LmsAllocationDtl17557> saved = transactionTemplate.execute(status -> postingDao().saveAllocations(allocations));
+
+        // Then
+        assertSame(allocations, saved);
+        Set<Long> ids = new HashSet<>();
+        for (LmsAllocationDtl17557 allocation : saved) {
+            assertNotNull(allocation.getAllocationId());
+            ids.add(allocation.getAllocationId());
+        }
+        assertEquals(3, ids.size());
+
+        List<AllocationView> stored = allocationDao.findByLoanAccountNo(LOAN_ACCOUNT_NO);
+        assertEquals(3, stored.size());
+        for (LmsAllocationDtl17557 allocation : saved) {
+            AllocationView row = stored.stream()
+                    .filter(s -> s.allocationId().equals(allocation.getAllocationId()))
+                    .findFirst().orElseThrow();
+            assertEquals(allocation.getAllocatedTo(), row.allocatedTo());
+            assertEquals(0, allocation.getAllocatedAmount().compareTo(row.allocatedAmount()));
+            assertEquals(allocation.getAllocationDate(), row.allocationDate());
+            assertEquals(allocation.getReceivableId(), row.receivableId());
+            assertEquals(allocation.getReceiptId(), row.receiptId());
+        }
+    }
+
+    @Test
+    void testSaveAllocations_EmptyList() {
+        // When
+        List<LmsAllocationDtl17557> saved = transactionTemplate.execute(status -> postingDao().saveAllocations(List.of()));
+
+        // Then
+        assertTrue(saved.isEmpty());
+        assertTrue(allocationDao.findByLoanAccountNo(LOAN_ACCOUNT_NO).isEmpty());
+    }
+
+    @Test
+    void testSaveEvent_OffsetsFollowInsertOrder() {
+        // Given
+        LmsPaymentOutbox17557 first = new LmsPaymentOutbox17557(LOAN_ACCOUNT_NO, "PAYMENT_POSTED", "{\"receiptId\":1}", new Date());
+        LmsPaymentOutbox17557 second = new LmsPaymentOutbox17557(LOAN_ACCOUNT_NO, "PAYMENT_POSTED", "{\"receiptId\":2}", new Date());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            postingDao().saveEvent(first);
+            postingDao().saveEvent(second);
+        });
+
+        // Then
+        assertTrue(second.getOutboxId() > first.getOutboxId());
+        List<LmsPaymentOutbox17557> stored = outboxDao.findRange(0, Long.MAX_VALUE, 10);
+        assertEquals(2, stored.size());
+        assertEquals(first.getOutboxId(), stored.get(0).getOutboxId());
+        assertEquals("{\"receiptId\":1}", stored.get(0).getPayload());
+        assertEquals("PAYMENT_POSTED", stored.get(1).getEventType());
+        assertEquals("{\"receiptId\":2}", stored.get(1).getPayload());
+    }
+
+    @Test
+    void testRollback_DiscardsAllWrites() {
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            postingDao().saveReceipt(new LmsReceiptPaymentDtl17557(LOAN_ACCOUNT_NO, new BigDecimal("500.00"), PaymentMode.CASH, LocalDate.now()));
+            postingDao().saveAllocations(List.of(
+                    new LmsAllocationDtl17557(LOAN_ACCOUNT_NO, AllocationType.EMI, new BigDecimal("500.00"), LocalDate.now())));
+            postingDao().saveEvent(new LmsPaymentOutbox17557(LOAN_ACCOUNT_NO, "PAYMENT_POSTED", "{}", new Date()));
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertTrue(receiptDao.findByLoanAccountNo(LOAN_ACCOUNT_NO).isEmpty());
+        assertTrue(allocationDao.findByLoanAccountNo(LOAN_ACCOUNT_NO).isEmpty());
+        assertTrue(outboxDao.findRange(0, Long.MAX_VALUE, 10).isEmpty());
+    }
+}
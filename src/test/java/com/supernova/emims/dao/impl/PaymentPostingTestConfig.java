@@ -0,0 +1,168 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.archive.ColdStore;
+import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.dao.LmsArchiveDao;
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.dao.LmsPaymentReversalDao;
+import com.supernova.emims.dao.LmsPenaltyAccrualDao;
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.LmsReceivablePayableDao;
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.diagnostics.CountingStatementInspector;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.impl.EmiManagementServiceImpl;
+import com.supernova.emims.sqlbudget.CountingDataSource;
+import com.supernova.emims.tenant.TenantRegistry;
+import com.supernova.emims.tenant.TenantTableDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Spring context for the payment posting, reversal, cycle, penalty accrual, archive and read projection DAO tests, the
+ * Hibernate statistics and SQL budget tests and the benchmarks
+ * Runs the DAOs and the EMI management service against one in-memory H2 database in Oracle mode,
+ * with statistics enabled as in production. Connections count their statements for {@code @SqlBudget}
+ * and name the current tenant's tables; {@link #OTHER_TENANT} has a table set of its own
+ */
+@Configuration
+@EnableTransactionManagement
+public class PaymentPostingTestConfig {
+
+    /** A second tenant, whose tables are created alongside the base tenant's */
+    public static final String OTHER_TENANT = "90001";
+
+    @Bean
+    public DataSource dataSource() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:payment-posting;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+        ClassPathResource schema = new ClassPathResource("h2/payment-posting-schema.sql");
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(schema), dataSource);
+
+        // Same tables with the other tenant's suffix; sequences without a suffix are shared, index and
+        // constraint names unique
+        String otherSchema = TenantTableDataSource.rewrite(schema.getContentAsString(StandardCharsets.UTF_8), OTHER_TENANT)
+                .replaceAll("(?m)^CREATE SEQUENCE (?!\\w+_" + OTHER_TENANT + " ).*$", "")
+                .replaceAll("(INDEX|CONSTRAINT) (\\w+)", "$1 $2_" + OTHER_TENANT);
+        DatabasePopulatorUtils.execute(new ResourceDatabasePopulator(
+                new ByteArrayResource(otherSchema.getBytes(StandardCharsets.UTF_8))), dataSource);
+        return new CountingDataSource(new TenantTableDataSource(dataSource));
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.supernova.emims.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+
+        Properties jpaProperties = new Properties();
+        jpaProperties.setProperty("hibernate.hbm2ddl.auto", "none");
+        jpaProperties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        jpaProperties.setProperty("hibernate.jdbc.batch_size", "20");
+        jpaProperties.setProperty("hibernate.order_inserts", "true");
+        jpaProperties.setProperty("hibernate.generate_statistics", "true");
+        jpaProperties.setProperty("hibernate.session.events.log", "false");
+        jpaProperties.setProperty("hibernate.session_factory.statement_inspector",
+                CountingStatementInspector.class.getName());
+        factory.setJpaProperties(jpaProperties);
+        return factory;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PaymentPostingDao hibernatePaymentPostingDao() {
+        return new HibernatePaymentPostingDaoImpl();
+    }
+
+    @Bean
+    public PaymentPostingDao jdbcPaymentPostingDao(JdbcTemplate jdbcTemplate) {
+        return new JdbcPaymentPostingDaoImpl(jdbcTemplate);
+    }
+
+    @Bean
+    public LmsReceiptPaymentDao receiptDao() {
+        return new LmsReceiptPaymentDaoImpl();
+    }
+
+    @Bean
+    public LmsReceivablePayableDao receivableDao() {
+        return new LmsReceivablePayableDaoImpl();
+    }
+
+    @Bean
+    public LmsAllocationDao allocationDao() {
+        return new LmsAllocationDaoImpl();
+    }
+
+    @Bean
+    public LmsPaymentOutboxDao outboxDao() {
+        return new LmsPaymentOutboxDaoImpl();
+    }
+
+    @Bean
+    public LmsPaymentReversalDao reversalDao(DataSource dataSource) {
+        return new LmsPaymentReversalDaoImpl(dataSource);
+    }
+
+    @Bean
+    public EmiManagementService emiManagementService(LmsReceivablePayableDao receivableDao,
+                                                     LmsReceiptPaymentDao receiptDao,
+                                                     LmsAllocationDao allocationDao,
+                                                     @Qualifier("hibernatePaymentPostingDao")
+                                                     PaymentPostingDao paymentPostingDao) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new EmiManagementServiceImpl(receivableDao, receiptDao, allocationDao, paymentPostingDao,
+                new ColdStore(meterRegistry, new TenantRegistry(""), "", 256), meterRegistry, 5);
+    }
+
+    @Bean
+    public LmsEmiCycleDao cycleDao(DataSource dataSource) {
+        return new LmsEmiCycleDaoImpl(dataSource);
+    }
+
+    @Bean
+    public LmsPenaltyAccrualDao penaltyAccrualDao(DataSource dataSource) {
+        return new LmsPenaltyAccrualDaoImpl(dataSource);
+    }
+
+    @Bean
+    public LmsArchiveDao archiveDao(DataSource dataSource) {
+        return new LmsArchiveDaoImpl(dataSource);
+    }
+}
@@ -0,0 +1,154 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.LmsReceivablePayableDao;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.dto.ReceivableBalance;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.PaymentMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the read-only projection queries against H2
+ * Reads must return every column the API serialises and leave the persistence context empty
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class ReadProjectionsTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LmsReceiptPaymentDao receiptDao;
+
+    @Autowired
+    private LmsAllocationDao allocationDao;
+
+    @Autowired
+    private LmsReceivablePayableDao receivableDao;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUpAccounts() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(1, 'TEST123', 0.00, 0.00, 0.00, DATE '2026-09-05', 202609), "
+                + "(2, 'TEST123', 1000.00, 50.00, 1050.00, DATE '2026-10-05', 202610), "
+                + "(3, 'TEST456', 700.00, 0.00, 700.00, DATE '2026-10-05', 202610)");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES "
+                + "(101, 'TEST123', 500.00, 'Cheque', DATE '2026-09-01', TIMESTAMP '2026-09-02 10:15:30'), "
+                + "(102, 'TEST123', 100.00, 'Cash', DATE '2026-09-20', NULL), "
+                + "(103, 'TEST123', 250.00, 'UPI', DATE '2026-09-20', NULL)");
+        jdbcTemplate.update("INSERT INTO LMS_ALLOCATION_DTL_17557_ VALUES "
+                + "(1, 'TEST123', 'Penalty', 50.00, DATE '2026-09-01', 1, 101, NULL), "
+                + "(2, 'TEST123', 'EMI', 450.00, DATE '2026-09-01', 1, 101, NULL), "
+                + "(3, 'TEST123', 'EMI', -450.00, DATE '2026-09-02', 1, 101, 2)");
+    }
+
+    @Test
+    void testFindReceipts_NewestFirstWithoutManagedEntities() {
+        // When
+        List<ReceiptView> history = inReadTransaction(() -> receiptDao.findByLoanAccountNo("TEST123"));
+
+        // Then
+        assertEquals(List.of(103L, 102L, 101L), history.stream().map(ReceiptView::receiptId).toList());
+        ReceiptView reversed = history.get(2);
+        assertEquals(new ReceiptView(101L, "TEST123", new BigDecimal("500.00"), PaymentMode.CHEQUE,
+                LocalDate.of(2026, 9, 1), LocalDateTime.of(2026, 9, 2, 10, 15, 30)), reversed);
+    }
+
+    @Test
+    void testFindReceiptsPage_ReturnsRequestedSlice() {
+        // When
+        List<ReceiptView> page = inReadTransaction(() -> receiptDao.findByLoanAccountNo("TEST123", 1, 5));
+
+        // Then
+        assertEquals(List.of(102L, 101L), page.stream().map(ReceiptView::receiptId).toList());
+    }
+
+    @Test
+    void testFindReceiptsAfter_ContinuesFromLastReceiptRead() {
+        // Given - the first page has been read, then a newer receipt is posted
+        List<ReceiptView> first = inReadTransaction(() -> receiptDao.findByLoanAccountNoAfter("TEST123", null, 2));
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES "
+                + "(104, 'TEST123', 75.00, 'Cash', DATE '2026-09-25', NULL)");
+
+        // When
+        List<ReceiptView> second = inReadTransaction(() -> receiptDao.findByLoanAccountNoAfter("TEST123", first.get(1), 2));
+
+        // Then - ties on the payment date are broken by receipt ID
+        assertEquals(List.of(103L, 102L), first.stream().map(ReceiptView::receiptId).toList());
+        assertEquals(List.of(101L), second.stream().map(ReceiptView::receiptId).toList());
+    }
+
+    @Test
+    void testFindAllocations_CarriesReversalLinks() {
+        // When
+        List<AllocationView> allocations = inReadTransaction(() -> allocationDao.findByLoanAccountNo("TEST123"));
+        List<AllocationView> page = inReadTransaction(() -> allocationDao.findByLoanAccountNo("TEST123", 0, 1));
+
+        // Then
+        assertEquals(3, allocations.size());
+        assertEquals(new AllocationView(3L, "TEST123", AllocationType.EMI, new BigDecimal("-450.00"),
+                LocalDate.of(2026, 9, 2), 1L, 101L, 2L), allocations.get(0));
+        assertEquals(List.of(allocations.get(0)), page);
+    }
+
+    @Test
+    void testFindOutstandingBalances_OnePerAccount() {
+        // When
+        ReceivableBalance single = inReadTransaction(() -> receivableDao.findOutstandingByLoanAccountNo("TEST123"))
+                .orElseThrow();
+        List<ReceivableBalance> batch = inReadTransaction(
+                () -> receivableDao.findOutstandingByLoanAccountNos(List.of("TEST123", "TEST456", "MISSING")));
+
+        // Then - the settled September installment adds nothing
+        assertEquals(new ReceivableBalance("TEST123", new BigDecimal("1000.00"), new BigDecimal("50.00"), 1), single);
+        assertEquals(2, batch.size());
+        List<ReceivableBalance> sorted = batch.stream()
+                .sorted(Comparator.comparing(ReceivableBalance::loanAccountNo)).toList();
+        assertEquals(single, sorted.get(0));
+        assertEquals(0, new BigDecimal("700.00").compareTo(sorted.get(1).pendingEmiAmount()));
+        assertTrue(inReadTransaction(() -> receivableDao.findOutstandingByLoanAccountNo("MISSING")).isEmpty());
+    }
+
+    /**
+     * Run a read in a transaction and check it left nothing in the persistence context
+     */
+    private <T> T inReadTransaction(Supplier<T> read) {
+        return transactionTemplate.execute(status -> {
+            T result = read.get();
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount(),
+                    "read left managed entities in the persistence context");
+            return result;
+        });
+    }
+}
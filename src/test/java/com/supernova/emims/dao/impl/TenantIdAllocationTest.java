@@ -0,0 +1,116 @@
+package com.supernova.emims.dao.impl;
+
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRoutingDataSource;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Draws IDs for two tenants whose connections read sequences of their own, as a tenant with
+ * emi.tenant.&lt;code&gt;.schema does against Oracle
+ * The base tenant's sequence hands out 1..50 first, the other tenant's 100001..100050; an ID
+ * allocator that cached one block for the JVM would give the other tenant IDs from the base block
+ */
+class TenantIdAllocationTest {
+
+    private static final String OTHER = "90002";
+
+    private static DataSource dataSource;
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+    @BeforeAll
+    static void setUpTenants() {
+        DriverManagerDataSource base = new DriverManagerDataSource(
+                "jdbc:h2:mem:tenant-ids-base;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource other = new DriverManagerDataSource(
+                "jdbc:h2:mem:tenant-ids-other;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+        for (String sequence : new String[] {"SEQ_RECEIPT_ID", "SEQ_ALLOCATION_ID"}) {
+            new JdbcTemplate(base).execute("CREATE SEQUENCE " + sequence + " START WITH 50 INCREMENT BY 50");
+            new JdbcTemplate(other).execute("CREATE SEQUENCE " + sequence + " START WITH 100050 INCREMENT BY 50");
+        }
+
+        TenantRoutingDataSource routing = new TenantRoutingDataSource();
+        routing.setTargetDataSources(Map.of(TenantContext.BASE_TENANT, base, OTHER, other));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        dataSource = routing;
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("com.supernova.emims.entity");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties jpaProperties = new Properties();
+        jpaProperties.setProperty("hibernate.hbm2ddl.auto", "none");
+        jpaProperties.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        entityManagerFactory.setJpaProperties(jpaProperties);
+        entityManagerFactory.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void closeEntityManagerFactory() {
+        entityManagerFactory.destroy();
+    }
+
+    @Test
+    void testPooledSequence_EachTenantDrawsFromItsOwnSequence() {
+        // Given
+        PooledSequence allocationIds = new PooledSequence(new JdbcTemplate(dataSource), "SEQ_ALLOCATION_ID",
+                LmsAllocationDtl17557.ID_ALLOCATION_SIZE);
+
+        // When
+        long baseFirst = allocationIds.nextId();
+        long otherFirst = TenantContext.callWith(OTHER, allocationIds::nextId);
+        long baseSecond = allocationIds.nextId();
+        long otherSecond = TenantContext.callWith(OTHER, allocationIds::nextId);
+
+        // Then
+        assertEquals(1, baseFirst);
+        assertEquals(2, baseSecond);
+        assertEquals(100001, otherFirst);
+        assertEquals(100002, otherSecond);
+    }
+
+    @Test
+    void testHibernateGenerator_EachTenantDrawsFromItsOwnSequence() {
+        // Given
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.getObject()
+                .unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator receiptIds = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(LmsReceiptPaymentDtl17557.class).getGenerator();
+
+        // When
+        Object baseFirst = generate(sessionFactory, receiptIds);
+        Object otherFirst = TenantContext.callWith(OTHER, () -> generate(sessionFactory, receiptIds));
+        Object baseSecond = generate(sessionFactory, receiptIds);
+        Object otherSecond = TenantContext.callWith(OTHER, () -> generate(sessionFactory, receiptIds));
+
+        // Then
+        assertEquals(1L, baseFirst);
+        assertEquals(2L, baseSecond);
+        assertEquals(100001L, otherFirst);
+        assertEquals(100002L, otherSecond);
+    }
+
+    private static Object generate(SessionFactoryImplementor sessionFactory, IdentifierGenerator generator) {
+        try (Session session = sessionFactory.openSession()) {
+            return generator.generate((SharedSessionContractImplementor) session, new LmsReceiptPaymentDtl17557());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.supernova.emims.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for pool routing
+ * Connections are taken through a proxied component, as the transaction manager would
+ */
+class PoolRoutingTest {
+
+    private final Map<DatabasePool, DataSource> pools = new HashMap<>();
+    private PoolRoutingDataSource dataSource;
+    private Operations operations;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Map<Object, Object> targets = new HashMap<>();
+        for (DatabasePool pool : DatabasePool.values()) {
+            DataSource target = mock(DataSource.class);
+            lenient().when(target.getConnection()).thenReturn(mock(Connection.class));
+            pools.put(pool, target);
+            targets.put(pool, target);
+        }
+        dataSource = new PoolRoutingDataSource();
+        dataSource.setTargetDataSources(targets);
+        dataSource.setLenientFallback(false);
+        dataSource.afterPropertiesSet();
+
+        ProxyFactory proxyFactory = new ProxyFactory(new BatchOperations(dataSource));
+        proxyFactory.addAdvice(new PoolRoutingInterceptor());
+        operations = (Operations) proxyFactory.getProxy();
+    }
+
+    @Test
+    void testOltpPoolIsTheDefault() throws SQLException {
+        // When
+        dataSource.getConnection();
+
+        // Then
+        verify(pools.get(DatabasePool.OLTP)).getConnection();
+        verifyNoInteractions(pools.get(DatabasePool.BATCH), pools.get(DatabasePool.REPORTING));
+    }
+
+    @Test
+    void testClassAnnotationRoutesToBatchPool() throws SQLException {
+        // When
+        operations.purge();
+
+        // Then
+        verify(pools.get(DatabasePool.BATCH)).getConnection();
+        verifyNoInteractions(pools.get(DatabasePool.OLTP));
+        assertEquals(DatabasePool.OLTP, PoolRouting.current());
+    }
+
+    @Test
+    void testMethodAnnotationOverridesClassAndRestoresOnFailure() {
+        // When
+        assertThrows(SQLException.class, () -> operations.report(true));
+
+        // Then
+        assertEquals(DatabasePool.OLTP, PoolRouting.current());
+        PoolRouting.runWith(DatabasePool.BATCH, () -> assertEquals(DatabasePool.BATCH, PoolRouting.current()));
+        assertEquals(DatabasePool.OLTP, PoolRouting.current());
+    }
+
+    @Test
+    void testMethodAnnotationRoutesToReportingPool() throws SQLException {
+        // When
+        operations.report(false);
+
+        // Then
+        verify(pools.get(DatabasePool.REPORTING)).getConnection();
+        verifyNoInteractions(pools.get(DatabasePool.OLTP), pools.get(DatabasePool.BATCH));
+    }
+
+    public interface Operations {
+        void purge() throws SQLException;
+
+        void report(boolean fail) throws SQLException;
+    }
+
+    @UsePool(DatabasePool.BATCH)
+    static class BatchOperations implements Operations {
+        private final DataSource dataSource;
+
+        BatchOperations(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void purge() throws SQLException {
+            dataSource.getConnection();
+        }
+
+        @Override
+        @UsePool(DatabasePool.REPORTING)
+        public void report(boolean fail) throws SQLException {
+            if (fail) {
+                throw new SQLException("ORA-00942");
+            }
+            dataSource.getConnection();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.supernova.emims.deadline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for request deadlines
+ * Covers the interceptor and the transaction timeout derived from the deadline
+ */
+class RequestDeadlineInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestDeadlineInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RequestDeadlineInterceptor(meterRegistry, 30000);
+        request = new MockHttpServletRequest("GET", "/api/emi/calculate/LOAN001");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/emi/calculate/{loanAccountNo}");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void testPreHandle_EndpointDefaultBoundsTransactionTimeout() throws Exception {
+        // When
+        assertTrue(interceptor.preHandle(request, response, handler("fast")));
+
+        // Then
+        assertEquals(2, new DeadlineAwareJpaTransactionManager().determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void testPreHandle_ClientHeaderShortensDeadline() throws Exception {
+        // Given
+        request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "900");
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setTimeout(60);
+
+        // When
+        assertTrue(interceptor.preHandle(request, response, handler("unannotated")));
+
+        // Then
+        assertTrue(RequestDeadline.remainingMillis() <= 900);
+        assertEquals(1, new DeadlineAwareJpaTransactionManager().determineTimeout(definition));
+    }
+
+    @Test
+    void testPreHandle_NoTimeLeft() throws Exception {
+        // Given
+        request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "0");
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, handler("fast"));
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(504, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Request deadline exceeded"));
+        assertFalse(RequestDeadline.isSet());
+        assertEquals(1.0, meterRegistry.get("emi.request.deadline.exceeded")
+                .tag("endpoint", "GET /api/emi/calculate/{loanAccountNo}").counter().count());
+    }
+
+    @Test
+    void testDetermineTimeout_DeadlinePassedBeforeTransaction() throws Exception {
+        // Given
+        request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "1");
+        assertTrue(interceptor.preHandle(request, response, handler("fast")));
+        Thread.sleep(5);
+
+        // When & Then - rejected before a connection would be taken
+        assertThrows(DeadlineExceededException.class,
+                () -> new DeadlineAwareJpaTransactionManager().determineTimeout(new DefaultTransactionDefinition()));
+        interceptor.afterCompletion(request, response, handler("fast"), null);
+        assertFalse(RequestDeadline.isSet());
+        assertEquals(1.0, meterRegistry.get("emi.request.deadline.exceeded").counter().count());
+    }
+
+    @Test
+    void testPreHandle_InvalidHeader() throws Exception {
+        // Given
+        request.addHeader(RequestDeadlineInterceptor.TIMEOUT_HEADER, "soon");
+
+        // When & Then
+        assertFalse(interceptor.preHandle(request, response, handler("fast")));
+        assertEquals(400, response.getStatus());
+    }
+
+    private static HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(methodName));
+    }
+
+    public static class Endpoints {
+        @DefaultDeadline(millis = 2000)
+        public void fast() {
+        }
+
+        public void unannotated() {
+        }
+    }
+}
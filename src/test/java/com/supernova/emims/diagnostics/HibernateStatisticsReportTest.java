@@ -0,0 +1,165 @@
+package com.supernova.emims.diagnostics;
+
+import com.supernova.emims.dao.LmsReceiptPaymentDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads Hibernate statistics and per-endpoint statement counts gathered from H2
+ * The session factory is shared with the other DAO tests, so every test starts with a reset
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class HibernateStatisticsReportTest {
+
+    private static final String HISTORY_PATTERN = "/api/emi/history/{loanAccountNo}";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LmsReceiptPaymentDao receiptDao;
+
+    private EndpointStatementInterceptor interceptor;
+    private HibernateStatisticsReport report;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES "
+                + "(101, 'STAT001', 500.00, 'Cheque', DATE '2026-09-01', NULL), "
+                + "(102, 'STAT001', 100.00, 'Cash', DATE '2026-09-20', NULL)");
+        interceptor = new EndpointStatementInterceptor();
+        report = new HibernateStatisticsReport(entityManagerFactory, interceptor);
+        report.reset();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshot_ReportsQueriesPlanCacheAndEntities() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            receiptDao.findByLoanAccountNo("STAT001");
+            receiptDao.findByLoanAccountNo("STAT001");
+            receiptDao.findByPaymentMode(PaymentMode.CASH);
+            receiptDao.save(new LmsReceiptPaymentDtl17557("STAT002", new BigDecimal("250.00"), PaymentMode.UPI,
+                    LocalDate.of(2026, 10, 1)));
+        });
+
+        // When
+        Map<String, Object> snapshot = report.snapshot(10);
+
+        // Then
+        assertEquals(true, snapshot.get("enabled"));
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) snapshot.get("queries");
+        Map<String, Object> history = queries.stream()
+                .filter(query -> ((String) query.get("query")).contains("new com.supernova.emims.dto.ReceiptView"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2L, history.get("executions"));
+        assertEquals(4L, history.get("rows"));
+
+        Map<String, Object> planCache = (Map<String, Object>) snapshot.get("queryPlanCache");
+        assertTrue((Long) planCache.get("hits") >= 1, "expected the second history read to reuse its plan");
+        assertTrue((Double) planCache.get("hitRatio") > 0.0);
+
+        Map<String, Object> entities = (Map<String, Object>) snapshot.get("entities");
+        assertEquals(1L, entities.get("loads"));
+        assertEquals(1L, entities.get("inserts"));
+        Map<String, Object> receipts = (Map<String, Object>) ((Map<String, Object>) entities.get("byEntity"))
+                .get("LmsReceiptPaymentDtl17557");
+        assertEquals(1L, receipts.get("inserts"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshot_ListsOnlyTopQueries() {
+        // Given
+        transactionTemplate.executeWithoutResult(status -> {
+            receiptDao.findByLoanAccountNo("STAT001");
+            receiptDao.countByLoanAccountNo("STAT001");
+            receiptDao.getTotalPaymentAmount("STAT001");
+        });
+
+        // When
+        List<Map<String, Object>> queries = (List<Map<String, Object>>) report.snapshot(2).get("queries");
+
+        // Then
+        assertEquals(2, queries.size());
+        assertTrue((Long) queries.get(0).get("totalTimeMs") >= (Long) queries.get(1).get("totalTimeMs"));
+        assertThrows(IllegalArgumentException.class, () -> report.snapshot(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReset_ClearsQueriesAndEndpointCounts() throws Exception {
+        // Given
+        handleRequest(() -> receiptDao.findByLoanAccountNo("STAT001"));
+
+        // When
+        report.reset();
+
+        // Then
+        Map<String, Object> snapshot = report.snapshot(10);
+        assertTrue(((List<?>) snapshot.get("queries")).isEmpty());
+        assertEquals(0L, ((Map<String, Object>) snapshot.get("statements")).get("prepared"));
+        assertTrue(((Map<?, ?>) snapshot.get("endpoints")).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testInterceptor_CountsStatementsOfEachRequest() throws Exception {
+        // Given - one request reads twice, another once, and a read outside any request is ignored
+        handleRequest(() -> {
+            receiptDao.findByLoanAccountNo("STAT001");
+            receiptDao.countByLoanAccountNo("STAT001");
+        });
+        handleRequest(() -> receiptDao.findByLoanAccountNo("STAT001"));
+        transactionTemplate.executeWithoutResult(status -> receiptDao.findByLoanAccountNo("STAT001"));
+
+        // When
+        Map<String, Object> endpoints = (Map<String, Object>) report.snapshot(10).get("endpoints");
+
+        // Then
+        Map<String, Object> history = (Map<String, Object>) endpoints.get("GET " + HISTORY_PATTERN);
+        assertEquals(2L, history.get("requests"));
+        assertEquals(3L, history.get("statements"));
+        assertEquals(1.5, history.get("avgStatements"));
+        assertEquals(2L, history.get("maxStatements"));
+    }
+
+    private void handleRequest(Runnable work) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/emi/history/STAT001");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, HISTORY_PATTERN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HandlerMethod handler = new HandlerMethod(new Object(), "toString");
+
+        interceptor.preHandle(request, response, handler);
+        transactionTemplate.executeWithoutResult(status -> work.run());
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.tenant.TenantContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Outbox table stand-in: a row becomes visible when the test commits it
+ * Each tenant has its own table, chosen by the current tenant as the real tables are
+ */
+class InMemoryOutboxDao implements LmsPaymentOutboxDao {
+
+    private final Map<String, ConcurrentSkipListMap<Long, LmsPaymentOutbox17557>> tables = new ConcurrentHashMap<>();
+
+    void commit(long... ids) {
+        for (long id : ids) {
+            LmsPaymentOutbox17557 row = new LmsPaymentOutbox17557("LOAN" + id, "PAYMENT_POSTED",
+                    "{\"receiptId\":" + id + "}", new Date(0));
+            row.setOutboxId(id);
+            rows().put(id, row);
+        }
+    }
+
+    @Override
+    public LmsPaymentOutbox17557 save(LmsPaymentOutbox17557 event) {
+        rows().put(event.getOutboxId(), event);
+        return event;
+    }
+
+    @Override
+    public List<LmsPaymentOutbox17557> findAfter(long afterOffset, int limit) {
+        return rows().tailMap(afterOffset, false).values().stream().limit(limit).toList();
+    }
+
+    @Override
+    public List<LmsPaymentOutbox17557> findSettledAfter(long afterOffset, Date createdBefore, int limit) {
+        return rows().tailMap(afterOffset, false).values().stream()
+                .filter(row -> row.getCreatedDate().before(createdBefore)).limit(limit).toList();
+    }
+
+    @Override
+    public List<LmsPaymentOutbox17557> findRange(long afterOffset, long upToOffset, int limit) {
+        return rows().subMap(afterOffset, false, upToOffset, true).values().stream().limit(limit).toList();
+    }
+
+    private ConcurrentSkipListMap<Long, LmsPaymentOutbox17557> rows() {
+        return tables.computeIfAbsent(TenantContext.current(), tenant -> new ConcurrentSkipListMap<>());
+    }
+}
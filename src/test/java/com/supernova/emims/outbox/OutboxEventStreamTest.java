@@ -0,0 +1,122 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour tests for OutboxEventStream
+ * Subscribers record the event ids they are sent instead of writing to a response
+ */
+class OutboxEventStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+)");
+
+    private final InMemoryOutboxDao outboxDao = new InMemoryOutboxDao();
+    private final Queue<Runnable> writes = new ArrayDeque<>();
+
+    @Test
+    void testSubscribe_ResumesFromOffsetThenFollowsLiveEvents() {
+        // Given
+        OutboxEventStream stream = new OutboxEventStream(outboxDao, Runnable::run, Runnable::run, 60_000, 2, 10);
+        outboxDao.commit(1, 2, 3, 4, 5);
+        stream.advanceTo(5);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        stream.subscribe(2, emitter);
+        outboxDao.commit(6);
+        stream.publish(List.of(OutboxEvent.from(outboxDao.findRange(5, 6, 1).get(0))));
+
+        // Then
+        assertEquals(List.of(3L, 4L, 5L, 6L), emitter.ids);
+        assertEquals(1, stream.getSubscriberCount());
+    }
+
+    @Test
+    void testSubscribe_LiveOnlyWhenNoOffsetGiven() {
+        // Given
+        OutboxEventStream stream = new OutboxEventStream(outboxDao, Runnable::run, Runnable::run, 60_000, 2, 10);
+        outboxDao.commit(1, 2, 3);
+        stream.advanceTo(3);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // When
+        stream.subscribe(-1, emitter);
+        outboxDao.commit(4);
+        stream.publish(outboxDao.findRange(3, 4, 10).stream().map(OutboxEvent::from).toList());
+
+        // Then
+        assertEquals(List.of(4L), emitter.ids);
+    }
+
+    @Test
+    void testPublish_SlowSubscriberDroppedWithoutBlockingRelay() {
+        // Given - writes only happen when the test runs them
+        OutboxEventStream stream = new OutboxEventStream(outboxDao, Runnable::run, writes::add, 60_000, 2, 3);
+        RecordingEmitter slow = new RecordingEmitter();
+        stream.subscribe(-1, slow);
+        outboxDao.commit(1, 2, 3, 4);
+
+        // When
+        for (long offset = 1; offset <= 4; offset++) {
+            stream.publish(outboxDao.findRange(offset - 1, offset, 1).stream().map(OutboxEvent::from).toList());
+        }
+
+        // Then - the fourth event overflowed its queue of three
+        assertEquals(0, stream.getSubscriberCount());
+        runWrites();
+        assertTrue(slow.ids.isEmpty());
+    }
+
+    @Test
+    void testPublish_OnlyReachesSubscribersOfTheSameTenant() {
+        // Given - a base subscriber and a T2 subscriber, both live only
+        OutboxEventStream stream = new OutboxEventStream(outboxDao, Runnable::run, Runnable::run, 60_000, 2, 10);
+        RecordingEmitter base = new RecordingEmitter();
+        RecordingEmitter tenant = new RecordingEmitter();
+        stream.subscribe(-1, base);
+        TenantContext.runWith("T2", () -> stream.subscribe(-1, tenant));
+
+        // When - the relay publishes each tenant's events
+        outboxDao.commit(1);
+        stream.publish(outboxDao.findRange(0, 1, 10).stream().map(OutboxEvent::from).toList());
+        TenantContext.runWith("T2", () -> {
+            outboxDao.commit(1, 2);
+            stream.publish(outboxDao.findRange(0, 2, 10).stream().map(OutboxEvent::from).toList());
+        });
+
+        // Then
+        assertEquals(List.of(1L), base.ids);
+        assertEquals(List.of(1L, 2L), tenant.ids);
+    }
+
+    private void runWrites() {
+        Runnable write;
+        while ((write = writes.poll()) != null) {
+            write.run();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Long> ids = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher matcher = EVENT_ID.matcher(text);
+            assertTrue(matcher.find());
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+}
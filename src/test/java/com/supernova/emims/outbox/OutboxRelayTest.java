@@ -0,0 +1,153 @@
+package com.supernova.emims.outbox;
+
+import com.supernova.emims.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour tests for OutboxRelay
+ * Rows are committed out of ID order, as concurrent payment transactions commit them,
+ * and the clock is moved by hand
+ */
+class OutboxRelayTest {
+
+    private static final long GAP_TIMEOUT_MS = 60_000;
+
+    private final InMemoryOutboxDao outboxDao = new InMemoryOutboxDao();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private InMemoryOutboxEventSink sink;
+    private OutboxEventStream eventStream;
+
+    @BeforeEach
+    void setUp() {
+        sink = new InMemoryOutboxEventSink(100);
+        eventStream = new OutboxEventStream(outboxDao, Runnable::run, Runnable::run, 60_000, 10, 10);
+    }
+
+    @Test
+    void testRelay_PublishesInOffsetOrderAcrossBatches() {
+        // Given
+        outboxDao.commit(1, 2, 3, 4, 5);
+
+        // When
+        newRelay(sink, 2).relay();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), offsets(sink.eventsAfter(0)));
+        assertEquals(5, sink.lastPublishedOffset());
+    }
+
+    @Test
+    void testRelay_WaitsForLowerIdThatCommitsLate() {
+        // Given - ID 2 was drawn first but its transaction is still running
+        outboxDao.commit(1, 3);
+        OutboxRelay relay = newRelay(sink, 10);
+        relay.relay();
+        assertEquals(List.of(1L), offsets(sink.eventsAfter(0)));
+
+        // When - it commits well after any settle window
+        clock.addAndGet(30_000);
+        relay.relay();
+        outboxDao.commit(2);
+        relay.relay();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), offsets(sink.eventsAfter(0)));
+    }
+
+    @Test
+    void testRelay_GivesUpOnGapAfterTimeout() {
+        // Given - ID 2 rolled back
+        outboxDao.commit(1, 3, 4);
+        OutboxRelay relay = newRelay(sink, 10);
+        relay.relay();
+
+        // When
+        clock.addAndGet(GAP_TIMEOUT_MS - 1);
+        relay.relay();
+        List<Long> beforeTimeout = offsets(sink.eventsAfter(0));
+        clock.addAndGet(1);
+        relay.relay();
+
+        // Then
+        assertEquals(List.of(1L), beforeTimeout);
+        assertEquals(List.of(1L, 3L, 4L), offsets(sink.eventsAfter(0)));
+    }
+
+    @Test
+    void testRelay_RestartResumesAfterLastPublishedOffset(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("outbox-events.jsonl");
+        outboxDao.commit(1, 2, 3);
+        newRelay(new FileOutboxEventSink(file), 10).relay();
+
+        // When - a new process opens the same file
+        outboxDao.commit(4, 5);
+        FileOutboxEventSink restarted = new FileOutboxEventSink(file);
+        long resumedAfter = restarted.lastPublishedOffset();
+        newRelay(restarted, 10).relay();
+
+        // Then
+        assertEquals(3, resumedAfter);
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(3).startsWith("{\"offset\":4,"));
+        assertEquals(5, restarted.lastPublishedOffset());
+    }
+
+    @Test
+    void testInMemorySink_RestartReplaysWholeOutbox() {
+        // Given
+        outboxDao.commit(1, 2, 3);
+        newRelay(sink, 10).relay();
+
+        // When - the in-memory sink remembers nothing across a restart
+        InMemoryOutboxEventSink restarted = new InMemoryOutboxEventSink(2);
+        newRelay(restarted, 10).relay();
+
+        // Then - everything is published again, and only the newest events are kept
+        assertEquals(List.of(2L, 3L), offsets(restarted.eventsAfter(0)));
+        assertEquals(List.of(3L), offsets(restarted.eventsAfter(2)));
+    }
+
+    @Test
+    void testRelay_EachTenantToItsOwnSink() {
+        // Given - both tenants' outboxes number their rows from 1
+        outboxDao.commit(1, 2);
+        TenantContext.runWith("T2", () -> outboxDao.commit(1));
+        InMemoryOutboxEventSink tenantSink = new InMemoryOutboxEventSink(100);
+        Map<String, OutboxEventSink> sinks = new LinkedHashMap<>();
+        sinks.put(TenantContext.BASE_TENANT, sink);
+        sinks.put("T2", tenantSink);
+        OutboxRelay relay = new OutboxRelay(outboxDao, sinks, eventStream, GAP_TIMEOUT_MS, clock::get, 10);
+
+        // When
+        relay.relay();
+
+        // Then
+        assertEquals(List.of(1L, 2L), offsets(sink.eventsAfter(0)));
+        assertEquals(List.of(1L), offsets(tenantSink.eventsAfter(0)));
+        assertEquals(2, relay.getPublishedOffset());
+        assertEquals(1, TenantContext.callWith("T2", relay::getPublishedOffset));
+    }
+
+    private OutboxRelay newRelay(OutboxEventSink target, int batchSize) {
+        return new OutboxRelay(outboxDao, Map.of(TenantContext.BASE_TENANT, target), eventStream, GAP_TIMEOUT_MS,
+                clock::get, batchSize);
+    }
+
+    private static List<Long> offsets(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getOffset).toList();
+    }
+}
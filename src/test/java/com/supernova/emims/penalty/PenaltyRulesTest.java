@@ -0,0 +1,197 @@
+package com.supernova.emims.penalty;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Evaluates penalty rules read from a rules file
+ * The calendar has 2 October and 25 December 2026 and 1 January 2027 as holidays
+ */
+class PenaltyRulesTest {
+
+    private static final BigDecimal PENDING = new BigDecimal("1000.00");
+    private static final LocalDate DUE_THURSDAY = LocalDate.of(2026, 10, 1);
+    private static final LocalDate NEXT_FRIDAY = LocalDate.of(2026, 10, 9);
+
+    @TempDir
+    private Path tempDir;
+
+    private Path rulesFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rulesFile = tempDir.resolve("penalty-rules.properties");
+        write(rulesFile, "10.00");
+    }
+
+    @Test
+    void testPenalty_CountsBusinessDaysOnly() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When - the holiday on Friday 2 October and the weekend are not charged
+        BigDecimal penalty = rules.penalty("LOAN001", PENDING, DUE_THURSDAY, NEXT_FRIDAY);
+
+        // Then
+        assertEquals(new BigDecimal("50.00"), penalty);
+    }
+
+    @Test
+    void testPenalty_AcrossTheYearEnd() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When - 28 to 31 December and 4 January
+        BigDecimal penalty = rules.penalty("LOAN001", PENDING, LocalDate.of(2026, 12, 24), LocalDate.of(2027, 1, 4));
+
+        // Then
+        assertEquals(new BigDecimal("50.00"), penalty);
+    }
+
+    @Test
+    void testPenalty_ProductGraceDaysAndCap() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When / Then - home loans: two grace days, ₹5 a day, at most ₹20
+        assertEquals(new BigDecimal("0.00"), rules.penalty("HL001", PENDING, DUE_THURSDAY, LocalDate.of(2026, 10, 6)));
+        assertEquals(new BigDecimal("15.00"), rules.penalty("HL001", PENDING, DUE_THURSDAY, NEXT_FRIDAY));
+        assertEquals(new BigDecimal("20.00"), rules.penalty("HL001", PENDING, DUE_THURSDAY, LocalDate.of(2026, 10, 30)));
+        // The longer prefix wins
+        assertEquals(new BigDecimal("37.50"), rules.penalty("HLX001", PENDING, DUE_THURSDAY, NEXT_FRIDAY));
+    }
+
+    @Test
+    void testPenalty_NoneWhenNotLateOrNothingPending() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When / Then
+        assertEquals(new BigDecimal("0.00"), rules.penalty("LOAN001", PENDING, DUE_THURSDAY, DUE_THURSDAY));
+        assertEquals(new BigDecimal("0.00"), rules.penalty("LOAN001", PENDING, DUE_THURSDAY, LocalDate.of(2026, 9, 1)));
+        assertEquals(new BigDecimal("0.00"), rules.penalty("LOAN001", BigDecimal.ZERO, DUE_THURSDAY, NEXT_FRIDAY));
+    }
+
+    @Test
+    void testPenaltySince_AccruesInStepsWithinGraceAndCap() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When / Then - accrued in three steps, home loans charge the same ₹20 as in one
+        assertEquals(new BigDecimal("0.00"), rules.penaltySince("HL001", PENDING, DUE_THURSDAY, null, LocalDate.of(2026, 10, 6)));
+        assertEquals(new BigDecimal("15.00"), rules.penaltySince("HL001", PENDING, DUE_THURSDAY, LocalDate.of(2026, 10, 6), NEXT_FRIDAY));
+        assertEquals(new BigDecimal("5.00"), rules.penaltySince("HL001", PENDING, DUE_THURSDAY, NEXT_FRIDAY, LocalDate.of(2026, 10, 30)));
+        assertEquals(new BigDecimal("0.00"), rules.penaltySince("HL001", PENDING, DUE_THURSDAY, LocalDate.of(2026, 10, 30), LocalDate.of(2026, 11, 30)));
+        // Nothing more on the day already accrued, and nothing without EMI pending
+        assertEquals(new BigDecimal("0.00"), rules.penaltySince("LOAN001", PENDING, DUE_THURSDAY, NEXT_FRIDAY, NEXT_FRIDAY));
+        assertEquals(new BigDecimal("0.00"), rules.penaltySince("LOAN001", BigDecimal.ZERO, DUE_THURSDAY, null, NEXT_FRIDAY));
+    }
+
+    @Test
+    void testPenalty_StopsCountingAtTheCalendarEnd() {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When - only Thursday 28 and Friday 29 December 2028 are inside the calendar
+        BigDecimal penalty = rules.penalty("LOAN001", PENDING, LocalDate.of(2028, 12, 27), LocalDate.of(2030, 6, 1));
+
+        // Then
+        assertEquals(new BigDecimal("20.00"), penalty);
+    }
+
+    @Test
+    void testPenalty_BuiltInRulesWithoutFile() {
+        // Given
+        PenaltyRules rules = new PenaltyRules("");
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+
+        // When - Tuesday to Friday, then the following Monday
+        BigDecimal penalty = rules.penalty("LOAN001", PENDING, monday, monday.plusWeeks(1));
+
+        // Then
+        assertEquals(new BigDecimal("50.00"), penalty);
+    }
+
+    @Test
+    void testRefresh_PicksUpChangesAndKeepsRulesOnInvalidFile() throws IOException {
+        // Given
+        PenaltyRules rules = new PenaltyRules(rulesFile.toString());
+
+        // When
+        write(rulesFile, "20.00");
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(60)));
+        rules.refresh();
+
+        // Then
+        assertEquals(new BigDecimal("100.00"), rules.penalty("LOAN001", PENDING, DUE_THURSDAY, NEXT_FRIDAY));
+
+        // When - an amount with three decimals is refused
+        write(rulesFile, "20.001");
+        Files.setLastModifiedTime(rulesFile, FileTime.from(Instant.now().plusSeconds(120)));
+        rules.refresh();
+
+        // Then
+        assertEquals(new BigDecimal("100.00"), rules.penalty("LOAN001", PENDING, DUE_THURSDAY, NEXT_FRIDAY));
+    }
+
+    @Test
+    void testParse_RejectsInvalidRules() {
+        // Given
+        Properties noDefault = rules("10.00");
+        noDefault.remove("product.default.daily-rate");
+        noDefault.remove("product.default.grace-days");
+        Properties misplacedHoliday = rules("10.00");
+        misplacedHoliday.setProperty("calendar.holidays.2026", "2027-01-26");
+        Properties prefixlessProduct = rules("10.00");
+        prefixlessProduct.remove("product.home.account-prefix");
+        Properties samePrefix = rules("10.00");
+        samePrefix.setProperty("product.mortgage.account-prefix", "HL");
+        samePrefix.setProperty("product.mortgage.daily-rate", "1.00");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> PenaltyRuleSet.parse(noDefault));
+        IllegalArgumentException holiday = assertThrows(IllegalArgumentException.class,
+                () -> PenaltyRuleSet.parse(misplacedHoliday));
+        assertTrue(holiday.getMessage().contains("2027-01-26 is not in 2026"));
+        assertThrows(IllegalArgumentException.class, () -> PenaltyRuleSet.parse(prefixlessProduct));
+        assertThrows(IllegalArgumentException.class, () -> PenaltyRuleSet.parse(samePrefix));
+    }
+
+    private static Properties rules(String defaultRate) {
+        Properties properties = new Properties();
+        properties.setProperty("calendar.first-year", "2025");
+        properties.setProperty("calendar.last-year", "2028");
+        properties.setProperty("calendar.holidays.2026", "2026-10-02, 2026-12-25");
+        properties.setProperty("calendar.holidays.2027", "2027-01-01");
+        properties.setProperty("product.default.daily-rate", defaultRate);
+        properties.setProperty("product.default.grace-days", "0");
+        properties.setProperty("product.home.account-prefix", "HL");
+        properties.setProperty("product.home.daily-rate", "5.00");
+        properties.setProperty("product.home.grace-days", "2");
+        properties.setProperty("product.home.cap", "20.00");
+        properties.setProperty("product.homeplus.account-prefix", "HLX");
+        properties.setProperty("product.homeplus.daily-rate", "7.50");
+        return properties;
+    }
+
+    private static void write(Path file, String defaultRate) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            rules(defaultRate).store(writer, null);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.supernova.emims.resilience;
+
+import com.supernova.emims.dao.LmsReceivablePayableDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs half-open probe transactions through CircuitBreakingJpaTransactionManager against H2
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class CircuitBreakingJpaTransactionManagerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LmsReceivablePayableDao receivableDao;
+
+    private final AtomicLong clock = new AtomicLong();
+    private DatabaseCircuitBreaker breaker;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Opens after 2 failed calls, 1s open, 2 probes
+        breaker = new DatabaseCircuitBreaker(new SimpleMeterRegistry(), 2, 2, 50, 100, 1000, 2, clock::get);
+        CircuitBreakingJpaTransactionManager transactionManager = new CircuitBreakingJpaTransactionManager(breaker);
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        RuntimeException connectionFailure = new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+                new SQLTransientConnectionException("Connection is not available, request timed out"));
+        breaker.onError(connectionFailure, MILLIS);
+        breaker.onError(connectionFailure, MILLIS);
+        clock.addAndGet(1000 * MILLIS);
+    }
+
+    @Test
+    void testProbeWithManyCallsCountsOnce() {
+        // When - one probe transaction makes several database calls and commits
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                breaker.onSuccess(MILLIS);
+                receivableDao.findById(1L);
+            }
+        });
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // When - a second probe ends in a business rollback the database carried out
+        assertThrows(IllegalArgumentException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            throw new IllegalArgumentException("Payment exceeds the outstanding balance");
+        }));
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
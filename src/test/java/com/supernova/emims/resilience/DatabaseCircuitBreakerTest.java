@@ -0,0 +1,159 @@
+package com.supernova.emims.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DatabaseCircuitBreaker
+ * A manual clock drives the open period
+ */
+class DatabaseCircuitBreakerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private DatabaseCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Window of 4, opens at 50% after 4 calls, 100ms slow calls, 1s open, 2 probes
+        breaker = new DatabaseCircuitBreaker(meterRegistry, 4, 4, 50, 100, 1000, 2, clock::get);
+    }
+
+    @Test
+    void testOpensOnConnectionFailuresAndSlowCalls() {
+        // Given
+        breaker.onSuccess(5 * MILLIS);
+        breaker.onSuccess(5 * MILLIS);
+        breaker.onError(connectionFailure(), 5 * MILLIS);
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+
+        // When - a slow call makes it 2 of the last 4
+        breaker.onSuccess(150 * MILLIS);
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+        clock.addAndGet(400 * MILLIS);
+        DatabaseUnavailableException exception = assertThrows(DatabaseUnavailableException.class,
+                breaker::acquirePermission);
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.counter("emi.db.breaker.rejected").count());
+        assertEquals(2.0, meterRegistry.get("emi.db.breaker.state").gauge().value());
+    }
+
+    @Test
+    void testIgnoresBusinessErrorsAndShortTimeouts() {
+        // When - a constraint violation and a query cancelled after 20ms by a short client deadline
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(new IllegalArgumentException("Payment exceeds the outstanding balance"), MILLIS);
+            breaker.onError(new org.springframework.dao.QueryTimeoutException("cancelled", new SQLTimeoutException()),
+                    20 * MILLIS);
+        }
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquirePermission();
+    }
+
+    @Test
+    void testHalfOpenProbesCloseTheBreaker() {
+        // Given
+        open();
+        clock.addAndGet(1000 * MILLIS);
+
+        // When - two probes are let through, the third request is still refused
+        DatabaseCircuitBreaker.Permission first = breaker.acquirePermission();
+        DatabaseCircuitBreaker.Permission second = breaker.acquirePermission();
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertThrows(DatabaseUnavailableException.class, breaker::acquirePermission);
+        breaker.onSuccess(5 * MILLIS);
+        breaker.onProbeCompleted(first, null);
+        breaker.onSuccess(5 * MILLIS);
+        breaker.onProbeCompleted(second, null);
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquirePermission();
+    }
+
+    @Test
+    void testProbeCountsOncePerTransaction() {
+        // Given
+        open();
+        clock.addAndGet(1000 * MILLIS);
+        DatabaseCircuitBreaker.Permission probe = breaker.acquirePermission();
+
+        // When - one payment makes many successful calls, then its transaction commits
+        for (int i = 0; i < 5; i++) {
+            breaker.onSuccess(5 * MILLIS);
+        }
+        breaker.onProbeCompleted(probe, null);
+
+        // Then - the second probe is still needed
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onProbeCompleted(breaker.acquirePermission(), null);
+        assertEquals(DatabaseCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testProbeEndedByBusinessErrorFreesItsSlot() {
+        // Given - both probes taken
+        open();
+        clock.addAndGet(1000 * MILLIS);
+        DatabaseCircuitBreaker.Permission first = breaker.acquirePermission();
+        breaker.acquirePermission();
+
+        // When - one fails before reaching the database for a reason that is not the database's
+        breaker.onProbeCompleted(first, new IllegalStateException("Request deadline exceeded"));
+
+        // Then - another transaction may probe, and a late outcome of an earlier round is ignored
+        breaker.acquirePermission();
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onError(connectionFailure(), MILLIS);
+        clock.addAndGet(1000 * MILLIS);
+        DatabaseCircuitBreaker.Permission next = breaker.acquirePermission();
+        breaker.onProbeCompleted(first, null);
+        breaker.onProbeCompleted(next, null);
+        assertEquals(DatabaseCircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void testFailedProbeOpensAgain() {
+        // Given
+        open();
+        clock.addAndGet(1000 * MILLIS);
+        breaker.acquirePermission();
+
+        // When
+        breaker.onError(new SQLTimeoutException("ORA-01013"), 500 * MILLIS);
+
+        // Then
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(DatabaseUnavailableException.class, breaker::acquirePermission);
+        assertEquals(2.0, meterRegistry.counter("emi.db.breaker.opened").count());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(connectionFailure(), MILLIS);
+        }
+        assertEquals(DatabaseCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static RuntimeException connectionFailure() {
+        return new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection",
+                        new SQLTransientConnectionException("Connection is not available, request timed out")));
+    }
+}
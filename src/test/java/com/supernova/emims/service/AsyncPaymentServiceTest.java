@@ -0,0 +1,184 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dto.PaymentTicket;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.entity.PaymentMode;
+import com.supernova.emims.service.impl.AsyncPaymentServiceImpl;
+import com.supernova.emims.tenant.TenantContext;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AsyncPaymentService
+ * Workers are not started; tests drain the queue by calling processNextGroup directly
+ */
+@ExtendWith(MockitoExtension.class)
+public class AsyncPaymentServiceTest {
+
+    @Mock
+    private EmiManagementService emiManagementService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TenantRegistry tenantRegistry = new TenantRegistry("T2");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncPaymentServiceImpl asyncPaymentService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // No-op executor: start() only opens the queue
+        asyncPaymentService = new AsyncPaymentServiceImpl(emiManagementService, transactionManager, task -> { },
+                meterRegistry, tenantRegistry, 3, 1, 10, 100, 5000, 60000);
+        asyncPaymentService.start();
+        lenient().when(emiManagementService.validateLoanAccount(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void testProcessNextGroup_PostsQueuedPaymentsInOneTransaction() throws InterruptedException {
+        // Given
+        when(emiManagementService.processPayment(eq("TEST123"), any(BigDecimal.class), eq("Cash")))
+                .thenReturn(receipt(1L), receipt(2L));
+        PaymentTicket first = asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash");
+        PaymentTicket second = asyncPaymentService.submit("TEST123", new BigDecimal("200.00"), "Cash");
+        assertEquals("QUEUED", first.status());
+
+        // When
+        int processed = asyncPaymentService.processNextGroup(0);
+
+        // Then
+        assertEquals(2, processed);
+        verify(transactionManager, times(1)).commit(any());
+        PaymentTicket posted = asyncPaymentService.getTicket(second.ticketId()).orElseThrow();
+        assertEquals("POSTED", posted.status());
+        assertEquals(Long.valueOf(2L), posted.receiptId());
+        assertNotNull(posted.completedAt());
+        assertEquals(2.0, meterRegistry.summary("emi.payment.async.group.size").totalAmount());
+    }
+
+    @Test
+    void testProcessNextGroup_FailedGroupFallsBackToOneTransactionPerPayment() throws InterruptedException {
+        // Given - the second payment overpays the account every time it is posted
+        when(emiManagementService.processPayment("TEST123", new BigDecimal("100.00"), "Cash"))
+                .thenReturn(receipt(1L));
+        when(emiManagementService.processPayment("TEST456", new BigDecimal("900.00"), "Cash"))
+                .thenThrow(new IllegalArgumentException("Payment exceeds the outstanding balance"));
+        PaymentTicket good = asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash");
+        PaymentTicket bad = asyncPaymentService.submit("TEST456", new BigDecimal("900.00"), "Cash");
+
+        // When
+        asyncPaymentService.processNextGroup(0);
+
+        // Then
+        assertEquals("POSTED", asyncPaymentService.getTicket(good.ticketId()).orElseThrow().status());
+        PaymentTicket rejected = asyncPaymentService.getTicket(bad.ticketId()).orElseThrow();
+        assertEquals("REJECTED", rejected.status());
+        assertEquals("Payment exceeds the outstanding balance", rejected.message());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(1.0, meterRegistry.counter("emi.payment.async.group.fallbacks").count());
+    }
+
+    @Test
+    void testProcessNextGroup_GroupPastMaxDurationCommitsEarly() throws InterruptedException {
+        // Given - no time budget, so every transaction ends after its first payment
+        asyncPaymentService = new AsyncPaymentServiceImpl(emiManagementService, transactionManager, task -> { },
+                meterRegistry, tenantRegistry, 3, 1, 10, 100, 0, 60000);
+        asyncPaymentService.start();
+        when(emiManagementService.processPayment(eq("TEST123"), any(BigDecimal.class), eq("Cash")))
+                .thenReturn(receipt(1L), receipt(2L));
+        PaymentTicket first = asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash");
+        PaymentTicket second = asyncPaymentService.submit("TEST123", new BigDecimal("200.00"), "Cash");
+
+        // When
+        int processed = asyncPaymentService.processNextGroup(0);
+
+        // Then - the group is committed in two parts and nothing is rolled back
+        assertEquals(2, processed);
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+        assertEquals(Long.valueOf(1L), asyncPaymentService.getTicket(first.ticketId()).orElseThrow().receiptId());
+        assertEquals(Long.valueOf(2L), asyncPaymentService.getTicket(second.ticketId()).orElseThrow().receiptId());
+        assertEquals(1.0, meterRegistry.counter("emi.payment.async.group.splits").count());
+    }
+
+    @Test
+    void testConstructor_GroupMaxNotBelowGapTimeout() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new AsyncPaymentServiceImpl(emiManagementService,
+                transactionManager, task -> { }, meterRegistry, tenantRegistry, 3, 1, 10, 100, 60000, 60000));
+    }
+
+    @Test
+    void testSubmit_QueueFull() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash");
+        }
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash"));
+        assertEquals("Payment queue is full, retry later", exception.getMessage());
+        assertEquals(1.0, meterRegistry.counter("emi.payment.async.rejected",
+                "tenant", TenantContext.BASE_TENANT).count());
+        assertEquals(3.0, meterRegistry.get("emi.payment.async.queue.size")
+                .tag("tenant", TenantContext.BASE_TENANT).gauge().value());
+    }
+
+    @Test
+    void testSubmit_EachTenantHasItsOwnQueue() throws InterruptedException {
+        // Given - the base tenant's queue is full
+        when(emiManagementService.processPayment(anyString(), any(BigDecimal.class), eq("Cash")))
+                .thenReturn(receipt(1L), receipt(2L), receipt(3L), receipt(4L));
+        for (int i = 0; i < 3; i++) {
+            asyncPaymentService.submit("TEST123", new BigDecimal("100.00"), "Cash");
+        }
+
+        // When - another tenant submits a payment
+        PaymentTicket other = TenantContext.callWith("T2",
+                () -> asyncPaymentService.submit("TEST456", new BigDecimal("100.00"), "Cash"));
+
+        // Then - it is queued, and posted right after the base tenant's first group
+        assertEquals("QUEUED", other.status());
+        assertEquals(3, asyncPaymentService.processNextGroup(0));
+        assertEquals(1, asyncPaymentService.processNextGroup(0));
+        assertEquals("POSTED", TenantContext.callWith("T2",
+                () -> asyncPaymentService.getTicket(other.ticketId()).orElseThrow().status()));
+        assertEquals(0, asyncPaymentService.processNextGroup(0));
+    }
+
+    @Test
+    void testSubmit_UnknownAccount() {
+        // Given
+        when(emiManagementService.validateLoanAccount("INVALID")).thenReturn(false);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> asyncPaymentService.submit("INVALID", new BigDecimal("100.00"), "Cash"));
+        assertFalse(asyncPaymentService.getTicket("missing").isPresent());
+    }
+
+    private static LmsReceiptPaymentDtl17557 receipt(long receiptId) {
+        LmsReceiptPaymentDtl17557 receipt = new LmsReceiptPaymentDtl17557("TEST123", new BigDecimal("100.00"), PaymentMode.CASH,
+                LocalDate.now());
+        receipt.setReceiptId(receiptId);
+        return receipt;
+    }
+}
@@ -1,27 +1,46 @@
 package com.supernova.emims.service;
 
+import com.supernova.emims.archive.ColdStore;
 import com.supernova.emims.dao.LmsReceivablePayableDao;
 import com.supernova.emims.dao.LmsReceiptPaymentDao;
 import com.supernova.emims.dao.LmsAllocationDao;
+import com.supernova.emims.dao.PaymentPostingDao;
+import com.supernova.emims.dto.AllocationView;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.dto.ReceivableBalance;
+import com.supernova.emims.entity.AllocationType;
 import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
 import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
 import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.entity.PaymentMode;
 import com.supernova.emims.service.impl.EmiManagementServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Optional;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -43,15 +62,27 @@ public class EmiManagementServiceTest {
     @Mock
     private LmsAllocationDao allocationDao;
 
-    @InjectMocks
+    @Mock
+    private PaymentPostingDao paymentPostingDao;
+
+    @Mock
+    private ColdStore coldStore;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private EmiManagementServiceImpl emiManagementService;
 
     private LmsReceivablePayableDtl17557 testReceivable;
     private LmsReceiptPaymentDtl17557 testReceipt;
     private LmsAllocationDtl17557 testAllocation;
+    private ReceivableBalance outstandingBalance;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emiManagementService = new EmiManagementServiceImpl(receivableDao, receiptDao, allocationDao, paymentPostingDao,
+                coldStore, meterRegistry, 3);
+
         // Create test data
         testReceivable = new LmsReceivablePayableDtl17557();
         testReceivable.setReceivableId(1L);
@@ -59,21 +90,22 @@ public class EmiManagementServiceTest {
         testReceivable.setPendingEmiAmount(new BigDecimal("1000.00"));
         testReceivable.setPenaltyCharges(new BigDecimal("50.00"));
         testReceivable.setTotalAmount(new BigDecimal("1050.00"));
-        testReceivable.setCreatedDate(new Date());
+        testReceivable.setCreatedDate(LocalDate.now());
+        outstandingBalance = new ReceivableBalance("TEST123", new BigDecimal("1000.00"), new BigDecimal("50.00"), 1);
 
         testReceipt = new LmsReceiptPaymentDtl17557();
         testReceipt.setReceiptId(1L);
         testReceipt.setLoanAccountNo("TEST123");
         testReceipt.setPaymentAmount(new BigDecimal("500.00"));
-        testReceipt.setPaymentMode("Cash");
-        testReceipt.setPaymentDate(new Date());
+        testReceipt.setPaymentMode(PaymentMode.CASH);
+        testReceipt.setPaymentDate(LocalDate.now());
 
         testAllocation = new LmsAllocationDtl17557();
         testAllocation.setAllocationId(1L);
         testAllocation.setLoanAccountNo("TEST123");
-        testAllocation.setAllocatedTo("Penalty");
+        testAllocation.setAllocatedTo(AllocationType.PENALTY);
         testAllocation.setAllocatedAmount(new BigDecimal("50.00"));
-        testAllocation.setAllocationDate(new Date());
+        testAllocation.setAllocationDate(LocalDate.now());
     }
 
     @Test
@@ -105,7 +137,7 @@ public class EmiManagementServiceTest {
     @Test
     void testCalculateEmiDetails_Success() {
         // Given
-        when(receivableDao.findLatestByLoanAccountNo("TEST123")).thenReturn(Optional.of(testReceivable));
+        when(receivableDao.findOutstandingByLoanAccountNo("TEST123")).thenReturn(Optional.of(outstandingBalance));
 
         // When
         EmiManagementService.EmiDetails result = emiManagementService.calculateEmiDetails("TEST123");
@@ -121,7 +153,7 @@ public class EmiManagementServiceTest {
     @Test
     void testCalculateEmiDetails_AccountNotFound() {
         // Given
-        when(receivableDao.findLatestByLoanAccountNo("INVALID")).thenReturn(Optional.empty());
+        when(receivableDao.findOutstandingByLoanAccountNo("INVALID")).thenReturn(Optional.empty());
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -132,11 +164,45 @@ public class EmiManagementServiceTest {
         assertEquals("No EMI details found for loan account: INVALID", exception.getMessage());
     }
 
+    @Test
+    void testValidateLoanAccounts_AlignedWithInput() {
+        // Given
+        List<String> accounts = List.of("B2", "INVALID", "TEST123", "B2");
+        when(receivableDao.findExistingLoanAccountNos(Set.of("B2", "INVALID", "TEST123")))
+                .thenReturn(Set.of("TEST123", "B2"));
+
+        // When
+        List<Boolean> result = emiManagementService.validateLoanAccounts(accounts);
+
+        // Then - the repeated account is looked up once and answered at both positions
+        assertEquals(List.of(true, false, true, true), result);
+    }
+
+    @Test
+    void testCalculateEmiDetailsBatch_MissingAccountsMappedToNull() {
+        // Given
+        List<String> accounts = List.of("INVALID", "TEST123");
+        when(receivableDao.findOutstandingByLoanAccountNos(Set.of("INVALID", "TEST123"))).thenReturn(List.of(outstandingBalance));
+
+        // When
+        List<EmiManagementService.EmiDetails> result = emiManagementService.calculateEmiDetails(accounts);
+
+        // Then
+        assertEquals(2, result.size());
+        assertNull(result.get(0));
+        assertEquals(new BigDecimal("1000.00"), result.get(1).getPendingEmiAmount());
+        assertEquals(new BigDecimal("1050.00"), result.get(1).getTotalAmount());
+        verify(receivableDao, never()).findOutstandingByLoanAccountNo(anyString());
+    }
+
     @Test
     void testProcessPayment_Success() {
         // Given
-        when(receivableDao.findLatestByLoanAccountNo("TEST123")).thenReturn(Optional.of(testReceivable));
-        when(receiptDao.save(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(true);
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+        when(paymentPostingDao.saveAllocations(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         LmsReceiptPaymentDtl17557 result = emiManagementService.processPayment(
@@ -149,11 +215,121 @@ public class EmiManagementServiceTest {
         assertNotNull(result);
         assertEquals("TEST123", result.getLoanAccountNo());
         assertEquals(new BigDecimal("500.00"), result.getPaymentAmount());
-        assertEquals("Cash", result.getPaymentMode());
+        assertEquals(PaymentMode.CASH, result.getPaymentMode());
 
-        verify(receivableDao).findLatestByLoanAccountNo("TEST123");
-        verify(receiptDao).save(any(LmsReceiptPaymentDtl17557.class));
-        verify(allocationDao, times(2)).save(any(LmsAllocationDtl17557.class));
+        verify(receivableDao).streamOpenInstallments("TEST123");
+        verify(receivableDao).updateBalanceIfUnchanged(testReceivable, new BigDecimal("550.00"), new BigDecimal("0.00"));
+        verify(paymentPostingDao).saveReceipt(any(LmsReceiptPaymentDtl17557.class));
+        verify(paymentPostingDao).saveAllocations(argThat(allocations -> allocations.size() == 2));
+        verify(paymentPostingDao).saveEvent(any(LmsPaymentOutbox17557.class));
+    }
+
+    @Test
+    void testProcessPayment_WritesOutboxEvent() {
+        // Given
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(true);
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+        when(paymentPostingDao.saveAllocations(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<LmsPaymentOutbox17557> eventCaptor = ArgumentCaptor.forClass(LmsPaymentOutbox17557.class);
+
+        // When
+        emiManagementService.processPayment("TEST123", new BigDecimal("500.00"), "Cash");
+
+        // Then
+        verify(paymentPostingDao).saveEvent(eventCaptor.capture());
+        LmsPaymentOutbox17557 event = eventCaptor.getValue();
+        assertEquals("TEST123", event.getLoanAccountNo());
+        assertEquals("PAYMENT_POSTED", event.getEventType());
+        assertTrue(event.getPayload().contains("\"receiptId\":1"));
+        assertTrue(event.getPayload().contains("\"allocatedTo\":\"Penalty\""));
+        assertTrue(event.getPayload().contains("\"allocatedTo\":\"EMI\""));
+    }
+
+    @Test
+    void testProcessPayment_RetriesOnConcurrentBalanceChange() {
+        // Given
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(false, true);
+        when(receivableDao.findById(1L)).thenReturn(Optional.of(testReceivable));
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+        when(paymentPostingDao.saveAllocations(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        LmsReceiptPaymentDtl17557 result = emiManagementService.processPayment("TEST123", new BigDecimal("500.00"), "Cash");
+
+        // Then
+        assertNotNull(result);
+        verify(receivableDao).findById(1L);
+        verify(paymentPostingDao).saveAllocations(argThat(allocations -> allocations.size() == 2));
+        assertEquals(1.0, meterRegistry.counter("emi.payment.balance.conflicts").count());
+    }
+
+    @Test
+    void testProcessPayment_RetriesExhausted() {
+        // Given
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(false);
+        when(receivableDao.findById(1L)).thenReturn(Optional.of(testReceivable));
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> emiManagementService.processPayment("TEST123", new BigDecimal("500.00"), "Cash"));
+        verify(receivableDao, times(3)).updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class));
+        verify(paymentPostingDao, never()).saveAllocations(anyList());
+        verify(paymentPostingDao, never()).saveEvent(any(LmsPaymentOutbox17557.class));
+        assertEquals(1.0, meterRegistry.counter("emi.payment.balance.retries.exhausted").count());
+    }
+
+    @Test
+    void testProcessPayment_AllocatesOldestInstallmentFirst() {
+        // Given
+        LmsReceivablePayableDtl17557 olderInstallment = new LmsReceivablePayableDtl17557();
+        olderInstallment.setReceivableId(2L);
+        olderInstallment.setLoanAccountNo("TEST123");
+        olderInstallment.setPendingEmiAmount(new BigDecimal("300.00"));
+        olderInstallment.setPenaltyCharges(new BigDecimal("50.00"));
+        olderInstallment.setTotalAmount(new BigDecimal("350.00"));
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(olderInstallment, testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(any(LmsReceivablePayableDtl17557.class), any(BigDecimal.class),
+                any(BigDecimal.class))).thenReturn(true);
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+        when(paymentPostingDao.saveAllocations(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LmsAllocationDtl17557>> allocationsCaptor = ArgumentCaptor.forClass(List.class);
+
+        // When
+        emiManagementService.processPayment("TEST123", new BigDecimal("500.00"), "Cash");
+
+        // Then
+        verify(receivableDao).updateBalanceIfUnchanged(olderInstallment, new BigDecimal("0.00"), new BigDecimal("0.00"));
+        verify(receivableDao).updateBalanceIfUnchanged(testReceivable, new BigDecimal("900.00"), new BigDecimal("0.00"));
+        verify(paymentPostingDao).saveAllocations(allocationsCaptor.capture());
+        List<LmsAllocationDtl17557> allocations = allocationsCaptor.getValue();
+        assertEquals(List.of(AllocationType.PENALTY, AllocationType.EMI, AllocationType.PENALTY, AllocationType.EMI),
+                allocations.stream().map(LmsAllocationDtl17557::getAllocatedTo).toList());
+        assertEquals(List.of(2L, 2L, 1L, 1L), allocations.stream().map(LmsAllocationDtl17557::getReceivableId).toList());
+        assertEquals(new BigDecimal("300.00"), allocations.get(1).getAllocatedAmount());
+        assertEquals(new BigDecimal("100.00"), allocations.get(3).getAllocatedAmount());
+        assertEquals(1L, allocations.get(0).getReceiptId());
+    }
+
+    @Test
+    void testProcessPayment_ExceedsOutstandingBalance() {
+        // Given
+        when(receivableDao.streamOpenInstallments("TEST123")).thenReturn(Stream.of(testReceivable));
+        when(receivableDao.updateBalanceIfUnchanged(eq(testReceivable), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(true);
+        when(paymentPostingDao.saveReceipt(any(LmsReceiptPaymentDtl17557.class))).thenReturn(testReceipt);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> emiManagementService.processPayment("TEST123", new BigDecimal("1100.00"), "Cash"));
+        verify(paymentPostingDao, never()).saveAllocations(anyList());
     }
 
     @Test
@@ -181,18 +357,18 @@ public class EmiManagementServiceTest {
     @Test
     void testGetAllocationDetails_Success() {
         // Given
-        List<LmsAllocationDtl17557> allocations = new ArrayList<>();
-        allocations.add(testAllocation);
+        List<AllocationView> allocations = new ArrayList<>();
+        allocations.add(AllocationView.of(testAllocation));
         when(allocationDao.findByLoanAccountNo("TEST123")).thenReturn(allocations);
 
         // When
-        List<LmsAllocationDtl17557> result = emiManagementService.getAllocationDetails("TEST123");
+        List<AllocationView> result = emiManagementService.getAllocationDetails("TEST123");
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("TEST123", result.get(0).getLoanAccountNo());
-        assertEquals("Penalty", result.get(0).getAllocatedTo());
+        assertEquals("TEST123", result.get(0).loanAccountNo());
+        assertEquals(AllocationType.PENALTY, result.get(0).allocatedTo());
 
         verify(allocationDao).findByLoanAccountNo("TEST123");
     }
@@ -200,29 +376,63 @@ public class EmiManagementServiceTest {
     @Test
     void testGetPaymentHistory_Success() {
         // Given
-        List<LmsReceiptPaymentDtl17557> payments = new ArrayList<>();
-        payments.add(testReceipt);
+        List<ReceiptView> payments = new ArrayList<>();
+        payments.add(ReceiptView.of(testReceipt));
         when(receiptDao.findByLoanAccountNo("TEST123")).thenReturn(payments);
 
         // When
-        List<LmsReceiptPaymentDtl17557> result = emiManagementService.getPaymentHistory("TEST123");
+        List<ReceiptView> result = emiManagementService.getPaymentHistory("TEST123");
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("TEST123", result.get(0).getLoanAccountNo());
-        assertEquals("Cash", result.get(0).getPaymentMode());
+        assertEquals("TEST123", result.get(0).loanAccountNo());
+        assertEquals(PaymentMode.CASH, result.get(0).paymentMode());
 
         verify(receiptDao).findByLoanAccountNo("TEST123");
     }
 
+    @Test
+    void testGetPaymentHistoryPage_WithinTableSkipsColdStore() {
+        // Given
+        when(receiptDao.findByLoanAccountNo("TEST123", 0, 1)).thenReturn(List.of(ReceiptView.of(testReceipt)));
+
+        // When
+        List<ReceiptView> result = emiManagementService.getPaymentHistory("TEST123", 0, 1);
+
+        // Then
+        assertEquals(List.of(ReceiptView.of(testReceipt)), result);
+        verifyNoInteractions(coldStore);
+    }
+
+    @Test
+    void testGetPaymentHistoryPage_PastTableContinuesIntoColdStore() {
+        // Given - three receipts in the table; the page starts at the last of them
+        LmsReceiptPaymentDtl17557 archived = new LmsReceiptPaymentDtl17557("TEST123", new BigDecimal("200.00"),
+                PaymentMode.CHEQUE, LocalDate.of(2020, 1, 1));
+        when(receiptDao.findByLoanAccountNo("TEST123", 2, 3)).thenReturn(List.of(ReceiptView.of(testReceipt)));
+        when(coldStore.findReceipts("TEST123", 0, 2)).thenReturn(List.of(archived));
+        when(receiptDao.findByLoanAccountNo("TEST123", 5, 3)).thenReturn(List.of());
+        when(receiptDao.countByLoanAccountNo("TEST123")).thenReturn(3L);
+        when(coldStore.findReceipts("TEST123", 2, 3)).thenReturn(List.of());
+
+        // When
+        List<ReceiptView> page = emiManagementService.getPaymentHistory("TEST123", 2, 3);
+        List<ReceiptView> next = emiManagementService.getPaymentHistory("TEST123", 5, 3);
+
+        // Then
+        assertEquals(List.of(ReceiptView.of(testReceipt), ReceiptView.of(archived)), page);
+        assertTrue(next.isEmpty());
+        verify(coldStore).findReceipts("TEST123", 2, 3);
+    }
+
     @Test
     void testGetAllocationDetails_EmptyList() {
         // Given
         when(allocationDao.findByLoanAccountNo("TEST123")).thenReturn(new ArrayList<>());
 
         // When
-        List<LmsAllocationDtl17557> result = emiManagementService.getAllocationDetails("TEST123");
+        List<AllocationView> result = emiManagementService.getAllocationDetails("TEST123");
 
         // Then
         assertNotNull(result);
@@ -237,7 +447,7 @@ public class EmiManagementServiceTest {
         when(receiptDao.findByLoanAccountNo("TEST123")).thenReturn(new ArrayList<>());
 
         // When
-        List<LmsReceiptPaymentDtl17557> result = emiManagementService.getPaymentHistory("TEST123");
+        List<ReceiptView> result = emiManagementService.getPaymentHistory("TEST123");
 
         // Then
         assertNotNull(result);
@@ -245,4 +455,48 @@ public class EmiManagementServiceTest {
 
         verify(receiptDao).findByLoanAccountNo("TEST123");
     }
+
+    @Test
+    void testCalculateEmiDetails_ConcurrentCallersShareOneLoad() throws Exception {
+        // Given - the first load blocks until every caller has arrived
+        CountDownLatch release = new CountDownLatch(1);
+        when(receivableDao.findOutstandingByLoanAccountNo("TEST123")).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return Optional.of(outstandingBalance);
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+
+        try {
+            // When
+            List<Future<EmiManagementService.EmiDetails>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(callers.submit(() -> emiManagementService.calculateEmiDetails("TEST123")));
+            }
+            while (meterRegistry.counter("emi.read.coalesced", "operation", "calculate").count() < 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Then
+            EmiManagementService.EmiDetails first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<EmiManagementService.EmiDetails> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            verify(receivableDao, times(1)).findOutstandingByLoanAccountNo("TEST123");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testValidateLoanAccount_SequentialCallsAreNotShared() {
+        // Given
+        when(receivableDao.existsByLoanAccountNo("TEST123")).thenReturn(true, false);
+
+        // When & Then - a completed load is never reused
+        assertTrue(emiManagementService.validateLoanAccount("TEST123"));
+        assertFalse(emiManagementService.validateLoanAccount("TEST123"));
+        verify(receivableDao, times(2)).existsByLoanAccountNo("TEST123");
+        assertEquals(0.0, meterRegistry.counter("emi.read.coalesced", "operation", "validate").count());
+    }
 }
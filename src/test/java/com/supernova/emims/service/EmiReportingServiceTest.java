@@ -0,0 +1,165 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dao.LmsDailyRollupDao;
+import com.supernova.emims.dao.LmsPaymentOutboxDao;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.service.impl.EmiReportingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmiReportingService
+ * Tests rollup maintenance from outbox events with mocked dependencies
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmiReportingServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 15);
+
+    @Mock
+    private LmsDailyRollupDao rollupDao;
+
+    @Mock
+    private LmsPaymentOutboxDao outboxDao;
+
+    private EmiReportingServiceImpl reportingService;
+
+    @BeforeEach
+    void setUp() {
+        reportingService = new EmiReportingServiceImpl(rollupDao, outboxDao, 0, 100);
+    }
+
+    @Test
+    void testApplyOutboxEvents_AggregatesPerDayAndKey() {
+        // Given
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(10L);
+        when(outboxDao.findAfter(10L, 100)).thenReturn(List.of(
+                event(11L, "Cash", "500.00", "50.00", "450.00"),
+                event(12L, "Cash", "100.10", "50.00", "50.10"),
+                event(13L, "Online", "20.00", "20.00", null)));
+
+        // When
+        int applied = reportingService.applyOutboxEvents();
+
+        // Then
+        assertEquals(3, applied);
+        verify(rollupDao).addPaymentModeTotals(DAY, "Cash", 2, new BigDecimal("600.1"));
+        verify(rollupDao).addPaymentModeTotals(DAY, "Online", 1, new BigDecimal("20"));
+        verify(rollupDao).addAllocationTotals(DAY, "Penalty", 3, new BigDecimal("120"));
+        verify(rollupDao).addAllocationTotals(DAY, "EMI", 2, new BigDecimal("500.1"));
+        verify(rollupDao).updateWatermark("DAILY_ROLLUP", 13L);
+    }
+
+    @Test
+    void testApplyOutboxEvents_ReversalSubtractsAllocationsOnReversalDay() {
+        // Given
+        long reversalDate = DAY.plusDays(2).atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        LmsPaymentOutbox17557 reversal = new LmsPaymentOutbox17557("TEST123", "PAYMENT_REVERSED",
+                "{\"receiptId\":11,\"loanAccountNo\":\"TEST123\",\"reversalDate\":" + reversalDate
+                        + ",\"allocations\":[{\"allocatedTo\":\"Penalty\",\"allocatedAmount\":-50.00},"
+                        + "{\"allocatedTo\":\"EMI\",\"allocatedAmount\":-450.00}]}", new Date());
+        reversal.setOutboxId(14L);
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(13L);
+        when(outboxDao.findAfter(13L, 100)).thenReturn(List.of(reversal));
+
+        // When
+        int applied = reportingService.applyOutboxEvents();
+
+        // Then
+        assertEquals(1, applied);
+        verify(rollupDao, never()).addPaymentModeTotals(any(LocalDate.class), anyString(), anyLong(), any(BigDecimal.class));
+        verify(rollupDao).addAllocationTotals(DAY.plusDays(2), "Penalty", 1, new BigDecimal("-50"));
+        verify(rollupDao).addAllocationTotals(DAY.plusDays(2), "EMI", 1, new BigDecimal("-450"));
+        verify(rollupDao).updateWatermark("DAILY_ROLLUP", 14L);
+    }
+
+    @Test
+    void testApplyOutboxEvents_StopsAtUncommittedId() {
+        // Given - offset 12 is still in flight
+        EmiReportingServiceImpl waitingService = new EmiReportingServiceImpl(rollupDao, outboxDao, 60_000, 100);
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(10L);
+        when(outboxDao.findAfter(10L, 100)).thenReturn(List.of(
+                event(11L, "Cash", "500.00", "50.00", "450.00"),
+                event(13L, "Online", "20.00", "20.00", null)));
+
+        // When
+        int applied = waitingService.applyOutboxEvents();
+
+        // Then
+        assertEquals(1, applied);
+        verify(rollupDao).addPaymentModeTotals(DAY, "Cash", 1, new BigDecimal("500"));
+        verify(rollupDao, never()).addPaymentModeTotals(eq(DAY), eq("Online"), anyLong(), any());
+        verify(rollupDao).updateWatermark("DAILY_ROLLUP", 11L);
+    }
+
+    @Test
+    void testApplyOutboxEvents_NothingPending() {
+        // Given
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(13L);
+        when(outboxDao.findAfter(13L, 100)).thenReturn(List.of());
+
+        // When
+        int applied = reportingService.applyOutboxEvents();
+
+        // Then
+        assertEquals(0, applied);
+        verify(rollupDao, never()).updateWatermark(anyString(), anyLong());
+    }
+
+    @Test
+    void testRecomputeDay_SkippedWhileEventsPending() {
+        // Given
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(10L);
+        when(outboxDao.findSettledAfter(eq(10L), any(Date.class), eq(1)))
+                .thenReturn(List.of(event(11L, "Cash", "500.00", "50.00", "450.00")));
+
+        // When
+        boolean recomputed = reportingService.recomputeDay(DAY);
+
+        // Then
+        assertFalse(recomputed);
+        verify(rollupDao, never()).recomputeDay(any(LocalDate.class));
+    }
+
+    @Test
+    void testRecomputeDay_Success() {
+        // Given
+        when(rollupDao.lockWatermark("DAILY_ROLLUP")).thenReturn(13L);
+        when(outboxDao.findSettledAfter(eq(13L), any(Date.class), eq(1))).thenReturn(List.of());
+
+        // When
+        boolean recomputed = reportingService.recomputeDay(DAY);
+
+        // Then
+        assertTrue(recomputed);
+        verify(rollupDao).recomputeDay(DAY);
+    }
+
+    private LmsPaymentOutbox17557 event(long offset, String mode, String amount, String penalty, String emi) {
+        long paymentDate = DAY.atTime(10, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        StringBuilder allocations = new StringBuilder("{\"allocatedTo\":\"Penalty\",\"allocatedAmount\":" + penalty + "}");
+        if (emi != null) {
+            allocations.append(",{\"allocatedTo\":\"EMI\",\"allocatedAmount\":").append(emi).append('}');
+        }
+        String payload = "{\"receiptId\":" + offset + ",\"loanAccountNo\":\"TEST123\",\"paymentAmount\":" + amount
+                + ",\"paymentMode\":\"" + mode + "\",\"paymentDate\":" + paymentDate
+                + ",\"allocations\":[" + allocations + "]}";
+
+        LmsPaymentOutbox17557 event = new LmsPaymentOutbox17557("TEST123", "PAYMENT_POSTED", payload, new Date());
+        event.setOutboxId(offset);
+        return event;
+    }
+}
@@ -0,0 +1,184 @@
+package com.supernova.emims.service;
+
+import com.supernova.emims.dao.LmsPaymentReversalDao;
+import com.supernova.emims.dto.ReversalProgress;
+import com.supernova.emims.entity.AllocationType;
+import com.supernova.emims.entity.LmsAllocationDtl17557;
+import com.supernova.emims.entity.LmsPaymentOutbox17557;
+import com.supernova.emims.service.impl.EmiReversalServiceImpl;
+import com.supernova.emims.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmiReversalService
+ * Runs jobs on the calling thread with mocked dependencies
+ */
+@ExtendWith(MockitoExtension.class)
+public class EmiReversalServiceTest {
+
+    @Mock
+    private LmsPaymentReversalDao reversalDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EmiReversalServiceImpl reversalService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reversalService = new EmiReversalServiceImpl(reversalDao, transactionManager, Runnable::run, meterRegistry,
+                2, 10, 5, 1);
+    }
+
+    @Test
+    void testStartReversal_ProcessesSortedDistinctIdsInChunks() {
+        // Given
+        List<List<Long>> lockedChunks = new ArrayList<>();
+        when(reversalDao.lockReversibleReceipts(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = new ArrayList<>(invocation.getArgument(0));
+            lockedChunks.add(chunk);
+            // Receipt 5 is already reversed
+            return chunk.stream().filter(id -> id != 5L).toList();
+        });
+        when(reversalDao.restoreReceivables(anyList())).thenReturn(1);
+        when(reversalDao.insertCompensatingAllocations(anyList(), any(Date.class)))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size() * 2);
+        when(reversalDao.findCompensatingAllocations(anyList())).thenReturn(List.of());
+
+        // When
+        ReversalProgress started = reversalService.startReversal(Arrays.asList(3L, 1L, 5L, 2L, 3L));
+
+        // Then
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 5L)), lockedChunks);
+        verify(reversalDao).markReversed(eq(List.of(3L)), any(Date.class));
+        ReversalProgress progress = reversalService.getReversal(started.jobId()).orElseThrow();
+        assertEquals("COMPLETED", progress.status());
+        assertEquals(4, progress.requested());
+        assertEquals(4, progress.processed());
+        assertEquals(3, progress.reversed());
+        assertEquals(1, progress.skipped());
+        assertEquals(6, progress.allocationsReversed());
+        assertEquals(2, progress.installmentsRestored());
+        assertNull(progress.etaSeconds());
+        assertEquals(3.0, meterRegistry.counter("emi.reversal.receipts").count());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testStartReversal_WritesOneEventPerReceipt() {
+        // Given
+        when(reversalDao.lockReversibleReceipts(anyList())).thenReturn(List.of(1L, 2L));
+        when(reversalDao.findCompensatingAllocations(List.of(1L, 2L))).thenReturn(List.of(
+                compensation(11L, 1L, AllocationType.PENALTY, "-50.00"),
+                compensation(12L, 1L, AllocationType.EMI, "-450.00"),
+                compensation(13L, 2L, AllocationType.EMI, "-100.00")));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LmsPaymentOutbox17557>> eventsCaptor = ArgumentCaptor.forClass(List.class);
+
+        // When
+        reversalService.startReversal(List.of(1L, 2L));
+
+        // Then
+        verify(reversalDao).insertEvents(eventsCaptor.capture());
+        List<LmsPaymentOutbox17557> events = eventsCaptor.getValue();
+        assertEquals(2, events.size());
+        assertEquals("PAYMENT_REVERSED", events.get(0).getEventType());
+        assertTrue(events.get(0).getPayload().contains("\"receiptId\":1"));
+        assertTrue(events.get(0).getPayload().contains("\"reversedAllocationId\":1"));
+        assertTrue(events.get(0).getPayload().contains("\"allocatedAmount\":-450.00"));
+        assertTrue(events.get(1).getPayload().contains("\"receiptId\":2"));
+    }
+
+    @Test
+    void testStartReversal_FailedChunkStopsJob() {
+        // Given
+        when(reversalDao.lockReversibleReceipts(anyList())).thenReturn(List.of(1L, 2L))
+                .thenThrow(new IllegalStateException("deadlock detected"));
+        when(reversalDao.findCompensatingAllocations(anyList())).thenReturn(List.of());
+
+        // When
+        ReversalProgress started = reversalService.startReversal(List.of(1L, 2L, 3L, 4L, 5L));
+
+        // Then
+        ReversalProgress progress = reversalService.getReversal(started.jobId()).orElseThrow();
+        assertEquals("FAILED", progress.status());
+        assertEquals("deadlock detected", progress.error());
+        assertEquals(2, progress.processed());
+        verify(reversalDao, times(2)).lockReversibleReceipts(anyList());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void testStartReversal_EachTenantQueuesOnItsOwn() {
+        // Given - the executor holds tasks until the test runs them
+        List<Runnable> tasks = new ArrayList<>();
+        reversalService = new EmiReversalServiceImpl(reversalDao, transactionManager, tasks::add, meterRegistry,
+                2, 10, 5, 1);
+        when(reversalDao.lockReversibleReceipts(anyList())).thenReturn(List.of());
+
+        // When - the base tenant fills its queue behind a running job
+        ReversalProgress first = reversalService.startReversal(List.of(1L));
+        ReversalProgress second = reversalService.startReversal(List.of(2L));
+
+        // Then - its next job is rejected, while another tenant's job starts at once
+        assertThrows(IllegalStateException.class, () -> reversalService.startReversal(List.of(3L)));
+        ReversalProgress other = TenantContext.callWith("T2", () -> reversalService.startReversal(List.of(4L)));
+        assertEquals(2, tasks.size());
+
+        // When - the base tenant's running job ends
+        tasks.get(0).run();
+
+        // Then - its queued job follows
+        assertEquals("COMPLETED", reversalService.getReversal(first.jobId()).orElseThrow().status());
+        assertEquals(3, tasks.size());
+        tasks.get(2).run();
+        assertEquals("COMPLETED", reversalService.getReversal(second.jobId()).orElseThrow().status());
+        assertEquals("QUEUED", TenantContext.callWith("T2",
+                () -> reversalService.getReversal(other.jobId()).orElseThrow().status()));
+    }
+
+    @Test
+    void testStartReversal_TooManyReceipts() {
+        // When & Then
+        List<Long> receiptIds = new ArrayList<>();
+        for (long id = 1; id <= 11; id++) {
+            receiptIds.add(id);
+        }
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> reversalService.startReversal(receiptIds));
+        assertEquals("At most 10 receipts can be reversed per request", exception.getMessage());
+        verifyNoInteractions(reversalDao);
+    }
+
+    private static LmsAllocationDtl17557 compensation(long allocationId, long receiptId, AllocationType allocatedTo,
+                                                     String amount) {
+        LmsAllocationDtl17557 allocation = new LmsAllocationDtl17557("TEST123", allocatedTo, new BigDecimal(amount),
+                LocalDate.now());
+        allocation.setAllocationId(allocationId);
+        allocation.setReceiptId(receiptId);
+        allocation.setReceivableId(7L);
+        allocation.setReversedAllocationId(allocationId - 10);
+        return allocation;
+    }
+}
@@ -0,0 +1,173 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.CycleProgress;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EMI cycle generation against H2 on the calling thread
+ * Small partitions and chunks make every run cross chunk and partition boundaries
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class EmiCycleServiceImplTest {
+
+    private static final YearMonth CYCLE = YearMonth.of(2026, 11);
+
+    @Autowired
+    private LmsEmiCycleDao cycleDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmiManagementService emiManagementService;
+
+    private EmiCycleServiceImpl cycleService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_EMI_CYCLE_CHECKPOINT_17557");
+        cycleService = newService(3);
+
+        for (int i = 1; i <= 7; i++) {
+            insertInstallment(i, "LOAN00" + i, 202610, "1000.00", 12, LocalDate.of(2026, 10, 5));
+        }
+        // Last installment of its loan, no schedule, and a loan that is a cycle behind
+        insertInstallment(8, "LOAN008", 202610, "1000.00", 0, LocalDate.of(2026, 10, 5));
+        insertInstallment(9, "LOAN009", 202610, null, null, LocalDate.of(2026, 10, 5));
+        insertInstallment(10, "LOAN010", 202609, "1000.00", 5, LocalDate.of(2026, 9, 5));
+    }
+
+    @Test
+    void testStartCycle_GeneratesNextInstallmentOfActiveLoans() {
+        // When
+        cycleService.startCycle(CYCLE);
+
+        // Then
+        CycleProgress progress = cycleService.getCycle(CYCLE).orElseThrow();
+        assertEquals("COMPLETED", progress.status());
+        assertEquals(7, progress.expectedRows());
+        assertEquals(7, progress.rowsInserted());
+        assertEquals(3, progress.partitionsFinished());
+        assertNull(progress.etaSeconds());
+
+        List<Map<String, Object>> generated = jdbcTemplate.queryForList(
+                "SELECT * FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE EMI_CYCLE = 202611 ORDER BY LOAN_ACCOUNT_NO");
+        assertEquals(7, generated.size());
+        Map<String, Object> first = generated.get(0);
+        assertEquals("LOAN001", first.get("LOAN_ACCOUNT_NO"));
+        assertEquals(0, new BigDecimal("1000.00").compareTo((BigDecimal) first.get("PENDING_EMI_AMOUNT")));
+        assertEquals(0, BigDecimal.ZERO.compareTo((BigDecimal) first.get("PENALTY_CHARGES")));
+        assertEquals(0, new BigDecimal("1000.00").compareTo((BigDecimal) first.get("TOTAL_AMOUNT")));
+        assertEquals(11, ((Number) first.get("REMAINING_INSTALLMENTS")).intValue());
+        assertEquals(LocalDate.of(2026, 11, 5), ((java.util.Date) first.get("CREATED_DATE")).toInstant()
+                .atZone(java.time.ZoneId.systemDefault()).toLocalDate());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_EMI_CYCLE_CHECKPOINT_17557 WHERE EMI_CYCLE = 202611 AND COMPLETED_DATE IS NOT NULL",
+                Integer.class));
+    }
+
+    @Test
+    void testStartCycle_RerunCreatesNoDuplicates() {
+        // Given - one loan got its installment from the external scripts, then a first run completed
+        insertInstallment(11, "LOAN003", 202611, "1000.00", 11, LocalDate.of(2026, 11, 5));
+        cycleService.startCycle(CYCLE);
+
+        // When - a fresh run, as after a restart with the checkpoints cleared
+        jdbcTemplate.update("DELETE FROM LMS_EMI_CYCLE_CHECKPOINT_17557");
+        cycleService.startCycle(CYCLE);
+
+        // Then
+        assertEquals(0, cycleService.getCycle(CYCLE).orElseThrow().rowsInserted());
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE EMI_CYCLE = 202611", Integer.class));
+    }
+
+    @Test
+    void testStartCycle_ResumesAfterCheckpoint() {
+        // Given - an interrupted single-partition run committed up to LOAN004
+        cycleService = newService(1);
+        jdbcTemplate.update("INSERT INTO LMS_EMI_CYCLE_CHECKPOINT_17557 (EMI_CYCLE, PARTITION_NO, PARTITION_COUNT, "
+                + "LAST_LOAN_ACCOUNT_NO, ROWS_INSERTED, UPDATED_DATE) VALUES (202611, 0, 1, 'LOAN004', 4, SYSTIMESTAMP)");
+
+        // When
+        cycleService.startCycle(CYCLE);
+
+        // Then - only the accounts after the checkpoint are generated
+        assertEquals(List.of("LOAN005", "LOAN006", "LOAN007"), jdbcTemplate.queryForList(
+                "SELECT LOAN_ACCOUNT_NO FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE EMI_CYCLE = 202611 ORDER BY LOAN_ACCOUNT_NO",
+                String.class));
+        assertEquals(7L, jdbcTemplate.queryForObject(
+                "SELECT ROWS_INSERTED FROM LMS_EMI_CYCLE_CHECKPOINT_17557 WHERE EMI_CYCLE = 202611", Long.class));
+    }
+
+    @Test
+    void testStartCycle_GeneratedInstallmentsAcceptPayments() {
+        // Given
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        cycleService.startCycle(CYCLE);
+
+        // When - the payment reads the open installments, schedule columns included, through the entity
+        LmsReceiptPaymentDtl17557 receipt = emiManagementService.processPayment("LOAN001", new BigDecimal("500.00"), "Cash");
+
+        // Then - the October installment is paid first and the generated one is left open
+        assertEquals(0, new BigDecimal("500.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(ALLOCATED_AMOUNT) FROM LMS_ALLOCATION_DTL_17557_ WHERE RECEIPT_ID = ? AND RECEIVABLE_ID = 1000001",
+                BigDecimal.class, receipt.getReceiptId())));
+        Map<String, Object> generated = jdbcTemplate.queryForMap("SELECT PENDING_EMI_AMOUNT, REMAINING_INSTALLMENTS "
+                + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE LOAN_ACCOUNT_NO = 'LOAN001' AND EMI_CYCLE = 202611");
+        assertEquals(0, new BigDecimal("1000.00").compareTo((BigDecimal) generated.get("PENDING_EMI_AMOUNT")));
+        assertEquals(11, ((Number) generated.get("REMAINING_INSTALLMENTS")).intValue());
+    }
+
+    @Test
+    void testStartCycle_PartitionCountChanged() {
+        // Given
+        cycleService.startCycle(CYCLE);
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> newService(4).startCycle(CYCLE));
+        assertTrue(exception.getMessage().contains("was started with [3] partitions"));
+    }
+
+    private EmiCycleServiceImpl newService(int partitions) {
+        return new EmiCycleServiceImpl(cycleDao, transactionManager, Runnable::run, new SimpleMeterRegistry(),
+                new TenantRegistry(""), partitions, 2);
+    }
+
+    private void insertInstallment(long id, String loanAccountNo, int emiCycle, String installmentAmount,
+                                   Integer remainingInstallments, LocalDate dueDate) {
+        BigDecimal amount = installmentAmount != null ? new BigDecimal(installmentAmount) : new BigDecimal("500.00");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                        + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, VERSION, INSTALLMENT_AMOUNT, "
+                        + "EMI_CYCLE, REMAINING_INSTALLMENTS) VALUES (?, ?, ?, 0, ?, ?, 0, ?, ?, ?)",
+                // Far above the IDs the sequence hands out during the test
+                1_000_000 + id, loanAccountNo, amount, amount, Date.valueOf(dueDate),
+                installmentAmount != null ? amount : null, emiCycle, remainingInstallments);
+    }
+}
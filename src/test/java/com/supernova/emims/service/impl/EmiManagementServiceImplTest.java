@@ -0,0 +1,74 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiManagementService.EmiDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EMI details and payments together against H2
+ * The total EMI details report is what a payment can settle, so paying it clears the account
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class EmiManagementServiceImplTest {
+
+    @Autowired
+    private EmiManagementService emiManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUpAccount() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        // Two overdue installments with penalties before the latest, and one already settled
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(1, 'TOTAL1', 0.00, 0.00, 0.00, DATE '2026-07-05', 202607), "
+                + "(2, 'TOTAL1', 1000.00, 70.00, 1070.00, DATE '2026-08-05', 202608), "
+                + "(3, 'TOTAL1', 400.00, 30.00, 430.00, DATE '2026-09-05', 202609), "
+                + "(4, 'TOTAL1', 1000.00, 0.00, 1000.00, DATE '2026-10-05', 202610)");
+    }
+
+    @Test
+    void testProcessPayment_CalculatedTotalSettlesAccount() {
+        // Given
+        EmiDetails before = emiManagementService.calculateEmiDetails("TOTAL1");
+
+        // When
+        LmsReceiptPaymentDtl17557 receipt = emiManagementService.processPayment("TOTAL1", before.getTotalAmount(), "Cash");
+
+        // Then
+        assertEquals(0, new BigDecimal("2400.00").compareTo(before.getPendingEmiAmount()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(before.getPenaltyCharges()));
+        assertEquals(0, new BigDecimal("2500.00").compareTo(before.getTotalAmount()));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_ALLOCATION_DTL_17557_ WHERE RECEIPT_ID = ?", Integer.class, receipt.getReceiptId()));
+        EmiDetails after = emiManagementService.calculateEmiDetails("TOTAL1");
+        assertEquals(0, BigDecimal.ZERO.compareTo(after.getTotalAmount()));
+    }
+
+    @Test
+    void testProcessPayment_MoreThanCalculatedTotalRejected() {
+        // Given
+        BigDecimal total = emiManagementService.calculateEmiDetails(List.of("TOTAL1")).get(0).getTotalAmount();
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> emiManagementService.processPayment("TOTAL1", total.add(new BigDecimal("0.01")), "Cash"));
+        assertTrue(exception.getMessage().contains("by 0.01"));
+        assertEquals(0, new BigDecimal("2500.00").compareTo(total));
+    }
+}
@@ -0,0 +1,150 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiManagementService.EmiDetails;
+import com.supernova.emims.sqlbudget.SqlBudget;
+import com.supernova.emims.sqlbudget.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL round-trip budgets of the EMI management operations, run against H2
+ * Each test fails when its operation issues more statements than its {@link SqlBudget}, so an
+ * extra query shows up in the build rather than in production latency. The payment budgets are
+ * exactly the statements a payment needs:
+ * - one select of the open installments, oldest first, to split the amount
+ * - one versioned update per installment it settles. Each update checks the version it read and
+ *   is retried on its own when a concurrent payment changed the installment, so the updates
+ *   cannot go out as one batch
+ * - three inserts, one per table: the receipt, the allocations in one batch and the outbox event.
+ *   Oracle's INSERT ALL could write the three tables in one round trip, but Hibernate does not
+ *   issue it and H2 cannot run it
+ * That is 5 round trips for one installment and 6 for two. The 3 a payment was meant to reach
+ * would need the per-installment retry given up. The outbox takes one ID per event, so its IDs
+ * follow each other without gaps. The receipt and allocation generators are warmed up before
+ * counting starts, and each fetches at most once more, when its block of IDs runs out
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class EmiManagementSqlBudgetTest {
+
+    @Autowired
+    private EmiManagementService emiManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUpAccounts() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(1, 'BUDGET1', 1000.00, 50.00, 1050.00, DATE '2026-09-05', 202609), "
+                + "(2, 'BUDGET1', 1000.00, 0.00, 1000.00, DATE '2026-10-05', 202610), "
+                + "(3, 'BUDGET2', 700.00, 0.00, 700.00, DATE '2026-10-05', 202610)");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIPT_PAYMENT_DTL_17557 VALUES "
+                + "(101, 'BUDGET1', 500.00, 'Cheque', DATE '2026-09-01', NULL), "
+                + "(102, 'BUDGET1', 100.00, 'Cash', DATE '2026-09-20', NULL)");
+
+        // Start the receipt and allocation ID generators, which fetch twice for their first block
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(9, 'WARMUP1', 10.00, 0.00, 10.00, DATE '2026-10-05', 202610)");
+        emiManagementService.processPayment("WARMUP1", new BigDecimal("10.00"), "Cash");
+    }
+
+    @Test
+    @SqlBudget(operation = "processPayment", statements = 5, selects = 1, inserts = 3, updates = 1, sequences = 3)
+    void testProcessPayment_OneInstallment() {
+        // When - settles the September penalty and part of its EMI
+        LmsReceiptPaymentDtl17557 receipt = emiManagementService.processPayment("BUDGET1", new BigDecimal("500.00"), "Cash");
+
+        // Then
+        SqlStatementCounter.pause();
+        assertNotNull(receipt.getReceiptId());
+        assertEquals(0, new BigDecimal("550.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT TOTAL_AMOUNT FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = 1", BigDecimal.class)));
+    }
+
+    @Test
+    @SqlBudget(operation = "processPayment", statements = 6, selects = 1, inserts = 3, updates = 2, sequences = 3)
+    void testProcessPayment_TwoInstallments() {
+        // When - settles September in full, then October
+        LmsReceiptPaymentDtl17557 receipt = emiManagementService.processPayment("BUDGET1", new BigDecimal("2050.00"), "UPI");
+
+        // Then
+        SqlStatementCounter.pause();
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_ALLOCATION_DTL_17557_ WHERE RECEIPT_ID = ?", Integer.class, receipt.getReceiptId()));
+    }
+
+    @Test
+    @SqlBudget(operation = "calculateEmiDetails", statements = 1, selects = 1)
+    void testCalculateEmiDetails() {
+        // When
+        EmiDetails details = emiManagementService.calculateEmiDetails("BUDGET1");
+
+        // Then - both open installments
+        assertEquals(0, new BigDecimal("2050.00").compareTo(details.getTotalAmount()));
+    }
+
+    @Test
+    @SqlBudget(operation = "calculateEmiDetails (batch)", statements = 1, selects = 1)
+    void testCalculateEmiDetails_Batch() {
+        // When
+        List<EmiDetails> details = emiManagementService.calculateEmiDetails(List.of("BUDGET1", "NONE", "BUDGET1", "BUDGET2"));
+
+        // Then - one entry per input, the repeated account at both of its positions
+        assertEquals(4, details.size());
+        assertNull(details.get(1));
+        assertEquals("BUDGET1", details.get(0).getLoanAccountNo());
+        assertEquals("BUDGET1", details.get(2).getLoanAccountNo());
+        assertEquals("BUDGET2", details.get(3).getLoanAccountNo());
+    }
+
+    @Test
+    @SqlBudget(operation = "validateLoanAccounts (batch)", statements = 1, selects = 1)
+    void testValidateLoanAccounts_Batch() {
+        // When / Then - one entry per input, repeats included
+        assertEquals(List.of(true, false, true), emiManagementService.validateLoanAccounts(List.of("BUDGET1", "NONE", "BUDGET1")));
+    }
+
+    @Test
+    @SqlBudget(operation = "validateLoanAccount", statements = 1, selects = 1)
+    void testValidateLoanAccount() {
+        // When / Then
+        assertTrue(emiManagementService.validateLoanAccount("BUDGET1"));
+    }
+
+    @Test
+    @SqlBudget(operation = "getPaymentHistory", statements = 1, selects = 1)
+    void testGetPaymentHistory() {
+        // When
+        List<ReceiptView> history = emiManagementService.getPaymentHistory("BUDGET1");
+
+        // Then
+        assertEquals(2, history.size());
+    }
+
+    @Test
+    @SqlBudget(operation = "getPaymentHistory (paged)", statements = 1, selects = 1)
+    void testGetPaymentHistory_PastTheLastRow() {
+        // When
+        List<ReceiptView> page = emiManagementService.getPaymentHistory("BUDGET1", 0, 10);
+
+        // Then
+        assertEquals(2, page.size());
+    }
+}
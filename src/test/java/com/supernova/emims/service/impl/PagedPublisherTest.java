@@ -0,0 +1,152 @@
+package com.supernova.emims.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PagedPublisher
+ * Verifies demand-driven page loading and completion signals
+ */
+public class PagedPublisherTest {
+
+    private final List<Integer> source = IntStream.range(0, 25).boxed().collect(Collectors.toList());
+    private final List<Integer> loadedOffsets = new ArrayList<>();
+
+    private List<Integer> load(Integer after, int limit) {
+        int offset = after == null ? 0 : source.indexOf(after) + 1;
+        loadedOffsets.add(offset);
+        return new ArrayList<>(source.subList(Math.min(offset, source.size()), Math.min(offset + limit, source.size())));
+    }
+
+    @Test
+    void testPagesLoadedOnlyOnDemand() {
+        // Given
+        PagedPublisher<Integer> publisher = new PagedPublisher<>(this::load, 10, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(3);
+
+        // Then
+        assertEquals(List.of(0, 1, 2), subscriber.items);
+        assertEquals(List.of(0), loadedOffsets);
+        assertFalse(subscriber.completed);
+
+        // When
+        subscriber.subscription.request(8);
+
+        // Then
+        assertEquals(11, subscriber.items.size());
+        assertEquals(List.of(0, 10), loadedOffsets);
+    }
+
+    @Test
+    void testCompletesAfterLastPartialPage() {
+        // Given
+        PagedPublisher<Integer> publisher = new PagedPublisher<>(this::load, 10, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(source, subscriber.items);
+        assertEquals(List.of(0, 10, 20), loadedOffsets);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void testItemsAddedMidStreamNeitherRepeatedNorSkipped() {
+        // Given - newest first, as payment history is read
+        source.sort(Comparator.reverseOrder());
+        PagedPublisher<Integer> publisher = new PagedPublisher<>(this::load, 10, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscription.request(10);
+
+        // When - a newer item arrives after the first page was read
+        source.add(0, 99);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(IntStream.range(0, 25).map(i -> 24 - i).boxed().toList(), subscriber.items);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void testCancelStopsLoading() {
+        // Given
+        PagedPublisher<Integer> publisher = new PagedPublisher<>(this::load, 10, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        subscriber.cancelAfter = 5;
+        publisher.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // Then
+        assertEquals(5, subscriber.items.size());
+        assertEquals(List.of(0), loadedOffsets);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void testLoaderFailureSignalsError() {
+        // Given
+        PagedPublisher<Integer> publisher = new PagedPublisher<>((after, limit) -> {
+            throw new IllegalStateException("database unavailable");
+        }, 10, Runnable::run);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+
+        // When
+        subscriber.subscription.request(1);
+
+        // Then
+        assertTrue(subscriber.items.isEmpty());
+        assertInstanceOf(IllegalStateException.class, subscriber.error);
+        assertFalse(subscriber.completed);
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        private final List<Integer> items = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+        private int cancelAfter = -1;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+            if (items.size() == cancelAfter) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsPartitionDao;
+import com.supernova.emims.tenant.TenantRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PartitionMaintenanceScheduler with a mocked partition DAO
+ */
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintenanceSchedulerTest {
+
+    private static final String RECEIPTS = "LMS_RECEIPT_PAYMENT_DTL_17557";
+
+    @Mock
+    private LmsPartitionDao partitionDao;
+
+    private PartitionMaintenanceScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new PartitionMaintenanceScheduler(partitionDao, new TenantRegistry(""));
+    }
+
+    @Test
+    void testAddYearSubpartitions_SplitsMissingYearsOldestFirst() {
+        // Given - receipts lack 2027 and 2028 in one partition, and 2028 in another
+        when(partitionDao.findPartitionsWithoutYear(anyString(), anyInt())).thenReturn(List.of());
+        when(partitionDao.findPartitionsWithoutYear(RECEIPTS, 2027)).thenReturn(List.of("SYS_P101"));
+        when(partitionDao.findPartitionsWithoutYear(RECEIPTS, 2028)).thenReturn(List.of("SYS_P101", "SYS_P102"));
+
+        // When
+        int added = scheduler.addYearSubpartitions(2028);
+
+        // Then
+        assertEquals(3, added);
+        InOrder inOrder = inOrder(partitionDao);
+        inOrder.verify(partitionDao).addYearSubpartition(RECEIPTS, "SYS_P101", 2027);
+        inOrder.verify(partitionDao).addYearSubpartition(RECEIPTS, "SYS_P101", 2028);
+        inOrder.verify(partitionDao).addYearSubpartition(RECEIPTS, "SYS_P102", 2028);
+        verify(partitionDao, times(3)).addYearSubpartition(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void testAddYearSubpartitions_ChecksEveryTableAndYear() {
+        // Given - every subpartition is in place
+        when(partitionDao.findPartitionsWithoutYear(anyString(), anyInt())).thenReturn(List.of());
+
+        // When
+        int added = scheduler.addYearSubpartitions(2029);
+
+        // Then
+        assertEquals(0, added);
+        for (String table : PartitionMaintenanceScheduler.TABLES) {
+            for (int year = 2027; year <= 2029; year++) {
+                verify(partitionDao).findPartitionsWithoutYear(table, year);
+            }
+        }
+        verify(partitionDao, never()).addYearSubpartition(anyString(), anyString(), anyInt());
+    }
+}
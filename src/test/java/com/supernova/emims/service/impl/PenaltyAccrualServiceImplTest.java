@@ -0,0 +1,125 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsPenaltyAccrualDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.penalty.PenaltyRules;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiManagementService.EmiDetails;
+import com.supernova.emims.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the daily penalty accrual against H2 with the built-in rules: ₹10 per business day
+ * Chunks of two make every run cross chunk boundaries. Monday 19 October 2026 is the accrual day
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class PenaltyAccrualServiceImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    @Autowired
+    private LmsPenaltyAccrualDao accrualDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmiManagementService emiManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PenaltyAccrualServiceImpl accrualService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_17557");
+        jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_17557_");
+        accrualService = new PenaltyAccrualServiceImpl(accrualDao, new PenaltyRules(""), transactionManager,
+                new SimpleMeterRegistry(), new TenantRegistry(""), 2);
+
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, PENALTY_ACCRUED_DATE, EMI_CYCLE) VALUES "
+                // Due Wednesday 30 September, never accrued
+                + "(1, 'LATE1', 1000.00, 0.00, 1000.00, DATE '2026-09-30', NULL, 202609), "
+                // Due Wednesday 14 October, accrued up to Friday 16
+                + "(2, 'LATE1', 1000.00, 20.00, 1020.00, DATE '2026-10-14', DATE '2026-10-16', 202610), "
+                // EMI paid, penalty still open
+                + "(3, 'PAID1', 0.00, 20.00, 20.00, DATE '2026-09-01', DATE '2026-09-10', 202609), "
+                // Due today
+                + "(4, 'NEW1', 1000.00, 0.00, 1000.00, DATE '2026-10-19', NULL, 202610), "
+                // Already accrued today
+                + "(5, 'DONE1', 1000.00, 10.00, 1010.00, DATE '2026-10-16', DATE '2026-10-19', 202610)");
+    }
+
+    @Test
+    void testAccrue_ChargesBusinessDaysSinceLastAccrual() {
+        // When
+        int charged = accrualService.accrue(MONDAY);
+
+        // Then - thirteen business days for the first, Monday alone for the second
+        assertEquals(2, charged);
+        assertInstallment(1, "130.00", "1130.00", MONDAY);
+        assertInstallment(2, "30.00", "1030.00", MONDAY);
+        assertInstallment(3, "20.00", "20.00", LocalDate.of(2026, 9, 10));
+        assertInstallment(4, "0.00", "1000.00", null);
+        assertInstallment(5, "10.00", "1010.00", MONDAY);
+    }
+
+    @Test
+    void testAccrue_RerunChargesEachDayOnce() {
+        // Given
+        accrualService.accrue(MONDAY);
+
+        // When
+        int rerun = accrualService.accrue(MONDAY);
+        int tuesday = accrualService.accrue(MONDAY.plusDays(1));
+
+        // Then
+        assertEquals(0, rerun);
+        assertEquals(4, tuesday);
+        assertInstallment(1, "140.00", "1140.00", MONDAY.plusDays(1));
+        assertInstallment(4, "10.00", "1010.00", MONDAY.plusDays(1));
+        assertEquals(6L, jdbcTemplate.queryForObject(
+                "SELECT SUM(VERSION) FROM LMS_RECEIVABLEPAYBLE_DTL_17557", Long.class));
+    }
+
+    @Test
+    void testAccrue_PenaltyReportedAndSettledByPayment() {
+        // Given
+        accrualService.accrue(MONDAY);
+        EmiDetails details = emiManagementService.calculateEmiDetails("LATE1");
+
+        // When
+        emiManagementService.processPayment("LATE1", details.getTotalAmount(), "Cash");
+
+        // Then - the accrued penalty is part of the total and is what the payment settled
+        assertEquals(0, new BigDecimal("160.00").compareTo(details.getPenaltyCharges()));
+        assertEquals(0, new BigDecimal("160.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(ALLOCATED_AMOUNT) FROM LMS_ALLOCATION_DTL_17557_ WHERE ALLOCATED_TO = 'Penalty'", BigDecimal.class)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(emiManagementService.calculateEmiDetails("LATE1").getTotalAmount()));
+    }
+
+    private void assertInstallment(long receivableId, String penalty, String total, LocalDate accruedDate) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT PENALTY_CHARGES, TOTAL_AMOUNT "
+                + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = ?", receivableId);
+        assertEquals(0, new BigDecimal(penalty).compareTo((BigDecimal) row.get("PENALTY_CHARGES")), "penalty of " + receivableId);
+        assertEquals(0, new BigDecimal(total).compareTo((BigDecimal) row.get("TOTAL_AMOUNT")), "total of " + receivableId);
+        assertEquals(accruedDate, jdbcTemplate.queryForObject("SELECT PENALTY_ACCRUED_DATE "
+                + "FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = ?", LocalDate.class, receivableId),
+                "accrued date of " + receivableId);
+    }
+}
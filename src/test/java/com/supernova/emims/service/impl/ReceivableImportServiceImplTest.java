@@ -0,0 +1,166 @@
+package com.supernova.emims.service.impl;
+
+import com.supernova.emims.dao.LmsEmiCycleDao;
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.ImportSummary;
+import com.supernova.emims.entity.LmsReceivablePayableDtl17557;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs receivable CSV imports against H2 on the calling thread
+ * Tiny chunks and batches make every import cross chunk and batch boundaries
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class ReceivableImportServiceImplTest {
+
+    @Autowired
+    private LmsEmiCycleDao cycleDao;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_17557");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testImportFile_LoadsValidRowsAndRejectsTheRest() throws IOException {
+        // Given
+        Path file = write("import.csv", ReceivableCsvParser.HEADER,
+                "LOAN001,202611,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN002,202611,2026-11-05,2500.5,2500.5,10.25,5",
+                "LOAN003,202611,2026-11-31,1000.00,1000.00,0,11",
+                "LOAN004,202611,2026-11-05,1000.001,1000.00,0,11",
+                "LOAN-05,202611,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN006,202613,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN007,202611,2026-11-05,1000.00,1000.00,0",
+                "",
+                "LOAN008,202611,2026-11-05,750,750,0,0");
+
+        // When
+        ImportSummary summary = newService(2, 64).importFile(file);
+
+        // Then
+        assertEquals(8, summary.rowsRead());
+        assertEquals(3, summary.rowsImported());
+        assertEquals(5, summary.rowsRejected());
+        assertTrue(summary.chunks() > 1, "expected several chunks, got " + summary.chunks());
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM LMS_RECEIVABLEPAYBLE_DTL_17557 ORDER BY LOAN_ACCOUNT_NO");
+        assertEquals(List.of("LOAN001", "LOAN002", "LOAN008"),
+                rows.stream().map(row -> row.get("LOAN_ACCOUNT_NO")).toList());
+        Map<String, Object> second = rows.get(1);
+        assertEquals(0, new BigDecimal("2510.75").compareTo((BigDecimal) second.get("TOTAL_AMOUNT")));
+        assertEquals(0, new BigDecimal("2500.50").compareTo((BigDecimal) second.get("INSTALLMENT_AMOUNT")));
+        assertEquals(202611, ((Number) second.get("EMI_CYCLE")).intValue());
+        assertEquals(5, ((Number) second.get("REMAINING_INSTALLMENTS")).intValue());
+
+        List<String> rejects = Files.readAllLines(Path.of(summary.rejectFile()));
+        assertEquals(6, rejects.size());
+        assertTrue(rejects.get(1).contains("Invalid DUE_DATE"));
+        assertTrue(rejects.get(1).endsWith("LOAN003,202611,2026-11-31,1000.00,1000.00,0,11"));
+        assertTrue(rejects.get(5).contains("Expected 7 fields"));
+        assertTrue(Files.exists(tempDir.resolve("import.csv.summary.json")));
+        assertEquals(3.0, meterRegistry.counter("emi.import.rows", "outcome", "imported").count());
+    }
+
+    @Test
+    void testImportFile_ExistingReceivablesRejectedWithoutLosingTheirBatch() throws IOException {
+        // Given - LOAN002 already has its November installment, and LOAN003 appears twice
+        newService(10, 1 << 20).importFile(write("first.csv", "LOAN002,202611,2026-11-05,1000.00,1000.00,0,11"));
+        Path file = write("second.csv",
+                "LOAN001,202611,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN002,202611,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN003,202611,2026-11-05,1000.00,1000.00,0,11",
+                "LOAN003,202611,2026-11-05,1000.00,1000.00,0,11");
+
+        // When
+        ImportSummary summary = newService(10, 1 << 20).importFile(file);
+
+        // Then
+        assertEquals(2, summary.rowsImported());
+        assertEquals(2, summary.rowsRejected());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM LMS_RECEIVABLEPAYBLE_DTL_17557", Integer.class));
+        List<String> rejects = Files.readAllLines(Path.of(summary.rejectFile()));
+        assertTrue(rejects.get(1).startsWith("47\tReceivable already exists"));
+        assertTrue(rejects.get(1).endsWith("LOAN002,202611,2026-11-05,1000.00,1000.00,0,11"));
+    }
+
+    @Test
+    void testParse_ChunksSplitAtLineBoundaries() throws IOException {
+        // Given
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            lines.add(String.format("LOAN%03d,202611,2026-11-05,%d.00,%d.00,0,11\r", i, 100 + i, 100 + i));
+        }
+        Path file = write("chunks.csv", lines.toArray(String[]::new));
+
+        // When
+        List<String> accounts = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = ReceivableCsvParser.chunkBoundaries(channel, 100);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                ReceivableCsvParser.parse(ReceivableCsvParser.map(channel, boundaries[i], boundaries[i + 1]),
+                        boundaries[i], new ReceivableCsvParser.RowHandler() {
+                            @Override
+                            public void row(long offset, LmsReceivablePayableDtl17557 row) {
+                                accounts.add(row.getLoanAccountNo());
+                            }
+
+                            @Override
+                            public void reject(long offset, String reason, String line) {
+                                fail("Unexpected reject at " + offset + ": " + reason + " " + line);
+                            }
+                        });
+            }
+        }
+
+        // Then
+        assertEquals(50, accounts.size());
+        assertEquals("LOAN000", accounts.get(0));
+        assertEquals("LOAN049", accounts.get(49));
+    }
+
+    private ReceivableImportServiceImpl newService(int batchSize, long chunkBytes) {
+        return new ReceivableImportServiceImpl(cycleDao, transactionManager, Runnable::run, meterRegistry, "",
+                batchSize, chunkBytes);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, String.join("\n", lines) + "\n", StandardCharsets.US_ASCII);
+        return file;
+    }
+}
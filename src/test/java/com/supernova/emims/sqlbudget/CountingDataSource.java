@@ -0,0 +1,97 @@
+package com.supernova.emims.sqlbudget;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource that reports every statement round trip to {@link SqlStatementCounter}
+ * Wraps connections and statements in JDK proxies, so Hibernate and JdbcTemplate are counted
+ * alike. Each execute call is one round trip, and so is each executeBatch, whatever the batch size
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> PREPARE = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+    private static final Set<String> EXECUTE_BATCH = Set.of("executeBatch", "executeLargeBatch");
+
+    public CountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (PREPARE.contains(method.getName())) {
+                        return counting((Statement) result, method.getReturnType(), (String) args[0]);
+                    }
+                    if ("createStatement".equals(method.getName())) {
+                        return counting((Statement) result, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object counting(Statement statement, Class<?> type, String preparedSql) {
+        return Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[] {type},
+                new StatementHandler(statement, preparedSql));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts the executions of one statement
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private String firstBatchSql;
+
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE.contains(name)) {
+                SqlStatementCounter.record(args != null && args.length > 0 && args[0] instanceof String sql
+                        ? sql : preparedSql);
+            } else if (EXECUTE_BATCH.contains(name)) {
+                SqlStatementCounter.record(preparedSql != null ? preparedSql : firstBatchSql);
+                firstBatchSql = null;
+            } else if ("addBatch".equals(name) && args != null && args.length == 1 && firstBatchSql == null) {
+                firstBatchSql = (String) args[0];
+            }
+            return CountingDataSource.invoke(statement, method, args);
+        }
+    }
+}
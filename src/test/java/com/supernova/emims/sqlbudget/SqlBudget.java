@@ -0,0 +1,45 @@
+package com.supernova.emims.sqlbudget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL round trips a test may issue for the service operation it exercises
+ * Statements are counted from the start of the test method until it ends or calls
+ * {@link SqlStatementCounter#pause()}, only through a {@link CountingDataSource}, and never in
+ * @BeforeEach fixtures. A test that goes over any limit fails and lists the statements it ran.
+ * Raise a budget only with the change that needs the statement.
+ * Sequence fetches have their own limit: a pooled ID generator fetches once per block of IDs,
+ * so how many an operation makes depends on the tests that ran before it
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    int UNLIMITED = -1;
+
+    /**
+     * @return the service operation the budget belongs to, e.g. processPayment
+     */
+    String operation();
+
+    /**
+     * @return most round trips other than sequence fetches
+     */
+    int statements();
+
+    int selects() default UNLIMITED;
+
+    int inserts() default UNLIMITED;
+
+    int updates() default UNLIMITED;
+
+    int deletes() default UNLIMITED;
+
+    int sequences() default UNLIMITED;
+}
@@ -0,0 +1,71 @@
+package com.supernova.emims.sqlbudget;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Enforces {@link SqlBudget} on the test method it annotates
+ * A test that already failed is left to report its own failure
+ */
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Recording recording = SqlStatementCounter.stop();
+        SqlBudget budget = context.getRequiredTestMethod().getAnnotation(SqlBudget.class);
+        if (budget == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        List<String> overruns = overruns(budget, recording);
+        if (!overruns.isEmpty()) {
+            fail(report(budget, recording, overruns));
+        }
+    }
+
+    /**
+     * @param budget the declared budget
+     * @param recording the statements the test ran
+     * @return one line per exceeded limit, empty when within budget
+     */
+    static List<String> overruns(SqlBudget budget, SqlStatementCounter.Recording recording) {
+        List<String> overruns = new ArrayList<>();
+        check(overruns, "statements", budget.statements(),
+                recording.total() - recording.count(StatementType.SEQUENCE));
+        check(overruns, "selects", budget.selects(), recording.count(StatementType.SELECT));
+        check(overruns, "inserts", budget.inserts(), recording.count(StatementType.INSERT));
+        check(overruns, "updates", budget.updates(), recording.count(StatementType.UPDATE));
+        check(overruns, "deletes", budget.deletes(), recording.count(StatementType.DELETE));
+        check(overruns, "sequences", budget.sequences(), recording.count(StatementType.SEQUENCE));
+        return overruns;
+    }
+
+    private static void check(List<String> overruns, String kind, int limit, int actual) {
+        if (limit != SqlBudget.UNLIMITED && actual > limit) {
+            overruns.add(kind + " " + actual + " > " + limit);
+        }
+    }
+
+    private static String report(SqlBudget budget, SqlStatementCounter.Recording recording, List<String> overruns) {
+        StringBuilder report = new StringBuilder(budget.operation())
+                .append(" exceeded its SQL budget: ").append(String.join(", ", overruns))
+                .append(". Statements by type: ").append(recording.byType());
+        List<String> statements = recording.statements();
+        for (int i = 0; i < statements.size(); i++) {
+            report.append(System.lineSeparator()).append("  ").append(i + 1).append(". ")
+                    .append(statements.get(i).replaceAll("\\s+", " ").strip());
+        }
+        return report.toString();
+    }
+}
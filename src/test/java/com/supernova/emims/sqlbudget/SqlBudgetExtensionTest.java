@@ -0,0 +1,89 @@
+package com.supernova.emims.sqlbudget;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks statement counting through {@link CountingDataSource} and the budget comparison
+ */
+class SqlBudgetExtensionTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new CountingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:sql-budget;MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "")));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS BUDGET_ROWS (ID NUMBER PRIMARY KEY, NAME VARCHAR2(20))");
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS SEQ_BUDGET_ROWS");
+        jdbcTemplate.update("DELETE FROM BUDGET_ROWS");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    void testRecording_CountsRoundTripsByType() {
+        // Given
+        SqlStatementCounter.start();
+
+        // When - a three-row batch is one round trip
+        jdbcTemplate.batchUpdate("INSERT INTO BUDGET_ROWS VALUES (?, ?)",
+                List.of(new Object[] {1, "a"}, new Object[] {2, "b"}, new Object[] {3, "c"}));
+        jdbcTemplate.update("/* rename */ UPDATE BUDGET_ROWS SET NAME = 'z' WHERE ID = 1");
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BUDGET_ROWS", Integer.class);
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR SEQ_BUDGET_ROWS", Long.class);
+        jdbcTemplate.update("DELETE FROM BUDGET_ROWS WHERE ID = 3");
+        SqlStatementCounter.Recording recording = SqlStatementCounter.stop();
+
+        // Then
+        assertEquals(5, recording.total());
+        assertEquals(1, recording.count(StatementType.INSERT));
+        assertEquals(1, recording.count(StatementType.UPDATE));
+        assertEquals(1, recording.count(StatementType.SELECT));
+        assertEquals(1, recording.count(StatementType.SEQUENCE));
+        assertEquals(1, recording.count(StatementType.DELETE));
+    }
+
+    @Test
+    void testRecording_IgnoresStatementsOutsideARecording() {
+        // When
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BUDGET_ROWS", Integer.class);
+
+        // Then
+        assertEquals(0, SqlStatementCounter.stop().total());
+    }
+
+    @Test
+    void testOverruns_ReportsEachExceededLimit() throws NoSuchMethodException {
+        // Given
+        SqlBudget budget = Budgeted.class.getDeclaredMethod("twoSelects").getAnnotation(SqlBudget.class);
+        SqlStatementCounter.start();
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BUDGET_ROWS", Integer.class);
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM BUDGET_ROWS WHERE ID > 1", Integer.class);
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR SEQ_BUDGET_ROWS", Long.class);
+        jdbcTemplate.update("INSERT INTO BUDGET_ROWS VALUES (9, 'x')");
+
+        // When
+        List<String> overruns = SqlBudgetExtension.overruns(budget, SqlStatementCounter.stop());
+
+        // Then - the sequence fetch does not count towards statements
+        assertEquals(List.of("statements 3 > 2", "inserts 1 > 0"), overruns);
+    }
+
+    private static final class Budgeted {
+
+        @SqlBudget(operation = "twoSelects", statements = 2, inserts = 0)
+        void twoSelects() {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.supernova.emims.sqlbudget;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records the SQL statements sent through {@link CountingDataSource} while a recording is running
+ * The recording is global rather than per thread, so statements run by executor threads on behalf
+ * of the operation are counted too; tests run one at a time
+ */
+public final class SqlStatementCounter {
+
+    private static volatile Recording current;
+    private static volatile boolean paused;
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Start a new recording, discarding any running one
+     */
+    public static void start() {
+        paused = false;
+        current = new Recording();
+    }
+
+    /**
+     * Stop counting but keep the recording, e.g. before a test checks its outcome in the database
+     */
+    public static void pause() {
+        paused = true;
+    }
+
+    /**
+     * Stop recording
+     * @return the statements recorded since {@link #start()}, empty if none was running
+     */
+    public static Recording stop() {
+        Recording recording = current;
+        current = null;
+        return recording != null ? recording : new Recording();
+    }
+
+    /**
+     * Record one round trip, if a recording is running
+     * @param sql the statement text
+     */
+    static void record(String sql) {
+        Recording recording = current;
+        if (recording != null && !paused) {
+            recording.statements.add(sql);
+        }
+    }
+
+    /**
+     * Statements recorded between {@link #start()} and {@link #stop()}, in execution order
+     */
+    public static final class Recording {
+
+        private final ConcurrentLinkedQueue<String> statements = new ConcurrentLinkedQueue<>();
+
+        /**
+         * @return round trips of all types; a JDBC batch is one
+         */
+        public int total() {
+            return statements.size();
+        }
+
+        /**
+         * @param type statement type
+         * @return round trips of that type
+         */
+        public int count(StatementType type) {
+            return (int) statements.stream().filter(sql -> StatementType.of(sql) == type).count();
+        }
+
+        /**
+         * @return round trips per statement type, zero counts included
+         */
+        public Map<StatementType, Integer> byType() {
+            Map<StatementType, Integer> counts = new EnumMap<>(StatementType.class);
+            for (StatementType type : StatementType.values()) {
+                counts.put(type, count(type));
+            }
+            return counts;
+        }
+
+        /**
+         * @return the statement texts in execution order
+         */
+        public List<String> statements() {
+            return new ArrayList<>(statements);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.supernova.emims.sqlbudget;
+
+import java.util.Locale;
+
+/**
+ * Kind of SQL statement, from its leading keyword
+ * Sequence fetches are kept apart from queries: Hibernate takes IDs in blocks, so whether an
+ * operation fetches one depends on what ran before it
+ */
+public enum StatementType {
+    SELECT, INSERT, UPDATE, DELETE, SEQUENCE, OTHER;
+
+    /**
+     * @param sql the statement text, possibly starting with comments
+     * @return its type
+     */
+    public static StatementType of(String sql) {
+        String text = stripLeadingComments(sql).toLowerCase(Locale.ROOT);
+        if (text.contains("next value for") || text.contains(".nextval")) {
+            return SEQUENCE;
+        }
+        if (text.startsWith("select") || text.startsWith("with")) {
+            return SELECT;
+        }
+        if (text.startsWith("insert")) {
+            return INSERT;
+        }
+        if (text.startsWith("update") || text.startsWith("merge")) {
+            return UPDATE;
+        }
+        if (text.startsWith("delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+
+    private static String stripLeadingComments(String sql) {
+        String text = sql.strip();
+        while (text.startsWith("/*") && text.contains("*/")) {
+            text = text.substring(text.indexOf("*/") + 2).strip();
+        }
+        while (text.startsWith("--")) {
+            int lineEnd = text.indexOf('\n');
+            text = lineEnd < 0 ? "" : text.substring(lineEnd + 1).strip();
+        }
+        return text;
+    }
+}
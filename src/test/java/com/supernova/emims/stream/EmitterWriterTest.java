@@ -0,0 +1,103 @@
+package com.supernova.emims.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmitterWriter
+ * A manual executor stands in for the writer threads, so the tests decide when writes happen
+ */
+class EmitterWriterTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final List<Integer> written = new ArrayList<>();
+    private final ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+
+    @Test
+    void testOffer_ProducerNeverWritesAndItemsKeepTheirOrder() {
+        // Given
+        List<Integer> acknowledged = new ArrayList<>();
+        EmitterWriter<Integer> writer = new EmitterWriter<>(emitter, (target, item) -> written.add(item), executor,
+                3, acknowledged::add);
+
+        // When
+        assertTrue(writer.offer(1));
+        assertTrue(writer.offer(2));
+
+        // Then - nothing is written on the producing thread
+        assertTrue(written.isEmpty());
+        runTasks();
+        assertEquals(List.of(1, 2), written);
+        assertEquals(List.of(1, 2), acknowledged);
+    }
+
+    @Test
+    void testOffer_FullQueueRefusesItems() {
+        // Given
+        EmitterWriter<Integer> writer = new EmitterWriter<>(emitter, (target, item) -> written.add(item), executor,
+                2, null);
+
+        // When
+        boolean first = writer.offer(1);
+        boolean second = writer.offer(2);
+        boolean third = writer.offer(3);
+
+        // Then
+        assertTrue(first && second);
+        assertFalse(third);
+        assertEquals(0, writer.remainingCapacity());
+        runTasks();
+        assertEquals(List.of(1, 2), written);
+        assertEquals(2, writer.remainingCapacity());
+    }
+
+    @Test
+    void testWhenDrained_RunsAfterQueuedItems() {
+        // Given
+        EmitterWriter<Integer> writer = new EmitterWriter<>(emitter, (target, item) -> written.add(item), executor,
+                5, null);
+        writer.offer(1);
+        writer.offer(2);
+        List<Integer> seenWhenDrained = new ArrayList<>();
+
+        // When
+        writer.whenDrained(() -> seenWhenDrained.addAll(written));
+        runTasks();
+
+        // Then
+        assertEquals(List.of(1, 2), seenWhenDrained);
+    }
+
+    @Test
+    void testWriteFailure_ClosesWriter() {
+        // Given
+        EmitterWriter<Integer> writer = new EmitterWriter<>(emitter, (target, item) -> {
+            throw new IOException("Broken pipe");
+        }, executor, 5, null);
+
+        // When
+        writer.offer(1);
+        runTasks();
+
+        // Then
+        assertTrue(writer.isClosed());
+        assertFalse(writer.offer(2));
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
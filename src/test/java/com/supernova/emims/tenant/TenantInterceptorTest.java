@@ -0,0 +1,90 @@
+package com.supernova.emims.tenant;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for tenant resolution and per-tenant request metrics
+ */
+class TenantInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TenantInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new TenantInterceptor(new TenantRegistry("90001, BR42"), meterRegistry);
+        request = new MockHttpServletRequest("GET", "/api/emi/calculate/LOAN001");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.restore(null);
+    }
+
+    @Test
+    void testPreHandle_HeaderSelectsTenantForTheRequest() throws Exception {
+        // Given
+        request.addHeader(TenantInterceptor.TENANT_HEADER, "BR42");
+
+        // When
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+        String during = TenantContext.current();
+        response.setStatus(200);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertEquals("BR42", during);
+        assertTrue(TenantContext.isBase());
+        Timer timer = meterRegistry.get("emi.tenant.requests").tag("tenant", "BR42").tag("outcome", "2xx").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testPreHandle_NoHeaderUsesBaseTenant() throws Exception {
+        // When
+        assertTrue(interceptor.preHandle(request, response, new Object()));
+
+        // Then
+        assertEquals(TenantContext.BASE_TENANT, TenantContext.current());
+        response.setStatus(500);
+        interceptor.afterCompletion(request, response, new Object(), new IllegalStateException("boom"));
+        assertEquals(1, meterRegistry.get("emi.tenant.requests").tag("tenant", TenantContext.BASE_TENANT)
+                .tag("outcome", "5xx").timer().count());
+    }
+
+    @Test
+    void testPreHandle_UnknownTenantRejected() throws Exception {
+        // Given
+        request.addHeader(TenantInterceptor.TENANT_HEADER, "99999");
+
+        // When
+        boolean proceed = interceptor.preHandle(request, response, new Object());
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Unknown tenant: 99999"));
+        assertTrue(TenantContext.isBase());
+    }
+
+    @Test
+    void testRegistry_RejectsCodesThatCannotBeTableSuffixes() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new TenantRegistry("90001,BR-42"));
+        assertEquals(List.of(TenantContext.BASE_TENANT, "90001"), new TenantRegistry(" 90001 ,").codes());
+    }
+}
@@ -0,0 +1,111 @@
+package com.supernova.emims.tenant;
+
+import com.supernova.emims.dao.impl.PaymentPostingTestConfig;
+import com.supernova.emims.dto.ReceiptView;
+import com.supernova.emims.entity.LmsReceiptPaymentDtl17557;
+import com.supernova.emims.service.EmiManagementService;
+import com.supernova.emims.service.EmiManagementService.EmiDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the EMI management service for two tenants against H2
+ * Both tenants hold an account with the same number; each must only ever see and change its own rows
+ */
+@SpringJUnitConfig(PaymentPostingTestConfig.class)
+class TenantTableDataSourceTest {
+
+    private static final String OTHER = PaymentPostingTestConfig.OTHER_TENANT;
+
+    @Autowired
+    private EmiManagementService emiManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUpAccounts() {
+        for (String tenant : List.of(TenantContext.BASE_TENANT, OTHER)) {
+            jdbcTemplate.update("DELETE FROM LMS_RECEIVABLEPAYBLE_DTL_" + tenant);
+            jdbcTemplate.update("DELETE FROM LMS_RECEIPT_PAYMENT_DTL_" + tenant);
+            jdbcTemplate.update("DELETE FROM LMS_ALLOCATION_DTL_" + tenant + "_");
+            jdbcTemplate.update("DELETE FROM LMS_PAYMENT_OUTBOX_" + tenant);
+        }
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_17557 (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(1, 'SHARED1', 1000.00, 0.00, 1000.00, DATE '2026-10-05', 202610)");
+        jdbcTemplate.update("INSERT INTO LMS_RECEIVABLEPAYBLE_DTL_" + OTHER + " (RECEIVABLE_ID, LOAN_ACCOUNT_NO, "
+                + "PENDING_EMI_AMOUNT, PENALTY_CHARGES, TOTAL_AMOUNT, CREATED_DATE, EMI_CYCLE) VALUES "
+                + "(1, 'SHARED1', 2500.00, 0.00, 2500.00, DATE '2026-10-05', 202610)");
+    }
+
+    @Test
+    void testRewrite_OnlyTableSuffixesChange() {
+        // Given
+        String sql = "SELECT a.ALLOCATION_ID FROM LMS_ALLOCATION_DTL_17557_ a JOIN LMS_RECEIPT_PAYMENT_DTL_17557 r "
+                + "ON r.RECEIPT_ID = a.RECEIPT_ID WHERE a.RECEIPT_ID = 17557 AND r.RECEIPT_ID <> ?";
+
+        // When
+        String rewritten = TenantTableDataSource.rewrite(sql, "BR42");
+
+        // Then
+        assertEquals("SELECT a.ALLOCATION_ID FROM LMS_ALLOCATION_DTL_BR42_ a JOIN LMS_RECEIPT_PAYMENT_DTL_BR42 r "
+                + "ON r.RECEIPT_ID = a.RECEIPT_ID WHERE a.RECEIPT_ID = 17557 AND r.RECEIPT_ID <> ?", rewritten);
+        assertSame(sql, TenantTableDataSource.rewrite(sql, TenantContext.BASE_TENANT));
+    }
+
+    @Test
+    void testReads_EachTenantSeesItsOwnRows() {
+        // When
+        EmiDetails base = emiManagementService.calculateEmiDetails("SHARED1");
+        EmiDetails other = TenantContext.callWith(OTHER, () -> emiManagementService.calculateEmiDetails("SHARED1"));
+
+        // Then
+        assertEquals(0, new BigDecimal("1000.00").compareTo(base.getPendingEmiAmount()));
+        assertEquals(0, new BigDecimal("2500.00").compareTo(other.getPendingEmiAmount()));
+    }
+
+    @Test
+    void testProcessPayment_WritesOnlyTheTenantsTables() {
+        // When
+        LmsReceiptPaymentDtl17557 receipt = TenantContext.callWith(OTHER,
+                () -> emiManagementService.processPayment("SHARED1", new BigDecimal("400.00"), "Cash"));
+        List<ReceiptView> otherHistory = TenantContext.callWith(OTHER,
+                () -> emiManagementService.getPaymentHistory("SHARED1"));
+
+        // Then
+        assertEquals(1, count("LMS_RECEIPT_PAYMENT_DTL_" + OTHER));
+        assertEquals(0, count("LMS_RECEIPT_PAYMENT_DTL_17557"));
+        assertEquals(0, count("LMS_ALLOCATION_DTL_17557_"));
+        assertEquals(1, count("LMS_PAYMENT_OUTBOX_" + OTHER));
+        assertEquals(0, new BigDecimal("2100.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT TOTAL_AMOUNT FROM LMS_RECEIVABLEPAYBLE_DTL_" + OTHER + " WHERE RECEIVABLE_ID = 1",
+                BigDecimal.class)));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT TOTAL_AMOUNT FROM LMS_RECEIVABLEPAYBLE_DTL_17557 WHERE RECEIVABLE_ID = 1", BigDecimal.class)));
+        assertEquals(List.of(receipt.getReceiptId()), otherHistory.stream().map(ReceiptView::receiptId).toList());
+        assertTrue(emiManagementService.getPaymentHistory("SHARED1").isEmpty());
+    }
+
+    @Test
+    void testJdbcTemplate_PlainStatementsAreRewritten() {
+        // When
+        Integer otherRows = TenantContext.callWith(OTHER, () -> jdbcTemplate.queryForObject(
+                "SELECT SUM(PENDING_EMI_AMOUNT) FROM LMS_RECEIVABLEPAYBLE_DTL_17557", Integer.class));
+
+        // Then
+        assertEquals(2500, otherRows);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
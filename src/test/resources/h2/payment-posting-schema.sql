@@ -0,0 +1,70 @@
+-- H2 (Oracle mode) subset of ddl-scripts.sql used by the payment posting, reversal and cycle DAO tests
+CREATE SEQUENCE SEQ_RECEIPT_ID START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_ALLOCATION_ID START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE SEQ_OUTBOX_ID_17557 START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE SEQ_RECEIVABLE_ID START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE LMS_RECEIVABLEPAYBLE_DTL_17557 (
+    RECEIVABLE_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    PENDING_EMI_AMOUNT NUMBER(10,2) NOT NULL,
+    PENALTY_CHARGES NUMBER(10,2) NOT NULL,
+    TOTAL_AMOUNT NUMBER(10,2) NOT NULL,
+    CREATED_DATE DATE NOT NULL,
+    VERSION NUMBER(19) DEFAULT 0 NOT NULL,
+    INSTALLMENT_AMOUNT NUMBER(10,2),
+    EMI_CYCLE NUMBER(6),
+    REMAINING_INSTALLMENTS NUMBER(4),
+    PENALTY_ACCRUED_DATE DATE,
+    OPEN_LOAN_ACCOUNT_NO VARCHAR2(20) GENERATED ALWAYS AS (
+        CASE WHEN PENDING_EMI_AMOUNT > 0 OR PENALTY_CHARGES > 0 THEN LOAN_ACCOUNT_NO END)
+);
+
+CREATE UNIQUE INDEX UX_RECEIVABLE_ACC_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557 (LOAN_ACCOUNT_NO, EMI_CYCLE);
+CREATE INDEX IDX_RECEIVABLE_CYCLE ON LMS_RECEIVABLEPAYBLE_DTL_17557 (EMI_CYCLE, LOAN_ACCOUNT_NO);
+
+CREATE TABLE LMS_EMI_CYCLE_CHECKPOINT_17557 (
+    EMI_CYCLE NUMBER(6) NOT NULL,
+    PARTITION_NO NUMBER(4) NOT NULL,
+    PARTITION_COUNT NUMBER(4) NOT NULL,
+    LAST_LOAN_ACCOUNT_NO VARCHAR2(20),
+    ROWS_INSERTED NUMBER(12) DEFAULT 0 NOT NULL,
+    COMPLETED_DATE TIMESTAMP,
+    UPDATED_DATE TIMESTAMP NOT NULL,
+    CONSTRAINT PK_EMI_CYCLE_CHECKPOINT PRIMARY KEY (EMI_CYCLE, PARTITION_NO)
+);
+
+CREATE TABLE LMS_RECEIPT_PAYMENT_DTL_17557 (
+    RECEIPT_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    PAYMENT_AMOUNT NUMBER(10,2) NOT NULL,
+    PAYMENT_MODE VARCHAR2(20) NOT NULL
+        CHECK (PAYMENT_MODE IN ('Cash', 'Cheque', 'Online', 'Card', 'UPI', 'NEFT', 'RTGS')),
+    PAYMENT_DATE DATE NOT NULL,
+    REVERSED_DATE TIMESTAMP
+);
+
+CREATE TABLE LMS_ALLOCATION_DTL_17557_ (
+    ALLOCATION_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    ALLOCATED_TO VARCHAR2(20) NOT NULL CHECK (ALLOCATED_TO IN ('Penalty', 'EMI')),
+    ALLOCATED_AMOUNT NUMBER(10,2) NOT NULL,
+    ALLOCATION_DATE DATE NOT NULL,
+    RECEIVABLE_ID NUMBER,
+    RECEIPT_ID NUMBER,
+    REVERSED_ALLOCATION_ID NUMBER,
+    CONSTRAINT CHK_ALLOCATED_SIGN CHECK (
+        (REVERSED_ALLOCATION_ID IS NULL AND ALLOCATED_AMOUNT > 0)
+        OR (REVERSED_ALLOCATION_ID IS NOT NULL AND ALLOCATED_AMOUNT < 0))
+);
+
+CREATE INDEX IDX_ALLOCATION_RECEIPT ON LMS_ALLOCATION_DTL_17557_ (RECEIPT_ID);
+CREATE UNIQUE INDEX UX_ALLOCATION_REVERSED ON LMS_ALLOCATION_DTL_17557_ (REVERSED_ALLOCATION_ID);
+
+CREATE TABLE LMS_PAYMENT_OUTBOX_17557 (
+    OUTBOX_ID NUMBER PRIMARY KEY,
+    LOAN_ACCOUNT_NO VARCHAR2(20) NOT NULL,
+    EVENT_TYPE VARCHAR2(30) NOT NULL,
+    PAYLOAD CLOB NOT NULL,
+    CREATED_DATE TIMESTAMP NOT NULL
+);